@@ -0,0 +1,82 @@
+package com.example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.http.ResponseCompressor;
+import com.example.metrics.MetricsRegistry;
+import com.example.priming.Priming;
+import com.example.priming.SyntheticContext;
+import com.example.ratelimit.Bulkheads;
+import com.example.ratelimit.RateLimitPolicy;
+import com.example.ratelimit.RouteClass;
+import com.example.ratelimit.TenantRateLimiter;
+import com.example.store.UserStore;
+import com.example.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdminUsersHandlerのルーティングを含む1リクエスト全体の計測
+ *
+ * <p>レート制限・メトリクス・構造化ログの出力を含めて、ルートごとに
+ * {@code handleRequest} を計測します。レート制限は拒否されない上限を設定し、
+ * ログとEMFは破棄するコンテキストに出力します。作成の計測でストアが際限なく
+ * 大きくならないよう、ユーザーストアはイテレーションごとに作り直します。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="AdminUsersHandlerBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdminUsersHandlerBenchmark {
+
+    /** {@link Priming#adminRequests} の並び順に対応するルート名 */
+    private static final List<String> ROUTES =
+            List.of("list", "get", "create", "createInvalid", "put", "patch", "delete", "import", "export", "batch", "multiGet", "changes", "delta");
+
+    @Param({"list", "get", "create", "createInvalid", "put", "patch", "delete", "import", "export", "batch", "multiGet", "changes", "delta"})
+    public String route;
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private AdminUsersHandler handler;
+    private APIGatewayProxyRequestEvent request;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        UserStore store = new UserStore();
+        store.seedSampleUsers();
+        RateLimitPolicy unlimited = new RateLimitPolicy(1e9, 1_000_000);
+        TenantRateLimiter limiter = new TenantRateLimiter(
+                Map.of(RouteClass.LIST, unlimited, RouteClass.WRITE, unlimited), System::nanoTime, 1_000);
+        handler = new AdminUsersHandler(new AdminUsersHandler.Dependencies(limiter,
+                new MetricsRegistry("Benchmark", System::currentTimeMillis), Tracer.disabled(),
+                ResponseCompressor.disabled(), store, Bulkheads.withDefaults()));
+        request = Priming.adminRequests("org-abc").get(ROUTES.indexOf(route));
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent handleRequest() {
+        return handler.handleRequest(request, context);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.json.JsonCodecs;
+import com.example.model.TokenResponse;
+import com.example.priming.Priming;
+import com.example.priming.SyntheticContext;
+import com.example.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * トークン発行（AuthHandler）と検証・ポリシー生成（AuthorizerHandler）の計測
+ *
+ * <ul>
+ * <li>issueToken - HMAC-SHA256によるJWTの署名とレスポンスの生成</li>
+ * <li>authorizeValid - 署名・有効期限の検証とAllowポリシーの生成</li>
+ * <li>authorizeInvalidSignature - 署名の不一致によるDeny（例外経路）</li>
+ * <li>authorizeMissingBearer - 検証前に拒否されるDeny</li>
+ * <li>protectedHello - Authorizerのコンテキストを読み取る保護されたエンドポイント（ProtectedHandler）</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private AuthHandler authHandler;
+    private AuthorizerHandler authorizerHandler;
+    private ProtectedHandler protectedHandler;
+    private APIGatewayProxyRequestEvent tokenRequest;
+    private APIGatewayCustomAuthorizerEvent validToken;
+    private APIGatewayCustomAuthorizerEvent invalidSignature;
+    private APIGatewayCustomAuthorizerEvent missingBearer;
+    private APIGatewayProxyRequestEvent helloRequest;
+
+    @Setup
+    public void setUp() {
+        authHandler = new AuthHandler();
+        authorizerHandler = new AuthorizerHandler(Tracer.disabled());
+        tokenRequest = Priming.tokenRequest();
+
+        APIGatewayProxyResponseEvent issued = authHandler.handleRequest(tokenRequest, context);
+        String token = JsonCodecs.fromJson(issued.getBody(), TokenResponse.class).token();
+        validToken = Priming.authorizerEvent("Bearer " + token);
+        invalidSignature = Priming.authorizerEvent("Bearer " + token.substring(0, token.length() - 2) + "xx");
+        missingBearer = Priming.authorizerEvent(token);
+
+        protectedHandler = new ProtectedHandler();
+        helloRequest = Priming.adminRequests("org-abc").get(0);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent issueToken() {
+        return authHandler.handleRequest(tokenRequest, context);
+    }
+
+    @Benchmark
+    public Map<String, Object> authorizeValid() {
+        return authorizerHandler.handleRequest(validToken, context);
+    }
+
+    @Benchmark
+    public Map<String, Object> authorizeInvalidSignature() {
+        return authorizerHandler.handleRequest(invalidSignature, context);
+    }
+
+    @Benchmark
+    public Map<String, Object> authorizeMissingBearer() {
+        return authorizerHandler.handleRequest(missingBearer, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent protectedHello() {
+        return protectedHandler.handleRequest(helloRequest, context);
+    }
+}
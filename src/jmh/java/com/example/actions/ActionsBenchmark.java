@@ -0,0 +1,100 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.id.UserIdGenerator;
+import com.example.logging.StructuredLogger;
+import com.example.priming.SyntheticContext;
+import com.example.store.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各アクションのレスポンス生成の計測
+ *
+ * <p>ルーティングやレート制限を含まない、アクション単体の {@code execute} を計測します。
+ * アクションが記録した構造化ログは、ハンドラーと同様に毎回破棄するコンテキストへ出力します。
+ * 作成の計測でストアが際限なく大きくならないよう、ストアはイテレーションごとに作り直します。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ActionsBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionsBenchmark {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+    private static final String USER_ID = "user-001";
+    private static final String USER_BODY = "{\"name\":\"Taro Yamada\",\"email\":\"taro@example.com\",\"role\":\"editor\"}";
+    private static final String PATCH_BODY = "{\"role\":\"viewer\"}";
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private ListUsersAction listUsers;
+    private GetUserAction getUser;
+    private CreateUserAction createUser;
+    private UpdateUserAction updateUser;
+    private PatchUserAction patchUser;
+    private DeleteUserAction deleteUser;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        UserStore store = new UserStore();
+        store.seedSampleUsers();
+        listUsers = new ListUsersAction(store);
+        getUser = new GetUserAction(store);
+        createUser = new CreateUserAction(UserIdGenerator.getDefault(), store);
+        updateUser = new UpdateUserAction(store);
+        patchUser = new PatchUserAction(store);
+        deleteUser = new DeleteUserAction(store);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent listUsers() {
+        APIGatewayProxyResponseEvent response = listUsers.execute(PRINCIPAL, context);
+        StructuredLogger.flush(context);
+        return response;
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getUser() {
+        return getUser.execute(PRINCIPAL, USER_ID, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent createUser() {
+        return createUser.execute(PRINCIPAL, USER_BODY, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent updateUser() {
+        return updateUser.execute(PRINCIPAL, USER_ID, USER_BODY, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent patchUser() {
+        return patchUser.execute(PRINCIPAL, USER_ID, PATCH_BODY, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent deleteUser() {
+        return deleteUser.execute(PRINCIPAL, USER_ID, context);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.priming.SyntheticContext;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100件の部分更新を単体のアクションで1件ずつ実行した場合と、一括更新で実行した場合の比較
+ *
+ * <p>API Gatewayの往復は含まないため、実際の差はクライアントから見た
+ * リクエスト数（100回と1回）の分さらに大きくなります。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="BatchUsersBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchUsersBenchmark {
+
+    private static final int OPERATIONS = BatchUsersAction.MAX_OPERATIONS;
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private static final String PATCH_BODY = "{\"role\":\"viewer\"}";
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private UserStore store;
+    private String batchBody;
+
+    @Setup
+    public void setUp() {
+        StringBuilder body = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < OPERATIONS; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"method\":\"PATCH\",\"userId\":\"").append(userId(i)).append("\",\"body\":")
+                    .append(PATCH_BODY).append('}');
+        }
+        batchBody = body.append("]}").toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStore() {
+        store = new UserStore();
+        for (int i = 0; i < OPERATIONS; i++) {
+            store.partition("org-abc").put(new UserRecord(userId(i), "User " + i, null, "editor"));
+        }
+    }
+
+    @Benchmark
+    public void singleRequests(Blackhole blackhole) {
+        PatchUserAction patch = new PatchUserAction(store);
+        for (int i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(patch.execute(PRINCIPAL, userId(i), PATCH_BODY, context));
+        }
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent batchRequest() {
+        return new BatchUsersAction(store).execute(PRINCIPAL, batchBody, context);
+    }
+
+    private static String userId(int i) {
+        return String.format("user-%03d", i);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.priming.SyntheticContext;
+import com.example.store.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1,000,000行のNDJSONの一括取り込み・エクスポートの計測
+ *
+ * <p>1回の呼び出しで全行を処理し、1行あたりの時間を出力します（毎秒の行数は
+ * {@code 1e9 / スコア}）。取り込みは毎回空のストアに対して行い、エクスポートは
+ * {@code X-Next-Cursor} をたどって全ページを取得します。各イテレーションの
+ * ヒープ使用量のピークを標準出力に表示します。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="BulkUsersBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BulkUsersBenchmark.ROWS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BulkUsersBenchmark {
+
+    static final int ROWS = 1_000_000;
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private String ndjson;
+    private UserStore importStore;
+    private UserStore exportStore;
+
+    @Setup
+    public void setUp() {
+        StringBuilder body = new StringBuilder(ROWS * 90);
+        for (int i = 0; i < ROWS; i++) {
+            body.append(String.format(
+                    "{\"userId\":\"user-%07d\",\"name\":\"User %d\",\"email\":\"user%d@example.com\",\"role\":\"editor\"}%n",
+                    i, i, i));
+        }
+        ndjson = body.toString();
+        exportStore = new UserStore();
+        new ImportUsersAction(exportStore).execute(PRINCIPAL, ndjson, context);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIteration() {
+        importStore = new UserStore();
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("  peak heap: %d MB%n", peak / (1024 * 1024));
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent importUsers() {
+        return new ImportUsersAction(importStore).execute(PRINCIPAL, ndjson, context);
+    }
+
+    @Benchmark
+    public long exportUsers() {
+        ExportUsersAction export = new ExportUsersAction(exportStore);
+        long chars = 0;
+        String cursor = null;
+        do {
+            APIGatewayProxyResponseEvent page = export.execute(PRINCIPAL, cursor, null, context);
+            chars += page.getBody().length();
+            cursor = page.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return chars;
+    }
+}
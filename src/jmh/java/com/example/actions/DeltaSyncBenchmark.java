@@ -0,0 +1,88 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.priming.SyntheticContext;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 前回の同期以降に10人だけ変更された組織で、全件を取り直した場合と差分同期の比較
+ *
+ * <p>全件の取り直しは組織のユーザー数に比例し、差分同期は変更されたユーザー数に比例します。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DeltaSyncBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaSyncBenchmark {
+
+    private static final Principal PRINCIPAL = new Principal("user-000000", "admin", "org-abc");
+
+    private static final int CHANGED_USERS = 10;
+
+    @Param({"1000", "100000"})
+    int users;
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private UserStore store;
+    private String watermark;
+
+    @Setup
+    public void setUp() {
+        store = new UserStore();
+        UserPartition partition = store.partition("org-abc");
+        List<UserRecord> records = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            records.add(new UserRecord(String.format("user-%06d", i), "User " + i, "user" + i + "@example.com", "viewer"));
+        }
+        partition.putAll(records);
+        watermark = Long.toString(partition.watermark());
+        for (int i = 0; i < CHANGED_USERS; i++) {
+            partition.update(String.format("user-%06d", i * (users / CHANGED_USERS)),
+                    current -> new UserRecord(current.userId(), current.name(), current.email(), "editor"));
+        }
+    }
+
+    @Benchmark
+    public void fullResync(Blackhole blackhole) {
+        ExportUsersAction export = new ExportUsersAction(store);
+        String cursor = null;
+        do {
+            APIGatewayProxyResponseEvent page =
+                    export.execute(PRINCIPAL, cursor, Integer.toString(ExportUsersAction.MAX_PAGE_SIZE), context);
+            blackhole.consume(page.getBody());
+            cursor = page.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent deltaSync() {
+        return new ListUsersAction(store).execute(PRINCIPAL, watermark, null, context);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.priming.SyntheticContext;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ダッシュボードの1ページ分のユーザーを、単体の取得で1件ずつ取得した場合と、
+ * 複数ユーザー取得で1回で取得した場合の比較
+ *
+ * <p>API Gatewayの往復は含まないため、実際の差はクライアントから見た
+ * リクエスト数（{@code ids} 回と1回）の分さらに大きくなります。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="MultiGetUsersBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiGetUsersBenchmark {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    @Param({"50", "200"})
+    int ids;
+
+    private final Context context = new SyntheticContext("benchmark");
+
+    private UserStore store;
+    private String[] userIds;
+    private String idsParameter;
+
+    @Setup
+    public void setUp() {
+        store = new UserStore();
+        userIds = new String[ids];
+        for (int i = 0; i < ids; i++) {
+            userIds[i] = String.format("user-%03d", i);
+            store.partition("org-abc").put(new UserRecord(userIds[i], "User " + i, "user" + i + "@example.com", "editor"));
+        }
+        idsParameter = String.join(",", userIds);
+    }
+
+    @Benchmark
+    public void sequentialGets(Blackhole blackhole) {
+        GetUserAction get = new GetUserAction(store);
+        for (String userId : userIds) {
+            blackhole.consume(get.execute(PRINCIPAL, userId, context));
+        }
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent multiGet() {
+        return new MultiGetUsersAction(store).execute(PRINCIPAL, idsParameter, context);
+    }
+}
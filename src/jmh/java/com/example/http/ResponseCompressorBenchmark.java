@@ -0,0 +1,91 @@
+package com.example.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.json.JsonCodecs;
+import com.example.model.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一覧レスポンスのgzip圧縮にかかるCPU時間と削減されるバイト数の計測
+ *
+ * <p>ユーザー数と圧縮レベルごとに {@link ResponseCompressor#compress} の処理時間を計測します。
+ * 削減されるバイト数は {@code @Setup} で1回圧縮して標準出力に表示します
+ * （{@code raw} はUTF-8のボディ、{@code gzip} はクライアントに届くサイズ、
+ * {@code base64} はLambdaのレスポンスペイロードとしてのサイズ）。</p>
+ *
+ * <ul>
+ * <li>serialize - 比較用の一覧のJSON生成のみ</li>
+ * <li>serializeAndCompress - JSON生成と圧縮</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ResponseCompressorBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int users;
+
+    @Param({"1", "6"})
+    public int level;
+
+    private final APIGatewayProxyRequestEvent request =
+            new APIGatewayProxyRequestEvent()
+                    .withHeaders(Map.of("Accept", "application/json", "Accept-Encoding", "gzip, deflate, br"));
+
+    private List<UserResponse> list;
+    private ResponseCompressor compressor;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            list.add(new UserResponse("user-01JAB3Q8ZK7W9N2M4R6T8V" + String.format("%04d", i),
+                    "User " + i, "user" + i + "@example.com", (i % 3 == 0) ? "admin" : "editor"));
+        }
+        compressor = new ResponseCompressor(ResponseCompressor.DEFAULT_MIN_BYTES, level);
+
+        String body = JsonCodecs.toJsonArray(list, UserResponse.class);
+        APIGatewayProxyResponseEvent compressed = compressor.compress(request, ApiResponses.json(200, body));
+        int raw = body.getBytes(StandardCharsets.UTF_8).length;
+        boolean encoded = Boolean.TRUE.equals(compressed.getIsBase64Encoded());
+        System.out.printf("%nusers=%d level=%d raw=%d gzip=%d base64=%d%n", users, level, raw,
+                encoded ? Base64.getDecoder().decode(compressed.getBody()).length : raw,
+                compressed.getBody().length());
+    }
+
+    @Benchmark
+    public String serialize() {
+        return JsonCodecs.toJsonArray(list, UserResponse.class);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent serializeAndCompress() {
+        return compressor.compress(request, ApiResponses.json(200, JsonCodecs.toJsonArray(list, UserResponse.class)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserIdGeneratorのスループット計測
+ *
+ * <p>1スレッド（1コア相当）と全コアでの秒間生成数を計測します。
+ * 全コアの結果をスレッド数で割るとコアあたりの生成数になります。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserIdGeneratorBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserIdGeneratorBenchmark {
+
+    private final UserIdGenerator generator = new UserIdGenerator(System::currentTimeMillis, 0x5DEECE66DL);
+
+    @Benchmark
+    @Threads(1)
+    public String singleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String allCores() {
+        return generator.nextId();
+    }
+}
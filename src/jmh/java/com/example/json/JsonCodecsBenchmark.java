@@ -0,0 +1,85 @@
+package com.example.json;
+
+import com.example.model.UserResponse;
+import com.example.model.UserStatusResponse;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonCodecsと既存のシリアライズ方式の比較
+ *
+ * <ul>
+ * <li>codecs - 登録済みの手書きTypeAdapter</li>
+ * <li>reflectiveGson - 共有インスタンスのデフォルト（リフレクション）Gson</li>
+ * <li>gsonPerRequest - 旧AuthHandlerのようにリクエストごとに生成したGson</li>
+ * <li>stringFormat - 旧アクションの {@code String.format}（エスケープなし）</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="JsonCodecsBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecsBenchmark {
+
+    private static final Gson SHARED_GSON = new Gson();
+
+    private final UserStatusResponse status = new UserStatusResponse("user-01JAB3Q8ZK7W9N2M4R6T8V0X1Y", "updated");
+    private List<UserResponse> users;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(new UserResponse("user-" + i, "User " + i, "user" + i + "@example.com", "editor"));
+        }
+    }
+
+    @Benchmark
+    public String statusCodecs() {
+        return JsonCodecs.toJson(status);
+    }
+
+    @Benchmark
+    public String statusReflectiveGson() {
+        return SHARED_GSON.toJson(status);
+    }
+
+    @Benchmark
+    public String statusGsonPerRequest() {
+        return new Gson().toJson(status);
+    }
+
+    @Benchmark
+    public String statusStringFormat() {
+        return String.format("{\"userId\":\"%s\", \"status\":\"%s\"}", status.userId(), status.status());
+    }
+
+    @Benchmark
+    public String list100Codecs() {
+        return JsonCodecs.toJsonArray(users, UserResponse.class);
+    }
+
+    @Benchmark
+    public String list100ReflectiveGson() {
+        return SHARED_GSON.toJson(users);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.logging;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * リクエスト1回あたりのログ出力コストの計測
+ *
+ * <p>{@code concatenated} は従来の {@code ListUsersAction} と同じく3行を文字列連結で出力する比較対象です。
+ * {@code structured} は同じ3行を構造化ログで記録してフラッシュし、
+ * {@code belowLevel} は出力レベル未満で破棄される場合です。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="StructuredLoggerBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructuredLoggerBenchmark {
+
+    private StructuredLogger info;
+    private StructuredLogger warnOnly;
+    private LambdaLogger logger;
+    private Context context;
+    private int userCount;
+    private int statusCode;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        info = new StructuredLogger("ListUsersAction", LogLevel.INFO);
+        warnOnly = new StructuredLogger("ListUsersAction", LogLevel.WARN);
+        logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                blackhole.consume(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                blackhole.consume(message);
+            }
+        };
+        context = (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getLogger" -> logger;
+                    case "getAwsRequestId" -> "8f5c2a1e-3b7d-4c9a-9e1f-2d6b8a4c7e90";
+                    default -> null;
+                });
+        userCount = 2;
+        statusCode = 200;
+    }
+
+    @Benchmark
+    public void concatenated() {
+        logger.log("--- ListUsersAction: Processing started ---");
+        logger.log("Successfully retrieved " + userCount + " users.");
+        logger.log("--- ListUsersAction: Processing finished. Status code: " + statusCode + " ---");
+    }
+
+    @Benchmark
+    public void structured() {
+        info.info("list users started");
+        info.info("users retrieved").with("count", userCount);
+        info.info("list users finished").with("statusCode", statusCode);
+        StructuredLogger.flush(context);
+    }
+
+    @Benchmark
+    public void captureOnly() {
+        info.info("list users started");
+        info.info("users retrieved").with("count", userCount);
+        info.info("list users finished").with("statusCode", statusCode);
+        // フラッシュしないため、リングバッファが上書きされ続ける（記録のみのコスト）
+    }
+
+    @Benchmark
+    public void belowLevel() {
+        warnOnly.info("list users started");
+        warnOnly.info("users retrieved").with("count", userCount);
+        warnOnly.info("list users finished").with("statusCode", statusCode);
+        StructuredLogger.flush(context);
+    }
+}
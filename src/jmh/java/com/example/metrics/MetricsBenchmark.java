@@ -0,0 +1,75 @@
+package com.example.metrics;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsRegistryの呼び出し1回あたりのオーバーヘッド計測
+ *
+ * <p>ハンドラーと同じく、1回の記録とEMFのフラッシュを1呼び出し分として計測します。
+ * {@code disabled} はメトリクス無効時の比較対象です。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="MetricsBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private MetricsRegistry enabled;
+    private MetricsRegistry disabled;
+    private LambdaLogger logger;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        enabled = new MetricsRegistry("ApiSample", System::currentTimeMillis);
+        disabled = MetricsRegistry.disabled();
+        logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                blackhole.consume(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                blackhole.consume(message);
+            }
+        };
+    }
+
+    @Benchmark
+    public void recordOnly() {
+        enabled.record("GET /admin/users", 200, "org-abc", 1_234_567);
+    }
+
+    @Benchmark
+    public void recordAndFlush() {
+        enabled.record("GET /admin/users", 200, "org-abc", 1_234_567);
+        enabled.flush(logger);
+    }
+
+    @Benchmark
+    public void disabled() {
+        if (disabled.isEnabled()) {
+            disabled.record("GET /admin/users", 200, "org-abc", 1_234_567);
+        }
+        disabled.flush(logger);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TenantRateLimiterの競合下でのスループット計測
+ *
+ * <p>10,000テナントに対して32スレッドから同時に {@code tryAcquire} を呼び出します。
+ * {@code hotTenant} は全スレッドが同じバケットに集中する最悪ケースです。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TenantRateLimiterBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class TenantRateLimiterBenchmark {
+
+    private static final int TENANTS = 10_000;
+
+    private TenantRateLimiter limiter;
+    private String[] organizationIds;
+
+    @Setup
+    public void setUp() {
+        // 拒否と許可が混在するよう、スループットに対して低めの上限を設定する
+        limiter = new TenantRateLimiter(
+                Map.of(RouteClass.LIST, new RateLimitPolicy(1_000, 100)), System::nanoTime, TENANTS * 2);
+        organizationIds = new String[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            organizationIds[i] = "org-" + i;
+            limiter.tryAcquire(organizationIds[i], RouteClass.LIST);
+        }
+    }
+
+    @Benchmark
+    public long spreadAcrossTenants() {
+        return limiter.tryAcquire(organizationIds[ThreadLocalRandom.current().nextInt(TENANTS)], RouteClass.LIST);
+    }
+
+    @Benchmark
+    public long hotTenant() {
+        return limiter.tryAcquire(organizationIds[0], RouteClass.LIST);
+    }
+
+    @Benchmark
+    public long unlimitedRoute() {
+        return limiter.tryAcquire(organizationIds[0], RouteClass.READ);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * テナントの規模に偏りがあるUserStoreの計測
+ *
+ * <p>1,000,000ユーザーの組織1つと、100ユーザーの組織10,000個を登録し、
+ * 小さい組織と大きい組織それぞれの取得・一覧（1ページ100件）を計測します。
+ * {@code smallTenantWhileLargeWrites} グループは大きい組織への書き込みと並行して
+ * 小さい組織を読み取り、大きい組織の書き込みが小さい組織を待たせないことを確認します。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserStoreBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserStoreBenchmark {
+
+    private static final int LARGE_TENANT_USERS = 1_000_000;
+    private static final int SMALL_TENANTS = 10_000;
+    private static final int SMALL_TENANT_USERS = 100;
+    private static final int PAGE_SIZE = 100;
+
+    private UserStore store;
+    private UserPartition largeTenant;
+    private String[] smallOrganizationIds;
+    private String[] largeUserIds;
+    private String[] smallUserIds;
+
+    @Setup
+    public void setUp() {
+        store = new UserStore();
+        largeUserIds = userIds(LARGE_TENANT_USERS);
+        smallUserIds = userIds(SMALL_TENANT_USERS);
+
+        largeTenant = store.partition("org-large");
+        for (String userId : largeUserIds) {
+            largeTenant.put(new UserRecord(userId, "Taro Yamada", "taro@example.com", "editor"));
+        }
+        smallOrganizationIds = new String[SMALL_TENANTS];
+        for (int i = 0; i < SMALL_TENANTS; i++) {
+            smallOrganizationIds[i] = "org-" + i;
+            UserPartition partition = store.partition(smallOrganizationIds[i]);
+            for (String userId : smallUserIds) {
+                partition.put(new UserRecord(userId, "Hanako Suzuki", "hanako@example.com", "viewer"));
+            }
+        }
+    }
+
+    @Benchmark
+    public UserRecord getSmallTenant() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return store.partition(smallOrganizationIds[random.nextInt(SMALL_TENANTS)])
+                .get(smallUserIds[random.nextInt(SMALL_TENANT_USERS)]);
+    }
+
+    @Benchmark
+    public UserRecord getLargeTenant() {
+        return store.partition("org-large").get(largeUserIds[ThreadLocalRandom.current().nextInt(LARGE_TENANT_USERS)]);
+    }
+
+    @Benchmark
+    public List<UserRecord> listSmallTenant() {
+        return store.partition(smallOrganizationIds[ThreadLocalRandom.current().nextInt(SMALL_TENANTS)])
+                .list(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UserRecord> listLargeTenant() {
+        // 先頭だけでなく、途中のページも取得する
+        return store.partition("org-large")
+                .list(largeUserIds[ThreadLocalRandom.current().nextInt(LARGE_TENANT_USERS)], PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Group("smallTenantWhileLargeWrites")
+    @GroupThreads(1)
+    public UserRecord largeTenantWriter() {
+        String userId = largeUserIds[ThreadLocalRandom.current().nextInt(LARGE_TENANT_USERS)];
+        return largeTenant.put(new UserRecord(userId, "Jiro Sato", "jiro@example.com", "admin"));
+    }
+
+    @Benchmark
+    @Group("smallTenantWhileLargeWrites")
+    @GroupThreads(1)
+    public List<UserRecord> smallTenantReader() {
+        return listSmallTenant();
+    }
+
+    private static String[] userIds(int count) {
+        String[] userIds = new String[count];
+        for (int i = 0; i < count; i++) {
+            userIds[i] = String.format("user-%07d", i);
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tracing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * リクエスト1回あたりのトレーシングのオーバーヘッド計測
+ *
+ * <p>{@code AdminUsersHandler} の一覧取得と同じく、ルートと3つの子スパン
+ * （rateLimit、action、serialize）を記録します。出力先は何もしないエクスポーターです。
+ * サンプリングされないリクエストで割り当てが発生しないことは {@code -prof gc} で確認できます。</p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TracerBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracerBenchmark {
+
+    @Param({"0", "0.01", "1"})
+    public double sampleRate;
+
+    private Tracer tracer;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        tracer = new Tracer(sampleRate, blackhole::consume);
+    }
+
+    @Benchmark
+    public void request() {
+        try (Span root = tracer.startTrace(tracer.sampleTraceId(), "AdminUsersHandler")) {
+            Tracer.span("rateLimit").end();
+            try (Span action = Tracer.span("action")) {
+                Tracer.span("serialize").end();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.validation;
+
+import com.example.json.JsonCodecs;
+import com.example.model.UserRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ユーザースキーマ検証のスループット計測
+ *
+ * <ul>
+ * <li>valid - 全項目が有効なペイロード</li>
+ * <li>maximallyInvalid - 全フィールドが不正で、大量の不要データが後続するペイロード（打ち切りの効果を確認）</li>
+ * <li>parseOnly - 検証なしで {@link JsonCodecs} によりパースした場合（比較用）</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserSchemaBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSchemaBenchmark {
+
+    private static final String VALID =
+            "{\"name\":\"Taro Yamada\",\"email\":\"taro.yamada@example.com\",\"role\":\"editor\"}";
+
+    private static final String MAXIMALLY_INVALID;
+
+    static {
+        StringBuilder sb = new StringBuilder("{\"name\":\"\",\"email\":42,\"role\":\"NOT A ROLE\",\"name\":[]");
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(",\"email\":\"x\"");
+        }
+        MAXIMALLY_INVALID = sb.append('}').toString();
+    }
+
+    @Benchmark
+    public ValidationResult<UserRequest> valid() {
+        return UserSchemas.USER.validate(VALID);
+    }
+
+    @Benchmark
+    public ValidationResult<UserRequest> maximallyInvalid() {
+        return UserSchemas.USER.validate(MAXIMALLY_INVALID);
+    }
+
+    @Benchmark
+    public UserRequest parseOnly() {
+        return JsonCodecs.fromJson(VALID, UserRequest.class);
+    }
+}
@@ -0,0 +1,54 @@
+#!/bin/sh
+# AppCDSアーカイブを使用してJVMを起動するLambda実行ラッパー
+#
+# AWS_LAMBDA_EXEC_WRAPPER に指定すると、ランタイムが起動するjavaコマンドに
+#   -XX:SharedArchiveFile=app-cds.jsa -Xshare:auto
+# を追加し、クラスパスの先頭にアーカイブ生成時と同じ lib/*.jar を挿入します。
+# JVMのバージョンまたはjarの更新日時がアーカイブ生成時と異なる場合は
+# 何も変更せずに起動します（不一致のアーカイブを指定すると既定のCDSも無効になるため）。
+
+TASK_ROOT="${LAMBDA_TASK_ROOT:-/var/task}"
+ARCHIVE="$TASK_ROOT/app-cds.jsa"
+CHECK="$TASK_ROOT/app-cds.check"
+
+usable() {
+    [ -f "$ARCHIVE" ] && [ -f "$CHECK" ] || return 1
+    java_home=$(dirname "$(dirname "$1")")
+    expected=$(sed -n 's/^runtime=//p' "$CHECK")
+    actual=$(sed -n 's/^JAVA_RUNTIME_VERSION="\(.*\)"$/\1/p' "$java_home/release" 2>/dev/null)
+    [ -n "$expected" ] && [ "$expected" = "$actual" ] || return 1
+    # jarの更新日時はビルド時に固定値に揃えている
+    expected=$(sed -n 's/^mtime=//p' "$CHECK")
+    actual=$(cd "$TASK_ROOT" && stat -c '%Y' lib/*.jar | sort -u)
+    [ "$expected" = "$actual" ]
+}
+
+case " $* " in
+    *" -cp "* | *" -classpath "*) has_classpath=1 ;;
+    *) has_classpath=0 ;;
+esac
+
+if [ "$has_classpath" = 1 ] && usable "$1"; then
+    app_classpath=$(sed -n 's/^classpath=//p' "$CHECK")
+    index=0
+    next_is_classpath=0
+    for arg in "$@"; do
+        if [ "$index" = 0 ]; then
+            set -- "$arg" "-XX:SharedArchiveFile=$ARCHIVE" -Xshare:auto
+        else
+            if [ "$next_is_classpath" = 1 ]; then
+                arg="$app_classpath:$arg"
+                next_is_classpath=0
+            fi
+            case "$arg" in
+                -cp | -classpath) next_is_classpath=1 ;;
+            esac
+            set -- "$@" "$arg"
+        fi
+        index=$((index + 1))
+    done
+    # アーカイブのクラスパスは lib/ からの相対パスで記録されている
+    cd "$TASK_ROOT" || exit 1
+fi
+
+exec "$@"
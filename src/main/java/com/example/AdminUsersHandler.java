@@ -5,6 +5,28 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.example.actions.*; // 作成したアクションクラスをインポート
+import com.example.auth.Principal;
+import com.example.http.ApiRequests;
+import com.example.http.ApiResponses;
+import com.example.http.ResponseCompressor;
+import com.example.id.UserIdGenerator;
+import com.example.logging.StructuredLogger;
+import com.example.metrics.MetricsRegistry;
+import com.example.priming.Priming;
+import com.example.priming.RestoreTimer;
+import com.example.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.ratelimit.Bulkheads;
+import com.example.ratelimit.RouteClass;
+import com.example.ratelimit.TenantRateLimiter;
+import com.example.runtime.Deadline;
+import com.example.store.Compactor;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import org.crac.Core;
+import org.crac.Resource;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,11 +36,98 @@ import java.util.Map;
  * <p>このハンドラーは/admin/users以下のすべてのエンドポイントを処理し、
  * HTTPメソッドとパスパラメータに基づいて適切なアクションクラスに処理を委譲します。
  * すべての操作には認証が必要で、Lambda Authorizerによる認可チェックを経て実行されます。</p>
+ *
+ * <p>Authorizerのコンテキストは呼び出しごとに1回だけ {@link Principal} として読み取り、
+ * レート制限・メトリクス・トレースと各アクションに渡します。各アクションはその組織IDで
+ * {@link UserStore} のパーティションを決め、他の組織のユーザーには触れません。</p>
+ *
+ * <p>一覧取得や更新系などの高コストなルートは、Authorizerが設定した
+ * {@code organization_id} ごとに {@link TenantRateLimiter} で制限され、
+ * 上限を超えた場合は {@code Retry-After} ヘッダー付きの429を返します。</p>
+ *
+ * <p>各リクエストの処理時間はルート・ステータス分類・組織ごとに
+ * {@link MetricsRegistry} へ記録され、呼び出しの最後にEMF形式で出力されます。</p>
+ *
+ * <p>リクエストごとにこのハンドラーでサンプリングを判定し、API GatewayのリクエストIDから求めた
+ * トレースIDで、レート制限とアクションの実行を {@link Tracer} のスパンとして記録します。
+ * Authorizerのコンテキストはキャッシュされて複数のリクエストで共有されるため、トレースIDには使用しません。</p>
+ *
+ * <p>アクションの実行は、読み取り系と更新系で分けた {@link Bulkheads} の同時実行数の上限の中で行い、
+ * 上限に達している場合は待たせずに {@code Retry-After} 付きの503を返します。上限はストア呼び出しを含む
+ * アクションの処理時間から調整されます。</p>
+ *
+ * <p>呼び出しの入口で実行コンテキストの残り時間から {@link Deadline} を1回だけ求めます。
+ * レスポンスの組み立ての時間として {@value #RESPONSE_RESERVE_MILLIS} ミリ秒を残した上で、
+ * ルートの処理に必要な時間（一括系は {@value #BULK_BUDGET_MILLIS} ミリ秒、それ以外は
+ * {@value #REQUEST_BUDGET_MILLIS} ミリ秒）が無い場合は、レート制限の前に {@code Retry-After}
+ * 付きの503を返します。一括系のアクションには期限を渡し、期限を過ぎた時点で残りの処理を打ち切らせます。</p>
+ *
+ * <p>{@code Accept-Encoding} でgzipを受け付けるクライアントには、閾値以上のレスポンスを
+ * {@link ResponseCompressor} でgzip圧縮して返します。APIの {@code BinaryMediaTypes} の設定により
+ * リクエストボディがBase64で届いた場合は、{@link ApiRequests#bodyOf} で復号してからアクションに渡します。</p>
+ *
+ * <p>{@code /admin/users/import} と {@code /admin/users/export} はNDJSONによる一括取り込み・
+ * エクスポート、{@code /admin/users/batch} は複数の更新系操作をまとめて実行するリソース、
+ * {@code /admin/users/changes} はユーザーの変更フィードのリソースで、
+ * API Gatewayではパスパラメータの {@code {userId}} より優先されます。
+ * これらはリソースパス（{@link APIGatewayProxyRequestEvent#getResource()}）で判別します。</p>
+ *
+ * <p>SnapStartのスナップショット作成前には、全ルートの合成イベントで
+ * 各アクションを実行し、その組織のパーティションを破棄しておきます（{@link #beforeCheckpoint}）。
+ * 復元後はユーザーIDとトレースIDの乱数を再生成します。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
-public class AdminUsersHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+public class AdminUsersHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>, Resource {
+
+    private static final String IMPORT_RESOURCE = "/admin/users/import";
+    private static final String EXPORT_RESOURCE = "/admin/users/export";
+    private static final String BATCH_RESOURCE = "/admin/users/batch";
+    private static final String CHANGES_RESOURCE = "/admin/users/changes";
+    /** レスポンスの圧縮やログの出力のために残しておく時間（ミリ秒） */
+    static final long RESPONSE_RESERVE_MILLIS = 200;
+
+    /** 一括系以外のルートの処理に必要な時間（ミリ秒） */
+    static final long REQUEST_BUDGET_MILLIS = 50;
+
+    /** 一括取り込み・エクスポート・一括更新の処理に必要な時間（ミリ秒） */
+    static final long BULK_BUDGET_MILLIS = 1_000;
+
+    private static final String PRIMING_ORGANIZATION_ID = "priming";
+    private static final UserRecord PRIMING_USER = new UserRecord("user-001", "Priming", "priming@example.com", "editor");
+
+    private final TenantRateLimiter rateLimiter;
+    private final MetricsRegistry metrics;
+    private final Tracer tracer;
+    private final ResponseCompressor compressor;
+    private final UserStore store;
+    private final Bulkheads bulkheads;
+    private final RestoreTimer restoreTimer = new RestoreTimer(AdminUsersHandler.class);
+
+    /**
+     * 既定のレート制限設定、メトリクスレジストリ、トレーサー、圧縮設定でハンドラーを生成し、
+     * SnapStartのフックとして登録します。プロセス共有のユーザーストアのコンパクターも開始します。
+     */
+    public AdminUsersHandler() {
+        this(Dependencies.defaults());
+        Core.getGlobalContext().register(this);
+        Compactor.startDefault();
+    }
+
+    /**
+     * 指定された依存オブジェクトを使用するハンドラーを生成します。
+     *
+     * @param dependencies ハンドラーが使用する依存オブジェクト
+     */
+    AdminUsersHandler(Dependencies dependencies) {
+        this.rateLimiter = dependencies.rateLimiter();
+        this.metrics = dependencies.metrics();
+        this.tracer = dependencies.tracer();
+        this.compressor = dependencies.compressor();
+        this.store = dependencies.store();
+        this.bulkheads = dependencies.bulkheads();
+    }
 
     /**
      * API Gatewayからのユーザー管理リクエストを処理します。
@@ -28,11 +137,17 @@ public class AdminUsersHandler implements RequestHandler<APIGatewayProxyRequestE
      * 
      * <ul>
      * <li>GET /admin/users - ユーザー一覧取得</li>
+     * <li>GET /admin/users?ids=a,b,c - 複数ユーザーの一括取得</li>
+     * <li>GET /admin/users?since=N - 前回の同期以降に変更されたユーザーの差分同期</li>
      * <li>GET /admin/users/{userId} - 特定ユーザー取得</li>
      * <li>POST /admin/users - ユーザー作成</li>
      * <li>PUT /admin/users/{userId} - ユーザー更新（完全）</li>
      * <li>PATCH /admin/users/{userId} - ユーザー更新（部分）</li>
      * <li>DELETE /admin/users/{userId} - ユーザー削除</li>
+     * <li>POST /admin/users/import - NDJSONによる一括取り込み</li>
+     * <li>GET /admin/users/export - NDJSONによる一括エクスポート</li>
+     * <li>POST /admin/users/batch - 作成・更新・削除の一括実行</li>
+     * <li>GET /admin/users/changes - 変更フィードの取得</li>
      * </ul>
      * 
      * @param event API Gatewayからのプロキシリクエストイベント
@@ -45,16 +160,265 @@ public class AdminUsersHandler implements RequestHandler<APIGatewayProxyRequestE
         String httpMethod = event.getHttpMethod();
         Map<String, String> pathParameters = event.getPathParameters();
         String userId = (pathParameters != null) ? pathParameters.get("userId") : null;
+        String resource = event.getResource();
+        Principal principal = Principal.from(event);
+        Deadline deadline = Deadline.of(context).reserve(RESPONSE_RESERVE_MILLIS);
+        long restoreStartNanos = restoreTimer.startRequest();
+
+        try (Span ignored = tracer.startTrace(traceIdOf(event), "AdminUsersHandler")) {
+            // メトリクスが無効な場合は時刻の取得も省略する
+            boolean measured = metrics.isEnabled();
+            long startNanos = measured ? System.nanoTime() : 0;
+            APIGatewayProxyResponseEvent response =
+                    compress(event, dispatch(event, context, httpMethod, resource, userId, principal, deadline));
+            if (measured) {
+                metrics.record(routeOf(httpMethod, resource, userId), statusCodeOf(response),
+                        principal.organizationId(), System.nanoTime() - startNanos);
+                metrics.flush(context != null ? context.getLogger() : null);
+            }
+            return response;
+        } finally {
+            restoreTimer.endRequest(restoreStartNanos);
+            // アクションが記録した構造化ログをまとめて出力する
+            StructuredLogger.flush(context);
+        }
+    }
+
+    /**
+     * スナップショットの作成前に、全ルートの合成イベントで各アクションを実行します。
+     *
+     * <p>毎回プライミング用の組織にユーザーを登録して取得・更新が成功する経路を通し、
+     * レートリミッターをリセットして429にならないようにします。
+     * 最後にプライミングで作られたバケットとパーティションを破棄します。</p>
+     *
+     * @param context CRaCのコンテキスト
+     */
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        List<APIGatewayProxyRequestEvent> requests = Priming.adminRequests(PRIMING_ORGANIZATION_ID);
+        Priming.run(pass -> {
+            store.partition(PRIMING_ORGANIZATION_ID).put(PRIMING_USER);
+            for (APIGatewayProxyRequestEvent request : requests) {
+                handleRequest(request, Priming.CONTEXT);
+            }
+            rateLimiter.clear();
+        });
+        store.removePartition(PRIMING_ORGANIZATION_ID);
+    }
+
+    /**
+     * 復元後にユーザーIDとトレースIDの乱数を再生成し、最初のリクエストの計測を開始します。
+     *
+     * @param context CRaCのコンテキスト
+     */
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+        UserIdGenerator.getDefault().reseed(Priming.freshEntropy());
+        tracer.reseed(Priming.freshEntropy());
+        restoreTimer.restored();
+    }
+
+    /**
+     * レート制限を適用した上で、対応するアクションクラスに処理を委譲します。
+     */
+    private APIGatewayProxyResponseEvent dispatch(APIGatewayProxyRequestEvent event, Context context,
+                                                  String httpMethod, String resource, String userId,
+                                                  Principal principal, Deadline deadline) {
+
+        // 期限までに終えられないリクエストは何もせずに返す
+        if (!deadline.allows(isBulk(resource) ? BULK_BUDGET_MILLIS : REQUEST_BUDGET_MILLIS)) {
+            return ApiResponses.deadlineExceeded();
+        }
+
+        // テナント単位のレート制限（組織IDが無いリクエストは対象外）
+        RouteClass routeClass = routeClassOf(httpMethod, resource, userId);
+        String organizationId = principal.organizationId();
+        if (organizationId != null) {
+            long waitNanos;
+            try (Span ignored = Tracer.span("rateLimit")) {
+                waitNanos = rateLimiter.tryAcquire(organizationId, routeClass);
+            }
+            if (waitNanos > 0) {
+                return ApiResponses.tooManyRequests(TenantRateLimiter.toRetryAfterSeconds(waitNanos));
+            }
+        }
+
+        // 同時実行数の上限に達している場合は待たせずに返す
+        AdaptiveConcurrencyLimiter bulkhead = bulkheads.forRoute(routeClass);
+        long startNanos = bulkhead.tryAcquire();
+        if (startNanos == AdaptiveConcurrencyLimiter.REJECTED) {
+            return ApiResponses.overloaded();
+        }
+        try {
+            return execute(event, context, httpMethod, resource, userId, principal, deadline);
+        } finally {
+            bulkhead.release(startNanos);
+        }
+    }
+
+    /**
+     * 各アクションクラスにcontextを渡して実行します。
+     */
+    private APIGatewayProxyResponseEvent execute(APIGatewayProxyRequestEvent event, Context context,
+                                                 String httpMethod, String resource, String userId,
+                                                 Principal principal, Deadline deadline) {
+        String body = ApiRequests.bodyOf(event);
+        try (Span ignored = Tracer.span("action")) {
+            if (IMPORT_RESOURCE.equals(resource)) {
+                return "POST".equals(httpMethod) ? new ImportUsersAction(store).execute(principal, body, deadline, context)
+                        : methodNotAllowed();
+            }
+            if (BATCH_RESOURCE.equals(resource)) {
+                return "POST".equals(httpMethod) ? new BatchUsersAction(store).execute(principal, body, deadline, context)
+                        : methodNotAllowed();
+            }
+            if (CHANGES_RESOURCE.equals(resource)) {
+                return "GET".equals(httpMethod)
+                        ? new ListChangesAction(store).execute(principal, queryParameter(event, "since"),
+                                queryParameter(event, "limit"), context)
+                        : methodNotAllowed();
+            }
+            if (EXPORT_RESOURCE.equals(resource)) {
+                return "GET".equals(httpMethod)
+                        ? new ExportUsersAction(store).execute(principal, queryParameter(event, "after"),
+                                queryParameter(event, "limit"), deadline, context)
+                        : methodNotAllowed();
+            }
+            return switch (httpMethod) {
+                case "GET" -> getUsers(event, context, userId, principal);
+                case "POST" -> new CreateUserAction(UserIdGenerator.getDefault(), store).execute(principal, body, context);
+                case "PUT" -> new UpdateUserAction(store).execute(principal, userId, body, context);
+                case "DELETE" -> new DeleteUserAction(store).execute(principal, userId, context);
+                case "PATCH" -> new PatchUserAction(store).execute(principal, userId, body, context);
+                default -> methodNotAllowed();
+            };
+        }
+    }
+
+    /**
+     * GETリクエストを、userIdの有無と {@code ids} クエリパラメータに応じて
+     * 特定ユーザー取得・複数ユーザー取得・一覧取得のいずれかに振り分けます。
+     * 一覧取得に {@code since} クエリパラメータがある場合は差分同期に、{@code after} がある場合は
+     * そのユーザーIDより後のページの取得になります。
+     */
+    private APIGatewayProxyResponseEvent getUsers(APIGatewayProxyRequestEvent event, Context context,
+                                                  String userId, Principal principal) {
+        if (userId != null) {
+            return new GetUserAction(store).execute(principal, userId, context);
+        }
+        String ids = queryParameter(event, "ids");
+        return (ids != null) ? new MultiGetUsersAction(store).execute(principal, ids, context)
+                : new ListUsersAction(store).execute(principal, queryParameter(event, "since"),
+                        queryParameter(event, "after"), context);
+    }
+
+    private static APIGatewayProxyResponseEvent methodNotAllowed() {
+        return new APIGatewayProxyResponseEvent().withStatusCode(405).withBody("Method Not Allowed");
+    }
+
+    private static String queryParameter(APIGatewayProxyRequestEvent event, String name) {
+        Map<String, String> parameters = event.getQueryStringParameters();
+        return (parameters != null) ? parameters.get(name) : null;
+    }
+
+    /**
+     * クライアントがgzipを受け付ける場合にレスポンスを圧縮します。
+     */
+    private APIGatewayProxyResponseEvent compress(APIGatewayProxyRequestEvent event, APIGatewayProxyResponseEvent response) {
+        try (Span ignored = Tracer.span("compress")) {
+            return compressor.compress(event, response);
+        }
+    }
+
+    /**
+     * メトリクスのディメンションに使用するルート名を返します。
+     */
+    private static String routeOf(String httpMethod, String resource, String userId) {
+        if (isBulk(resource) || CHANGES_RESOURCE.equals(resource)) {
+            return httpMethod + " " + resource;
+        }
+        return (userId != null) ? httpMethod + " /admin/users/{userId}" : httpMethod + " /admin/users";
+    }
+
+    private static boolean isBulk(String resource) {
+        return IMPORT_RESOURCE.equals(resource) || EXPORT_RESOURCE.equals(resource) || BATCH_RESOURCE.equals(resource);
+    }
+
+    private static int statusCodeOf(APIGatewayProxyResponseEvent response) {
+        Integer statusCode = response.getStatusCode();
+        return (statusCode != null) ? statusCode : 0;
+    }
 
-        // 各アクションクラスにcontextを渡して実行
-        return switch (httpMethod) {
-            case "GET" ->
-                    (userId != null) ? new GetUserAction().execute(userId, context) : new ListUsersAction().execute(context);
-            case "POST" -> new CreateUserAction().execute(event.getBody(), context);
-            case "PUT" -> new UpdateUserAction().execute(userId, event.getBody(), context);
-            case "DELETE" -> new DeleteUserAction().execute(userId, context);
-            case "PATCH" -> new PatchUserAction().execute(userId, event.getBody(), context);
-            default -> new APIGatewayProxyResponseEvent().withStatusCode(405).withBody("Method Not Allowed");
-        };
-    }
-}
\ No newline at end of file
+    /**
+     * HTTPメソッドとリソース、userIdの有無からレート制限のルート分類を決定します。
+     * 一括取り込み・エクスポート・一括更新は1回で多数のユーザーを扱うため一括系として扱います。
+     */
+    private static RouteClass routeClassOf(String httpMethod, String resource, String userId) {
+        if (isBulk(resource)) {
+            return RouteClass.BULK;
+        }
+        if ("GET".equals(httpMethod)) {
+            return (userId != null) ? RouteClass.READ : RouteClass.LIST;
+        }
+        return RouteClass.WRITE;
+    }
+
+    /**
+     * サンプリングを判定し、記録対象の場合はAPI GatewayのリクエストIDからトレースIDを求めます。
+     */
+    private String traceIdOf(APIGatewayProxyRequestEvent event) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = event.getRequestContext();
+        return tracer.traceIdFor((requestContext != null) ? requestContext.getRequestId() : null);
+    }
+
+    /**
+     * ハンドラーが使用する依存オブジェクト
+     *
+     * <p>{@link #defaults()} の既定の組み合わせから、テストやベンチマークで差し替えるものだけを
+     * {@code with} で置き換えて使います。</p>
+     *
+     * @param rateLimiter テナントごとのレートリミッター
+     * @param metrics レイテンシーの記録先
+     * @param tracer スパンの記録に使用するトレーサー
+     * @param compressor レスポンスの圧縮設定
+     * @param store ユーザーストア
+     * @param bulkheads ルート分類ごとの同時実行数の制限
+     */
+    record Dependencies(TenantRateLimiter rateLimiter, MetricsRegistry metrics, Tracer tracer,
+                        ResponseCompressor compressor, UserStore store, Bulkheads bulkheads) {
+
+        /**
+         * 公開コンストラクターと同じ既定の依存オブジェクトを返します。
+         *
+         * @return 既定の依存オブジェクト
+         */
+        static Dependencies defaults() {
+            return new Dependencies(TenantRateLimiter.withDefaults(), MetricsRegistry.getDefault(), Tracer.getDefault(),
+                    ResponseCompressor.getDefault(), UserStore.getDefault(), Bulkheads.withDefaults());
+        }
+
+        Dependencies withRateLimiter(TenantRateLimiter rateLimiter) {
+            return new Dependencies(rateLimiter, metrics, tracer, compressor, store, bulkheads);
+        }
+
+        Dependencies withMetrics(MetricsRegistry metrics) {
+            return new Dependencies(rateLimiter, metrics, tracer, compressor, store, bulkheads);
+        }
+
+        Dependencies withTracer(Tracer tracer) {
+            return new Dependencies(rateLimiter, metrics, tracer, compressor, store, bulkheads);
+        }
+
+        Dependencies withCompressor(ResponseCompressor compressor) {
+            return new Dependencies(rateLimiter, metrics, tracer, compressor, store, bulkheads);
+        }
+
+        Dependencies withStore(UserStore store) {
+            return new Dependencies(rateLimiter, metrics, tracer, compressor, store, bulkheads);
+        }
+
+        Dependencies withBulkheads(Bulkheads bulkheads) {
+            return new Dependencies(rateLimiter, metrics, tracer, compressor, store, bulkheads);
+        }
+    }
+}
@@ -6,7 +6,17 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.google.gson.Gson;
+import com.example.http.ApiRequests;
+import com.example.http.ApiResponses;
+import com.example.json.JsonCodecs;
+import com.example.logging.StructuredLogger;
+import com.example.model.TokenRequest;
+import com.example.model.TokenResponse;
+import com.example.priming.Priming;
+import com.example.priming.RestoreTimer;
+import com.google.gson.JsonParseException;
+import org.crac.Core;
+import org.crac.Resource;
 import java.util.Date;
 import java.util.Map;
 
@@ -16,17 +26,28 @@ import java.util.Map;
  * 
  * <p>このハンドラーは認証エンドポイント（/auth/token）に対するPOSTリクエストを処理し、
  * 有効な認証情報が提供された場合にJWTトークンを含むレスポンスを返します。</p>
+ *
+ * <p>SnapStartのスナップショット作成前には、合成イベントでトークン発行を実行しておきます。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
-public class AuthHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+public class AuthHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>, Resource {
 
     private static final String SECRET_KEY = "your-very-secret-key"; // 本番では環境変数などから取得
     private static final Map<String, Map<String, String>> USERS = Map.of(
             "testuser", Map.of("password", "password123", "id", "user-001", "role", "editor", "org", "org-abc")
     );
 
+    private final RestoreTimer restoreTimer = new RestoreTimer(AuthHandler.class);
+
+    /**
+     * ハンドラーを生成し、SnapStartのフックとして登録します。
+     */
+    public AuthHandler() {
+        Core.getGlobalContext().register(this);
+    }
+
     /**
      * API Gatewayからの認証リクエストを処理します。
      * 
@@ -40,8 +61,50 @@ public class AuthHandler implements RequestHandler<APIGatewayProxyRequestEvent,
      */
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
-        // ... (リクエストボディからusernameとpasswordを取得する処理) ...
-        // ... (USERSマップと照合して認証する処理) ...
+        long startNanos = restoreTimer.startRequest();
+        try {
+            return issueToken(input);
+        } finally {
+            restoreTimer.endRequest(startNanos);
+            StructuredLogger.flush(context);
+        }
+    }
+
+    /**
+     * スナップショットの作成前に、合成イベントでトークン発行を実行します。
+     *
+     * @param context CRaCのコンテキスト
+     */
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        APIGatewayProxyRequestEvent event = Priming.tokenRequest();
+        Priming.run(pass -> handleRequest(event, Priming.CONTEXT));
+    }
+
+    /**
+     * 復元後、最初のリクエストの計測を開始します。
+     *
+     * @param context CRaCのコンテキスト
+     */
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+        restoreTimer.restored();
+    }
+
+    /**
+     * 認証情報を照合し、JWTトークンを発行します。
+     * ボディがJSONとして読めない場合は400を返します。
+     */
+    private APIGatewayProxyResponseEvent issueToken(APIGatewayProxyRequestEvent input) {
+        // BinaryMediaTypesに一致するContent-TypeのボディはBase64で届く
+        TokenRequest credentials;
+        try {
+            String body = ApiRequests.bodyOf(input);
+            credentials = (body != null && !body.isBlank()) ? JsonCodecs.fromJson(body, TokenRequest.class) : null;
+        } catch (JsonParseException | IllegalArgumentException e) {
+            return ApiResponses.error(400, "invalid request body");
+        }
+        // ... (credentialsをUSERSマップと照合して認証する処理) ...
 
         // 認証成功後
         String userId = "user-001";
@@ -58,6 +121,6 @@ public class AuthHandler implements RequestHandler<APIGatewayProxyRequestEvent,
 
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
-                .withBody(new Gson().toJson(Map.of("token", token)));
+                .withBody(JsonCodecs.toJson(new TokenResponse(token)));
     }
 }
\ No newline at end of file
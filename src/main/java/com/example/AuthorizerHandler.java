@@ -7,7 +7,16 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.example.auth.Principal;
+import com.example.logging.StructuredLogger;
+import com.example.priming.Priming;
+import com.example.priming.RestoreTimer;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import org.crac.Core;
+import org.crac.Resource;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,18 +28,50 @@ import java.util.Map;
  * <p>このハンドラーはAPI Gatewayからの認可リクエストを受け取り、
  * JWTトークンを検証してリクエストの許可/拒否を決定します。
  * 認証が成功した場合、ユーザー情報をコンテキストに含めたIAMポリシーを返します。</p>
+ *
+ * <p>REQUEST型のAuthorizerとして、{@code Authorization} ヘッダーのトークンと
+ * {@code requestContext.requestId} を受け取ります。トレースIDとサンプリングの判定は、
+ * 後続のハンドラーと同じくリクエストIDから {@link Tracer#traceIdFor(String)} で求めるため、
+ * 検証のスパンはハンドラーのスパンと同じトレースに記録されます。
+ * Authorizerの結果（コンテキストを含む）はキャッシュされて複数のリクエストで共有されるため、
+ * トレースIDはコンテキストに含めません。</p>
+ *
+ * <p>SnapStartのスナップショット作成前には、有効・無効なトークンの合成イベントで
+ * 検証の両経路を実行しておきます（{@link #beforeCheckpoint}）。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
-public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthorizerEvent, Map<String, Object>> {
+public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthorizerEvent, Map<String, Object>>, Resource {
 
     private static final String SECRET_KEY = "your-very-secret-key"; // 本番では環境変数などから安全に取得してください
 
+    private static final StructuredLogger LOG = StructuredLogger.getLogger(AuthorizerHandler.class);
+
+    private final Tracer tracer;
+    private final RestoreTimer restoreTimer = new RestoreTimer(AuthorizerHandler.class);
+
+    /**
+     * 既定のトレーサーでハンドラーを生成し、SnapStartのフックとして登録します。
+     */
+    public AuthorizerHandler() {
+        this(Tracer.getDefault());
+        Core.getGlobalContext().register(this);
+    }
+
+    /**
+     * 指定されたトレーサーを使用するハンドラーを生成します。
+     *
+     * @param tracer スパンの記録に使用するトレーサー
+     */
+    AuthorizerHandler(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
     /**
      * API Gatewayからの認可リクエストを処理します。
      * 
-     * <p>リクエストのAuthorizationヘッダーからJWTトークンを取得し、
+     * <p>リクエストの {@code Authorization} ヘッダーからJWTトークンを取得し、
      * トークンの署名検証と有効期限チェックを行います。
      * 検証が成功した場合、APIアクセスを許可するIAMポリシーを生成し、
      * JWTのクレーム情報をコンテキストに含めて返します。</p>
@@ -41,7 +82,55 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
      */
     @Override
     public Map<String, Object> handleRequest(APIGatewayCustomAuthorizerEvent event, Context context) {
-        String token = event.getAuthorizationToken();
+        long startNanos = restoreTimer.startRequest();
+        APIGatewayCustomAuthorizerEvent.RequestContext requestContext = event.getRequestContext();
+        String traceId = tracer.traceIdFor((requestContext != null) ? requestContext.getRequestId() : null);
+        try (Span ignored = tracer.startTrace(traceId, "AuthorizerHandler")) {
+            return authorize(event);
+        } finally {
+            restoreTimer.endRequest(startNanos);
+            StructuredLogger.flush(context);
+        }
+    }
+
+    /**
+     * スナップショットの作成前に、有効なトークンと無効なトークンの合成イベントで
+     * 許可・拒否の両経路を実行します。
+     *
+     * @param context CRaCのコンテキスト
+     */
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        String validToken = "Bearer " + JWT.create()
+                .withSubject("priming")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600 * 1000))
+                .withClaim("role", "admin")
+                .withClaim("organization_id", "priming")
+                .sign(Algorithm.HMAC256(SECRET_KEY));
+        APIGatewayCustomAuthorizerEvent allowed = Priming.authorizerEvent(validToken);
+        APIGatewayCustomAuthorizerEvent denied = Priming.authorizerEvent(validToken + "x");
+        Priming.run(pass -> {
+            handleRequest(allowed, Priming.CONTEXT);
+            handleRequest(denied, Priming.CONTEXT);
+        });
+    }
+
+    /**
+     * 復元後にトレースIDの乱数を再生成し、最初のリクエストの計測を開始します。
+     *
+     * @param context CRaCのコンテキスト
+     */
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+        tracer.reseed(Priming.freshEntropy());
+        restoreTimer.restored();
+    }
+
+    /**
+     * トークンを検証し、許可または拒否のポリシーを返します。
+     */
+    private Map<String, Object> authorize(APIGatewayCustomAuthorizerEvent event) {
+        String token = authorizationOf(event.getHeaders());
         if (token == null || !token.startsWith("Bearer ")) {
             // トークンが無効な場合は即座にDeny
             return generateDenyPolicy("unauthorized", event.getMethodArn());
@@ -50,9 +139,12 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
 
         try {
             // 1. JWTの検証
-            Algorithm algorithm = Algorithm.HMAC256(SECRET_KEY);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT jwt = verifier.verify(token);
+            DecodedJWT jwt;
+            try (Span ignored = Tracer.span("jwt.verify")) {
+                Algorithm algorithm = Algorithm.HMAC256(SECRET_KEY);
+                JWTVerifier verifier = JWT.require(algorithm).build();
+                jwt = verifier.verify(token);
+            }
 
             // 2. クレームの抽出
             String principalId = jwt.getSubject();
@@ -63,12 +155,28 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
             return generateAllowPolicy(principalId, event.getMethodArn(), role, organizationId);
 
         } catch (Exception e) {
-            context.getLogger().log("JWT Verification failed: " + e.getMessage());
+            // 例外メッセージにはトークンの内容が含まれ得るため、種類のみを記録する
+            LOG.warn("jwt verification failed").with("reason", e.getClass().getSimpleName());
             // 検証失敗時はDeny
             return generateDenyPolicy("unauthorized", event.getMethodArn());
         }
     }
 
+    /**
+     * {@code Authorization} ヘッダーの値を、名前の大文字・小文字を区別せずに返します。
+     */
+    private static String authorizationOf(Map<String, String> headers) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase("Authorization")) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
     /**
      * APIアクセスを許可するIAMポリシーを生成します。
      * 
@@ -82,7 +190,8 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
      * @param organizationId ユーザーが所属する組織のID
      * @return Allowポリシーとコンテキスト情報を含むマップ
      */
-    private Map<String, Object> generateAllowPolicy(String principalId, String methodArn, String role, String organizationId) {
+    private Map<String, Object> generateAllowPolicy(String principalId, String methodArn, String role,
+                                                    String organizationId) {
         // --- ここからが修正部分 ---
         // methodArnからAPIの汎用的なARNを構築する
         // 例: arn:aws:execute-api:ap-northeast-1:123456789012:abcdef123/Prod/GET/hello
@@ -107,9 +216,9 @@ public class AuthorizerHandler implements RequestHandler<APIGatewayCustomAuthori
         ));
 
         Map<String, Object> context = new HashMap<>();
-        context.put("principalId", principalId);
-        context.put("role", role);
-        context.put("organization_id", organizationId);
+        context.put(Principal.PRINCIPAL_ID, principalId);
+        context.put(Principal.ROLE, role);
+        context.put(Principal.ORGANIZATION_ID, organizationId);
 
         Map<String, Object> authResponse = new HashMap<>();
         authResponse.put("principalId", principalId);
@@ -3,7 +3,8 @@ package com.example;
 import com.amazonaws.services.lambda.runtime.*;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import java.util.Map;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
 
 /**
  * JWT認証が必要な保護されたエンドポイントのLambdaハンドラークラス
@@ -13,6 +14,9 @@ import java.util.Map;
  * Lambda Authorizerで検証されたJWTトークンから抽出されたユーザー情報を
  * レスポンスに含めて返します。認証が正常に機能していることを確認するための
  * デモンストレーション用エンドポイントです。</p>
+ *
+ * <p>Authorizerのコンテキストは {@link Principal} として1回だけ読み取り、
+ * ユーザーID・役割・組織IDのいずれかが欠けている場合は401を返します。</p>
  * 
  * @author Sample Project
  * @version 1.0
@@ -28,17 +32,18 @@ public class ProtectedHandler implements RequestHandler<APIGatewayProxyRequestEv
      * 
      * @param input API Gatewayからのプロキシリクエストイベント
      * @param context Lambda実行コンテキスト
-     * @return ユーザー情報を含むグリーティングメッセージ
+     * @return ユーザー情報を含むグリーティングメッセージ（認証情報が欠けている場合は401）
      */
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
         // Authorizerから渡されたコンテキスト情報を取得
-        Map<String, Object> authorizerContext = input.getRequestContext().getAuthorizer();
-        String userId = input.getRequestContext().getAuthorizer().get("principalId").toString();
-        String role = authorizerContext.get("role").toString();
-        String orgId = authorizerContext.get("organization_id").toString();
+        Principal principal = Principal.from(input);
+        if (!principal.isAuthenticated()) {
+            return ApiResponses.error(401, "Unauthorized");
+        }
 
-        String body = String.format("Hello user %s from organization %s! Your role is %s.", userId, orgId, role);
+        String body = "Hello user " + principal.userId() + " from organization " + principal.organizationId()
+                + "! Your role is " + principal.role() + ".";
 
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
@@ -0,0 +1,176 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.id.UserIdGenerator;
+import com.example.json.JsonCodecs;
+import com.example.model.BatchOperation;
+import com.example.model.BatchRequest;
+import com.example.model.BatchResponse;
+import com.example.model.BatchResult;
+import com.example.model.FieldError;
+import com.example.runtime.Deadline;
+import com.example.runtime.DeadlineExceededException;
+import com.example.store.UserPartition;
+import com.example.store.UserStore;
+import com.google.gson.JsonParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ユーザー一括更新アクション
+ * 作成・更新・部分更新・削除の操作を1回のリクエストでまとめて実行します。
+ *
+ * <p>このアクションは POST /admin/users/batch エンドポイントで呼び出されます。
+ * 各操作は単体のエンドポイントと同じ {@link CreateUserAction}、{@link UpdateUserAction}、
+ * {@link PatchUserAction}、{@link DeleteUserAction} で実行され、操作ごとに
+ * 単体の場合と同じステータスとボディを、リクエストと同じ順序で返します。</p>
+ *
+ * <p>操作はユーザーIDごとのグループに分け、同じユーザーへの操作はリクエストの順に、
+ * 異なるユーザーへの操作は並列に実行します。全ての操作は {@link UserPartition#batch} の
+ * 作業用のパーティションに対して行い、結果を1回のコミットでまとめて反映します。</p>
+ *
+ * <p>各操作の前に {@link Deadline} を確認し、期限を過ぎた場合は残りの操作をやめて
+ * どの操作も反映せずに503ステータスを返します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class BatchUsersAction {
+
+    /** 1回のリクエストに含められる操作の最大件数 */
+    public static final int MAX_OPERATIONS = 100;
+
+    private final UserIdGenerator idGenerator;
+    private final UserStore store;
+
+    /**
+     * プロセス共有のIDジェネレーターとユーザーストアを使用するアクションを生成します。
+     */
+    public BatchUsersAction() {
+        this(UserIdGenerator.getDefault(), UserStore.getDefault());
+    }
+
+    /**
+     * プロセス共有のIDジェネレーターと指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public BatchUsersAction(UserStore store) {
+        this(UserIdGenerator.getDefault(), store);
+    }
+
+    /**
+     * 指定されたIDジェネレーターとユーザーストアを使用するアクションを生成します。
+     *
+     * @param idGenerator 作成の操作でユーザーIDの採番に使用するジェネレーター
+     * @param store ユーザーストア
+     */
+    public BatchUsersAction(UserIdGenerator idGenerator, UserStore store) {
+        this.idGenerator = idGenerator;
+        this.store = store;
+    }
+
+    /**
+     * 一括更新を実行します。
+     *
+     * <p>個々の操作が失敗しても他の操作は実行され、全体としては200ステータスを返します。
+     * リクエストボディが不正な場合や、操作が {@value #MAX_OPERATIONS} 件を超える場合は
+     * どの操作も実行せずに400ステータスを返します。期限は実行コンテキストの残り時間から求めます。</p>
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param requestBody {@code operations} 配列を含むJSONリクエストボディ
+     * @param context Lambda実行コンテキスト
+     * @return 操作ごとの結果を含むAPI Gatewayレスポンス
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String requestBody, Context context) {
+        return execute(principal, requestBody, Deadline.of(context), context);
+    }
+
+    /**
+     * 指定された期限までに一括更新を実行します。
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param requestBody {@code operations} 配列を含むJSONリクエストボディ
+     * @param deadline 残りの操作を打ち切る期限
+     * @param context Lambda実行コンテキスト
+     * @return 操作ごとの結果を含むAPI Gatewayレスポンス（期限を過ぎた場合は503）
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String requestBody, Deadline deadline,
+                                                Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+
+        BatchRequest request;
+        try {
+            request = (requestBody != null && !requestBody.isBlank()) ? JsonCodecs.fromJson(requestBody, BatchRequest.class) : null;
+        } catch (JsonParseException e) {
+            return ApiResponses.error(400, "invalid request body");
+        }
+        if (request == null || request.operations() == null) {
+            return ApiResponses.validationFailed(List.of(new FieldError("$.operations", "is required")));
+        }
+        List<BatchOperation> operations = request.operations();
+        if (operations.size() > MAX_OPERATIONS) {
+            return ApiResponses.validationFailed(List.of(
+                    new FieldError("$.operations", "must contain at most " + MAX_OPERATIONS + " operations")));
+        }
+
+        Map<String, List<Integer>> byUserId = new LinkedHashMap<>();
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            String userId = operations.get(i).userId();
+            if (userId == null || "POST".equals(operations.get(i).method())) {
+                // 作成とuserIdの無い操作は他の操作と独立している
+                groups.add(List.of(i));
+            } else {
+                byUserId.computeIfAbsent(userId, key -> new ArrayList<>()).add(i);
+            }
+        }
+        groups.addAll(byUserId.values());
+
+        APIGatewayProxyResponseEvent[] responses = new APIGatewayProxyResponseEvent[operations.size()];
+        try {
+            users.batch(byUserId.keySet(), staged -> {
+                UserStore stagedStore = UserStore.of(staged);
+                ((groups.size() > 1) ? groups.parallelStream() : groups.stream()).forEach(group -> {
+                    for (int index : group) {
+                        deadline.check();
+                        responses[index] = execute(principal, operations.get(index), stagedStore, context);
+                    }
+                });
+                // 全ての操作が終わった時点で期限を過ぎていれば反映しない
+                deadline.check();
+            });
+        } catch (DeadlineExceededException e) {
+            return ApiResponses.deadlineExceeded();
+        }
+
+        List<BatchResult> results = new ArrayList<>(responses.length);
+        for (APIGatewayProxyResponseEvent response : responses) {
+            results.add(new BatchResult(response.getStatusCode(), response.getBody()));
+        }
+        return ApiResponses.json(200, JsonCodecs.toJson(new BatchResponse(results)));
+    }
+
+    /**
+     * 1件の操作を単体のエンドポイントと同じアクションで実行します。
+     */
+    private APIGatewayProxyResponseEvent execute(Principal principal, BatchOperation operation, UserStore staged,
+                                                 Context context) {
+        String method = (operation.method() != null) ? operation.method() : "";
+        return switch (method) {
+            case "POST" -> new CreateUserAction(idGenerator, staged).execute(principal, operation.body(), context);
+            case "PUT" -> new UpdateUserAction(staged).execute(principal, operation.userId(), operation.body(), context);
+            case "PATCH" -> new PatchUserAction(staged).execute(principal, operation.userId(), operation.body(), context);
+            case "DELETE" -> new DeleteUserAction(staged).execute(principal, operation.userId(), context);
+            default -> ApiResponses.error(400, "unsupported method");
+        };
+    }
+}
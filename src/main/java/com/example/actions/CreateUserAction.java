@@ -2,6 +2,19 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.*;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.id.UserIdGenerator;
+import com.example.json.JsonCodecs;
+import com.example.model.UserRequest;
+import com.example.model.UserStatusResponse;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import com.example.validation.UserSchemas;
+import com.example.validation.ValidationResult;
 import java.util.Collections;
 
 /**
@@ -10,32 +23,75 @@ import java.util.Collections;
  * 
  * <p>このアクションは POST /admin/users エンドポイントで呼び出され、
  * リクエストボディに含まれるユーザー情報を解析して
- * 新しいユーザーをデータベースに保存します。
- * 現在はダミーレスポンスを返しています。</p>
+ * 呼び出し元の組織のパーティションに新しいユーザーを保存します。
+ * ユーザーIDは {@link UserIdGenerator} により時刻順に採番されます。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
 public class CreateUserAction {
+
+    private final UserIdGenerator idGenerator;
+    private final UserStore store;
+
+    /**
+     * プロセス共有のIDジェネレーターとユーザーストアを使用するアクションを生成します。
+     */
+    public CreateUserAction() {
+        this(UserIdGenerator.getDefault(), UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたIDジェネレーターとユーザーストアを使用するアクションを生成します。
+     *
+     * @param idGenerator ユーザーIDの採番に使用するジェネレーター
+     * @param store ユーザーストア
+     */
+    public CreateUserAction(UserIdGenerator idGenerator, UserStore store) {
+        this.idGenerator = idGenerator;
+        this.store = store;
+    }
+
     /**
      * ユーザー作成処理を実行します。
      * 
      * <p>リクエストボディに含まれるユーザー情報を解析し、
-     * データベースに新しいユーザーを作成します。
+     * 呼び出し元の組織に新しいユーザーを作成します。
      * 作成が成功した場合は201ステータスとともに
-     * 作成されたユーザーのIDを返します。</p>
+     * 作成されたユーザーのIDを返します。
+     * リクエストボディが {@link UserSchemas#USER} に違反する場合は
+     * フィールドパス付きのエラーと400ステータスを返します。</p>
      * 
+     * @param principal Authorizerが検証した呼び出し元
      * @param requestBody ユーザー作成情報を含むJSONリクエストボディ
      * @param context Lambda実行コンテキスト
      * @return 作成されたユーザー情報を含むAPI Gatewayレスポンス
      */
-    public APIGatewayProxyResponseEvent execute(String requestBody, Context context) {
-        // 本来はrequestBodyをパースしてDBにユーザーを作成する
-        String dummyResponse = "{\"userId\":\"user-003\", \"status\":\"created\"}";
+    public APIGatewayProxyResponseEvent execute(Principal principal, String requestBody, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+
+        // パースと検証を1回の走査で行う
+        ValidationResult<UserRequest> validation;
+        try (Span ignored = Tracer.span("validate")) {
+            validation = UserSchemas.USER.validate(requestBody);
+        }
+        if (!validation.isValid()) {
+            return ApiResponses.validationFailed(validation.violations());
+        }
+
+        String userId = idGenerator.nextId();
+        users.put(UserRecord.of(userId, validation.value()));
+        String body;
+        try (Span ignored = Tracer.span("serialize")) {
+            body = JsonCodecs.toJson(new UserStatusResponse(userId, "created"));
+        }
 
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(201) // 201 Created
                 .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
-                .withBody(dummyResponse);
+                .withBody(body);
     }
 }
\ No newline at end of file
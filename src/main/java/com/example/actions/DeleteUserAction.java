@@ -2,6 +2,10 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.*;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.store.UserPartition;
+import com.example.store.UserStore;
 
 /**
  * ユーザー削除アクション
@@ -9,27 +13,51 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
  * 
  * <p>このアクションは DELETE /admin/users/{userId} エンドポイントで呼び出され、
  * パスパラメータとして渡されたユーザーIDに対応する
- * ユーザーをデータベースから完全に削除します。
- * 削除成功時は204 No Contentステータスを返します。</p>
+ * ユーザーを呼び出し元の組織のパーティションから削除します。
+ * 削除は冪等で、ユーザーが存在しない場合も204 No Contentステータスを返します。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
 public class DeleteUserAction {
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public DeleteUserAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public DeleteUserAction(UserStore store) {
+        this.store = store;
+    }
+
     /**
      * 指定されたユーザーIDのユーザーを削除します。
      * 
      * <p>パスパラメータとして渡されたユーザーIDに対応するユーザーを
-     * データベースから完全に削除します。ユーザーが存在しない場合は
-     * 404ステータスを返す必要があります。削除が成功した場合は
-     * レスポンスボディなしの204 No Contentステータスを返します。</p>
+     * 呼び出し元の組織から削除し、レスポンスボディなしの204 No Contentステータスを返します。
+     * 他の組織のユーザーは削除されません。</p>
      * 
+     * @param principal Authorizerが検証した呼び出し元
      * @param userId 削除対象のユーザーID
      * @param context Lambda実行コンテキスト
      * @return 空のレスポンスボディと204ステータスを含むAPI Gatewayレスポンス
      */
-    public APIGatewayProxyResponseEvent execute(String userId, Context context) {
-        // 本来はDBから特定ユーザーを削除する
+    public APIGatewayProxyResponseEvent execute(Principal principal, String userId, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+
+        users.remove(userId);
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(204); // 204 No Content
     }
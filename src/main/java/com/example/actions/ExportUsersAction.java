@@ -0,0 +1,197 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonAppender;
+import com.example.json.JsonCodecs;
+import com.example.runtime.Deadline;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * ユーザー一括エクスポートアクション
+ * 組織のユーザーをNDJSON（1行に1ユーザーのJSON）で返します。
+ *
+ * <p>このアクションは GET /admin/users/export エンドポイントで呼び出されます。
+ * 呼び出し元の組織のユーザーをユーザーID順に走査し、中間のリストやDTOを作らずに
+ * 1行ずつボディへ書き出します。1回のレスポンスは最大 {@code limit} 行（既定・上限は
+ * {@value #MAX_PAGE_SIZE} 行）までで、続きがある場合は {@code X-Next-Cursor}
+ * ヘッダーに最後のuserIdを返します。次のページは {@code after} クエリパラメータに
+ * そのuserIdを指定して取得します。</p>
+ *
+ * <p>ボディはプロキシ統合のレスポンスのJSONに文字列としてもう一度エスケープされて埋め込まれ、
+ * Lambdaのレスポンスサイズの上限（{@value #MAX_RESPONSE_BYTES} バイト）はその全体のUTF-8の
+ * バイト数に対して適用されます。そのため各行はエスケープ後のUTF-8のバイト数で数え、
+ * ステータスコードやヘッダーの分として {@value #RESPONSE_ENVELOPE_MARGIN_BYTES} バイトを残して、
+ * 収まらない行は次のページに回します。</p>
+ *
+ * <p>{@value #DEADLINE_CHECK_ROWS} 行ごとに {@link Deadline} を確認し、期限を過ぎた場合は
+ * そこまでの行でページを終えて {@code X-Next-Cursor} を返します。1行も書き出す前に期限を過ぎている
+ * 場合は503ステータスを返します。</p>
+ *
+ * <p>各ユーザーは不変のレコードのため、エクスポート中に書き込みがあっても
+ * 行の内容が混ざることはなく、同じユーザーが2回出力されることもありません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class ExportUsersAction {
+
+    /** 1回のレスポンスに含める最大行数 */
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    /** Lambdaの同期呼び出しのレスポンスの上限（バイト数） */
+    static final int MAX_RESPONSE_BYTES = 6 * 1024 * 1024;
+
+    /** レスポンスのうちボディ以外（ステータスコード・ヘッダー・JSONの構造）に残すバイト数 */
+    static final int RESPONSE_ENVELOPE_MARGIN_BYTES = 64 * 1024;
+
+    /** 1回のレスポンスのボディの上限（レスポンスのJSONに埋め込んだ後のUTF-8のバイト数） */
+    static final int MAX_PAGE_BYTES = MAX_RESPONSE_BYTES - RESPONSE_ENVELOPE_MARGIN_BYTES;
+
+    /** 続きのページの開始位置を返すレスポンスヘッダー */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** 期限を確認する間隔（行数） */
+    static final int DEADLINE_CHECK_ROWS = 1_000;
+
+    private static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public ExportUsersAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public ExportUsersAction(UserStore store) {
+        this.store = store;
+    }
+
+    /**
+     * ユーザーの一括エクスポートを実行します。期限は実行コンテキストの残り時間から求めます。
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param afterUserId このIDより後のユーザーを返す（先頭から取得する場合は {@code null}）
+     * @param limit 最大行数（省略時は {@value #MAX_PAGE_SIZE}）。1以上の整数でない場合は400ステータスを返します
+     * @param context Lambda実行コンテキスト
+     * @return NDJSONのボディを持つAPI Gatewayレスポンス
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String afterUserId, String limit, Context context) {
+        return execute(principal, afterUserId, limit, Deadline.of(context), context);
+    }
+
+    /**
+     * 指定された期限までにユーザーの一括エクスポートを実行します。
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param afterUserId このIDより後のユーザーを返す（先頭から取得する場合は {@code null}）
+     * @param limit 最大行数（省略時は {@value #MAX_PAGE_SIZE}）。1以上の整数でない場合は400ステータスを返します
+     * @param deadline ページを終える期限
+     * @param context Lambda実行コンテキスト
+     * @return NDJSONのボディを持つAPI Gatewayレスポンス（1行も書き出せなかった場合は503）
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String afterUserId, String limit,
+                                                Deadline deadline, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+        int pageSize = pageSizeOf(limit);
+        if (pageSize <= 0) {
+            return ApiResponses.error(400, "invalid limit");
+        }
+
+        StringBuilder body = new StringBuilder(Math.min(pageSize, users.size()) * 96);
+        JsonAppender rowWriter = JsonCodecs.appender(body);
+        String lastUserId = null;
+        boolean hasMore = false;
+        try (Span ignored = Tracer.span("serialize")) {
+            Iterator<UserRecord> iterator = users.after(afterUserId).iterator();
+            int rows = 0;
+            long bytes = 0;
+            while (iterator.hasNext() && rows < pageSize) {
+                if (rows % DEADLINE_CHECK_ROWS == 0 && deadline.isExpired()) {
+                    if (rows == 0) {
+                        return ApiResponses.deadlineExceeded();
+                    }
+                    break;
+                }
+                UserRecord user = iterator.next();
+                int start = body.length();
+                rowWriter.append(user.toResponse()).append('\n');
+                bytes += embeddedBytes(body, start);
+                if (bytes > MAX_PAGE_BYTES && rows > 0) {
+                    // 収まらない行は書き出さずに次のページに回す
+                    body.setLength(start);
+                    hasMore = true;
+                    break;
+                }
+                lastUserId = user.userId();
+                rows++;
+            }
+            hasMore |= iterator.hasNext();
+        }
+
+        Map<String, String> headers = hasMore
+                ? Map.of("Content-Type", CONTENT_TYPE, NEXT_CURSOR_HEADER, lastUserId)
+                : Collections.singletonMap("Content-Type", CONTENT_TYPE);
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withHeaders(headers)
+                .withBody(body.toString());
+    }
+
+    /**
+     * 指定位置以降の文字列を、レスポンスのJSONの文字列として埋め込んだ場合のUTF-8のバイト数を返します。
+     *
+     * @param body ボディ
+     * @param from 数え始める位置
+     * @return エスケープ後のUTF-8のバイト数
+     */
+    static long embeddedBytes(CharSequence body, int from) {
+        long bytes = 0;
+        for (int i = from; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') {
+                bytes += 2;
+            } else if (c < 0x20) {
+                bytes += 6;
+            } else if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // サロゲートペアは2文字で4バイトになる
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static int pageSizeOf(String limit) {
+        if (limit == null) {
+            return MAX_PAGE_SIZE;
+        }
+        try {
+            return Math.min(Integer.parseInt(limit), MAX_PAGE_SIZE);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
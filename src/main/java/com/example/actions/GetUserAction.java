@@ -2,40 +2,71 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.*;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonCodecs;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
 import java.util.Collections;
 
 /**
  * 特定ユーザー取得アクション
  * 指定されたユーザーIDに基づいてユーザー情報を取得します。
- * 
+ *
  * <p>このアクションは GET /admin/users/{userId} エンドポイントで呼び出され、
  * パスパラメータとして渡されたユーザーIDに対応する
- * ユーザーの詳細情報をデータベースから取得して返します。
- * 現在はダミーデータを返しています。</p>
- * 
+ * ユーザーの詳細情報を、呼び出し元の組織のパーティションから取得して返します。</p>
+ *
  * @author Sample Project
  * @version 1.0
  */
 public class GetUserAction {
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public GetUserAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public GetUserAction(UserStore store) {
+        this.store = store;
+    }
+
     /**
      * 指定されたユーザーIDのユーザー情報を取得します。
-     * 
+     *
      * <p>パスパラメータとして渡されたユーザーIDを使用して、
-     * データベースから対応するユーザーの詳細情報を取得し、
-     * JSON形式で返します。ユーザーが存在しない場合は
-     * 404ステータスを返す必要があります。</p>
-     * 
+     * 呼び出し元の組織から対応するユーザーの詳細情報を取得し、
+     * JSON形式で返します。ユーザーが存在しない場合（他の組織のユーザーを含む）は
+     * 404ステータスを返します。</p>
+     *
+     * @param principal Authorizerが検証した呼び出し元
      * @param userId 取得対象のユーザーID
      * @param context Lambda実行コンテキスト
      * @return ユーザー情報を含むAPI Gatewayレスポンス
      */
-    public APIGatewayProxyResponseEvent execute(String userId, Context context) {
-        // 本来はDBから特定のユーザー情報を取得する
-        String dummyResponse = String.format("{\"userId\":\"%s\", \"name\":\"Taro Yamada\"}", userId);
+    public APIGatewayProxyResponseEvent execute(Principal principal, String userId, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+        UserRecord user = users.get(userId);
+        if (user == null) {
+            return ApiResponses.userNotFound();
+        }
 
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
                 .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
-                .withBody(dummyResponse);
+                .withBody(JsonCodecs.toJson(user.toResponse()));
     }
-}
\ No newline at end of file
+}
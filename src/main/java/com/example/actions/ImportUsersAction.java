@@ -0,0 +1,241 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.id.UserIdGenerator;
+import com.example.json.JsonCodecs;
+import com.example.logging.StructuredLogger;
+import com.example.model.FieldError;
+import com.example.model.ImportResponse;
+import com.example.runtime.Deadline;
+import com.example.runtime.DeadlineExceededException;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import com.example.validation.UserSchemas;
+import com.example.validation.ValidationResult;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ユーザー一括取り込みアクション
+ * NDJSON（1行に1ユーザーのJSON）のリクエストボディからユーザーをまとめて登録します。
+ *
+ * <p>このアクションは POST /admin/users/import エンドポイントで呼び出されます。
+ * 各行は {@link UserSchemas#IMPORTED_USER} で検証され、userIdを省略した行には
+ * {@link UserIdGenerator} で採番します。同じuserIdのユーザーは置き換えます。
+ * {@link ExportUsersAction} の出力はそのまま取り込めます。</p>
+ *
+ * <p>ボディは {@value #CHUNK_LINES} 行ごとのチャンクに分け、パースと検証を並列に行います。
+ * 検証済みのチャンクは元の行順に、チャンクごとに1回のロックでパーティションへ書き込みます
+ * （{@link UserPartition#putAll}）。検証に失敗した行は取り込まず、
+ * 最大 {@value #MAX_REPORTED_ERRORS} 件のエラーを行番号付きで返します。</p>
+ *
+ * <p>各チャンクの検証の前に {@link Deadline} を確認し、期限を過ぎた場合は残りのチャンクを
+ * 検証せずに、何も書き込まずに503ステータスを返します。書き込みを始めた後は期限を確認しません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class ImportUsersAction {
+
+    /** 1つのチャンクに含める行数 */
+    static final int CHUNK_LINES = 1_000;
+
+    /** レスポンスに含めるエラーの最大件数 */
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final StructuredLogger LOG = StructuredLogger.getLogger(ImportUsersAction.class);
+
+    private final UserIdGenerator idGenerator;
+    private final UserStore store;
+
+    /**
+     * プロセス共有のIDジェネレーターとユーザーストアを使用するアクションを生成します。
+     */
+    public ImportUsersAction() {
+        this(UserIdGenerator.getDefault(), UserStore.getDefault());
+    }
+
+    /**
+     * プロセス共有のIDジェネレーターと指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public ImportUsersAction(UserStore store) {
+        this(UserIdGenerator.getDefault(), store);
+    }
+
+    /**
+     * 指定されたIDジェネレーターとユーザーストアを使用するアクションを生成します。
+     *
+     * @param idGenerator userIdを省略した行の採番に使用するジェネレーター
+     * @param store ユーザーストア
+     */
+    public ImportUsersAction(UserIdGenerator idGenerator, UserStore store) {
+        this.idGenerator = idGenerator;
+        this.store = store;
+    }
+
+    /**
+     * ユーザーの一括取り込みを実行します。
+     *
+     * <p>検証に成功した行を呼び出し元の組織に登録し、取り込んだ行数・失敗した行数・
+     * 行ごとのエラーを200ステータスで返します。空行は無視します。
+     * ボディが空の場合は400ステータスを返します。期限は実行コンテキストの残り時間から求めます。</p>
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param requestBody NDJSON形式のリクエストボディ
+     * @param context Lambda実行コンテキスト
+     * @return 取り込み結果を含むAPI Gatewayレスポンス
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String requestBody, Context context) {
+        return execute(principal, requestBody, Deadline.of(context), context);
+    }
+
+    /**
+     * 指定された期限までにユーザーの一括取り込みを実行します。
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param requestBody NDJSON形式のリクエストボディ
+     * @param deadline 検証を打ち切る期限
+     * @param context Lambda実行コンテキスト
+     * @return 取り込み結果を含むAPI Gatewayレスポンス（期限を過ぎた場合は503）
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String requestBody, Deadline deadline,
+                                                Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+        if (requestBody == null || requestBody.isBlank()) {
+            return ApiResponses.validationFailed(List.of(new FieldError("$", "request body is required")));
+        }
+
+        List<ParsedChunk> parsed;
+        try (Span ignored = Tracer.span("validate")) {
+            List<Chunk> chunks = chunksOf(requestBody);
+            // チャンクが1つなら並列化のコストをかけない。toListは元の行順を保つ
+            parsed = ((chunks.size() > 1) ? chunks.parallelStream() : chunks.stream())
+                    .map(chunk -> {
+                        deadline.check();
+                        return parse(requestBody, chunk);
+                    })
+                    .toList();
+        } catch (DeadlineExceededException e) {
+            LOG.warn("import abandoned at deadline").with("bytes", requestBody.length());
+            return ApiResponses.deadlineExceeded();
+        }
+
+        int imported = 0;
+        int failed = 0;
+        List<FieldError> errors = new ArrayList<>(0);
+        try (Span ignored = Tracer.span("commit")) {
+            for (ParsedChunk chunk : parsed) {
+                users.putAll(chunk.users());
+                imported += chunk.users().size();
+                failed += chunk.failed();
+                for (FieldError error : chunk.errors()) {
+                    if (errors.size() >= MAX_REPORTED_ERRORS) {
+                        break;
+                    }
+                    errors.add(error);
+                }
+            }
+        }
+
+        LOG.info("users imported").with("imported", imported).with("failed", failed);
+
+        return ApiResponses.json(200, JsonCodecs.toJson(new ImportResponse(imported, failed, errors)));
+    }
+
+    /**
+     * ボディを {@value #CHUNK_LINES} 行ごとの範囲に分割します。文字列はコピーしません。
+     */
+    private static List<Chunk> chunksOf(String body) {
+        List<Chunk> chunks = new ArrayList<>();
+        int length = body.length();
+        int start = 0;
+        int firstLine = 1;
+        while (start < length) {
+            int end = start;
+            int lines = 0;
+            while (end < length && lines < CHUNK_LINES) {
+                int newline = body.indexOf('\n', end);
+                end = (newline < 0) ? length : newline + 1;
+                lines++;
+            }
+            chunks.add(new Chunk(firstLine, start, end));
+            firstLine += lines;
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * チャンク内の各行をパース・検証し、userIdを省略した行に採番します。
+     */
+    private ParsedChunk parse(String body, Chunk chunk) {
+        List<UserRecord> users = new ArrayList<>();
+        List<FieldError> errors = new ArrayList<>(0);
+        int failed = 0;
+        int line = chunk.firstLine();
+        int start = chunk.start();
+        while (start < chunk.end()) {
+            int newline = body.indexOf('\n', start);
+            int next = (newline < 0 || newline >= chunk.end()) ? chunk.end() : newline + 1;
+            int end = (newline < 0 || newline >= chunk.end()) ? chunk.end() : newline;
+            if (end > start && body.charAt(end - 1) == '\r') {
+                end--;
+            }
+            String json = body.substring(start, end);
+            if (!json.isBlank()) {
+                ValidationResult<UserRecord> validation = UserSchemas.IMPORTED_USER.validate(json);
+                if (validation.isValid()) {
+                    users.add(withUserId(validation.value()));
+                } else {
+                    failed++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        for (FieldError violation : validation.violations()) {
+                            errors.add(new FieldError(line + ":" + violation.path(), violation.message()));
+                        }
+                    }
+                }
+            }
+            line++;
+            start = next;
+        }
+        return new ParsedChunk(users, errors, failed);
+    }
+
+    private UserRecord withUserId(UserRecord user) {
+        if (user.userId() != null) {
+            return user;
+        }
+        return new UserRecord(idGenerator.nextId(), user.name(), user.email(), user.role());
+    }
+
+    /**
+     * ボディ内の行の範囲
+     *
+     * @param firstLine 先頭行の行番号（1始まり）
+     * @param start 開始位置
+     * @param end 終了位置（この位置を含まない）
+     */
+    private record Chunk(int firstLine, int start, int end) {
+    }
+
+    /**
+     * 1つのチャンクの検証結果
+     *
+     * @param users 検証に成功したユーザー（行順）
+     * @param errors 行番号付きのエラー
+     * @param failed 検証に失敗した行数
+     */
+    private record ParsedChunk(List<UserRecord> users, List<FieldError> errors, int failed) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonAppender;
+import com.example.json.JsonCodecs;
+import com.example.store.ChangeEvent;
+import com.example.store.ChangeLog;
+import com.example.store.UserPartition;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ユーザー変更フィード取得アクション
+ * 組織のユーザーの作成・更新・削除を、変更ログのオフセット順に返します。
+ *
+ * <p>このアクションは GET /admin/users/changes エンドポイントで呼び出されます。
+ * 消費者は {@code since} に前回のレスポンスの {@code nextOffset} を指定して、続きの変更だけを取得します。
+ * {@code since} を省略した場合は保持している最も古い変更から返します。保持期間を過ぎて削除された
+ * オフセットを指定した場合は410ステータスを返すため、消費者はエクスポートで全件を取り直してから、
+ * その時点の {@code nextOffset} から読み直します。</p>
+ *
+ * <p>変更ログはLambdaの実行環境のメモリ上にあり、オフセットは実行環境ごとの連番です。
+ * 実行環境が入れ替わると変更ログとオフセットは引き継がれないため、別の実行環境に届いた
+ * {@code since} は意味を持ちません（最も古いオフセットより前なら410、次のオフセットより後なら400になります）。
+ * 実行環境は同時に1つの呼び出ししか処理しないため、新しい変更を待つロングポーリングは提供しません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class ListChangesAction {
+
+    /** 1回のレスポンスに含める最大件数 */
+    public static final int MAX_PAGE_SIZE = 1_000;
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public ListChangesAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public ListChangesAction(UserStore store) {
+        this.store = store;
+    }
+
+    /**
+     * 変更フィードを取得します。
+     *
+     * <p>{@code since}・{@code limit} が0以上の整数でない場合と、{@code since} が
+     * 次のオフセットより大きい場合は400ステータスを返します。</p>
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param since 最初に読むオフセット（省略時は保持している最も古い変更）
+     * @param limit 最大件数（省略時・上限は {@value #MAX_PAGE_SIZE}）
+     * @param context Lambda実行コンテキスト
+     * @return 変更の配列と次のオフセットを含むAPI Gatewayレスポンス
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String since, String limit, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+        ChangeLog changes = users.changes();
+        long fromOffset = (since != null) ? parseNonNegative(since) : changes.earliestOffset();
+        long pageSize = (limit != null) ? Math.min(parseNonNegative(limit), MAX_PAGE_SIZE) : MAX_PAGE_SIZE;
+        if (fromOffset < 0 || fromOffset > changes.nextOffset()) {
+            return ApiResponses.error(400, "invalid since");
+        }
+        if (pageSize <= 0) {
+            return ApiResponses.error(400, "invalid limit");
+        }
+        if (fromOffset < changes.earliestOffset()) {
+            return ApiResponses.error(410, "offset no longer retained");
+        }
+
+        List<ChangeEvent> events = changes.read(fromOffset, (int) pageSize);
+        StringBuilder body = new StringBuilder(32 + events.size() * 128);
+        JsonAppender userWriter = JsonCodecs.appender(body);
+        try (Span ignored = Tracer.span("serialize")) {
+            body.append("{\"changes\":[");
+            for (int i = 0; i < events.size(); i++) {
+                appendEvent((i == 0) ? body : body.append(','), userWriter, events.get(i));
+            }
+            long nextOffset = events.isEmpty() ? fromOffset : events.get(events.size() - 1).offset() + 1;
+            body.append("],\"nextOffset\":").append(nextOffset).append('}');
+        }
+
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
+                .withBody(body.toString());
+    }
+
+    private static void appendEvent(StringBuilder out, JsonAppender userWriter, ChangeEvent event) {
+        out.append("{\"offset\":").append(event.offset())
+                .append(",\"type\":\"").append(event.type().json()).append('"');
+        JsonCodecs.appendString(out.append(",\"userId\":"), event.userId());
+        out.append(",\"timestamp\":").append(event.timestampMillis());
+        if (event.user() != null) {
+            out.append(",\"user\":");
+            userWriter.append(event.user().toResponse());
+        }
+        out.append('}');
+    }
+
+    private static long parseNonNegative(String value) {
+        try {
+            long parsed = Long.parseLong(value);
+            return (parsed >= 0) ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,52 +1,222 @@
 package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonAppender;
+import com.example.json.JsonCodecs;
+import com.example.logging.StructuredLogger;
+import com.example.model.UserResponse;
+import com.example.store.ChangeEvent;
+import com.example.store.ChangeType;
+import com.example.store.RenderedPage;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * ユーザー一覧取得アクション
  * 登録されているユーザーの一覧を取得します。
  * 
  * <p>このアクションは GET /admin/users エンドポイントで呼び出され、
- * システムに登録されているすべてのユーザーの基本情報を返します。
- * 現在はダミーデータを返していますが、実際の実装では
- * データベースからユーザー情報を取得する必要があります。</p>
+ * 呼び出し元の組織のパーティションに登録されているユーザーを、ユーザーID順に
+ * 最大 {@value #PAGE_SIZE} 件返します。他の組織のユーザーは走査しません。
+ * 続きがある場合は {@code X-Next-Cursor} ヘッダーにページの最後のuserIdを返し、
+ * 次のページは {@code after} クエリパラメータにそのuserIdを指定して取得します。</p>
+ *
+ * <p>先頭ページの応答はパーティションの {@link UserPartition#firstPage()} でバージョンごとに共有します。
+ * 同じ一覧への同時のリクエストは1回の組み立ての結果を待って共有し、書き込みがあるまでの
+ * 後続のリクエストも組み立て済みのボディを返します。待つのは実行コンテキストの残り時間から
+ * {@value #DEADLINE_MARGIN_MILLIS} ミリ秒を引いた時間までで、それを過ぎた場合は自分で組み立てます。</p>
+ *
+ * <p>{@code since} に前回の応答の {@code watermark} を指定すると、それ以降に作成・更新・削除された
+ * ユーザーだけを返します（差分同期）。差分はパーティションの {@link UserPartition#modifiedSince} の
+ * インデックスから読むため、組織のユーザー数ではなく変更されたユーザー数に比例した時間で返します。
+ * 応答は {@code {"users":[...],"deleted":[...],"watermark":N,"hasMore":false}} の形で、
+ * {@code hasMore} が {@code true} の間は返された {@code watermark} で続きを取得します。
+ * {@code since=0} は全てのユーザーと削除済みのユーザーIDを返すため、初回の同期にも使えます。
+ * 古いトゥームストーンは {@link com.example.store.Compactor} が取り除くため、取り除かれた範囲の
+ * {@code watermark} には410ステータスを返します。クライアントは {@code since=0} で同期し直します。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
 public class ListUsersAction {
 
+    /** 1回のレスポンスに含める最大件数 */
+    public static final int PAGE_SIZE = 100;
+
+    /** 共有の待ち合わせをやめて自分で組み立てるための残り時間の余裕（ミリ秒） */
+    static final long DEADLINE_MARGIN_MILLIS = 100;
+
+    private static final StructuredLogger LOG = StructuredLogger.getLogger(ListUsersAction.class);
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public ListUsersAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public ListUsersAction(UserStore store) {
+        this.store = store;
+    }
+
     /**
      * ユーザー一覧取得処理を実行します。
      * 
-     * <p>システムに登録されているすべてのユーザーの基本情報を取得し、
-     * JSON形式で返します。処理の開始と終了時にログを出力します。</p>
+     * <p>呼び出し元の組織のユーザーを取得し、
+     * JSON形式で返します。処理の開始と終了時に構造化ログを記録します。
+     * ログはハンドラーの処理の最後に {@link StructuredLogger#flush} で出力されます。</p>
      * 
-     * @param context Lambda実行コンテキスト（ロギング用）
+     * @param principal Authorizerが検証した呼び出し元
+     * @param context Lambda実行コンテキスト
      * @return ユーザー一覧を含むAPI Gatewayレスポンス
      */
-    public APIGatewayProxyResponseEvent execute(Context context) {
-        // Contextからロガーを取得
-        LambdaLogger logger = context.getLogger();
-
-        // ログを出力
-        logger.log("--- ListUsersAction: Processing started ---");
+    public APIGatewayProxyResponseEvent execute(Principal principal, Context context) {
+        return execute(principal, null, null, context);
+    }
 
-        // 実際のビジネスロジック (DBアクセスなど)
-        String dummyResponse = "[{\"userId\":\"user-001\", \"name\":\"Taro Yamada\"}, {\"userId\":\"user-002\", \"name\":\"Hanako Suzuki\"}]";
+    /**
+     * ユーザー一覧取得処理、または {@code since} 以降の差分同期を実行します。
+     *
+     * <p>{@code since} が0以上の整数でない場合と、これまでの {@code watermark} より大きい場合、
+     * {@code after} と同時に指定された場合は400ステータスを、トゥームストーンが取り除かれた範囲の場合は
+     * 410ステータスを返します。</p>
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param since 前回の応答の {@code watermark}（一覧を取得する場合は {@code null}）
+     * @param afterUserId このIDより後のユーザーを返す（先頭ページを取得する場合は {@code null}）
+     * @param context Lambda実行コンテキスト
+     * @return ユーザー一覧、または差分を含むAPI Gatewayレスポンス
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String since, String afterUserId,
+                                                Context context) {
+        LOG.info("list users started").with("organizationId", principal.organizationId());
 
-        logger.log("Successfully retrieved " + 2 + " users.");
+        UserPartition partition = store.partitionFor(principal);
+        if (partition == null) {
+            return ApiResponses.organizationRequired();
+        }
+        if (since != null && afterUserId != null) {
+            return ApiResponses.error(400, "since and after cannot be combined");
+        }
+        String body;
+        String nextCursor = null;
+        if (since != null) {
+            long fromOffset = parseNonNegative(since);
+            // 走査の前に読み取り、ここまでの変更が全てインデックスにあることを保証する
+            long watermark = partition.watermark();
+            if (fromOffset < 0 || fromOffset > watermark) {
+                return ApiResponses.error(400, "invalid since");
+            }
+            if (fromOffset > 0 && fromOffset < partition.compactedBefore()) {
+                return ApiResponses.error(410, "watermark no longer retained");
+            }
+            body = renderDelta(partition, fromOffset, watermark);
+        } else {
+            RenderedPage page;
+            if (afterUserId != null) {
+                page = render(partition, afterUserId);
+            } else {
+                // 内容が少なくともこのバージョンを含むよう、組み立ての前に読み取る
+                long version = partition.version();
+                page = partition.firstPage().get(version, () -> render(partition, null), waitMillisOf(context));
+            }
+            body = page.body();
+            nextCursor = page.nextCursor();
+            LOG.info("users retrieved").with("count", page.count());
+        }
 
+        Map<String, String> headers = (nextCursor != null)
+                ? Map.of("Content-Type", "application/json", ExportUsersAction.NEXT_CURSOR_HEADER, nextCursor)
+                : Collections.singletonMap("Content-Type", "application/json");
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
-                .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
-                .withBody(dummyResponse);
+                .withHeaders(headers)
+                .withBody(body);
 
-        logger.log("--- ListUsersAction: Processing finished. Status code: " + response.getStatusCode() + " ---");
+        LOG.info("list users finished").with("statusCode", response.getStatusCode());
 
         return response;
     }
+
+    /**
+     * {@code afterUserId} より後のユーザーを最大 {@value #PAGE_SIZE} 件、JSON配列に組み立てます。
+     */
+    private static RenderedPage render(UserPartition partition, String afterUserId) {
+        // 1件多く読み、続きがあるかどうかを判定する
+        List<UserRecord> records = partition.list(afterUserId, PAGE_SIZE + 1);
+        int count = Math.min(records.size(), PAGE_SIZE);
+        List<UserResponse> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(records.get(i).toResponse());
+        }
+        String nextCursor = (records.size() > PAGE_SIZE) ? records.get(PAGE_SIZE - 1).userId() : null;
+        try (Span ignored = Tracer.span("serialize")) {
+            return new RenderedPage(JsonCodecs.toJsonArray(users, UserResponse.class), count, nextCursor);
+        }
+    }
+
+    /**
+     * {@code fromOffset} 以降に変更されたユーザーを最大 {@value #PAGE_SIZE} 件、差分の応答に組み立てます。
+     */
+    private static String renderDelta(UserPartition partition, long fromOffset, long watermark) {
+        StringBuilder users = new StringBuilder(256);
+        JsonAppender userWriter = JsonCodecs.appender(users);
+        StringBuilder deleted = new StringBuilder(64);
+        int count = 0;
+        long nextWatermark = watermark;
+        try (Span ignored = Tracer.span("serialize")) {
+            for (ChangeEvent change : partition.modifiedSince(fromOffset, watermark)) {
+                if (count == PAGE_SIZE) {
+                    nextWatermark = change.offset();
+                    break;
+                }
+                if (change.type() == ChangeType.DELETED) {
+                    JsonCodecs.appendString((deleted.length() > 0) ? deleted.append(',') : deleted, change.userId());
+                } else {
+                    if (users.length() > 0) {
+                        users.append(',');
+                    }
+                    userWriter.append(change.user().toResponse());
+                }
+                count++;
+            }
+            LOG.info("users changed").with("count", count);
+            return new StringBuilder(users.length() + deleted.length() + 64)
+                    .append("{\"users\":[").append(users)
+                    .append("],\"deleted\":[").append(deleted)
+                    .append("],\"watermark\":").append(nextWatermark)
+                    .append(",\"hasMore\":").append(nextWatermark < watermark)
+                    .append('}').toString();
+        }
+    }
+
+    private static long parseNonNegative(String value) {
+        try {
+            long parsed = Long.parseLong(value);
+            return (parsed >= 0) ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long waitMillisOf(Context context) {
+        return (context != null) ? context.getRemainingTimeInMillis() - DEADLINE_MARGIN_MILLIS : 0;
+    }
 }
\ No newline at end of file
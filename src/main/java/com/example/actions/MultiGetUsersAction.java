@@ -0,0 +1,127 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonAppender;
+import com.example.json.JsonCodecs;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 複数ユーザー取得アクション
+ * カンマ区切りで指定された複数のユーザーIDのユーザー情報を1回のリクエストで取得します。
+ *
+ * <p>このアクションは GET /admin/users?ids=... エンドポイントで呼び出されます。
+ * 重複したIDは最初の1回だけを対象とし、呼び出し元の組織のパーティションから
+ * 1回の走査でまとめて取得します。結果は指定された順の配列で、存在しないユーザー
+ * （他の組織のユーザーを含む）の位置には {@code {"userId":"...","status":"not_found"}} を返します。
+ * 中間のリストやDTOは作らず、取得しながらボディへ書き出します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class MultiGetUsersAction {
+
+    /** 1回のリクエストで指定できるユーザーIDの最大件数（重複を除く） */
+    public static final int MAX_IDS = 200;
+
+    private static final String NOT_FOUND = "not_found";
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public MultiGetUsersAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public MultiGetUsersAction(UserStore store) {
+        this.store = store;
+    }
+
+    /**
+     * 指定されたユーザーIDのユーザー情報をまとめて取得します。
+     *
+     * <p>IDが1件も無い場合や、重複を除いて {@value #MAX_IDS} 件を超える場合は
+     * 400ステータスを返します。</p>
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @param ids カンマ区切りのユーザーID
+     * @param context Lambda実行コンテキスト
+     * @return ユーザー情報の配列を含むAPI Gatewayレスポンス
+     */
+    public APIGatewayProxyResponseEvent execute(Principal principal, String ids, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+        Set<String> userIds = parseIds(ids);
+        if (userIds.isEmpty()) {
+            return ApiResponses.error(400, "invalid ids");
+        }
+        if (userIds.size() > MAX_IDS) {
+            return ApiResponses.error(400, "too many ids");
+        }
+
+        StringBuilder body = new StringBuilder(userIds.size() * 96);
+        JsonAppender userWriter = JsonCodecs.appender(body);
+        try (Span ignored = Tracer.span("serialize")) {
+            body.append('[');
+            for (String userId : userIds) {
+                if (body.length() > 1) {
+                    body.append(',');
+                }
+                UserRecord user = users.get(userId);
+                if (user != null) {
+                    userWriter.append(user.toResponse());
+                } else {
+                    JsonCodecs.appendString(body.append("{\"userId\":"), userId)
+                            .append(",\"status\":\"").append(NOT_FOUND).append("\"}");
+                }
+            }
+            body.append(']');
+        }
+
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
+                .withBody(body.toString());
+    }
+
+    /**
+     * カンマ区切りのIDを、前後の空白と空の要素を除いて指定された順に重複なく返します。
+     * {@value #MAX_IDS} 件を超えた時点で打ち切ります（呼び出し元で超過を判定できるよう1件多く返します）。
+     */
+    private static Set<String> parseIds(String ids) {
+        Set<String> userIds = new LinkedHashSet<>();
+        if (ids == null) {
+            return userIds;
+        }
+        int start = 0;
+        int length = ids.length();
+        while (start <= length && userIds.size() <= MAX_IDS) {
+            int comma = ids.indexOf(',', start);
+            int end = (comma < 0) ? length : comma;
+            String userId = ids.substring(start, end).strip();
+            if (!userId.isEmpty()) {
+                userIds.add(userId);
+            }
+            start = end + 1;
+        }
+        return userIds;
+    }
+}
@@ -2,6 +2,18 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.*;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonCodecs;
+import com.example.model.UserRequest;
+import com.example.model.UserStatusResponse;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import com.example.validation.UserSchemas;
+import com.example.validation.ValidationResult;
 import java.util.Collections;
 
 /**
@@ -11,31 +23,73 @@ import java.util.Collections;
  * <p>このアクションは PATCH /admin/users/{userId} エンドポイントで呼び出され、
  * リクエストボディに含まれるフィールドだけを更新します。
  * PUTとは異なり、送信されなかったフィールドは変更されず、
- * 既存の値が維持されます。</p>
+ * 既存の値が維持されます。ユーザーが呼び出し元の組織に存在しない場合は404を返します。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
 public class PatchUserAction {
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public PatchUserAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public PatchUserAction(UserStore store) {
+        this.store = store;
+    }
+
     /**
      * 指定されたユーザーIDの情報を部分的に更新します。
      * 
      * <p>リクエストボディに含まれたフィールドだけを更新し、
      * その他のフィールドは既存の値を維持します。
-     * これにPATCHメソッドの本来の意味である部分更新を実現します。</p>
+     * これにPATCHメソッドの本来の意味である部分更新を実現します。
+     * ボディが空の場合は何も変更しません。指定されたフィールドはPOST・PUTと同じルールで検証し、
+     * 違反がある場合やJSONとして解析できない場合は、何も変更せずにフィールドパス付きのエラーと400を返します。</p>
      * 
+     * @param principal Authorizerが検証した呼び出し元
      * @param userId 更新対象のユーザーID
      * @param requestBody 部分更新情報を含むJSONリクエストボディ
      * @param context Lambda実行コンテキスト
      * @return 更新結果を含むAPI Gatewayレスポンス
      */
-    public APIGatewayProxyResponseEvent execute(String userId, String requestBody, Context context) {
-        // 本来はDBの特定ユーザー情報の一部を更新する
-        String dummyResponse = String.format("{\"userId\":\"%s\", \"status\":\"patched\"}", userId);
+    public APIGatewayProxyResponseEvent execute(Principal principal, String userId, String requestBody, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+
+        UserRecord patched;
+        if (requestBody == null || requestBody.isBlank()) {
+            patched = users.get(userId);
+        } else {
+            ValidationResult<UserRequest> validation;
+            try (Span ignored = Tracer.span("validate")) {
+                validation = UserSchemas.USER_PATCH.validate(requestBody);
+            }
+            if (!validation.isValid()) {
+                return ApiResponses.validationFailed(validation.violations());
+            }
+            UserRequest patch = validation.value();
+            patched = users.update(userId, user -> user.merge(patch));
+        }
+        if (patched == null) {
+            return ApiResponses.userNotFound();
+        }
 
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
                 .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
-                .withBody(dummyResponse);
+                .withBody(JsonCodecs.toJson(new UserStatusResponse(userId, "patched")));
     }
 }
\ No newline at end of file
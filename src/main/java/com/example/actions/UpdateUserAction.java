@@ -2,6 +2,18 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.*;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.http.ApiResponses;
+import com.example.json.JsonCodecs;
+import com.example.model.UserRequest;
+import com.example.model.UserStatusResponse;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.tracing.Span;
+import com.example.tracing.Tracer;
+import com.example.validation.UserSchemas;
+import com.example.validation.ValidationResult;
 import java.util.Collections;
 
 /**
@@ -11,31 +23,73 @@ import java.util.Collections;
  * <p>このアクションは PUT /admin/users/{userId} エンドポイントで呼び出され、
  * リクエストボディに含まれる情報でユーザーの全フィールドを
  * 置き換えます。PATCHとは異なり、送信されなかったフィールドは
- * クリアされる可能性があります。</p>
+ * クリアされます。指定されたIDのユーザーが呼び出し元の組織に存在しない場合は作成します。</p>
  * 
  * @author Sample Project
  * @version 1.0
  */
 public class UpdateUserAction {
+
+    private final UserStore store;
+
+    /**
+     * プロセス共有のユーザーストアを使用するアクションを生成します。
+     */
+    public UpdateUserAction() {
+        this(UserStore.getDefault());
+    }
+
+    /**
+     * 指定されたユーザーストアを使用するアクションを生成します。
+     *
+     * @param store ユーザーストア
+     */
+    public UpdateUserAction(UserStore store) {
+        this.store = store;
+    }
+
     /**
      * 指定されたユーザーIDの情報を完全に更新します。
      * 
      * <p>リクエストボディに含まれる情報でユーザーの全データを置き換えます。
      * PUTメソッドの意味に従い、送信されなかったフィールドは
-     * デフォルト値やnullで上書きされる可能性があります。</p>
+     * nullで上書きされ、存在しないユーザーは作成されます。
+     * リクエストボディが {@link UserSchemas#USER} に違反する場合は
+     * フィールドパス付きのエラーと400ステータスを返します。</p>
      * 
+     * @param principal Authorizerが検証した呼び出し元
      * @param userId 更新対象のユーザーID
      * @param requestBody 更新情報を含むJSONリクエストボディ
      * @param context Lambda実行コンテキスト
      * @return 更新結果を含むAPI Gatewayレスポンス
      */
-    public APIGatewayProxyResponseEvent execute(String userId, String requestBody, Context context) {
-        // 本来はDBの特定ユーザー情報を更新する
-        String dummyResponse = String.format("{\"userId\":\"%s\", \"status\":\"updated\"}", userId);
+    public APIGatewayProxyResponseEvent execute(Principal principal, String userId, String requestBody, Context context) {
+        UserPartition users = store.partitionFor(principal);
+        if (users == null) {
+            return ApiResponses.organizationRequired();
+        }
+        if (userId == null) {
+            return ApiResponses.userNotFound();
+        }
+
+        // パースと検証を1回の走査で行う
+        ValidationResult<UserRequest> validation;
+        try (Span ignored = Tracer.span("validate")) {
+            validation = UserSchemas.USER.validate(requestBody);
+        }
+        if (!validation.isValid()) {
+            return ApiResponses.validationFailed(validation.violations());
+        }
+
+        users.put(UserRecord.of(userId, validation.value()));
+        String body;
+        try (Span ignored = Tracer.span("serialize")) {
+            body = JsonCodecs.toJson(new UserStatusResponse(userId, "updated"));
+        }
 
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
                 .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
-                .withBody(dummyResponse);
+                .withBody(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.auth;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lambda Authorizerが検証したリクエストの呼び出し元
+ *
+ * <p>Authorizerのコンテキスト（{@code principalId}、{@code role}、{@code organization_id}）を
+ * 呼び出しごとに1回だけ読み取り、各ハンドラーとアクションは
+ * マップではなくこの値のフィールドでテナントの判定を行います。</p>
+ *
+ * <p>役割と組織IDは種類が限られ、リクエストごとに同じ値が新しい文字列として届くため、
+ * プロセス内で正規化した同一のインスタンスを使用します。正規化する値の数は
+ * {@link #MAX_CANONICAL_VALUES} までで、それを超えた値は正規化せずにそのまま使用します。</p>
+ *
+ * @param userId ユーザーの一意識別子（JWTの {@code sub}）
+ * @param role ユーザーの役割
+ * @param organizationId ユーザーが所属する組織のID
+ * @author Sample Project
+ * @version 1.0
+ */
+public record Principal(String userId, String role, String organizationId) {
+
+    /** Authorizerのコンテキストのキー: ユーザーID */
+    public static final String PRINCIPAL_ID = "principalId";
+
+    /** Authorizerのコンテキストのキー: 役割 */
+    public static final String ROLE = "role";
+
+    /** Authorizerのコンテキストのキー: 組織ID */
+    public static final String ORGANIZATION_ID = "organization_id";
+
+    /** Authorizerのコンテキストが無いリクエストの呼び出し元 */
+    public static final Principal ANONYMOUS = new Principal(null, null, null);
+
+    /** 正規化して保持する役割・組織IDの最大数 */
+    static final int MAX_CANONICAL_VALUES = 4096;
+
+    private static final Map<String, String> CANONICAL = new ConcurrentHashMap<>();
+
+    /**
+     * リクエストのAuthorizerのコンテキストから呼び出し元を取得します。
+     *
+     * @param event API Gatewayからのプロキシリクエストイベント
+     * @return 呼び出し元（Authorizerのコンテキストが無い場合は {@link #ANONYMOUS}）
+     */
+    public static Principal from(APIGatewayProxyRequestEvent event) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = event.getRequestContext();
+        Map<String, Object> authorizer = (requestContext != null) ? requestContext.getAuthorizer() : null;
+        if (authorizer == null) {
+            return ANONYMOUS;
+        }
+        return new Principal(
+                stringOf(authorizer.get(PRINCIPAL_ID)),
+                canonical(stringOf(authorizer.get(ROLE))),
+                canonical(stringOf(authorizer.get(ORGANIZATION_ID))));
+    }
+
+    /**
+     * ユーザーID・役割・組織IDがすべて揃っているかどうかを返します。
+     *
+     * @return 認証済みの呼び出し元の場合は {@code true}
+     */
+    public boolean isAuthenticated() {
+        return userId != null && role != null && organizationId != null;
+    }
+
+    /**
+     * 同じ値の文字列には同じインスタンスを返します。
+     */
+    static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = CANONICAL.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (CANONICAL.size() >= MAX_CANONICAL_VALUES) {
+            return value;
+        }
+        existing = CANONICAL.putIfAbsent(value, value);
+        return (existing != null) ? existing : value;
+    }
+
+    private static String stringOf(Object value) {
+        if (value instanceof String string) {
+            return string;
+        }
+        return (value != null) ? value.toString() : null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.cds;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.example.AdminUsersHandler;
+import com.example.AuthHandler;
+import com.example.AuthorizerHandler;
+import com.example.ProtectedHandler;
+import com.example.json.JsonCodecs;
+import com.example.model.TokenResponse;
+import com.example.priming.SyntheticContext;
+import com.example.store.UserStore;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 記録済みイベントで全ハンドラーを実行するトレーニング実行
+ *
+ * <p>AppCDSアーカイブの生成時に {@code -XX:DumpLoadedClassList} 付きで起動され、
+ * コールドスタートで読み込まれるクラスを網羅的にロードさせます（{@code appcds} プロファイル）。
+ * イベントはハンドラーのクラス名のディレクトリに置かれたJSONファイルで、
+ * 各ディレクトリ内はファイル名順に実行されます。</p>
+ *
+ * <pre>
+ * events/
+ *   AuthHandler/issue-token.json
+ *   AuthorizerHandler/valid-token.json      ← "{{token}}" は発行したJWTに置換
+ *   ProtectedHandler/hello.json
+ *   AdminUsersHandler/list-users.json ...
+ * </pre>
+ *
+ * <p>起動から最初の呼び出しまでの時間の計測にも使用でき、
+ * 実行結果と最初の呼び出しの所要時間を標準出力に表示します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class CdsTraining {
+
+    /** 実行順（トークンを発行するAuthHandlerを最初に実行する） */
+    private static final List<String> HANDLERS =
+            List.of("AuthHandler", "AuthorizerHandler", "ProtectedHandler", "AdminUsersHandler");
+
+    private static final String TOKEN_PLACEHOLDER = "{{token}}";
+
+    private CdsTraining() {
+    }
+
+    /**
+     * トレーニングを実行します。
+     *
+     * @param args イベントディレクトリ（既定は {@code events}）
+     * @throws IOException イベントの読み込みに失敗した場合
+     */
+    public static void main(String[] args) throws IOException {
+        long startNanos = System.nanoTime();
+        Map<String, Integer> results = run(Path.of(args.length > 0 ? args[0] : "events"));
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1_000;
+
+        results.forEach((event, status) -> System.out.println(status + " " + event));
+        System.out.println("events=" + results.size() + " elapsedMicros=" + elapsedMicros);
+    }
+
+    /**
+     * イベントディレクトリ内の全イベントを対応するハンドラーで実行します。
+     *
+     * @param eventsDir イベントディレクトリ
+     * @return イベントのパス（{@code ハンドラー名/ファイル名}）とステータスコード（Authorizerは許可で200、拒否で403）
+     * @throws IOException イベントの読み込みに失敗した場合
+     */
+    public static Map<String, Integer> run(Path eventsDir) throws IOException {
+        Gson gson = new Gson();
+        Context context = new SyntheticContext("cds-training");
+        Map<String, Integer> results = new LinkedHashMap<>();
+        String token = "";
+
+        for (String handler : HANDLERS) {
+            for (Path file : eventFiles(eventsDir.resolve(handler))) {
+                String json = Files.readString(file).replace(TOKEN_PLACEHOLDER, token);
+                String name = handler + "/" + file.getFileName();
+                switch (handler) {
+                    case "AuthHandler" -> {
+                        var response = new AuthHandler()
+                                .handleRequest(gson.fromJson(json, APIGatewayProxyRequestEvent.class), context);
+                        token = JsonCodecs.fromJson(response.getBody(), TokenResponse.class).token();
+                        results.put(name, response.getStatusCode());
+                    }
+                    case "AuthorizerHandler" -> {
+                        Map<String, Object> policy = new AuthorizerHandler()
+                                .handleRequest(gson.fromJson(json, APIGatewayCustomAuthorizerEvent.class), context);
+                        results.put(name, policy.containsKey("context") ? 200 : 403);
+                    }
+                    case "ProtectedHandler" -> results.put(name, new ProtectedHandler()
+                            .handleRequest(gson.fromJson(json, APIGatewayProxyRequestEvent.class), context)
+                            .getStatusCode());
+                    default -> {
+                        // 削除のイベントが後続の取得や更新のイベントに影響しないよう、毎回サンプルのユーザーに戻す
+                        UserStore.getDefault().seedSampleUsers();
+                        results.put(name, new AdminUsersHandler()
+                                .handleRequest(gson.fromJson(json, APIGatewayProxyRequestEvent.class), context)
+                                .getStatusCode());
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<Path> eventFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * API Gatewayプロキシリクエストの読み取りユーティリティ
+ *
+ * <p>APIの {@code BinaryMediaTypes} に一致する {@code Content-Type} のリクエストは、
+ * ボディがBase64で符号化されて {@code isBase64Encoded=true} で届きます。
+ * ボディを読む全てのハンドラーは {@link #bodyOf} を通して復号済みのボディを受け取ります。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class ApiRequests {
+
+    private ApiRequests() {
+    }
+
+    /**
+     * リクエストボディを返します。Base64で符号化されている場合はUTF-8として復号します。
+     *
+     * @param event API Gatewayからのプロキシリクエストイベント
+     * @return リクエストボディ（無い場合は {@code null}）
+     * @throws IllegalArgumentException {@code isBase64Encoded} なのにBase64として不正な場合
+     */
+    public static String bodyOf(APIGatewayProxyRequestEvent event) {
+        String body = event.getBody();
+        if (body != null && Boolean.TRUE.equals(event.getIsBase64Encoded())) {
+            return new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.json.JsonCodecs;
+import com.example.model.ErrorResponse;
+import com.example.model.FieldError;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API Gatewayプロキシレスポンスの生成ユーティリティ
+ * JSONレスポンスやエラーレスポンスを共通の形式で生成します。
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class ApiResponses {
+
+    /** 503レスポンスで再試行を促すまでの秒数 */
+    public static final int UNAVAILABLE_RETRY_AFTER_SECONDS = 1;
+
+    private ApiResponses() {
+    }
+
+    /**
+     * JSONボディを持つレスポンスを生成します。
+     *
+     * @param statusCode HTTPステータスコード
+     * @param body JSON文字列
+     * @return Content-Typeにapplication/jsonを設定したレスポンス
+     */
+    public static APIGatewayProxyResponseEvent json(int statusCode, String body) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(Collections.singletonMap("Content-Type", "application/json"))
+                .withBody(body);
+    }
+
+    /**
+     * エラーレスポンスを生成します。
+     *
+     * @param statusCode HTTPステータスコード
+     * @param error エラーの概要
+     * @return {@link ErrorResponse} をボディに持つレスポンス
+     */
+    public static APIGatewayProxyResponseEvent error(int statusCode, String error) {
+        return json(statusCode, JsonCodecs.toJson(new ErrorResponse(error)));
+    }
+
+    /**
+     * ユーザーが存在しない場合のレスポンス（404 Not Found）を生成します。
+     *
+     * @return 404レスポンス
+     */
+    public static APIGatewayProxyResponseEvent userNotFound() {
+        return error(404, "user not found");
+    }
+
+    /**
+     * 呼び出し元の組織が特定できない場合のレスポンス（403 Forbidden）を生成します。
+     *
+     * @return 403レスポンス
+     */
+    public static APIGatewayProxyResponseEvent organizationRequired() {
+        return error(403, "organization not specified");
+    }
+
+    /**
+     * レート制限超過のレスポンス（429 Too Many Requests）を生成します。
+     *
+     * @param retryAfterSeconds 再試行までの秒数（Retry-Afterヘッダーに設定）
+     * @return 429レスポンス
+     */
+    public static APIGatewayProxyResponseEvent tooManyRequests(long retryAfterSeconds) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(429)
+                .withHeaders(Map.of(
+                        "Content-Type", "application/json",
+                        "Retry-After", Long.toString(retryAfterSeconds)))
+                .withBody(JsonCodecs.toJson(new ErrorResponse("too many requests")));
+    }
+
+    /**
+     * 処理の期限に間に合わないためにリクエストを受け付けない場合のレスポンス
+     * （503 Service Unavailable）を生成します。
+     *
+     * <p>次の呼び出しでは十分な時間があるため、{@value #UNAVAILABLE_RETRY_AFTER_SECONDS} 秒後の再試行を促します。</p>
+     *
+     * @return Retry-Afterヘッダー付きの503レスポンス
+     */
+    public static APIGatewayProxyResponseEvent deadlineExceeded() {
+        return serviceUnavailable("deadline exceeded");
+    }
+
+    /**
+     * 同時に処理中のリクエストが上限に達しているために受け付けない場合のレスポンス
+     * （503 Service Unavailable）を生成します。
+     *
+     * @return Retry-Afterヘッダー付きの503レスポンス
+     */
+    public static APIGatewayProxyResponseEvent overloaded() {
+        return serviceUnavailable("too many concurrent requests");
+    }
+
+    private static APIGatewayProxyResponseEvent serviceUnavailable(String error) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(503)
+                .withHeaders(Map.of(
+                        "Content-Type", "application/json",
+                        "Retry-After", Integer.toString(UNAVAILABLE_RETRY_AFTER_SECONDS)))
+                .withBody(JsonCodecs.toJson(new ErrorResponse(error)));
+    }
+
+    /**
+     * 入力検証エラーのレスポンス（400 Bad Request）を生成します。
+     *
+     * @param violations フィールドごとのエラー
+     * @return エラー詳細を含む400レスポンス
+     */
+    public static APIGatewayProxyResponseEvent validationFailed(List<FieldError> violations) {
+        return json(400, JsonCodecs.toJson(new ErrorResponse("validation failed", violations)));
+    }
+}
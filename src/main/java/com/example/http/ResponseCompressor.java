@@ -0,0 +1,305 @@
+package com.example.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * レスポンスボディのgzip圧縮
+ *
+ * <p>リクエストの {@code Accept-Encoding} がgzipを受け付け、ボディが閾値以上の場合に、
+ * ボディをgzip圧縮してBase64で符号化し、{@code isBase64Encoded} と
+ * {@code Content-Encoding: gzip} を設定します。圧縮しても小さくならないボディはそのまま返します。</p>
+ *
+ * <p>API Gateway（REST）がBase64を復号してバイト列をクライアントに返すのは、リクエストの
+ * {@code Accept} の最初のメディアタイプが {@code BinaryMediaTypes} に一致する場合だけです。
+ * 一致しない場合（{@code Accept: *}{@code /*} など）はBase64の文字列がそのまま返ってしまうため、
+ * {@code Accept} がtemplate.yamlの {@code BinaryMediaTypes} と同じ {@link #BINARY_MEDIA_TYPES}
+ * に一致するリクエストだけを圧縮します。</p>
+ *
+ * <p>{@link Deflater} とCRC32、出力バッファはスレッドごとに1つを再利用し、
+ * 呼び出しごとのネイティブメモリの確保と解放を避けます。</p>
+ *
+ * <p>環境変数 {@code COMPRESSION_MIN_BYTES} で閾値（既定は1024バイト）、
+ * {@code COMPRESSION_LEVEL} で圧縮レベル（1〜9、既定は {@value #DEFAULT_LEVEL}）を変更でき、
+ * {@code COMPRESSION_ENABLED=false} で無効化できます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class ResponseCompressor {
+
+    /** 圧縮するボディの既定の最小バイト数 */
+    public static final int DEFAULT_MIN_BYTES = 1024;
+
+    /** 既定の圧縮レベル */
+    public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+    /** API Gatewayがバイナリとして扱うメディアタイプ（template.yamlの {@code BinaryMediaTypes} と同じ） */
+    public static final List<String> BINARY_MEDIA_TYPES = List.of("application/json", "application/x-ndjson");
+
+    /** スレッドごとに保持し続ける出力バッファの上限（これを超えるボディは都度確保する） */
+    static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private static final ResponseCompressor DISABLED = new ResponseCompressor(Integer.MAX_VALUE, DEFAULT_LEVEL);
+
+    private static final ResponseCompressor DEFAULT = fromEnvironment();
+
+    private final int minBytes;
+    private final ThreadLocal<GzipBuffers> buffers;
+
+    /**
+     * 閾値と圧縮レベルを指定して生成します。
+     *
+     * @param minBytes 圧縮するボディの最小バイト数（UTF-8）
+     * @param level 圧縮レベル（1〜9）
+     */
+    public ResponseCompressor(int minBytes, int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.minBytes = Math.max(1, minBytes);
+        this.buffers = ThreadLocal.withInitial(() -> new GzipBuffers(level));
+    }
+
+    /**
+     * プロセス全体で共有されるデフォルトの圧縮設定を返します。
+     *
+     * @return 環境変数の設定に従った圧縮設定
+     */
+    public static ResponseCompressor getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 何も圧縮しない設定を返します。
+     *
+     * @return 無効化された圧縮設定
+     */
+    public static ResponseCompressor disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * 条件を満たす場合にレスポンスのボディを圧縮します。
+     *
+     * @param request クライアントからのリクエスト（{@code Accept} と {@code Accept-Encoding} の参照に使用）
+     * @param response アクションが生成したレスポンス
+     * @return 圧縮した場合は同じレスポンスにgzipのBase64とヘッダーを設定したもの、それ以外は元のレスポンス
+     */
+    public APIGatewayProxyResponseEvent compress(APIGatewayProxyRequestEvent request, APIGatewayProxyResponseEvent response) {
+        if (response == null || this == DISABLED) {
+            return response;
+        }
+        String body = response.getBody();
+        // UTF-8では1文字が最大3バイトなので、明らかに閾値未満のボディはバイト列に変換せずに除外する
+        if (body == null || body.length() < minBytes / 3 || Boolean.TRUE.equals(response.getIsBase64Encoded())
+                || headerOf(response.getHeaders(), "Content-Encoding") != null) {
+            return response;
+        }
+        if (!acceptsGzip(headerOf(request.getHeaders(), "Accept-Encoding"))
+                || !isBinaryMediaType(headerOf(request.getHeaders(), "Accept"))) {
+            return response;
+        }
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < minBytes) {
+            return response;
+        }
+        String encoded = gzipBase64(raw);
+        if (encoded == null) {
+            return response;
+        }
+
+        Map<String, String> headers = (response.getHeaders() != null) ? new HashMap<>(response.getHeaders()) : new HashMap<>();
+        headers.put("Content-Encoding", "gzip");
+        headers.put("Vary", "Accept-Encoding");
+        return response.withHeaders(headers).withBody(encoded).withIsBase64Encoded(true);
+    }
+
+    /**
+     * {@code Accept-Encoding} ヘッダーがgzipを受け付けるかどうかを判定します。
+     *
+     * <p>{@code gzip} が指定されていればその品質値、無ければ {@code *} の品質値で判定し、
+     * 品質値が0の場合は受け付けないものとします。</p>
+     *
+     * @param acceptEncoding ヘッダーの値（無い場合は {@code null}）
+     * @return gzipを受け付ける場合は {@code true}
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            boolean acceptable = qualityOf(parts) > 0;
+            if (coding.equalsIgnoreCase("gzip")) {
+                return acceptable;
+            }
+            if (coding.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * API Gatewayが {@code Accept} ヘッダーからレスポンスをバイナリとして返すかどうかを判定します。
+     *
+     * <p>API Gatewayと同じく、{@code Accept} の最初のメディアタイプ（パラメーターを除く）だけを
+     * {@link #BINARY_MEDIA_TYPES} と比較します。</p>
+     *
+     * @param accept ヘッダーの値（無い場合は {@code null}）
+     * @return バイナリとして返される場合は {@code true}
+     */
+    public static boolean isBinaryMediaType(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        int end = accept.indexOf(',');
+        String first = (end >= 0) ? accept.substring(0, end) : accept;
+        int parameters = first.indexOf(';');
+        String mediaType = ((parameters >= 0) ? first.substring(0, parameters) : first).trim();
+        for (String binary : BINARY_MEDIA_TYPES) {
+            if (binary.equalsIgnoreCase(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * gzip圧縮してBase64で符号化します。
+     *
+     * @return 符号化した文字列（圧縮後のサイズが元のサイズ以上になる場合は {@code null}）
+     */
+    private String gzipBase64(byte[] raw) {
+        if (raw.length <= GZIP_HEADER.length + GZIP_TRAILER_LENGTH) {
+            return null;
+        }
+        GzipBuffers gzip = buffers.get();
+        Deflater deflater = gzip.deflater;
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+
+        // 元のサイズに収まらなければ圧縮の意味が無いため、出力バッファは元のサイズで打ち切る
+        byte[] out = gzip.output(raw.length);
+        int limit = raw.length - GZIP_TRAILER_LENGTH;
+        System.arraycopy(GZIP_HEADER, 0, out, 0, GZIP_HEADER.length);
+        int length = GZIP_HEADER.length;
+        while (!deflater.finished()) {
+            if (length >= limit) {
+                return null;
+            }
+            length += deflater.deflate(out, length, limit - length);
+        }
+
+        CRC32 crc = gzip.crc;
+        crc.reset();
+        crc.update(raw);
+        length = writeIntLE(out, length, (int) crc.getValue());
+        length = writeIntLE(out, length, raw.length);
+
+        ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(out, 0, length));
+        return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static int writeIntLE(byte[] out, int offset, int value) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >>> 8);
+        out[offset + 2] = (byte) (value >>> 16);
+        out[offset + 3] = (byte) (value >>> 24);
+        return offset + 4;
+    }
+
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String headerOf(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static ResponseCompressor fromEnvironment() {
+        if ("false".equalsIgnoreCase(System.getenv("COMPRESSION_ENABLED"))) {
+            return DISABLED;
+        }
+        int minBytes = intFromEnvironment("COMPRESSION_MIN_BYTES", DEFAULT_MIN_BYTES);
+        int level = intFromEnvironment("COMPRESSION_LEVEL", DEFAULT_LEVEL);
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            level = DEFAULT_LEVEL;
+        }
+        return new ResponseCompressor(minBytes, level);
+    }
+
+    private static int intFromEnvironment(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * スレッドごとに再利用する圧縮用の状態
+     */
+    private static final class GzipBuffers {
+
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private byte[] output = new byte[0];
+
+        GzipBuffers(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        /**
+         * 指定サイズ以上の出力バッファを返します。
+         */
+        byte[] output(int size) {
+            if (output.length >= size) {
+                return output;
+            }
+            byte[] buffer = new byte[size];
+            if (size <= MAX_RETAINED_BUFFER) {
+                output = buffer;
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.id;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * ユーザーIDを生成するクラス
+ * 時刻順にソート可能で一意なIDをロックフリーで生成します。
+ *
+ * <p>IDはULID互換の128ビット値をCrockford Base32で26文字に符号化し、
+ * {@code "user-"} プレフィックスを付けた文字列です。ビット構成は以下の通りです。</p>
+ *
+ * <ul>
+ * <li>上位48ビット - UNIXエポックからのミリ秒</li>
+ * <li>次の16ビット - 同一ミリ秒内のシーケンス番号</li>
+ * <li>下位64ビット - インスタンスごとの乱数（Lambdaインスタンス間の衝突回避）</li>
+ * </ul>
+ *
+ * <p>上位64ビット（時刻+シーケンス）は単一の {@link AtomicLong} で管理し、
+ * 「現在時刻」と「前回値+1」の大きい方をCASで確定させます。
+ * そのため時計が巻き戻っても値は単調増加し続け、
+ * シーケンスが溢れた場合は論理時刻が1ミリ秒先に進みます。
+ * インスタンス間の調整は不要です。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class UserIdGenerator {
+
+    /** 生成されるIDのプレフィックス */
+    public static final String PREFIX = "user-";
+
+    /** プレフィックスを除いたIDの長さ（ULIDと同じ26文字） */
+    public static final int ENCODED_LENGTH = 26;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int SEQUENCE_BITS = 16;
+
+    private static final UserIdGenerator DEFAULT = new UserIdGenerator(System::currentTimeMillis, new SecureRandom().nextLong());
+
+    private final LongSupplier clock;
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+    private volatile long instanceEntropy;
+
+    /**
+     * 時刻ソースとインスタンス乱数を指定してジェネレーターを生成します。
+     *
+     * @param clock ミリ秒単位の時刻ソース
+     * @param instanceEntropy インスタンスを識別する64ビットの乱数
+     */
+    public UserIdGenerator(LongSupplier clock, long instanceEntropy) {
+        this.clock = clock;
+        this.instanceEntropy = instanceEntropy;
+    }
+
+    /**
+     * プロセス全体で共有されるデフォルトのジェネレーターを返します。
+     *
+     * @return システム時刻とSecureRandomで初期化されたジェネレーター
+     */
+    public static UserIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 新しいユーザーIDを生成します。
+     *
+     * <p>同一インスタンスから生成されたIDは厳密に単調増加し、
+     * 文字列として比較しても生成順に並びます。</p>
+     *
+     * @return {@code "user-"} で始まる31文字のユーザーID
+     */
+    public String nextId() {
+        long next = lastTimeAndSequence.accumulateAndGet(clock.getAsLong() << SEQUENCE_BITS,
+                (previous, candidate) -> Math.max(candidate, previous + 1));
+        return encode(next, instanceEntropy);
+    }
+
+    /**
+     * インスタンス乱数を再生成します。
+     *
+     * <p>スナップショットから復元された複数の実行環境が
+     * 同じ乱数を共有しないようにするために使用します。</p>
+     *
+     * @param newEntropy 新しい64ビットの乱数
+     */
+    public void reseed(long newEntropy) {
+        this.instanceEntropy = newEntropy;
+    }
+
+    /**
+     * ユーザーIDに埋め込まれた論理時刻（ミリ秒）を取り出します。
+     *
+     * @param userId {@link #nextId()} で生成されたユーザーID
+     * @return IDに含まれるUNIXエポックからのミリ秒
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    public static long timestampOf(String userId) {
+        if (userId == null || userId.length() != PREFIX.length() + ENCODED_LENGTH || !userId.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Invalid user id: " + userId);
+        }
+        // 先頭10文字（50ビット）のうち下位48ビットが時刻
+        long value = 0;
+        for (int i = 0; i < 10; i++) {
+            value = (value << 5) | decode(userId.charAt(PREFIX.length() + i));
+        }
+        return value & ((1L << 48) - 1);
+    }
+
+    /**
+     * 128ビット値をCrockford Base32に符号化します。
+     */
+    private static String encode(long hi, long lo) {
+        char[] buffer = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), buffer, 0);
+        int offset = PREFIX.length();
+        // 128ビットを130ビットとして扱い、末尾から5ビットずつ取り出す
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            buffer[offset + i] = ALPHABET[(int) (lo & 0x1F)];
+            lo = (lo >>> 5) | (hi << 59);
+            hi >>>= 5;
+        }
+        return new String(buffer);
+    }
+
+    private static int decode(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid character in user id: " + c);
+    }
+}
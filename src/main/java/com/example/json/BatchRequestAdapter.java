@@ -0,0 +1,92 @@
+package com.example.json;
+
+import com.example.model.BatchOperation;
+import com.example.model.BatchRequest;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BatchRequest} のストリーミングTypeAdapter
+ * 各操作の {@code body} はJSONの値のまま読み書きし、アクションにはJSON文字列として渡します。
+ */
+final class BatchRequestAdapter extends TypeAdapter<BatchRequest> {
+
+    @Override
+    public void write(JsonWriter out, BatchRequest value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (value.operations() != null) {
+            out.name("operations").beginArray();
+            for (BatchOperation operation : value.operations()) {
+                out.beginObject();
+                JsonCodecs.writeOptional(out, "method", operation.method());
+                JsonCodecs.writeOptional(out, "userId", operation.userId());
+                if (operation.body() != null) {
+                    out.name("body").jsonValue(operation.body());
+                }
+                out.endObject();
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    @Override
+    public BatchRequest read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<BatchOperation> operations = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("operations".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                operations = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    operations.add(readOperation(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new BatchRequest(operations);
+    }
+
+    private static BatchOperation readOperation(JsonReader in) throws IOException {
+        String method = null;
+        String userId = null;
+        String body = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "method" -> method = JsonCodecs.readNullableString(in);
+                case "userId" -> userId = JsonCodecs.readNullableString(in);
+                case "body" -> body = readRawValue(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new BatchOperation(method, userId, body);
+    }
+
+    private static String readRawValue(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return JsonParser.parseReader(in).toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.json;
+
+import com.example.model.BatchResponse;
+import com.example.model.BatchResult;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BatchResponse} のストリーミングTypeAdapter
+ * 各結果の {@code body} はアクションが返したJSONをそのまま埋め込み、ボディが無い場合は出力しません。
+ */
+final class BatchResponseAdapter extends TypeAdapter<BatchResponse> {
+
+    @Override
+    public void write(JsonWriter out, BatchResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("results").beginArray();
+        for (BatchResult result : value.results()) {
+            out.beginObject();
+            out.name("status").value(result.status());
+            if (result.body() != null) {
+                out.name("body").jsonValue(result.body());
+            }
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public BatchResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<BatchResult> results = new ArrayList<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("results".equals(in.nextName())) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    results.add(readResult(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new BatchResponse(List.copyOf(results));
+    }
+
+    private static BatchResult readResult(JsonReader in) throws IOException {
+        int status = 0;
+        String body = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "status" -> status = in.nextInt();
+                case "body" -> body = JsonParser.parseReader(in).toString();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new BatchResult(status, body);
+    }
+}
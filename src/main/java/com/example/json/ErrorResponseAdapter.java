@@ -0,0 +1,53 @@
+package com.example.json;
+
+import com.example.model.ErrorResponse;
+import com.example.model.FieldError;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link ErrorResponse} のストリーミングTypeAdapter
+ * 詳細が空の場合は {@code details} を出力しません。
+ */
+final class ErrorResponseAdapter extends TypeAdapter<ErrorResponse> {
+
+    @Override
+    public void write(JsonWriter out, ErrorResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("error").value(value.error());
+        if (!value.details().isEmpty()) {
+            out.name("details");
+            JsonCodecs.writeFieldErrors(out, value.details());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ErrorResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String error = null;
+        List<FieldError> details = List.of();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "error" -> error = JsonCodecs.readNullableString(in);
+                case "details" -> details = JsonCodecs.readFieldErrors(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ErrorResponse(error, details);
+    }
+}
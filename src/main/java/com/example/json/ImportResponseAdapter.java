@@ -0,0 +1,56 @@
+package com.example.json;
+
+import com.example.model.FieldError;
+import com.example.model.ImportResponse;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link ImportResponse} のストリーミングTypeAdapter
+ * エラーが無い場合は {@code errors} を出力しません。
+ */
+final class ImportResponseAdapter extends TypeAdapter<ImportResponse> {
+
+    @Override
+    public void write(JsonWriter out, ImportResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("imported").value(value.imported());
+        out.name("failed").value(value.failed());
+        if (!value.errors().isEmpty()) {
+            out.name("errors");
+            JsonCodecs.writeFieldErrors(out, value.errors());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ImportResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int imported = 0;
+        int failed = 0;
+        List<FieldError> errors = List.of();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "imported" -> imported = in.nextInt();
+                case "failed" -> failed = in.nextInt();
+                case "errors" -> errors = JsonCodecs.readFieldErrors(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ImportResponse(imported, failed, errors);
+    }
+}
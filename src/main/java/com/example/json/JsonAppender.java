@@ -0,0 +1,49 @@
+package com.example.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * 登録済みのTypeAdapterでDTOを1つの {@link StringBuilder} に続けて書き出すライター
+ *
+ * <p>NDJSONの行や、固定部分を組み立てた応答に埋め込む値のように、1つのバッファに
+ * 同じ形式のDTOを何度も書き出す用途で使用します。{@link JsonWriter} は1つを使い回し、
+ * 中間の文字列を作らずにバッファへ直接書き出します。区切り文字（{@code ,} や改行）は
+ * 呼び出し元がバッファに追記します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class JsonAppender {
+
+    private final StringBuilder out;
+    private final JsonWriter writer;
+
+    JsonAppender(StringBuilder out) {
+        this.out = out;
+        this.writer = new JsonWriter(new StringBuilderWriter(out));
+        // 1つのライターで複数のトップレベルの値を書き出すため
+        this.writer.setLenient(true);
+    }
+
+    /**
+     * DTOをJSONに変換してバッファに追記します。
+     *
+     * @param value 変換対象のDTO
+     * @param <T> DTOの型
+     * @return 追記先のバッファ
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StringBuilder append(T value) {
+        TypeAdapter<T> adapter = (TypeAdapter<T>) JsonCodecs.adapterFor(value.getClass());
+        try {
+            adapter.write(writer, value);
+        } catch (IOException e) {
+            // StringBuilderへの書き込みでは発生しない
+            throw new IllegalStateException(e);
+        }
+        return out;
+    }
+}
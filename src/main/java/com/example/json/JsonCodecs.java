@@ -0,0 +1,244 @@
+package com.example.json;
+
+import com.example.model.BatchRequest;
+import com.example.model.BatchResponse;
+import com.example.model.ErrorResponse;
+import com.example.model.FieldError;
+import com.example.model.ImportResponse;
+import com.example.model.TokenRequest;
+import com.example.model.TokenResponse;
+import com.example.model.UserRequest;
+import com.example.model.UserResponse;
+import com.example.model.UserStatusResponse;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ユーザーDTOのJSONコーデックを一元管理するレジストリ
+ *
+ * <p>各DTOに対して手書きのストリーミング {@link TypeAdapter} を
+ * クラス初期化時に一度だけ登録し、以降は不変のマップから参照します。
+ * リフレクションを使用しないため、リクエストごとに {@code Gson} を
+ * 生成するコストがかからず、文字列のエスケープも {@link JsonWriter} に委ねられます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class JsonCodecs {
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = Map.of(
+            UserRequest.class, new UserRequestAdapter(),
+            UserResponse.class, new UserResponseAdapter(),
+            UserStatusResponse.class, new UserStatusResponseAdapter(),
+            TokenRequest.class, new TokenRequestAdapter(),
+            TokenResponse.class, new TokenResponseAdapter(),
+            ErrorResponse.class, new ErrorResponseAdapter(),
+            ImportResponse.class, new ImportResponseAdapter(),
+            BatchRequest.class, new BatchRequestAdapter(),
+            BatchResponse.class, new BatchResponseAdapter()
+    );
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * 指定されたクラスに登録されたTypeAdapterを返します。
+     *
+     * @param type DTOのクラス
+     * @param <T> DTOの型
+     * @return 登録済みのTypeAdapter
+     * @throws IllegalArgumentException 未登録のクラスが指定された場合
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeAdapter<T> adapterFor(Class<T> type) {
+        TypeAdapter<?> adapter = ADAPTERS.get(type);
+        if (adapter == null) {
+            throw new IllegalArgumentException("No codec registered for " + type.getName());
+        }
+        return (TypeAdapter<T>) adapter;
+    }
+
+    /**
+     * DTOをJSON文字列に変換します。
+     *
+     * @param value 変換対象のDTO
+     * @param <T> DTOの型
+     * @return JSON文字列
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> String toJson(T value) {
+        TypeAdapter<T> adapter = (TypeAdapter<T>) adapterFor(value.getClass());
+        StringWriter writer = new StringWriter();
+        try {
+            adapter.write(new JsonWriter(writer), value);
+        } catch (IOException e) {
+            // StringWriterへの書き込みでは発生しない
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * DTOのリストをJSON配列に変換します。
+     *
+     * @param values 変換対象のDTOリスト
+     * @param type 要素のクラス
+     * @param <T> DTOの型
+     * @return JSON配列の文字列
+     */
+    public static <T> String toJsonArray(List<T> values, Class<T> type) {
+        TypeAdapter<T> adapter = adapterFor(type);
+        StringWriter writer = new StringWriter();
+        try {
+            JsonWriter out = new JsonWriter(writer);
+            out.beginArray();
+            for (T value : values) {
+                adapter.write(out, value);
+            }
+            out.endArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 指定されたバッファにDTOを続けて書き出すライターを返します。
+     *
+     * @param out 追記先
+     * @return ライター
+     */
+    public static JsonAppender appender(StringBuilder out) {
+        return new JsonAppender(out);
+    }
+
+    /**
+     * JSON文字列をDTOに変換します。
+     *
+     * @param json JSON文字列
+     * @param type DTOのクラス
+     * @param <T> DTOの型
+     * @return 変換されたDTO（JSONが {@code null} リテラルの場合は {@code null}）
+     * @throws JsonSyntaxException JSONの構文が不正な場合
+     */
+    public static <T> T fromJson(String json, Class<T> type) {
+        TypeAdapter<T> adapter = adapterFor(type);
+        try {
+            JsonReader in = new JsonReader(new StringReader(json));
+            T value = adapter.read(in);
+            if (in.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Unexpected trailing content at " + in.getPath());
+            }
+            return value;
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * 文字列をJSONの文字列リテラルとしてエスケープして追記します。
+     *
+     * <p>EMFや構造化ログのように、固定部分を事前に組み立てた行へ
+     * 値だけを連結する用途で使用します。</p>
+     *
+     * @param out 追記先
+     * @param value 文字列（{@code null} の場合は {@code null} リテラル）
+     * @return 追記先
+     */
+    public static StringBuilder appendString(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        int length = value.length();
+        int start = 0;
+        while (start < length && !needsEscape(value.charAt(start))) {
+            start++;
+        }
+        // エスケープ不要な先頭部分はまとめてコピーする（多くの値は全体がこれに該当する）
+        out.append(value, 0, start);
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+
+    private static boolean needsEscape(char c) {
+        return c == '"' || c == '\\' || c < 0x20;
+    }
+
+    /**
+     * 値が {@code null} でない場合のみフィールドを書き出します。
+     */
+    static void writeOptional(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    /**
+     * 文字列またはnullを読み取ります。
+     */
+    static String readNullableString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * フィールドごとのエラーの配列を書き出します。
+     */
+    static void writeFieldErrors(JsonWriter out, List<FieldError> errors) throws IOException {
+        out.beginArray();
+        for (FieldError error : errors) {
+            out.beginObject();
+            out.name("path").value(error.path());
+            out.name("message").value(error.message());
+            out.endObject();
+        }
+        out.endArray();
+    }
+
+    /**
+     * フィールドごとのエラーの配列を読み取ります。
+     */
+    static List<FieldError> readFieldErrors(JsonReader in) throws IOException {
+        List<FieldError> errors = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            String path = null;
+            String message = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "path" -> path = readNullableString(in);
+                    case "message" -> message = readNullableString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            errors.add(new FieldError(path, message));
+        }
+        in.endArray();
+        return List.copyOf(errors);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.json;
+
+import java.io.Writer;
+
+/**
+ * {@link StringBuilder} に直接書き出す {@link Writer}
+ * {@link java.io.StringWriter} と異なり同期を取らず、呼び出し元のバッファにそのまま追記します。
+ */
+final class StringBuilderWriter extends Writer {
+
+    private final StringBuilder out;
+
+    StringBuilderWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int c) {
+        out.append((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        out.append(buffer, offset, length);
+    }
+
+    @Override
+    public void write(String value, int offset, int length) {
+        out.append(value, offset, offset + length);
+    }
+
+    @Override
+    public Writer append(CharSequence value) {
+        out.append(value);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.json;
+
+import com.example.model.TokenRequest;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * {@link TokenRequest} のストリーミングTypeAdapter
+ * 未知のフィールドは読み飛ばします。
+ */
+final class TokenRequestAdapter extends TypeAdapter<TokenRequest> {
+
+    @Override
+    public void write(JsonWriter out, TokenRequest value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        JsonCodecs.writeOptional(out, "username", value.username());
+        JsonCodecs.writeOptional(out, "password", value.password());
+        out.endObject();
+    }
+
+    @Override
+    public TokenRequest read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String username = null;
+        String password = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "username" -> username = JsonCodecs.readNullableString(in);
+                case "password" -> password = JsonCodecs.readNullableString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new TokenRequest(username, password);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.json;
+
+import com.example.model.TokenResponse;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * {@link TokenResponse} のストリーミングTypeAdapter
+ */
+final class TokenResponseAdapter extends TypeAdapter<TokenResponse> {
+
+    @Override
+    public void write(JsonWriter out, TokenResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("token").value(value.token());
+        out.endObject();
+    }
+
+    @Override
+    public TokenResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String token = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("token")) {
+                token = JsonCodecs.readNullableString(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new TokenResponse(token);
+    }
+}
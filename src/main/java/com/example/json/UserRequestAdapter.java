@@ -0,0 +1,51 @@
+package com.example.json;
+
+import com.example.model.UserRequest;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * {@link UserRequest} のストリーミングTypeAdapter
+ * 未知のフィールドは読み飛ばします。
+ */
+final class UserRequestAdapter extends TypeAdapter<UserRequest> {
+
+    @Override
+    public void write(JsonWriter out, UserRequest value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        JsonCodecs.writeOptional(out, "name", value.name());
+        JsonCodecs.writeOptional(out, "email", value.email());
+        JsonCodecs.writeOptional(out, "role", value.role());
+        out.endObject();
+    }
+
+    @Override
+    public UserRequest read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = null;
+        String email = null;
+        String role = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> name = JsonCodecs.readNullableString(in);
+                case "email" -> email = JsonCodecs.readNullableString(in);
+                case "role" -> role = JsonCodecs.readNullableString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new UserRequest(name, email, role);
+    }
+}
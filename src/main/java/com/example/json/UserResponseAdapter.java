@@ -0,0 +1,54 @@
+package com.example.json;
+
+import com.example.model.UserResponse;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * {@link UserResponse} のストリーミングTypeAdapter
+ * userId以外の {@code null} フィールドは出力しません。
+ */
+final class UserResponseAdapter extends TypeAdapter<UserResponse> {
+
+    @Override
+    public void write(JsonWriter out, UserResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("userId").value(value.userId());
+        JsonCodecs.writeOptional(out, "name", value.name());
+        JsonCodecs.writeOptional(out, "email", value.email());
+        JsonCodecs.writeOptional(out, "role", value.role());
+        out.endObject();
+    }
+
+    @Override
+    public UserResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String userId = null;
+        String name = null;
+        String email = null;
+        String role = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "userId" -> userId = JsonCodecs.readNullableString(in);
+                case "name" -> name = JsonCodecs.readNullableString(in);
+                case "email" -> email = JsonCodecs.readNullableString(in);
+                case "role" -> role = JsonCodecs.readNullableString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new UserResponse(userId, name, email, role);
+    }
+}
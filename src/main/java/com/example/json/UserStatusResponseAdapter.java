@@ -0,0 +1,47 @@
+package com.example.json;
+
+import com.example.model.UserStatusResponse;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * {@link UserStatusResponse} のストリーミングTypeAdapter
+ */
+final class UserStatusResponseAdapter extends TypeAdapter<UserStatusResponse> {
+
+    @Override
+    public void write(JsonWriter out, UserStatusResponse value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("userId").value(value.userId());
+        out.name("status").value(value.status());
+        out.endObject();
+    }
+
+    @Override
+    public UserStatusResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String userId = null;
+        String status = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "userId" -> userId = JsonCodecs.readNullableString(in);
+                case "status" -> status = JsonCodecs.readNullableString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new UserStatusResponse(userId, status);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.logging;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.example.json.JsonCodecs;
+
+/**
+ * スレッドごとのログレコードのリングバッファ
+ *
+ * <p>レコードは生成時に全て確保され、以降は使い回されます。
+ * バッファが一杯になった場合は最も古いレコードを上書きし、
+ * 破棄した件数を次のフラッシュで1行のWARNとして報告します。</p>
+ *
+ * <p>時刻はCloudWatch Logsのイベントに付与されるため、レコードには保持しません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+final class LogBuffer {
+
+    /** バッファに保持できるレコード数（2の冪） */
+    static final int CAPACITY = 256;
+
+    private final LogEvent[] slots = new LogEvent[CAPACITY];
+    private final StringBuilder line = new StringBuilder(256);
+    private long head;
+    private long tail;
+    private long dropped;
+
+    LogBuffer() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new LogEvent();
+        }
+    }
+
+    LogEvent claim(LogLevel level, String logger, String message) {
+        if (head - tail == CAPACITY) {
+            tail++;
+            dropped++;
+        }
+        LogEvent event = slots[(int) (head++ & (CAPACITY - 1))];
+        event.reset(level, logger, message);
+        return event;
+    }
+
+    boolean isEmpty() {
+        return head == tail && dropped == 0;
+    }
+
+    /**
+     * 未出力のレコードと、ワーカースレッドで記録されたレコードをJSON Lines形式で1行ずつ出力し、
+     * 両方を空にします。
+     */
+    void flush(LambdaLogger out, String requestId, WorkerLogQueue workers) {
+        if (out != null) {
+            long lost = dropped + workers.takeDropped();
+            if (lost > 0) {
+                LogEvent overflow = new LogEvent();
+                overflow.reset(LogLevel.WARN, "LogBuffer", "log records dropped");
+                out.log(serialize(overflow.with("count", lost), requestId));
+            }
+            for (; tail < head; tail++) {
+                out.log(serialize(slots[(int) (tail & (CAPACITY - 1))], requestId));
+            }
+            for (LogEvent event = workers.poll(); event != null; event = workers.poll()) {
+                out.log(serialize(event, requestId));
+            }
+        }
+        discard();
+        workers.discard();
+    }
+
+    void discard() {
+        tail = head;
+        dropped = 0;
+    }
+
+    private String serialize(LogEvent event, String requestId) {
+        StringBuilder out = line;
+        out.setLength(0);
+        out.append("{\"level\":\"").append(event.level.name())
+                .append("\",\"logger\":");
+        JsonCodecs.appendString(out, event.logger);
+        if (requestId != null) {
+            out.append(",\"requestId\":");
+            JsonCodecs.appendString(out, requestId);
+        }
+        out.append(",\"message\":");
+        JsonCodecs.appendString(out, event.message);
+        for (int i = 0; i < event.fieldCount; i++) {
+            out.append(',');
+            JsonCodecs.appendString(out, event.keys[i]).append(':');
+            switch (event.kinds[i]) {
+                case LogEvent.KIND_LONG -> out.append(event.longValues[i]);
+                case LogEvent.KIND_BOOLEAN -> out.append(event.longValues[i] != 0);
+                default -> JsonCodecs.appendString(out, event.stringValues[i]);
+            }
+            // 大きな文字列を次の上書きまで保持し続けないよう参照を外す
+            event.stringValues[i] = null;
+        }
+        return out.append('}').toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.logging;
+
+/**
+ * リングバッファ上に事前確保されたログレコード
+ *
+ * <p>{@link StructuredLogger} から払い出され、{@code with} でフィールドを追加します。
+ * 値は文字列に変換せずにそのまま保持され、JSONへの変換はフラッシュ時にまとめて行われます。
+ * 1レコードに追加できるフィールドは {@value #MAX_FIELDS} 個までで、それ以降は無視されます。</p>
+ *
+ * <p>インスタンスは再利用されるため、フラッシュ後に参照を保持してはいけません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class LogEvent {
+
+    /** 1レコードあたりの最大フィールド数 */
+    public static final int MAX_FIELDS = 8;
+
+    /** 出力レベル未満のときに返される、何も記録しないレコード */
+    static final LogEvent DISCARDED = new LogEvent();
+
+    static final byte KIND_LONG = 0;
+    static final byte KIND_STRING = 1;
+    static final byte KIND_BOOLEAN = 2;
+
+    LogLevel level;
+    String logger;
+    String message;
+    int fieldCount;
+    final String[] keys = new String[MAX_FIELDS];
+    final byte[] kinds = new byte[MAX_FIELDS];
+    final long[] longValues = new long[MAX_FIELDS];
+    final String[] stringValues = new String[MAX_FIELDS];
+
+    LogEvent() {
+    }
+
+    /**
+     * 数値のフィールドを追加します。
+     *
+     * @param key フィールド名
+     * @param value 値
+     * @return このレコード
+     */
+    public LogEvent with(String key, long value) {
+        int i = nextField(key);
+        if (i >= 0) {
+            kinds[i] = KIND_LONG;
+            longValues[i] = value;
+        }
+        return this;
+    }
+
+    /**
+     * 文字列のフィールドを追加します。
+     *
+     * @param key フィールド名
+     * @param value 値（{@code null} 可）
+     * @return このレコード
+     */
+    public LogEvent with(String key, String value) {
+        int i = nextField(key);
+        if (i >= 0) {
+            kinds[i] = KIND_STRING;
+            stringValues[i] = value;
+        }
+        return this;
+    }
+
+    /**
+     * 真偽値のフィールドを追加します。
+     *
+     * @param key フィールド名
+     * @param value 値
+     * @return このレコード
+     */
+    public LogEvent with(String key, boolean value) {
+        int i = nextField(key);
+        if (i >= 0) {
+            kinds[i] = KIND_BOOLEAN;
+            longValues[i] = value ? 1 : 0;
+        }
+        return this;
+    }
+
+    void reset(LogLevel level, String logger, String message) {
+        this.level = level;
+        this.logger = logger;
+        this.message = message;
+        this.fieldCount = 0;
+    }
+
+    private int nextField(String key) {
+        if (this == DISCARDED || fieldCount == MAX_FIELDS) {
+            return -1;
+        }
+        keys[fieldCount] = key;
+        return fieldCount++;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.logging;
+
+/**
+ * 構造化ログの出力レベル
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * 設定値からログレベルを解決します。
+     *
+     * @param value レベル名（大文字小文字は区別しない）
+     * @param defaultLevel 未設定または不正な値の場合のレベル
+     * @return 対応するログレベル
+     */
+    public static LogLevel parse(String value, LogLevel defaultLevel) {
+        if (value == null) {
+            return defaultLevel;
+        }
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(value.trim())) {
+                return level;
+            }
+        }
+        return defaultLevel;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.logging;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * JSON Lines形式の構造化ログを出力するロガー
+ *
+ * <p>ログの記録時にはメッセージとフィールドの値をスレッドごとのリングバッファに
+ * 格納するだけで、文字列の連結やJSONへの変換は行いません。
+ * 出力レベル未満のログは {@link #isEnabled} と同じ比較1回で破棄され、
+ * フィールドの格納も行われません。</p>
+ *
+ * <p>バッファに溜まったレコードはハンドラーの処理の最後に {@link #flush(Context)} で
+ * まとめてJSONに変換され、{@code LambdaLogger} に1レコード1行で出力されます。
+ * Lambdaは応答後に実行環境を凍結するため、バックグラウンドスレッドは使用しません。</p>
+ *
+ * <p>並列ストリームで {@link java.util.concurrent.ForkJoinPool} のワーカースレッドから記録されたログは、
+ * ワーカーごとのバッファではなくプロセス共有のキューに入れ、リクエストを処理するスレッドの
+ * {@link #flush(Context)} で同じリクエストIDを付けて出力します。</p>
+ *
+ * <pre>
+ * private static final StructuredLogger LOG = StructuredLogger.getLogger(ListUsersAction.class);
+ *
+ * LOG.info("users retrieved").with("count", users.size());
+ * </pre>
+ *
+ * <p>出力レベルは環境変数 {@code LOG_LEVEL}（DEBUG、INFO、WARN、ERROR）で指定し、
+ * 未設定の場合はINFOです。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class StructuredLogger {
+
+    private static final LogLevel DEFAULT_LEVEL = LogLevel.parse(System.getenv("LOG_LEVEL"), LogLevel.INFO);
+
+    private static final ThreadLocal<LogBuffer> BUFFER = ThreadLocal.withInitial(LogBuffer::new);
+
+    private static final WorkerLogQueue WORKERS = new WorkerLogQueue();
+
+    private final String name;
+    private final int threshold;
+
+    /**
+     * ロガー名と出力レベルを指定してロガーを生成します。
+     *
+     * @param name ロガー名
+     * @param level 出力レベル
+     */
+    public StructuredLogger(String name, LogLevel level) {
+        this.name = name;
+        this.threshold = level.ordinal();
+    }
+
+    /**
+     * クラス名をロガー名とし、環境変数の出力レベルを使用するロガーを返します。
+     *
+     * @param type ログを出力するクラス
+     * @return ロガー
+     */
+    public static StructuredLogger getLogger(Class<?> type) {
+        return new StructuredLogger(type.getSimpleName(), DEFAULT_LEVEL);
+    }
+
+    /**
+     * 指定したレベルのログが出力されるかどうかを返します。
+     *
+     * @param level ログレベル
+     * @return 出力される場合は {@code true}
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold;
+    }
+
+    /**
+     * DEBUGレベルのログを記録します。
+     *
+     * @param message メッセージ（定数文字列を推奨）
+     * @return フィールドを追加するためのレコード
+     */
+    public LogEvent debug(String message) {
+        return log(LogLevel.DEBUG, message);
+    }
+
+    /**
+     * INFOレベルのログを記録します。
+     *
+     * @param message メッセージ（定数文字列を推奨）
+     * @return フィールドを追加するためのレコード
+     */
+    public LogEvent info(String message) {
+        return log(LogLevel.INFO, message);
+    }
+
+    /**
+     * WARNレベルのログを記録します。
+     *
+     * @param message メッセージ（定数文字列を推奨）
+     * @return フィールドを追加するためのレコード
+     */
+    public LogEvent warn(String message) {
+        return log(LogLevel.WARN, message);
+    }
+
+    /**
+     * ERRORレベルのログを記録します。
+     *
+     * @param message メッセージ（定数文字列を推奨）
+     * @return フィールドを追加するためのレコード
+     */
+    public LogEvent error(String message) {
+        return log(LogLevel.ERROR, message);
+    }
+
+    /**
+     * 指定したレベルのログを記録します。
+     *
+     * @param level ログレベル
+     * @param message メッセージ（定数文字列を推奨）
+     * @return フィールドを追加するためのレコード（出力レベル未満の場合は何も記録しないレコード）
+     */
+    public LogEvent log(LogLevel level, String message) {
+        if (level.ordinal() < threshold) {
+            return LogEvent.DISCARDED;
+        }
+        if (Thread.currentThread() instanceof ForkJoinWorkerThread) {
+            return WORKERS.claim(level, name, message);
+        }
+        return BUFFER.get().claim(level, name, message);
+    }
+
+    /**
+     * 現在のスレッドと、ワーカースレッドで記録されたログをJSON Lines形式で出力します。
+     *
+     * <p>各行にはコンテキストのリクエストIDが付与されます。
+     * コンテキストまたはロガーが {@code null} の場合、記録されたログは破棄されます。</p>
+     *
+     * @param context Lambda実行コンテキスト
+     */
+    public static void flush(Context context) {
+        LogBuffer buffer = BUFFER.get();
+        if (buffer.isEmpty() && WORKERS.isEmpty()) {
+            return;
+        }
+        if (context == null) {
+            buffer.discard();
+            WORKERS.discard();
+            return;
+        }
+        buffer.flush(context.getLogger(), context.getAwsRequestId(), WORKERS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.logging;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link java.util.concurrent.ForkJoinPool} のワーカースレッドで記録されたログレコードのキュー
+ *
+ * <p>並列ストリームの処理はリクエストを処理するスレッド以外でも実行されるため、
+ * スレッドごとの {@link LogBuffer} に記録するとフラッシュされずに失われます。
+ * ワーカーのレコードはこのキューに入れ、リクエストを処理するスレッドの
+ * {@link StructuredLogger#flush} でまとめて出力します。</p>
+ *
+ * <p>ワーカーのログはまれなため、レコードは記録のたびに確保し、ワーカーごとのバッファは作りません。
+ * 保持するのは {@value LogBuffer#CAPACITY} 件までで、それを超えたレコードは破棄して
+ * 件数を次のフラッシュで報告します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+final class WorkerLogQueue {
+
+    private final ArrayBlockingQueue<LogEvent> events = new ArrayBlockingQueue<>(LogBuffer.CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+
+    LogEvent claim(LogLevel level, String logger, String message) {
+        LogEvent event = new LogEvent();
+        event.reset(level, logger, message);
+        if (!events.offer(event)) {
+            dropped.incrementAndGet();
+            return LogEvent.DISCARDED;
+        }
+        return event;
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty() && dropped.get() == 0;
+    }
+
+    LogEvent poll() {
+        return events.poll();
+    }
+
+    long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+
+    void discard() {
+        events.clear();
+        dropped.set(0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ロックフリーなレイテンシーヒストグラム
+ *
+ * <p>HdrHistogramと同じ対数・線形の2段構成のバケットを持ち、
+ * マイクロ秒単位の値を相対誤差約3%（有効桁2桁弱）で記録します。
+ * 各バケットは {@link AtomicLongArray} の要素で、記録は1回のアトミック加算だけです。</p>
+ *
+ * <ul>
+ * <li>0〜31マイクロ秒 - 1マイクロ秒刻み</li>
+ * <li>それ以上 - 2の冪ごとに16分割（最大約19時間、それ以上は最大バケットに丸め）</li>
+ * </ul>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final long MAX_MICROS = (1L << 36) - 1;
+
+    /** バケット数 */
+    static final int BUCKET_COUNT = indexOf(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * レイテンシーを記録します。
+     *
+     * @param nanos 経過時間（ナノ秒）
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1_000, 0), MAX_MICROS);
+        counts.incrementAndGet(indexOf(micros));
+    }
+
+    /**
+     * 記録された値を取り出してヒストグラムをリセットします。
+     *
+     * <p>各バケットの代表値（ミリ秒）を件数分だけ昇順に書き出します。
+     * 書き出し先が満杯になった場合、残りの件数は破棄されます。</p>
+     *
+     * @param valuesMillis 代表値の書き出し先
+     * @return 書き出した件数
+     */
+    public int drainTo(double[] valuesMillis) {
+        int written = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            // 空のバケットは書き込み不要なので、通常の読み取りで先に判定する
+            if (counts.get(i) == 0) {
+                continue;
+            }
+            long count = counts.getAndSet(i, 0);
+            double value = representativeMicros(i) / 1_000.0;
+            for (long c = 0; c < count && written < valuesMillis.length; c++) {
+                valuesMillis[written++] = value;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 指定したパーセンタイルの値（ミリ秒）を返します。
+     *
+     * @param percentile 0より大きく100以下のパーセンタイル
+     * @return パーセンタイル値（記録が無い場合は0）
+     */
+    public double percentileMillis(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return representativeMicros(i) / 1_000.0;
+            }
+        }
+        return representativeMicros(BUCKET_COUNT - 1) / 1_000.0;
+    }
+
+    static int indexOf(long micros) {
+        int magnitude = 64 - Long.numberOfLeadingZeros(micros | (SUB_BUCKET_COUNT - 1)) - SUB_BUCKET_BITS;
+        return (magnitude << (SUB_BUCKET_BITS - 1)) + (int) (micros >>> magnitude);
+    }
+
+    static long representativeMicros(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int magnitude = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+        long lowerBound = (long) ((index & (SUB_BUCKET_HALF - 1)) + SUB_BUCKET_HALF) << magnitude;
+        return lowerBound + ((1L << magnitude) >> 1);
+    }
+}
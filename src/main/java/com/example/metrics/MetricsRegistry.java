@@ -0,0 +1,361 @@
+package com.example.metrics;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.example.json.JsonCodecs;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * ルート・ステータス分類・テナント単位のメトリクスを集計するレジストリ
+ *
+ * <p>リクエストごとのレイテンシーと件数をロックフリーに記録し、
+ * {@link #flush} でCloudWatch Embedded Metric Format（EMF）のJSONとして
+ * {@link LambdaLogger} に出力します。CloudWatch Logsに書かれたEMFは
+ * 自動的にメトリクスとして取り込まれるため、PutMetricDataの呼び出しは不要です。</p>
+ *
+ * <p>Lambdaは1インスタンスで同時に1リクエストしか処理しないため、
+ * 呼び出しの最後に {@link #flush} すると通常は1行のEMFが出力されます。
+ * 複数のディメンションの組に記録された場合は組ごとに1行ずつ出力されます。</p>
+ *
+ * <p>組織の数だけディメンションの組が増えないよう、前回のフラッシュ以降に記録が無かった組は
+ * {@link #flush} で取り除きます。Lambdaでは呼び出しごとにフラッシュするため、保持するのは
+ * 直近の呼び出しで記録された組だけです。フラッシュの間に {@value #MAX_SERIES} 組を超える
+ * 組織から記録された場合、新しい組織は {@value #OVERFLOW_TENANT} にまとめて記録します。</p>
+ *
+ * <p>ストアのコンパクションの結果（{@link #recordCompaction}）と失敗（{@link #recordCompactionFailure}）、
+ * シングルフライトで計算した回数・共有した回数（{@link #recordSingleFlight}）は、前回のフラッシュ以降に
+ * 記録があった場合だけ、それぞれディメンションの無い別の1行として出力します。</p>
+ *
+ * <p>環境変数 {@code METRICS_ENABLED=false} で無効化でき、
+ * その場合 {@link #getDefault()} は何もしないレジストリを返します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class MetricsRegistry {
+
+    /** EMFで1メトリクスに指定できる値の最大数 */
+    static final int MAX_VALUES_PER_METRIC = 100;
+
+    /** 保持するディメンションの組の上限 */
+    static final int MAX_SERIES = 1_000;
+
+    /** 上限を超えた組織をまとめるTenantディメンションの値 */
+    static final String OVERFLOW_TENANT = "other";
+
+    private static final String DEFAULT_NAMESPACE = "ApiSample";
+
+    private static final MetricsRegistry DISABLED = new MetricsRegistry(null, null) {
+        @Override
+        public void record(String route, int statusCode, String tenant, long latencyNanos) {
+        }
+
+        @Override
+        public void recordCompaction(double spaceAmplification, long reclaimedEntries, long busyNanos) {
+        }
+
+        @Override
+        public void recordCompactionFailure() {
+        }
+
+        @Override
+        public void recordSingleFlight(boolean shared) {
+        }
+
+        @Override
+        public void flush(LambdaLogger logger) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    private static final MetricsRegistry DEFAULT = "false".equalsIgnoreCase(System.getenv("METRICS_ENABLED"))
+            ? DISABLED
+            : new MetricsRegistry(namespaceFromEnvironment(), System::currentTimeMillis);
+
+    private final String namespace;
+    private final LongSupplier clock;
+    private final String emfDirective;
+    private final String compactionDirective;
+    private final String compactionFailureDirective;
+    private final String singleFlightDirective;
+    private final Map<MetricKey, RouteMetrics> metrics = new ConcurrentHashMap<>();
+    private final LongAdder compactionRuns = new LongAdder();
+    private final LongAdder compactedEntries = new LongAdder();
+    private final LongAdder compactionBusyNanos = new LongAdder();
+    private final LongAdder compactionFailures = new LongAdder();
+    private volatile double spaceAmplification;
+    private final LongAdder singleFlightLoads = new LongAdder();
+    private final LongAdder singleFlightShared = new LongAdder();
+
+    /**
+     * 名前空間と時刻ソースを指定してレジストリを生成します。
+     *
+     * @param namespace CloudWatchメトリクスの名前空間
+     * @param clock EMFのタイムスタンプに使用するミリ秒単位の時刻ソース
+     */
+    public MetricsRegistry(String namespace, LongSupplier clock) {
+        this.namespace = namespace;
+        this.clock = clock;
+        this.emfDirective = directiveOf(namespace);
+        this.compactionDirective = dimensionlessDirectiveOf(namespace,
+                "SpaceAmplification", "None", "CompactedEntries", "Count", "CompactionThroughput", "Count/Second");
+        this.compactionFailureDirective = dimensionlessDirectiveOf(namespace, "CompactionFailures", "Count");
+        this.singleFlightDirective = dimensionlessDirectiveOf(namespace,
+                "SingleFlightLoads", "Count", "SingleFlightShared", "Count");
+    }
+
+    /**
+     * プロセス全体で共有されるデフォルトのレジストリを返します。
+     *
+     * @return 環境変数の設定に従ったレジストリ
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 何も記録・出力しないレジストリを返します。
+     *
+     * @return 無効化されたレジストリ
+     */
+    public static MetricsRegistry disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * メトリクスが有効かどうかを返します。
+     *
+     * <p>無効な場合、呼び出し側は時刻の取得自体を省略できます。</p>
+     *
+     * @return 有効な場合は {@code true}
+     */
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * 1リクエスト分のレイテンシーと件数を記録します。
+     *
+     * @param route ルート（例: {@code GET /admin/users}）
+     * @param statusCode HTTPステータスコード
+     * @param tenant 組織ID（不明な場合は {@code null}）
+     * @param latencyNanos 処理時間（ナノ秒）
+     */
+    public void record(String route, int statusCode, String tenant, long latencyNanos) {
+        String statusClass = statusClassOf(statusCode);
+        MetricKey key = new MetricKey(route, statusClass, tenant != null ? tenant : "none");
+        RouteMetrics routeMetrics = metrics.get(key);
+        if (routeMetrics == null) {
+            if (metrics.size() >= MAX_SERIES) {
+                key = new MetricKey(route, statusClass, OVERFLOW_TENANT);
+            }
+            routeMetrics = metrics.computeIfAbsent(key, k -> new RouteMetrics());
+        }
+        routeMetrics.latency.recordNanos(latencyNanos);
+        routeMetrics.requests.increment();
+    }
+
+    /**
+     * ストアのコンパクション1回分の結果を記録します。
+     *
+     * <p>コンパクションはバックグラウンドのスレッドから記録し、次の呼び出しの {@link #flush} で出力されます。
+     * 空間増幅率は最後に記録された値、取り除いた件数と処理時間は前回のフラッシュ以降の合計を出力します。</p>
+     *
+     * @param spaceAmplification 保持しているエントリー数と生存しているユーザー数の比
+     * @param reclaimedEntries 取り除いたエントリー数
+     * @param busyNanos コンパクションの処理時間（待機を除く、ナノ秒）
+     */
+    public void recordCompaction(double spaceAmplification, long reclaimedEntries, long busyNanos) {
+        this.spaceAmplification = spaceAmplification;
+        compactedEntries.add(reclaimedEntries);
+        compactionBusyNanos.add(busyNanos);
+        compactionRuns.increment();
+    }
+
+    /**
+     * 例外で終わったコンパクション1回を記録します。
+     *
+     * <p>バックグラウンドのスレッドのログは呼び出しの最後に出力されないため、失敗はメトリクスで知らせます。</p>
+     */
+    public void recordCompactionFailure() {
+        compactionFailures.increment();
+    }
+
+    /**
+     * シングルフライトの呼び出し1回分の結果を記録します。
+     *
+     * <p>前回のフラッシュ以降に値を計算した回数と、他の呼び出しの結果を共有した回数を出力します。</p>
+     *
+     * @param shared 他の呼び出しの結果を共有した場合は {@code true}、自分で計算した場合は {@code false}
+     */
+    public void recordSingleFlight(boolean shared) {
+        (shared ? singleFlightShared : singleFlightLoads).increment();
+    }
+
+    /**
+     * 前回のフラッシュ以降に記録されたメトリクスをEMF形式で出力します。
+     *
+     * @param logger 出力先のロガー（{@code null} の場合は破棄）
+     */
+    public void flush(LambdaLogger logger) {
+        double[] values = null;
+        for (Map.Entry<MetricKey, RouteMetrics> entry : metrics.entrySet()) {
+            RouteMetrics routeMetrics = entry.getValue();
+            long requests = routeMetrics.requests.sumThenReset();
+            if (requests == 0) {
+                // 前回のフラッシュ以降に記録が無い組は取り除く
+                metrics.remove(entry.getKey(), routeMetrics);
+                continue;
+            }
+            if (values == null) {
+                values = new double[MAX_VALUES_PER_METRIC];
+            }
+            int count = routeMetrics.latency.drainTo(values);
+            if (logger != null) {
+                logger.log(toEmf(entry.getKey(), requests, values, count));
+            }
+        }
+        if (compactionRuns.sumThenReset() > 0) {
+            long reclaimed = compactedEntries.sumThenReset();
+            long busyNanos = compactionBusyNanos.sumThenReset();
+            if (logger != null) {
+                logger.log(toCompactionEmf(reclaimed, busyNanos));
+            }
+        }
+        long failures = compactionFailures.sumThenReset();
+        if (failures > 0 && logger != null) {
+            logger.log(new StringBuilder(compactionFailureDirective.length() + 64)
+                    .append("{\"_aws\":{\"Timestamp\":").append(clock.getAsLong()).append(compactionFailureDirective)
+                    .append("\"CompactionFailures\":").append(failures)
+                    .append('}').toString());
+        }
+        long loads = singleFlightLoads.sumThenReset();
+        long shared = singleFlightShared.sumThenReset();
+        if ((loads > 0 || shared > 0) && logger != null) {
+            logger.log(new StringBuilder(singleFlightDirective.length() + 96)
+                    .append("{\"_aws\":{\"Timestamp\":").append(clock.getAsLong()).append(singleFlightDirective)
+                    .append("\"SingleFlightLoads\":").append(loads)
+                    .append(",\"SingleFlightShared\":").append(shared)
+                    .append('}').toString());
+        }
+    }
+
+    /**
+     * 保持しているディメンションの組の数を返します。
+     *
+     * @return ディメンションの組の数
+     */
+    int seriesCount() {
+        return metrics.size();
+    }
+
+    private String toCompactionEmf(long reclaimed, long busyNanos) {
+        double throughput = (busyNanos > 0) ? reclaimed * 1e9 / busyNanos : 0;
+        return new StringBuilder(compactionDirective.length() + 128)
+                .append("{\"_aws\":{\"Timestamp\":").append(clock.getAsLong()).append(compactionDirective)
+                .append("\"SpaceAmplification\":").append(spaceAmplification)
+                .append(",\"CompactedEntries\":").append(reclaimed)
+                .append(",\"CompactionThroughput\":").append(throughput)
+                .append('}').toString();
+    }
+
+    private String toEmf(MetricKey key, long requests, double[] latencies, int latencyCount) {
+        // ディレクティブ部分は毎回同じなので、生成済みの文字列に値だけを連結する
+        StringBuilder out = new StringBuilder(emfDirective.length() + 96 + latencyCount * 8);
+        out.append("{\"_aws\":{\"Timestamp\":").append(clock.getAsLong()).append(emfDirective);
+        appendField(out, "Route", key.route()).append(',');
+        appendField(out, "StatusClass", key.statusClass()).append(',');
+        appendField(out, "Tenant", key.tenant()).append(",\"Latency\":[");
+        for (int i = 0; i < latencyCount; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(latencies[i]);
+        }
+        return out.append("],\"Requests\":").append(requests).append('}').toString();
+    }
+
+    private static String directiveOf(String namespace) {
+        StringWriter writer = new StringWriter(256);
+        try {
+            JsonWriter out = new JsonWriter(writer);
+            out.beginArray().beginObject();
+            out.name("Namespace").value(namespace);
+            out.name("Dimensions").beginArray();
+            out.beginArray().value("Route").value("StatusClass").endArray();
+            out.beginArray().value("Route").value("StatusClass").value("Tenant").endArray();
+            out.endArray();
+            out.name("Metrics").beginArray();
+            out.beginObject().name("Name").value("Latency").name("Unit").value("Milliseconds").endObject();
+            out.beginObject().name("Name").value("Requests").name("Unit").value("Count").endObject();
+            out.endArray();
+            out.endObject().endArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return ",\"CloudWatchMetrics\":" + writer + "},";
+    }
+
+    /**
+     * ディメンションの無いメトリクスのディレクティブを生成します。
+     *
+     * @param metricsAndUnits メトリクス名と単位を交互に並べたもの
+     */
+    private static String dimensionlessDirectiveOf(String namespace, String... metricsAndUnits) {
+        StringWriter writer = new StringWriter(256);
+        try {
+            JsonWriter out = new JsonWriter(writer);
+            out.beginArray().beginObject();
+            out.name("Namespace").value(namespace);
+            out.name("Dimensions").beginArray().beginArray().endArray().endArray();
+            out.name("Metrics").beginArray();
+            for (int i = 0; i < metricsAndUnits.length; i += 2) {
+                out.beginObject().name("Name").value(metricsAndUnits[i]).name("Unit").value(metricsAndUnits[i + 1]).endObject();
+            }
+            out.endArray();
+            out.endObject().endArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return ",\"CloudWatchMetrics\":" + writer + "},";
+    }
+
+    private static StringBuilder appendField(StringBuilder out, String name, String value) {
+        out.append('"').append(name).append("\":");
+        return JsonCodecs.appendString(out, value);
+    }
+
+    private static String statusClassOf(int statusCode) {
+        return switch (statusCode / 100) {
+            case 1 -> "1xx";
+            case 2 -> "2xx";
+            case 3 -> "3xx";
+            case 4 -> "4xx";
+            case 5 -> "5xx";
+            default -> "other";
+        };
+    }
+
+    private static String namespaceFromEnvironment() {
+        String namespace = System.getenv("METRICS_NAMESPACE");
+        return (namespace != null && !namespace.isBlank()) ? namespace : DEFAULT_NAMESPACE;
+    }
+
+    private record MetricKey(String route, String statusClass, String tenant) {
+    }
+
+    private static final class RouteMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder requests = new LongAdder();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.model;
+
+/**
+ * 一括更新の1件の操作を表すレコード
+ *
+ * <p>{@code method} に応じて、単体のエンドポイントと同じアクションで実行されます
+ * （POST: 作成、PUT: 更新、PATCH: 部分更新、DELETE: 削除）。</p>
+ *
+ * @param method HTTPメソッド
+ * @param userId 対象のユーザーID（作成の場合は不要）
+ * @param body 単体のエンドポイントと同じ形式のリクエストボディ（JSON文字列）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record BatchOperation(String method, String userId, String body) {
+}
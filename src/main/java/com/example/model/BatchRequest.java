@@ -0,0 +1,13 @@
+package com.example.model;
+
+import java.util.List;
+
+/**
+ * 一括更新のリクエストを表すレコード
+ *
+ * @param operations 操作の一覧（{@code null} の場合は未指定）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record BatchRequest(List<BatchOperation> operations) {
+}
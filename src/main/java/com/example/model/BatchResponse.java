@@ -0,0 +1,13 @@
+package com.example.model;
+
+import java.util.List;
+
+/**
+ * 一括更新のレスポンスを表すレコード
+ *
+ * @param results 操作ごとの結果（リクエストの操作と同じ順序）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record BatchResponse(List<BatchResult> results) {
+}
@@ -0,0 +1,12 @@
+package com.example.model;
+
+/**
+ * 一括更新の1件の操作の結果を表すレコード
+ *
+ * @param status 単体のエンドポイントで実行した場合と同じHTTPステータスコード
+ * @param body 単体のエンドポイントと同じレスポンスボディ（JSON文字列。ボディが無い場合は {@code null}）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record BatchResult(int status, String body) {
+}
@@ -0,0 +1,26 @@
+package com.example.model;
+
+import java.util.List;
+
+/**
+ * エラーレスポンスを表すレコード
+ *
+ * <p>4xx/5xxレスポンスのボディとして返却されます。
+ * 入力検証エラーの場合は {@code details} にフィールドごとのエラーが含まれます。</p>
+ *
+ * @param error エラーの概要
+ * @param details フィールドごとのエラー（存在しない場合は空リスト）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record ErrorResponse(String error, List<FieldError> details) {
+
+    /**
+     * 詳細を持たないエラーレスポンスを生成します。
+     *
+     * @param error エラーの概要
+     */
+    public ErrorResponse(String error) {
+        this(error, List.of());
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.model;
+
+/**
+ * 入力検証エラーの1件を表すレコード
+ *
+ * @param path エラーが発生したフィールドのパス（例: {@code $.email}）
+ * @param message エラー内容
+ * @author Sample Project
+ * @version 1.0
+ */
+public record FieldError(String path, String message) {
+}
@@ -0,0 +1,18 @@
+package com.example.model;
+
+import java.util.List;
+
+/**
+ * ユーザーの一括取り込みの結果を表すレコード
+ *
+ * <p>検証に成功した行は取り込まれ、失敗した行は件数と行ごとのエラーとして返されます。
+ * エラーのパスは {@code 行番号:フィールドパス}（例: {@code 12:$.email}）の形式です。</p>
+ *
+ * @param imported 取り込んだ行数
+ * @param failed 検証に失敗した行数
+ * @param errors 行ごとのエラー（件数には上限があります）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record ImportResponse(int imported, int failed, List<FieldError> errors) {
+}
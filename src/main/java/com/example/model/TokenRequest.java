@@ -0,0 +1,12 @@
+package com.example.model;
+
+/**
+ * トークン発行リクエストを表すレコード
+ *
+ * @param username ユーザー名
+ * @param password パスワード
+ * @author Sample Project
+ * @version 1.0
+ */
+public record TokenRequest(String username, String password) {
+}
@@ -0,0 +1,11 @@
+package com.example.model;
+
+/**
+ * トークン発行レスポンスを表すレコード
+ *
+ * @param token 発行されたJWTトークン
+ * @author Sample Project
+ * @version 1.0
+ */
+public record TokenResponse(String token) {
+}
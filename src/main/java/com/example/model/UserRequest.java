@@ -0,0 +1,16 @@
+package com.example.model;
+
+/**
+ * ユーザー作成・更新リクエストを表すレコード
+ *
+ * <p>POST、PUT、PATCHの各リクエストボディに共通で使用します。
+ * PATCHではリクエストに含まれなかったフィールドは {@code null} になります。</p>
+ *
+ * @param name ユーザー名
+ * @param email メールアドレス
+ * @param role ユーザーの役割
+ * @author Sample Project
+ * @version 1.0
+ */
+public record UserRequest(String name, String email, String role) {
+}
@@ -0,0 +1,27 @@
+package com.example.model;
+
+/**
+ * ユーザー情報のレスポンスを表すレコード
+ *
+ * <p>GET /admin/users および GET /admin/users/{userId} で返却されます。
+ * {@code null} のフィールドはJSONに出力されません（userIdを除く）。</p>
+ *
+ * @param userId ユーザーID
+ * @param name ユーザー名
+ * @param email メールアドレス
+ * @param role ユーザーの役割
+ * @author Sample Project
+ * @version 1.0
+ */
+public record UserResponse(String userId, String name, String email, String role) {
+
+    /**
+     * IDと名前だけを持つレスポンスを生成します。
+     *
+     * @param userId ユーザーID
+     * @param name ユーザー名
+     */
+    public UserResponse(String userId, String name) {
+        this(userId, name, null, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.model;
+
+/**
+ * 更新系操作の結果を表すレコード
+ *
+ * <p>作成・更新・部分更新の結果として、
+ * 対象ユーザーのIDと処理結果のステータスを返します。</p>
+ *
+ * @param userId 対象のユーザーID
+ * @param status 処理結果（created、updated、patchedなど）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record UserStatusResponse(String userId, String status) {
+}
@@ -0,0 +1,163 @@
+package com.example.priming;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * SnapStart（CRaC）のチェックポイント前に実行するプライミングの共通処理
+ *
+ * <p>各ハンドラーの {@code beforeCheckpoint} は、ここで生成した合成イベントを
+ * 自身の {@code handleRequest} に {@link #ITERATIONS} 回流し、クラスの初期化と
+ * JITコンパイルを済ませた状態でスナップショットを作成させます。
+ * 合成イベントはファイルを読まずにコード上で組み立てます。</p>
+ *
+ * <p>繰り返し回数は環境変数 {@code PRIMING_ITERATIONS} で変更できます（既定は200回）。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class Priming {
+
+    /** 合成イベントを流す回数 */
+    public static final int ITERATIONS = iterationsFromEnvironment();
+
+    /** プライミング用の実行コンテキスト（ログは破棄） */
+    public static final Context CONTEXT = new SyntheticContext("priming");
+
+    private static final int DEFAULT_ITERATIONS = 200;
+
+    private static final String METHOD_ARN =
+            "arn:aws:execute-api:ap-northeast-1:123456789012:priming/Prod/GET/admin/users";
+
+    private static final String USER_BODY = "{\"name\":\"Priming User\",\"email\":\"priming@example.com\",\"role\":\"viewer\"}";
+    private static final String BATCH_BODY = "{\"operations\":["
+            + "{\"method\":\"POST\",\"body\":" + USER_BODY + "},"
+            + "{\"method\":\"PATCH\",\"userId\":\"user-002\",\"body\":{\"role\":\"editor\"}},"
+            + "{\"method\":\"DELETE\",\"userId\":\"user-003\"}]}";
+    private static final String IMPORT_BODY = "{\"userId\":\"user-002\",\"name\":\"Priming User\"}\n" + USER_BODY + "\n";
+
+    private Priming() {
+    }
+
+    /**
+     * 指定された処理を {@link #ITERATIONS} 回実行します。
+     *
+     * @param pass 1回分の処理（引数は0から始まる回数）
+     */
+    public static void run(IntConsumer pass) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            pass.accept(i);
+        }
+    }
+
+    /**
+     * 復元後の再シードに使用する乱数を生成します。
+     *
+     * <p>スナップショットに含まれる乱数生成器の状態は全ての実行環境で共通になるため、
+     * 復元後に新しく生成した {@link SecureRandom} から取得します。</p>
+     *
+     * @return 64ビットの乱数
+     */
+    public static long freshEntropy() {
+        return new SecureRandom().nextLong();
+    }
+
+    /**
+     * トークン発行リクエスト（POST /auth/token）を生成します。
+     *
+     * @return 合成イベント
+     */
+    public static APIGatewayProxyRequestEvent tokenRequest() {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withPath("/auth/token")
+                .withBody("{\"username\":\"testuser\",\"password\":\"password123\"}");
+    }
+
+    /**
+     * REQUEST型のAuthorizerイベントを生成します。
+     *
+     * @param authorizationToken Authorizationヘッダーの値
+     * @return 合成イベント
+     */
+    public static APIGatewayCustomAuthorizerEvent authorizerEvent(String authorizationToken) {
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setType("REQUEST");
+        event.setHeaders(Map.of("Authorization", authorizationToken));
+        event.setMethodArn(METHOD_ARN);
+        return event;
+    }
+
+    /**
+     * ユーザー管理の全ルートのリクエストを生成します。
+     *
+     * <p>一覧・取得・作成・更新・部分更新・削除に加え、入力検証エラーになる作成リクエストと、
+     * NDJSONの一括取り込み・エクスポート、一括更新、複数ユーザー取得、変更フィードと差分同期を含みます。</p>
+     *
+     * @param organizationId Authorizerのコンテキストに設定する組織ID
+     * @return 合成イベント
+     */
+    public static List<APIGatewayProxyRequestEvent> adminRequests(String organizationId) {
+        Map<String, Object> authorizer = Map.of(
+                "principalId", "priming", "role", "admin", "organization_id", organizationId);
+        return List.of(
+                adminRequest("GET", null, null, authorizer),
+                adminRequest("GET", "user-001", null, authorizer),
+                adminRequest("POST", null, USER_BODY, authorizer),
+                adminRequest("POST", null, "{\"name\":\"\",\"email\":\"not-an-email\"}", authorizer),
+                adminRequest("PUT", "user-001", USER_BODY, authorizer),
+                adminRequest("PATCH", "user-001", "{\"role\":\"editor\"}", authorizer),
+                adminRequest("DELETE", "user-001", null, authorizer),
+                bulkRequest("POST", "/admin/users/import", IMPORT_BODY, authorizer),
+                bulkRequest("GET", "/admin/users/export", null, authorizer)
+                        .withQueryStringParameters(Map.of("limit", "100")),
+                bulkRequest("POST", "/admin/users/batch", BATCH_BODY, authorizer)
+                        .withHeaders(Map.of("Content-Type", "application/json")),
+                adminRequest("GET", null, null, authorizer)
+                        .withQueryStringParameters(Map.of("ids", "user-001,user-002,user-003,user-404")),
+                bulkRequest("GET", "/admin/users/changes", null, authorizer)
+                        .withHeaders(Map.of("Content-Type", "application/json"))
+                        .withQueryStringParameters(Map.of("limit", "100")),
+                adminRequest("GET", null, null, authorizer)
+                        .withQueryStringParameters(Map.of("since", "0")));
+    }
+
+    private static APIGatewayProxyRequestEvent bulkRequest(String httpMethod, String resource, String body,
+                                                           Map<String, Object> authorizer) {
+        return adminRequest(httpMethod, null, body, authorizer)
+                .withPath(resource)
+                .withResource(resource)
+                .withHeaders(Map.of("Content-Type", "application/x-ndjson"));
+    }
+
+    private static APIGatewayProxyRequestEvent adminRequest(String httpMethod, String userId, String body,
+                                                            Map<String, Object> authorizer) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        requestContext.setAuthorizer(authorizer);
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(httpMethod)
+                .withPath(userId != null ? "/admin/users/" + userId : "/admin/users")
+                .withPathParameters(userId != null ? Map.of("userId", userId) : null)
+                .withHeaders(Map.of("Content-Type", "application/json"))
+                .withBody(body)
+                .withRequestContext(requestContext);
+    }
+
+    private static int iterationsFromEnvironment() {
+        String value = System.getenv("PRIMING_ITERATIONS");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_ITERATIONS;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_ITERATIONS;
+        }
+    }
+}
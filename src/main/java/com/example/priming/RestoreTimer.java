@@ -0,0 +1,61 @@
+package com.example.priming;
+
+import com.example.logging.StructuredLogger;
+
+/**
+ * スナップショットからの復元後、最初のリクエストの処理時間を記録するタイマー
+ *
+ * <p>ハンドラーの {@code afterRestore} で {@link #restored()} を呼ぶと、
+ * 次の1リクエストだけ処理時間を計測し、構造化ログに
+ * {@code "first request after restore"} として出力します。
+ * 復元後でないリクエストでの追加コストはvolatileな読み取り1回だけです。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class RestoreTimer {
+
+    private final StructuredLogger logger;
+    private volatile long restoredAtNanos;
+
+    /**
+     * ハンドラーのクラスを指定してタイマーを生成します。
+     *
+     * @param handlerClass ログの出力元として使用するハンドラーのクラス
+     */
+    public RestoreTimer(Class<?> handlerClass) {
+        this.logger = StructuredLogger.getLogger(handlerClass);
+    }
+
+    /**
+     * 復元されたことを記録し、次のリクエストを計測対象にします。
+     */
+    public void restored() {
+        restoredAtNanos = System.nanoTime();
+    }
+
+    /**
+     * リクエストの処理開始時に呼び出します。
+     *
+     * @return 計測対象の場合は開始時刻（ナノ秒）、それ以外は0
+     */
+    public long startRequest() {
+        return (restoredAtNanos != 0) ? System.nanoTime() : 0;
+    }
+
+    /**
+     * リクエストの処理終了時に呼び出します。計測対象だった場合はログを記録します。
+     *
+     * @param startNanos {@link #startRequest()} の戻り値
+     */
+    public void endRequest(long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        long restoredAt = restoredAtNanos;
+        restoredAtNanos = 0;
+        logger.info("first request after restore")
+                .with("latencyMicros", (System.nanoTime() - startNanos) / 1_000)
+                .with("sinceRestoreMicros", (startNanos - restoredAt) / 1_000);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.priming;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+/**
+ * 合成イベントでハンドラーを実行するためのLambda実行コンテキスト
+ *
+ * <p>プライミングやAppCDSのトレーニング実行など、実際の呼び出し以外で
+ * ハンドラーを実行する際に使用します。ログはすべて破棄されます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class SyntheticContext implements Context {
+
+    private static final LambdaLogger DISCARDING_LOGGER = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+        }
+
+        @Override
+        public void log(byte[] message) {
+        }
+    };
+
+    private final String name;
+
+    /**
+     * 名前を指定してコンテキストを生成します。
+     *
+     * @param name リクエストIDや関数名として使用する名前
+     */
+    public SyntheticContext(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getAwsRequestId() {
+        return name;
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return "/aws/lambda/" + name;
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return name;
+    }
+
+    @Override
+    public String getFunctionName() {
+        return name;
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return "$LATEST";
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return "arn:aws:lambda:ap-northeast-1:123456789012:function:" + name;
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return 30_000;
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return 512;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return DISCARDING_LOGGER;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 観測したレイテンシーから上限を調整する同時実行数リミッター（バルクヘッド）
+ *
+ * <p>ストアが遅くなると、同時に処理中のリクエストが積み上がって全員のレイテンシーが伸びます。
+ * このリミッターは処理中の数が上限に達している場合、待たせずにすぐ拒否します。</p>
+ *
+ * <p>上限はAIMD（Additive Increase / Multiplicative Decrease）で調整します。
+ * 処理時間が目標以下で終わるたびに上限を {@code 1 / 上限} だけ増やし（上限の数だけ完了すると約1増える）、
+ * 目標を超えると {@value #BACKOFF_RATIO} 倍に減らします。上限は最小値と最大値の間に保ちます。</p>
+ *
+ * <p>ストアが遅くなると、その時点で処理中のリクエストはまとめて目標を超えて完了します。
+ * それぞれで減らすと上限は1回の遅延で {@code BACKOFF_RATIO ^ 処理中の数} まで落ちてしまうため、
+ * 減らすのは1往復の間に1回だけにします。前回減らした時点より後に開始した（減らした後の上限で
+ * 受け付けた）リクエストが目標を超えた場合にだけ、もう一度減らします。</p>
+ *
+ * <p>処理中の数は1つの {@link AtomicInteger} で管理し、取得はCASだけで完了します。
+ * 上限の更新は完了時の短い同期区間で行います。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /** 目標を超えた場合に上限に掛ける比率 */
+    static final double BACKOFF_RATIO = 0.9;
+
+    /** 拒否した場合に {@link #tryAcquire()} が返す値 */
+    public static final long REJECTED = -1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long backoffNanos = Long.MIN_VALUE;
+
+    /**
+     * リミッターを生成します。
+     *
+     * @param initialLimit 上限の初期値
+     * @param minLimit 上限の最小値（1以上）
+     * @param maxLimit 上限の最大値
+     * @param latencyTargetMillis 上限を増やすか減らすかを分ける処理時間（ミリ秒）
+     * @param nanoClock ナノ秒単位の単調増加クロック
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetMillis,
+                                      LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("invalid limits: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 処理中の数が上限未満であれば1つ確保します。
+     *
+     * @return 処理の開始時刻（{@link #release} に渡す）。上限に達している場合は {@link #REJECTED}
+     */
+    public long tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return REJECTED;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return nanoClock.getAsLong();
+            }
+        }
+    }
+
+    /**
+     * 確保した1つを解放し、処理時間から上限を調整します。
+     *
+     * @param startNanos {@link #tryAcquire()} が返した開始時刻
+     */
+    public void release(long startNanos) {
+        long now = nanoClock.getAsLong();
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            double current = limit;
+            if (now - startNanos <= latencyTargetNanos) {
+                limit = Math.min(maxLimit, current + 1 / current);
+            } else if (startNanos >= backoffNanos) {
+                // 前回減らした時点で既に処理中だったリクエストでは減らさない
+                limit = Math.max(minLimit, current * BACKOFF_RATIO);
+                backoffNanos = now;
+            }
+        }
+    }
+
+    /**
+     * 現在の上限を返します。
+     *
+     * @return 同時に処理できる数
+     */
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * 処理中の数を返します。
+     *
+     * @return 処理中の数
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ratelimit;
+
+/**
+ * 読み取り系・更新系・一括系のルートを分けた同時実行数の制限
+ *
+ * <p>更新系のストア呼び出しが遅くなっても読み取り系のリクエストまで巻き込まないよう、
+ * ルート分類ごとに別々の {@link AdaptiveConcurrencyLimiter} を割り当てます。
+ * {@link RouteClass#READ} と {@link RouteClass#LIST} は読み取り系、
+ * {@link RouteClass#BULK} は一括系、それ以外は更新系のリミッターを使います。</p>
+ *
+ * <p>一括系（インポート・エクスポート・一括更新）の処理時間は件数に比例し、目標を超えるのが普通です。
+ * 読み取り系や更新系と同じリミッターで測ると、その上限を不当に下げてしまうため、
+ * 一括系は別のリミッターに分けます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class Bulkheads {
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final AdaptiveConcurrencyLimiter bulk;
+
+    /**
+     * 既定の設定でバルクヘッドを生成します。
+     *
+     * <ul>
+     * <li>読み取り系 - 初期値50、1〜500、目標50ミリ秒</li>
+     * <li>更新系 - 初期値20、1〜200、目標200ミリ秒</li>
+     * <li>一括系 - 2に固定（処理時間は件数で決まり、負荷の指標にならないため調整しない）</li>
+     * </ul>
+     *
+     * @return 既定設定のバルクヘッド
+     */
+    public static Bulkheads withDefaults() {
+        return new Bulkheads(
+                new AdaptiveConcurrencyLimiter(50, 1, 500, 50, System::nanoTime),
+                new AdaptiveConcurrencyLimiter(20, 1, 200, 200, System::nanoTime),
+                new AdaptiveConcurrencyLimiter(2, 2, 2, 1_000, System::nanoTime));
+    }
+
+    /**
+     * 読み取り系・更新系・一括系のリミッターを指定してバルクヘッドを生成します。
+     *
+     * @param reads 読み取り系のリミッター
+     * @param writes 更新系のリミッター
+     * @param bulk 一括系のリミッター
+     */
+    public Bulkheads(AdaptiveConcurrencyLimiter reads, AdaptiveConcurrencyLimiter writes,
+                     AdaptiveConcurrencyLimiter bulk) {
+        this.reads = reads;
+        this.writes = writes;
+        this.bulk = bulk;
+    }
+
+    /**
+     * ルート分類に対応するリミッターを返します。
+     *
+     * @param routeClass ルート分類
+     * @return リミッター
+     */
+    public AdaptiveConcurrencyLimiter forRoute(RouteClass routeClass) {
+        return switch (routeClass) {
+            case READ, LIST -> reads;
+            case BULK -> bulk;
+            default -> writes;
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ratelimit;
+
+/**
+ * トークンバケットの設定を表すレコード
+ *
+ * @param permitsPerSecond 1秒あたりに補充されるトークン数
+ * @param burst バケットの容量（連続して許可されるリクエスト数）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record RateLimitPolicy(double permitsPerSecond, int burst) {
+
+    /**
+     * 設定値を検証します。
+     */
+    public RateLimitPolicy {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit policy: " + permitsPerSecond + "/s, burst " + burst);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ratelimit;
+
+/**
+ * レート制限の単位となるルート分類
+ *
+ * <p>処理コストが近いエンドポイントを同じ分類にまとめ、
+ * テナントごとに分類単位でトークンバケットを割り当てます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public enum RouteClass {
+    /** 単一ユーザーの取得 (GET /admin/users/{userId}) */
+    READ,
+    /** ユーザー一覧の取得 (GET /admin/users) */
+    LIST,
+    /** ユーザーの作成・更新・削除 */
+    WRITE,
+    /** 一括処理 */
+    BULK
+}
@@ -0,0 +1,205 @@
+package com.example.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 組織（テナント）とルート分類ごとのインプロセスレートリミッター
+ *
+ * <p>API GatewayのUsage PlanはAPIキー単位でしか制限できないため、
+ * JWTの {@code organization_id} クレーム単位で高コストなルートを制限します。</p>
+ *
+ * <p>各バケットはGCRA（Generic Cell Rate Algorithm）で実装したトークンバケットで、
+ * 状態は「理論上の次回到着時刻（TAT）」を保持する1つの {@link AtomicLong} だけです。
+ * 判定は1回のCASで完了し、グローバルロックは存在しません。
+ * バケットはルート分類ごとの {@link ConcurrentHashMap} に分散して保持され、
+ * 既存バケットの参照はロックフリーです。</p>
+ *
+ * <p>追跡するテナント数が上限を超えた場合は、トークンが満タンに戻った
+ * （新規作成と区別できない）バケットを削除してメモリ使用量を抑えます。
+ * 新しいテナントの登録ごとに、前回の続きから最大 {@value #SWEEP_BATCH} 個のバケットだけを
+ * 調べるため、登録にかかる時間は追跡しているテナント数によらず一定です。
+ * 調べた範囲に満タンのバケットが無い場合、バケット数は一時的に上限を超えます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class TenantRateLimiter {
+
+    /** ルート分類ごとに保持するバケット数の既定の上限 */
+    public static final int DEFAULT_MAX_TRACKED_TENANTS = 100_000;
+
+    /** 上限を超えた場合に、新しいテナントの登録1回ごとに調べるバケット数 */
+    static final int SWEEP_BATCH = 8;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LongSupplier nanoClock;
+    private final int maxTrackedTenants;
+    private final long[] emissionIntervals;
+    private final long[] burstWindows;
+    private final ConcurrentHashMap<String, AtomicLong>[] buckets;
+    private final Iterator<AtomicLong>[] sweepCursors;
+    private final ReentrantLock[] sweepLocks;
+
+    /**
+     * 既定の設定でレートリミッターを生成します。
+     *
+     * <ul>
+     * <li>LIST - 5リクエスト/秒、バースト10</li>
+     * <li>WRITE - 10リクエスト/秒、バースト20</li>
+     * <li>BULK - 1リクエスト/秒、バースト2</li>
+     * <li>READ - 制限なし</li>
+     * </ul>
+     *
+     * @return 既定設定のレートリミッター
+     */
+    public static TenantRateLimiter withDefaults() {
+        Map<RouteClass, RateLimitPolicy> policies = new EnumMap<>(RouteClass.class);
+        policies.put(RouteClass.LIST, new RateLimitPolicy(5, 10));
+        policies.put(RouteClass.WRITE, new RateLimitPolicy(10, 20));
+        policies.put(RouteClass.BULK, new RateLimitPolicy(1, 2));
+        return new TenantRateLimiter(policies, System::nanoTime, DEFAULT_MAX_TRACKED_TENANTS);
+    }
+
+    /**
+     * ルート分類ごとの設定を指定してレートリミッターを生成します。
+     *
+     * @param policies ルート分類ごとの設定（含まれない分類は制限なし）
+     * @param nanoClock ナノ秒単位の単調増加クロック
+     * @param maxTrackedTenants ルート分類ごとに保持するバケット数の上限
+     */
+    @SuppressWarnings("unchecked")
+    public TenantRateLimiter(Map<RouteClass, RateLimitPolicy> policies, LongSupplier nanoClock, int maxTrackedTenants) {
+        RouteClass[] classes = RouteClass.values();
+        this.nanoClock = nanoClock;
+        this.maxTrackedTenants = maxTrackedTenants;
+        this.emissionIntervals = new long[classes.length];
+        this.burstWindows = new long[classes.length];
+        this.buckets = new ConcurrentHashMap[classes.length];
+        this.sweepCursors = new Iterator[classes.length];
+        this.sweepLocks = new ReentrantLock[classes.length];
+        for (RouteClass routeClass : classes) {
+            RateLimitPolicy policy = policies.get(routeClass);
+            if (policy == null) {
+                continue;
+            }
+            int i = routeClass.ordinal();
+            emissionIntervals[i] = Math.max(1L, Math.round(NANOS_PER_SECOND / policy.permitsPerSecond()));
+            burstWindows[i] = emissionIntervals[i] * policy.burst();
+            buckets[i] = new ConcurrentHashMap<>();
+            sweepLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * トークンを1つ取得します。
+     *
+     * @param organizationId 組織ID
+     * @param routeClass ルート分類
+     * @return 許可された場合は0、拒否された場合は次のトークンが補充されるまでのナノ秒
+     */
+    public long tryAcquire(String organizationId, RouteClass routeClass) {
+        int i = routeClass.ordinal();
+        ConcurrentHashMap<String, AtomicLong> tenantBuckets = buckets[i];
+        if (tenantBuckets == null) {
+            return 0;
+        }
+        long interval = emissionIntervals[i];
+        long burstWindow = burstWindows[i];
+        long now = nanoClock.getAsLong();
+
+        AtomicLong bucket = tenantBuckets.get(organizationId);
+        if (bucket == null) {
+            bucket = register(i, organizationId, now);
+        }
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            long excess = next - now - burstWindow;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * ルート分類ごとに現在保持しているバケット数を返します。
+     *
+     * @param routeClass ルート分類
+     * @return バケット数（制限なしの分類は0）
+     */
+    public int trackedTenants(RouteClass routeClass) {
+        ConcurrentHashMap<String, AtomicLong> tenantBuckets = buckets[routeClass.ordinal()];
+        return tenantBuckets == null ? 0 : tenantBuckets.size();
+    }
+
+    /**
+     * 全てのバケットを削除し、全テナントを満タンの状態に戻します。
+     *
+     * <p>スナップショット作成前のプライミングで作られたバケットを破棄するために使用します。</p>
+     */
+    public void clear() {
+        for (ConcurrentHashMap<String, AtomicLong> tenantBuckets : buckets) {
+            if (tenantBuckets != null) {
+                tenantBuckets.clear();
+            }
+        }
+    }
+
+    private AtomicLong register(int classIndex, String organizationId, long now) {
+        ConcurrentHashMap<String, AtomicLong> tenantBuckets = buckets[classIndex];
+        if (tenantBuckets.size() >= maxTrackedTenants) {
+            sweep(classIndex, now);
+        }
+        return tenantBuckets.computeIfAbsent(organizationId, key -> new AtomicLong(Long.MIN_VALUE / 2));
+    }
+
+    /**
+     * 前回の続きから最大 {@value #SWEEP_BATCH} 個のバケットを調べ、満タンのものを削除します。
+     * 他のスレッドが調べている間は何もしません。
+     */
+    private void sweep(int classIndex, long now) {
+        ReentrantLock lock = sweepLocks[classIndex];
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            Iterator<AtomicLong> cursor = sweepCursors[classIndex];
+            for (int examined = 0; examined < SWEEP_BATCH; examined++) {
+                if (cursor == null || !cursor.hasNext()) {
+                    // 末尾まで調べたら先頭から調べ直す
+                    cursor = buckets[classIndex].values().iterator();
+                    if (!cursor.hasNext()) {
+                        break;
+                    }
+                }
+                // TATが現在時刻以前のバケットは満タンで、削除しても挙動は変わらない
+                if (cursor.next().get() <= now) {
+                    cursor.remove();
+                }
+            }
+            sweepCursors[classIndex] = cursor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 待ち時間のナノ秒をRetry-Afterヘッダー用の秒数（切り上げ、最小1秒）に変換します。
+     *
+     * @param waitNanos {@link #tryAcquire} が返した待ち時間
+     * @return Retry-Afterに設定する秒数
+     */
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1L, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+}
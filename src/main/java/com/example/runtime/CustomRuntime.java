@@ -0,0 +1,124 @@
+package com.example.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.example.AdminUsersHandler;
+import com.example.AuthHandler;
+import com.example.AuthorizerHandler;
+import com.example.ProtectedHandler;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * カスタムランタイム（{@code provided.al2023}）のエントリーポイント
+ *
+ * <p>GraalVMのネイティブイメージ（{@code native} プロファイル）の {@code bootstrap} として起動され、
+ * Runtime APIから呼び出しを取得してハンドラーを実行し、結果を返すループを回します。
+ * ハンドラーは環境変数 {@code _HANDLER}（テンプレートの {@code Handler}）のクラス名で選択します。
+ * ネイティブイメージで追加のリフレクション設定を必要としないよう、
+ * ハンドラーはクラス名の分岐で直接生成します。</p>
+ *
+ * <p>ハンドラーで例外が発生した場合はエラーとして報告して次の呼び出しに進み、
+ * Runtime APIとの通信に失敗した場合はプロセスを終了してLambdaに再起動させます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class CustomRuntime {
+
+    private static final Gson GSON = new Gson();
+
+    private final RuntimeApiClient client;
+    private final EventHandler handler;
+    private final Map<String, String> environment;
+    private final LongSupplier clock;
+    private final PrintStream out;
+
+    CustomRuntime(RuntimeApiClient client, EventHandler handler, Map<String, String> environment,
+                  LongSupplier clock, PrintStream out) {
+        this.client = client;
+        this.handler = handler;
+        this.environment = environment;
+        this.clock = clock;
+        this.out = out;
+    }
+
+    /**
+     * ランタイムを起動し、呼び出しの処理を続けます。
+     *
+     * @param args 使用しません
+     * @throws IOException Runtime APIとの通信に失敗した場合
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> environment = System.getenv();
+        RuntimeApiClient client = new RuntimeApiClient(environment.get("AWS_LAMBDA_RUNTIME_API"));
+
+        EventHandler handler;
+        try {
+            handler = handlerFor(environment.get("_HANDLER"));
+        } catch (RuntimeException e) {
+            client.initError(e);
+            System.exit(1);
+            return;
+        }
+
+        CustomRuntime runtime = new CustomRuntime(client, handler, environment, System::currentTimeMillis, System.out);
+        while (true) {
+            runtime.processNext();
+        }
+    }
+
+    /**
+     * 次の呼び出しを1件取得して処理します。
+     *
+     * @throws IOException Runtime APIとの通信に失敗した場合
+     */
+    void processNext() throws IOException {
+        Invocation invocation = client.next();
+        Context context = new RuntimeContext(invocation, environment, clock, out);
+        String response;
+        try {
+            response = handler.handle(invocation.body(), context);
+        } catch (Exception e) {
+            client.fail(invocation.requestId(), e);
+            return;
+        }
+        client.respond(invocation.requestId(), response);
+    }
+
+    /**
+     * ハンドラー名に対応するハンドラーを生成します。
+     *
+     * @param handlerName {@code com.example.AuthorizerHandler::handleRequest} またはクラス名
+     * @return イベントのJSONを処理するハンドラー
+     * @throws IllegalArgumentException 未知のハンドラーが指定された場合
+     */
+    static EventHandler handlerFor(String handlerName) {
+        String className = handlerName != null ? handlerName.split("::", 2)[0] : "";
+        return switch (className) {
+            case "com.example.AuthHandler" -> of(new AuthHandler(), APIGatewayProxyRequestEvent.class);
+            case "com.example.AuthorizerHandler" -> of(new AuthorizerHandler(), APIGatewayCustomAuthorizerEvent.class);
+            case "com.example.ProtectedHandler" -> of(new ProtectedHandler(), APIGatewayProxyRequestEvent.class);
+            case "com.example.AdminUsersHandler" -> of(new AdminUsersHandler(), APIGatewayProxyRequestEvent.class);
+            default -> throw new IllegalArgumentException("Unknown handler: " + handlerName);
+        };
+    }
+
+    private static <I, O> EventHandler of(RequestHandler<I, O> handler, Class<I> eventType) {
+        return (event, context) -> GSON.toJson(handler.handleRequest(GSON.fromJson(event, eventType), context));
+    }
+
+    /**
+     * イベントのJSONを受け取り、レスポンスのJSONを返すハンドラー
+     */
+    @FunctionalInterface
+    interface EventHandler {
+        String handle(String event, Context context);
+    }
+}
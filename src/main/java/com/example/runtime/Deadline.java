@@ -0,0 +1,104 @@
+package com.example.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 1回の呼び出しの処理の期限
+ *
+ * <p>ハンドラーの入口で {@link Context#getRemainingTimeInMillis()} から1回だけ生成し、
+ * 時間のかかるアクションに渡します。アクションは処理の区切りで {@link #check()} を呼び、
+ * 期限を過ぎた場合は残りの処理をやめて503を返します。これにより、関数の {@code Timeout} まで
+ * 処理を続けて呼び出し全体が無駄になることを防ぎます。</p>
+ *
+ * <p>コンテキストが無い場合（{@code null}）は期限の無い {@link #NONE} を生成します。
+ * 残り時間が0以下のコンテキストは既に期限を過ぎているため、期限切れの状態から始まります。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class Deadline {
+
+    /** 期限の無い状態 */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE, () -> 0L);
+
+    private final long expiresAtNanos;
+    private final LongSupplier nanoClock;
+
+    private Deadline(long expiresAtNanos, LongSupplier nanoClock) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 実行コンテキストの残り時間から期限を生成します。
+     *
+     * @param context Lambda実行コンテキスト
+     * @return 期限（コンテキストが {@code null} の場合は {@link #NONE}）
+     */
+    public static Deadline of(Context context) {
+        return (context != null) ? after(context.getRemainingTimeInMillis(), System::nanoTime) : NONE;
+    }
+
+    /**
+     * 指定された時計で、現在から指定された時間後の期限を生成します。
+     *
+     * @param millis 期限までの時間（ミリ秒）
+     * @param nanoClock 単調増加するナノ秒の時計
+     * @return 期限
+     */
+    public static Deadline after(long millis, LongSupplier nanoClock) {
+        return new Deadline(nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(millis), nanoClock);
+    }
+
+    /**
+     * 指定された時間だけ早い期限を返します。レスポンスの圧縮やログの出力の時間を残すために使います。
+     *
+     * @param millis 残しておく時間（ミリ秒）
+     * @return 早めた期限（{@link #NONE} の場合は {@link #NONE}）
+     */
+    public Deadline reserve(long millis) {
+        return (this == NONE) ? NONE : new Deadline(expiresAtNanos - TimeUnit.MILLISECONDS.toNanos(millis), nanoClock);
+    }
+
+    /**
+     * 期限までの残り時間を返します。
+     *
+     * @return 残り時間（ミリ秒、期限を過ぎている場合は0以下、期限が無い場合は {@link Long#MAX_VALUE}）
+     */
+    public long remainingMillis() {
+        return (this == NONE) ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - nanoClock.getAsLong());
+    }
+
+    /**
+     * 期限を過ぎているかを返します。
+     *
+     * @return 期限を過ぎている場合は {@code true}
+     */
+    public boolean isExpired() {
+        return this != NONE && nanoClock.getAsLong() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * 指定された時間の処理を期限内に終えられるかを返します。
+     *
+     * @param budgetMillis 処理に必要な時間（ミリ秒）
+     * @return 残り時間が足りる場合は {@code true}
+     */
+    public boolean allows(long budgetMillis) {
+        return remainingMillis() >= budgetMillis;
+    }
+
+    /**
+     * 期限を過ぎている場合に例外をスローします。
+     *
+     * @throws DeadlineExceededException 期限を過ぎている場合
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+}
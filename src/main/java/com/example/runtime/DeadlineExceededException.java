@@ -0,0 +1,20 @@
+package com.example.runtime;
+
+/**
+ * 処理の期限（{@link Deadline}）を過ぎたことを示す例外
+ *
+ * <p>アクションの内部で残りの処理を打ち切るために使い、アクションの外には出さずに
+ * 503のレスポンスに変換します。スタックトレースは記録しません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class DeadlineExceededException extends RuntimeException {
+
+    /**
+     * 例外を生成します。
+     */
+    public DeadlineExceededException() {
+        super("deadline exceeded", null, false, false);
+    }
+}
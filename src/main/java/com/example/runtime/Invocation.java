@@ -0,0 +1,17 @@
+package com.example.runtime;
+
+/**
+ * Lambda Runtime APIから取得した1件の呼び出し
+ *
+ * @param requestId リクエストID（{@code Lambda-Runtime-Aws-Request-Id}）
+ * @param deadlineEpochMillis タイムアウト時刻（エポックミリ秒、{@code Lambda-Runtime-Deadline-Ms}）
+ * @param invokedFunctionArn 呼び出された関数のARN（{@code Lambda-Runtime-Invoked-Function-Arn}）
+ * @param traceId X-RayのトレースID（{@code Lambda-Runtime-Trace-Id}、無い場合は {@code null}）
+ * @param body イベントのJSON
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public record Invocation(String requestId, long deadlineEpochMillis, String invokedFunctionArn,
+                         String traceId, String body) {
+}
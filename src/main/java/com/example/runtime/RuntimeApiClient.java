@@ -0,0 +1,143 @@
+package com.example.runtime;
+
+import com.example.json.JsonCodecs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lambda Runtime API（2018-06-01）のクライアント
+ *
+ * <p>カスタムランタイム（{@code provided.al2023}）で次の呼び出しの取得と
+ * 結果の送信を行います。ネイティブイメージのサイズと起動時間を抑えるため、
+ * {@code java.net.http.HttpClient} ではなく {@link HttpURLConnection} を使用します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public class RuntimeApiClient {
+
+    private static final String API_VERSION = "/2018-06-01/runtime";
+
+    private final String baseUrl;
+
+    /**
+     * Runtime APIのエンドポイントを指定してクライアントを生成します。
+     *
+     * @param endpoint {@code host:port} 形式のエンドポイント（環境変数 {@code AWS_LAMBDA_RUNTIME_API}）
+     */
+    public RuntimeApiClient(String endpoint) {
+        this.baseUrl = "http://" + endpoint + API_VERSION;
+    }
+
+    /**
+     * 次の呼び出しを取得します。呼び出しが届くまでブロックします。
+     *
+     * @return 取得した呼び出し
+     * @throws IOException Runtime APIとの通信に失敗した場合
+     */
+    public Invocation next() throws IOException {
+        HttpURLConnection connection = open("/invocation/next", "GET");
+        // 次の呼び出しまで任意の時間待つため、読み取りタイムアウトは設定しない
+        connection.setReadTimeout(0);
+        try {
+            int status = connection.getResponseCode();
+            if (status != 200) {
+                throw new IOException("Runtime API returned " + status + " for next invocation");
+            }
+            String body = read(connection.getInputStream());
+            String deadline = connection.getHeaderField("Lambda-Runtime-Deadline-Ms");
+            return new Invocation(
+                    connection.getHeaderField("Lambda-Runtime-Aws-Request-Id"),
+                    deadline != null ? Long.parseLong(deadline) : 0,
+                    connection.getHeaderField("Lambda-Runtime-Invoked-Function-Arn"),
+                    connection.getHeaderField("Lambda-Runtime-Trace-Id"),
+                    body);
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * 呼び出しの結果を送信します。
+     *
+     * @param requestId リクエストID
+     * @param body レスポンスのJSON
+     * @throws IOException Runtime APIとの通信に失敗した場合
+     */
+    public void respond(String requestId, String body) throws IOException {
+        post("/invocation/" + requestId + "/response", body, null);
+    }
+
+    /**
+     * ハンドラーで発生したエラーを送信します。
+     *
+     * @param requestId リクエストID
+     * @param error 発生した例外
+     * @throws IOException Runtime APIとの通信に失敗した場合
+     */
+    public void fail(String requestId, Throwable error) throws IOException {
+        post("/invocation/" + requestId + "/error", errorJson(error), "Unhandled");
+    }
+
+    /**
+     * 初期化中に発生したエラーを送信します。送信後、ランタイムは終了する必要があります。
+     *
+     * @param error 発生した例外
+     * @throws IOException Runtime APIとの通信に失敗した場合
+     */
+    public void initError(Throwable error) throws IOException {
+        post("/init/error", errorJson(error), "Runtime.InitError");
+    }
+
+    private void post(String path, String body, String errorType) throws IOException {
+        HttpURLConnection connection = open(path, "POST");
+        try {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            // 固定長ストリーミングではヘッダーとボディが別々のセグメントで送信され、
+            // Nagleアルゴリズムと遅延ACKで待たされるため、既定のバッファリングで一度に送信する
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            if (errorType != null) {
+                connection.setRequestProperty("Lambda-Runtime-Function-Error-Type", errorType);
+            }
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+            int status = connection.getResponseCode();
+            if (status != 202) {
+                throw new IOException("Runtime API returned " + status + " for " + path);
+            }
+            // 接続を再利用できるよう、レスポンスボディを読み切る
+            read(connection.getInputStream());
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private HttpURLConnection open(String path, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static String errorJson(Throwable error) {
+        StringBuilder out = new StringBuilder(128).append("{\"errorMessage\":");
+        JsonCodecs.appendString(out, String.valueOf(error.getMessage()));
+        out.append(",\"errorType\":");
+        JsonCodecs.appendString(out, error.getClass().getName());
+        return out.append('}').toString();
+    }
+}
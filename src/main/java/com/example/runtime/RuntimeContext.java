@@ -0,0 +1,102 @@
+package com.example.runtime;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * カスタムランタイムでハンドラーに渡す実行コンテキスト
+ *
+ * <p>関数の情報はLambdaが設定する環境変数から、呼び出しごとの情報は
+ * {@link Invocation} から取得します。ログは標準出力に書き出され、
+ * LambdaによってCloudWatch Logsに転送されます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+final class RuntimeContext implements Context {
+
+    private final Invocation invocation;
+    private final Map<String, String> environment;
+    private final LongSupplier clock;
+    private final LambdaLogger logger;
+
+    RuntimeContext(Invocation invocation, Map<String, String> environment, LongSupplier clock, PrintStream out) {
+        this.invocation = invocation;
+        this.environment = environment;
+        this.clock = clock;
+        this.logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                out.println(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                out.println(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    @Override
+    public String getAwsRequestId() {
+        return invocation.requestId();
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return environment.get("AWS_LAMBDA_LOG_GROUP_NAME");
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return environment.get("AWS_LAMBDA_LOG_STREAM_NAME");
+    }
+
+    @Override
+    public String getFunctionName() {
+        return environment.get("AWS_LAMBDA_FUNCTION_NAME");
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return environment.get("AWS_LAMBDA_FUNCTION_VERSION");
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return invocation.invokedFunctionArn();
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return (int) Math.max(0, invocation.deadlineEpochMillis() - clock.getAsLong());
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        String memory = environment.get("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+        return memory != null ? Integer.parseInt(memory) : 0;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return logger;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.store;
+
+/**
+ * 変更ログの1件の変更
+ *
+ * @param offset パーティション内で0から始まる連番
+ * @param type 変更の種類
+ * @param userId 変更されたユーザーのID
+ * @param user 変更後のユーザー（削除の場合は {@code null}）
+ * @param timestampMillis 変更を記録した時刻（エポックミリ秒）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record ChangeEvent(long offset, ChangeType type, String userId, UserRecord user, long timestampMillis) {
+}
@@ -0,0 +1,171 @@
+package com.example.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 1つのパーティションのユーザーの変更を順に記録する変更ログ
+ *
+ * <p>変更は0から始まるオフセット付きでセグメントに追記します。セグメントは固定長の配列で、
+ * 最初は {@value #INITIAL_SEGMENT_CAPACITY} 件から倍々に大きくし、最大 {@code segmentSize} 件です。
+ * 追記はパーティションの書き込みロックの中で行われるため書き込み側は1スレッドで、
+ * 読み取り側はロックを取らずに、最後に公開されたオフセットより前の変更だけを読みます。</p>
+ *
+ * <p>いっぱいになった先頭のセグメントは、最後の変更が保持期間より古くなった場合と、
+ * セグメント数が上限を超えた場合に削除します（追記のたびに確認します）。
+ * 削除されたオフセットを読もうとした消費者は、エクスポートで全件を取り直す必要があります。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class ChangeLog {
+
+    /** 1つのセグメントの既定の最大件数 */
+    public static final int DEFAULT_SEGMENT_SIZE = 4_096;
+
+    /** 保持するセグメント数の既定の上限 */
+    public static final int DEFAULT_MAX_SEGMENTS = 256;
+
+    /** 既定の保持期間（ミリ秒） */
+    public static final long DEFAULT_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long retentionMillis;
+    private final LongSupplier clock;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private volatile long nextOffset;
+
+    /**
+     * 既定の設定で変更ログを生成します。
+     */
+    ChangeLog() {
+        this(DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS, DEFAULT_RETENTION_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * 変更ログを生成します。
+     *
+     * @param segmentSize 1つのセグメントの最大件数
+     * @param maxSegments 保持するセグメント数の上限
+     * @param retentionMillis 保持期間（ミリ秒）
+     * @param clock エポックミリ秒の時計
+     */
+    ChangeLog(int segmentSize, int maxSegments, long retentionMillis, LongSupplier clock) {
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.retentionMillis = retentionMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 変更を追記します。パーティションの書き込みロックを保持して呼び出します。
+     *
+     * @param type 変更の種類
+     * @param userId ユーザーID
+     * @param user 変更後のユーザー（削除の場合は {@code null}）
+     * @return 追記した変更
+     */
+    ChangeEvent append(ChangeType type, String userId, UserRecord user) {
+        long offset = nextOffset;
+        long now = clock.getAsLong();
+        Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (tail == null || tail.isFull()) {
+            int capacity = (tail == null) ? INITIAL_SEGMENT_CAPACITY : Math.min(segmentSize, tail.events.length * 2);
+            tail = new Segment(offset, capacity);
+            segments.add(tail);
+        }
+        ChangeEvent event = new ChangeEvent(offset, type, userId, user, now);
+        tail.events[(int) (offset - tail.baseOffset)] = event;
+        tail.lastTimestampMillis = now;
+        // 配列への書き込みの後に公開する
+        nextOffset = offset + 1;
+        compact(now);
+        return event;
+    }
+
+    /**
+     * 次に追記される変更のオフセットを返します。
+     *
+     * @return 次のオフセット（記録済みの変更の数）
+     */
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * 保持している最も古い変更のオフセットを返します。
+     *
+     * @return 最も古いオフセット（変更が無い場合は {@link #nextOffset()}）
+     */
+    public long earliestOffset() {
+        long end = nextOffset;
+        // 最初のセグメントが作られた後は、削除されても1つは残る
+        return segments.isEmpty() ? end : Math.min(segments.get(0).baseOffset, end);
+    }
+
+    /**
+     * 保持している変更の数を返します。
+     *
+     * @return 削除されずに残っている変更の数
+     */
+    public long size() {
+        return nextOffset - earliestOffset();
+    }
+
+    /**
+     * 指定されたオフセットから順に変更を読み取ります。
+     *
+     * @param fromOffset 最初に読むオフセット（{@link #earliestOffset()} 以上）
+     * @param limit 最大件数
+     * @return オフセット順の変更（削除済みの範囲は含まない）
+     */
+    public List<ChangeEvent> read(long fromOffset, int limit) {
+        long end = Math.min(nextOffset, fromOffset + limit);
+        List<ChangeEvent> events = new ArrayList<>((int) Math.max(0, Math.min(limit, end - fromOffset)));
+        for (Segment segment : segments) {
+            long segmentEnd = segment.baseOffset + segment.events.length;
+            for (long offset = Math.max(fromOffset, segment.baseOffset); offset < Math.min(end, segmentEnd); offset++) {
+                events.add(segment.events[(int) (offset - segment.baseOffset)]);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 保持期間を過ぎたセグメントと、上限を超えたセグメントを先頭から削除します。末尾のセグメントは残します。
+     */
+    private void compact(long now) {
+        while (segments.size() > 1) {
+            Segment head = segments.get(0);
+            if (segments.size() <= maxSegments && head.lastTimestampMillis >= now - retentionMillis) {
+                return;
+            }
+            segments.remove(0);
+        }
+    }
+
+    /**
+     * 連続したオフセットの変更を保持する固定長のセグメント
+     */
+    private static final class Segment {
+
+        private final long baseOffset;
+        private final ChangeEvent[] events;
+        private long lastTimestampMillis;
+
+        Segment(long baseOffset, int capacity) {
+            this.baseOffset = baseOffset;
+            this.events = new ChangeEvent[capacity];
+        }
+
+        boolean isFull() {
+            return events[events.length - 1] != null;
+        }
+    }
+}
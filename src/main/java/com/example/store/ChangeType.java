@@ -0,0 +1,31 @@
+package com.example.store;
+
+/**
+ * 変更ログに記録するユーザーの変更の種類
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public enum ChangeType {
+    /** 新しいユーザーの追加 */
+    CREATED("created"),
+    /** 既存のユーザーの置き換え・部分更新 */
+    UPDATED("updated"),
+    /** ユーザーの削除 */
+    DELETED("deleted");
+
+    private final String json;
+
+    ChangeType(String json) {
+        this.json = json;
+    }
+
+    /**
+     * JSONに出力する名前を返します。
+     *
+     * @return 小文字の名前
+     */
+    public String json() {
+        return json;
+    }
+}
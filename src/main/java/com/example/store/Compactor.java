@@ -0,0 +1,175 @@
+package com.example.store;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * 差分同期のインデックスから古いトゥームストーンを取り除くバックグラウンドのコンパクター
+ *
+ * <p>削除されたユーザーは、差分同期のクライアントに削除を伝えるためにトゥームストーンとして残ります。
+ * 保持期間を過ぎたトゥームストーンは {@link UserPartition#compactTombstones} で取り除きます。
+ * 1回にパーティションの書き込みロックを保持するのは {@code batchSize} 件分だけで、
+ * 続きがある場合はバッチにかかった時間の {@code (1 - MAX_DUTY_CYCLE) / MAX_DUTY_CYCLE} 倍だけ待ちます。
+ * そのため書き込みロックを使う時間は全体の {@value #MAX_DUTY_CYCLE} 以下で、
+ * 書き込みが待たされるのも最大1バッチ分です。読み取りはロックを取らないため影響を受けません。</p>
+ *
+ * <p>取り除くのは差分同期のインデックスのトゥームストーンだけです。変更フィードの
+ * {@link ChangeLog} のセグメントは、フィードの利用者に削除を含む全ての変更を順に返すため書き換えず、
+ * 削除の変更もセグメントごと保持期間（{@link ChangeLog#DEFAULT_RETENTION_MILLIS}）を過ぎて
+ * 削除されるまで残ります。</p>
+ *
+ * <p>トゥームストーンを1件以上取り除いた場合だけ、空間増幅率（保持しているエントリー数と
+ * 生存しているユーザー数の比）と、取り除いた件数・処理時間を {@link MetricsRegistry#recordCompaction}
+ * に記録します。何も取り除かなかった回は記録しないため、EMFの行も増えません。</p>
+ *
+ * <p>バックグラウンドで1回のコンパクションが例外で終わっても、以降の実行は止めません。
+ * 失敗は {@link MetricsRegistry#recordCompactionFailure} に記録し、次の間隔で再び実行します。</p>
+ *
+ * <p>Lambdaでは呼び出しの間は実行環境が凍結されるため、コンパクションが進むのは
+ * 実行環境が呼び出しを処理している間だけです。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class Compactor implements AutoCloseable {
+
+    /** 既定のトゥームストーンの保持期間（ミリ秒）。変更ログの保持期間と同じです */
+    public static final long DEFAULT_TOMBSTONE_RETENTION_MILLIS = ChangeLog.DEFAULT_RETENTION_MILLIS;
+
+    /** 1回に書き込みロックを保持して扱う既定の件数 */
+    public static final int DEFAULT_BATCH_SIZE = 128;
+
+    /** 既定のコンパクションの間隔（ミリ秒） */
+    public static final long DEFAULT_INTERVAL_MILLIS = 1_000;
+
+    /** コンパクションが書き込みロックを使う時間の上限の割合 */
+    static final double MAX_DUTY_CYCLE = 0.1;
+
+    private final UserStore store;
+    private final MetricsRegistry metrics;
+    private final long tombstoneRetentionMillis;
+    private final int batchSize;
+    private final LongSupplier clock;
+    private ScheduledExecutorService executor;
+
+    /**
+     * 既定の保持期間とバッチサイズでコンパクターを生成します。
+     *
+     * @param store 対象のユーザーストア
+     * @param metrics 結果の記録先
+     */
+    public Compactor(UserStore store, MetricsRegistry metrics) {
+        this(store, metrics, DEFAULT_TOMBSTONE_RETENTION_MILLIS, DEFAULT_BATCH_SIZE, System::currentTimeMillis);
+    }
+
+    /**
+     * コンパクターを生成します。
+     *
+     * @param store 対象のユーザーストア
+     * @param metrics 結果の記録先
+     * @param tombstoneRetentionMillis トゥームストーンの保持期間（ミリ秒）
+     * @param batchSize 1回に書き込みロックを保持して扱う件数
+     * @param clock エポックミリ秒の時計
+     */
+    public Compactor(UserStore store, MetricsRegistry metrics, long tombstoneRetentionMillis, int batchSize,
+                     LongSupplier clock) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.store = store;
+        this.metrics = metrics;
+        this.tombstoneRetentionMillis = tombstoneRetentionMillis;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * プロセス共有のユーザーストアのコンパクターを、まだ動いていなければ開始します。
+     *
+     * @return プロセス共有のコンパクター
+     */
+    public static Compactor startDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 全てのパーティションのコンパクションを1回実行します。
+     *
+     * @return 取り除いたトゥームストーンの数
+     */
+    public long compactOnce() {
+        long cutoffMillis = clock.getAsLong() - tombstoneRetentionMillis;
+        long reclaimed = 0;
+        long busyNanos = 0;
+        long stored = 0;
+        long live = 0;
+        for (UserPartition partition : store.partitions()) {
+            int batch;
+            do {
+                long start = System.nanoTime();
+                batch = partition.compactTombstones(cutoffMillis, batchSize);
+                long elapsed = System.nanoTime() - start;
+                busyNanos += elapsed;
+                reclaimed += batch;
+                if (batch == batchSize) {
+                    // 続きがある場合は、書き込みに譲ってから次のバッチを扱う
+                    LockSupport.parkNanos((long) (elapsed * (1 - MAX_DUTY_CYCLE) / MAX_DUTY_CYCLE));
+                }
+            } while (batch == batchSize);
+            stored += partition.storedEntries();
+            live += partition.size();
+        }
+        if (reclaimed > 0) {
+            metrics.recordCompaction((double) stored / Math.max(1, live), reclaimed, busyNanos);
+        }
+        return reclaimed;
+    }
+
+    /**
+     * デーモンスレッドで一定の間隔ごとにコンパクションを実行します。開始済みの場合は何もしません。
+     *
+     * @param intervalMillis コンパクションの終了から次の開始までの間隔（ミリ秒）
+     * @return このコンパクター
+     */
+    public synchronized Compactor start(long intervalMillis) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("user-store-compactor").daemon().factory());
+            // 例外がタスクの外に出ると以降の実行が全て取り消されるため、1回ごとに捕捉する
+            executor.scheduleWithFixedDelay(this::compactInBackground, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * バックグラウンドのスケジュールから1回のコンパクションを実行し、失敗した場合は記録します。
+     */
+    void compactInBackground() {
+        try {
+            compactOnce();
+        } catch (RuntimeException e) {
+            metrics.recordCompactionFailure();
+        }
+    }
+
+    /**
+     * バックグラウンドのコンパクションを停止します。
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static final class DefaultHolder {
+        static final Compactor INSTANCE =
+                new Compactor(UserStore.getDefault(), MetricsRegistry.getDefault()).start(DEFAULT_INTERVAL_MILLIS);
+    }
+}
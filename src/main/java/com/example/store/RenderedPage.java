@@ -0,0 +1,13 @@
+package com.example.store;
+
+/**
+ * 組み立て済みの一覧の1ページ
+ *
+ * @param body 応答のボディ
+ * @param count ページに含まれる件数
+ * @param nextCursor 次のページの開始位置（最後のユーザーID）。続きが無い場合は {@code null}
+ * @author Sample Project
+ * @version 1.0
+ */
+public record RenderedPage(String body, int count, String nextCursor) {
+}
@@ -0,0 +1,139 @@
+package com.example.store;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 同じバージョンの値の計算を1回にまとめるシングルフライト
+ *
+ * <p>同じバージョンに対する同時の呼び出しは、先に始まった1回の計算の完了を待ってその結果を共有します。
+ * 完了した結果は、より新しいバージョンで呼び出されるまで保持し、後続の呼び出しにもそのまま返します。
+ * バージョンには {@link UserPartition#version()} のような、元のデータが変わるたびに増える値を使います。</p>
+ *
+ * <p>待ち合わせには呼び出しごとの期限を指定できます。期限までに計算が終わらない場合や、
+ * 待っているスレッドが割り込まれた場合、計算が失敗した場合は、待つのをやめて呼び出し元のスレッドで
+ * 計算します。先に始まった計算は取り消しません。計算は最初の呼び出し元のスレッドで実行され、
+ * その呼び出し元は結果を自分の応答に使うため、全ての呼び出し元が待つのをやめた計算は存在しません。
+ * 失敗した計算の結果は保持せず、次の呼び出しで計算し直します。</p>
+ *
+ * <p>計算した回数と共有した回数は {@link MetricsRegistry#recordSingleFlight} にも記録し、
+ * EMFのメトリクスとして出力します。</p>
+ *
+ * @param <V> 値の型
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class SingleFlight<V> {
+
+    private final AtomicReference<Flight<V>> current = new AtomicReference<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final MetricsRegistry metrics;
+
+    /**
+     * 計算した回数と共有した回数の記録先を指定して生成します。
+     *
+     * @param metrics 回数の記録先
+     */
+    public SingleFlight(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 指定されたバージョンの値を返します。
+     *
+     * @param version 値のバージョン
+     * @param loader 値を計算する関数
+     * @param timeoutMillis 実行中の計算を待つ最大時間（0以下の場合は完了済みの結果だけを使う）
+     * @return 値
+     */
+    public V get(long version, Supplier<V> loader, long timeoutMillis) {
+        while (true) {
+            Flight<V> flight = current.get();
+            if (flight != null && flight.version() == version) {
+                return await(flight, loader, timeoutMillis);
+            }
+            if (flight != null && flight.version() > version) {
+                // 古いバージョンの呼び出しで新しい結果を置き換えない
+                countLoad();
+                return loader.get();
+            }
+            Flight<V> mine = new Flight<>(version, new CompletableFuture<>());
+            if (current.compareAndSet(flight, mine)) {
+                return load(mine, loader);
+            }
+        }
+    }
+
+    /**
+     * 値を計算した回数を返します。
+     *
+     * @return 計算の回数
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * 計算せずに他の呼び出しの結果を共有した回数を返します。
+     *
+     * @return 共有した回数
+     */
+    public long shared() {
+        return shared.sum();
+    }
+
+    private V load(Flight<V> flight, Supplier<V> loader) {
+        countLoad();
+        try {
+            V value = loader.get();
+            flight.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            current.compareAndSet(flight, null);
+            flight.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private V await(Flight<V> flight, Supplier<V> loader, long timeoutMillis) {
+        CompletableFuture<V> result = flight.result();
+        try {
+            V value = (result.isDone() || timeoutMillis <= 0)
+                    ? result.getNow(null)
+                    : result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (result.isDone() && !result.isCompletedExceptionally()) {
+                shared.increment();
+                metrics.recordSingleFlight(true);
+                return value;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            // 自分で計算する
+        }
+        countLoad();
+        return loader.get();
+    }
+
+    private void countLoad() {
+        loads.increment();
+        metrics.recordSingleFlight(false);
+    }
+
+    /**
+     * 1つのバージョンの計算
+     *
+     * @param version 値のバージョン
+     * @param result 計算の結果
+     */
+    private record Flight<V>(long version, CompletableFuture<V> result) {
+    }
+}
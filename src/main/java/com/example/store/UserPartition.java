@@ -0,0 +1,418 @@
+package com.example.store;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 1つの組織のユーザーを保持するパーティション
+ *
+ * <p>ユーザーIDによる取得用のハッシュインデックスと、一覧のページング用の
+ * ユーザーID順のインデックスをパーティションごとに持ちます。書き込みはパーティションごとの
+ * ロックで直列化して2つのインデックスを揃え、読み取りはロックを取りません。
+ * そのため、ある組織への大量の書き込みや大きな一覧が、他の組織の処理を待たせることはありません。</p>
+ *
+ * <p>書き込みのたびに {@link #version()} を増やします。一覧の先頭ページの応答は
+ * {@link #firstPage()} でこのバージョンごとに共有し、書き込みがあるまで作り直しません。</p>
+ *
+ * <p>全ての書き込みは、反映と同じ書き込みロックの中で {@link #changes()} の変更ログにも
+ * ユーザーごとに追記します。そのため変更ログの順序は反映の順序と一致します。</p>
+ *
+ * <p>差分同期のため、ユーザーごとの最後の変更を変更ログのオフセット順に並べたインデックスも持ちます。
+ * 削除されたユーザーは削除の変更（トゥームストーン）として残ります。{@link #modifiedSince} は
+ * このインデックスの範囲を走査するため、組織のユーザー数ではなく変更されたユーザー数に比例して動きます。
+ * 古いトゥームストーンは {@link Compactor} が {@link #compactTombstones} で少しずつ取り除き、
+ * 取り除いた範囲は {@link #compactedBefore()} で分かります。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class UserPartition {
+
+    private final String organizationId;
+    private final Map<String, UserRecord> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<String, UserRecord> orderedById = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final SingleFlight<RenderedPage> firstPage = new SingleFlight<>(MetricsRegistry.getDefault());
+    private final ChangeLog changes = new ChangeLog();
+    private final NavigableMap<Long, ChangeEvent> latestChanges = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> latestOffsets = new HashMap<>();
+    private final ArrayDeque<ChangeEvent> tombstoneQueue = new ArrayDeque<>();
+    private volatile long version;
+    private volatile long watermark;
+    private volatile long compactedBefore;
+    private volatile int tombstones;
+
+    /**
+     * 空のパーティションを生成します。
+     *
+     * @param organizationId 組織ID
+     */
+    UserPartition(String organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    /**
+     * このパーティションの組織IDを返します。
+     *
+     * @return 組織ID
+     */
+    public String organizationId() {
+        return organizationId;
+    }
+
+    /**
+     * ユーザーを取得します。
+     *
+     * @param userId ユーザーID
+     * @return ユーザー（存在しない場合は {@code null}）
+     */
+    public UserRecord get(String userId) {
+        return (userId != null) ? byId.get(userId) : null;
+    }
+
+    /**
+     * ユーザーID順に、指定されたIDより後のユーザーを取得します。
+     *
+     * @param afterUserId このIDより後のユーザーを返す（先頭から取得する場合は {@code null}）
+     * @param limit 最大件数
+     * @return ユーザーの一覧
+     */
+    public List<UserRecord> list(String afterUserId, int limit) {
+        List<UserRecord> users = new ArrayList<>(Math.min(limit, byId.size()));
+        for (UserRecord user : after(afterUserId)) {
+            if (users.size() >= limit) {
+                break;
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * ユーザーID順に、指定されたIDより後のユーザーを走査するビューを返します。
+     *
+     * <p>ビューはコピーを作らずにインデックスを直接走査します。走査中の書き込みは
+     * 反映される場合とされない場合がありますが、各ユーザーは不変のため、
+     * 書き込み途中の値が見えることはなく、同じユーザーが2回現れることもありません。</p>
+     *
+     * @param afterUserId このIDより後のユーザーを返す（先頭から走査する場合は {@code null}）
+     * @return 読み取り専用のビュー
+     */
+    public Collection<UserRecord> after(String afterUserId) {
+        NavigableMap<String, UserRecord> range = (afterUserId != null) ? orderedById.tailMap(afterUserId, false) : orderedById;
+        return Collections.unmodifiableCollection(range.values());
+    }
+
+    /**
+     * 書き込みのたびに増えるバージョンを返します。
+     *
+     * <p>バージョンは書き込みの反映後に増えるため、このメソッドの後に読み取った内容は
+     * 少なくとも返されたバージョンの書き込みを含みます。</p>
+     *
+     * @return バージョン
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 一覧の先頭ページの応答をバージョンごとに共有するシングルフライトを返します。
+     *
+     * @return シングルフライト
+     */
+    public SingleFlight<RenderedPage> firstPage() {
+        return firstPage;
+    }
+
+    /**
+     * このパーティションの変更ログを返します。
+     *
+     * @return 変更ログ
+     */
+    public ChangeLog changes() {
+        return changes;
+    }
+
+    /**
+     * 差分同期で返せる変更の終わりを返します。
+     *
+     * <p>このオフセットより前の変更は全て {@link #modifiedSince} のインデックスに反映済みです。
+     * 差分同期の応答は、この値を次の問い合わせの起点として返します。</p>
+     *
+     * @return 反映済みの最後の変更の次のオフセット
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    /**
+     * 指定された範囲のオフセットで最後に変更されたユーザーの、最後の変更を走査するビューを返します。
+     *
+     * <p>各ユーザーは最後の変更だけが現れます。削除されたユーザーは {@link ChangeType#DELETED} の
+     * 変更として現れます。走査中に範囲内のユーザーがさらに変更された場合、そのユーザーは
+     * この範囲から消えることがありますが、新しい変更は {@code toOffset} 以降に現れます。</p>
+     *
+     * @param fromOffset このオフセット以降の変更を返す
+     * @param toOffset このオフセットより前の変更を返す（通常は {@link #watermark()}）
+     * @return オフセット順の読み取り専用のビュー
+     */
+    public Collection<ChangeEvent> modifiedSince(long fromOffset, long toOffset) {
+        return Collections.unmodifiableCollection(latestChanges.subMap(fromOffset, true, toOffset, false).values());
+    }
+
+    /**
+     * トゥームストーンが取り除かれた範囲の終わりを返します。
+     *
+     * <p>このオフセットより前の削除は {@link #modifiedSince} に現れない場合があるため、
+     * これより前の {@code watermark} からの差分同期はできません。</p>
+     *
+     * @return 取り除かれた最後のトゥームストーンの次のオフセット（取り除いていない場合は0）
+     */
+    public long compactedBefore() {
+        return compactedBefore;
+    }
+
+    /**
+     * 差分同期のインデックスに残っているトゥームストーンの数を返します。
+     *
+     * @return 削除されたユーザーの数
+     */
+    public int tombstones() {
+        return tombstones;
+    }
+
+    /**
+     * 保持しているエントリーの数を返します。
+     *
+     * @return ユーザー、トゥームストーン、変更ログの変更の合計
+     */
+    public long storedEntries() {
+        return byId.size() + tombstones + changes.size();
+    }
+
+    /**
+     * 指定された時刻より前のトゥームストーンを、古いものから最大 {@code maxTombstones} 件取り除きます。
+     *
+     * <p>書き込みロックを保持する時間を抑えるため、1回の呼び出しで扱う件数を制限します。
+     * 削除の後に同じIDで作り直されたユーザーのトゥームストーンは、既にインデックスに無いため数えません。</p>
+     *
+     * @param cutoffMillis この時刻（エポックミリ秒）より前に記録されたトゥームストーンを取り除く
+     * @param maxTombstones 1回で扱う最大件数
+     * @return 取り除いたトゥームストーンの数
+     */
+    public int compactTombstones(long cutoffMillis, int maxTombstones) {
+        writeLock.lock();
+        try {
+            int reclaimed = 0;
+            for (int processed = 0; processed < maxTombstones; processed++) {
+                ChangeEvent oldest = tombstoneQueue.peekFirst();
+                if (oldest == null || oldest.timestampMillis() >= cutoffMillis) {
+                    break;
+                }
+                tombstoneQueue.removeFirst();
+                if (latestChanges.remove(oldest.offset(), oldest)) {
+                    latestOffsets.remove(oldest.userId());
+                    tombstones--;
+                    compactedBefore = oldest.offset() + 1;
+                    reclaimed++;
+                }
+            }
+            return reclaimed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * ユーザー数を返します。
+     *
+     * @return ユーザー数
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * ユーザーを追加、または同じIDのユーザーを置き換えます。
+     *
+     * @param user 保存するユーザー
+     * @return 置き換えられたユーザー（新規の場合は {@code null}）
+     */
+    public UserRecord put(UserRecord user) {
+        writeLock.lock();
+        try {
+            orderedById.put(user.userId(), user);
+            UserRecord previous = byId.put(user.userId(), user);
+            record((previous == null) ? ChangeType.CREATED : ChangeType.UPDATED, user.userId(), user);
+            version++;
+            return previous;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 複数のユーザーをまとめて追加、または同じIDのユーザーを置き換えます。
+     *
+     * <p>ロックの取得は1回だけで、一括取り込みのような大量の書き込みを
+     * 1件ずつの {@link #put} よりも少ない待ち合わせで反映します。
+     * 同じIDのユーザーが複数ある場合は後のものが残ります。</p>
+     *
+     * @param users 保存するユーザー
+     * @return 新規に追加されたユーザー数
+     */
+    public int putAll(List<UserRecord> users) {
+        int added = 0;
+        writeLock.lock();
+        try {
+            for (UserRecord user : users) {
+                orderedById.put(user.userId(), user);
+                if (byId.put(user.userId(), user) == null) {
+                    added++;
+                    record(ChangeType.CREATED, user.userId(), user);
+                } else {
+                    record(ChangeType.UPDATED, user.userId(), user);
+                }
+            }
+            version++;
+        } finally {
+            writeLock.unlock();
+        }
+        return added;
+    }
+
+    /**
+     * 複数の操作を作業用のパーティションで実行し、その結果を1回のコミットで反映します。
+     *
+     * <p>このパーティションの書き込みロックを保持したまま、{@code userIds} の現在の値を
+     * コピーした作業用のパーティションを {@code operations} に渡します。{@code operations} は
+     * 作業用のパーティションを複数のスレッドから読み書きできます。完了後、値が変わったユーザーと
+     * 新しく追加されたユーザーを保存し、削除されたユーザーを削除します。
+     * 実行中は他の書き込みを待たせるため、読み取った値が途中で変わることはありません。
+     * 読み取りはロックを取らないため、コミットの途中の状態が見える場合があります。</p>
+     *
+     * @param userIds 操作の対象となる既存のユーザーID（{@code null} は無視されます）
+     * @param operations 作業用のパーティションに対する操作
+     */
+    public void batch(Collection<String> userIds, Consumer<UserPartition> operations) {
+        writeLock.lock();
+        try {
+            UserPartition staged = new UserPartition(organizationId);
+            Map<String, UserRecord> originals = new HashMap<>();
+            for (String userId : userIds) {
+                if (userId != null) {
+                    UserRecord current = byId.get(userId);
+                    originals.put(userId, current);
+                    if (current != null) {
+                        staged.put(current);
+                    }
+                }
+            }
+
+            operations.accept(staged);
+
+            for (UserRecord user : staged.after(null)) {
+                // 同じインスタンスのままのユーザーは変更されていない
+                if (originals.get(user.userId()) != user) {
+                    orderedById.put(user.userId(), user);
+                    UserRecord previous = byId.put(user.userId(), user);
+                    record((previous == null) ? ChangeType.CREATED : ChangeType.UPDATED, user.userId(), user);
+                }
+            }
+            for (Map.Entry<String, UserRecord> original : originals.entrySet()) {
+                if (original.getValue() != null && staged.get(original.getKey()) == null) {
+                    orderedById.remove(original.getKey());
+                    byId.remove(original.getKey());
+                    record(ChangeType.DELETED, original.getKey(), null);
+                }
+            }
+            version++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 既存のユーザーを更新します。
+     *
+     * @param userId ユーザーID
+     * @param update 現在の値から更新後の値を求める関数
+     * @return 更新後のユーザー（存在しない場合は {@code null}）
+     */
+    public UserRecord update(String userId, UnaryOperator<UserRecord> update) {
+        if (userId == null) {
+            return null;
+        }
+        writeLock.lock();
+        try {
+            UserRecord current = byId.get(userId);
+            if (current == null) {
+                return null;
+            }
+            UserRecord updated = update.apply(current);
+            orderedById.put(userId, updated);
+            byId.put(userId, updated);
+            record(ChangeType.UPDATED, userId, updated);
+            version++;
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * ユーザーを削除します。
+     *
+     * @param userId ユーザーID
+     * @return 削除したユーザー（存在しない場合は {@code null}）
+     */
+    public UserRecord remove(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        writeLock.lock();
+        try {
+            orderedById.remove(userId);
+            UserRecord removed = byId.remove(userId);
+            if (removed != null) {
+                record(ChangeType.DELETED, userId, null);
+            }
+            version++;
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 変更を変更ログに追記し、差分同期のインデックスのユーザーの最後の変更を置き換えます。
+     * 書き込みロックを保持して呼び出します。
+     */
+    private void record(ChangeType type, String userId, UserRecord user) {
+        ChangeEvent event = changes.append(type, userId, user);
+        // 読み取り側からユーザーが一時的に消えないよう、新しい変更を入れてから古い変更を外す
+        latestChanges.put(event.offset(), event);
+        Long previous = latestOffsets.put(userId, event.offset());
+        if (previous != null && latestChanges.remove(previous).type() == ChangeType.DELETED) {
+            tombstones--;
+        }
+        if (type == ChangeType.DELETED) {
+            tombstoneQueue.addLast(event);
+            tombstones++;
+        }
+        watermark = event.offset() + 1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.store;
+
+import com.example.model.UserRequest;
+import com.example.model.UserResponse;
+
+/**
+ * ストアに保存されるユーザーを表すレコード
+ *
+ * @param userId ユーザーID
+ * @param name ユーザー名
+ * @param email メールアドレス
+ * @param role ユーザーの役割
+ * @author Sample Project
+ * @version 1.0
+ */
+public record UserRecord(String userId, String name, String email, String role) {
+
+    /**
+     * 作成・完全更新のリクエストからレコードを生成します。
+     *
+     * @param userId ユーザーID
+     * @param request 検証済みのリクエスト
+     * @return リクエストの値を持つレコード
+     */
+    public static UserRecord of(String userId, UserRequest request) {
+        return new UserRecord(userId, request.name(), request.email(), request.role());
+    }
+
+    /**
+     * 部分更新のリクエストを適用したレコードを返します。
+     * リクエストで {@code null} のフィールドは現在の値を維持します。
+     *
+     * @param patch 部分更新のリクエスト
+     * @return 更新後のレコード
+     */
+    public UserRecord merge(UserRequest patch) {
+        return new UserRecord(userId,
+                (patch.name() != null) ? patch.name() : name,
+                (patch.email() != null) ? patch.email() : email,
+                (patch.role() != null) ? patch.role() : role);
+    }
+
+    /**
+     * レスポンスに変換します。
+     *
+     * @return このユーザーのレスポンス
+     */
+    public UserResponse toResponse() {
+        return new UserResponse(userId, name, email, role);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.store;
+
+import com.example.auth.Principal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 組織IDごとにパーティションを分けたユーザーストア
+ *
+ * <p>各アクションはAuthorizerが設定した組織IDから {@link #partitionFor(Principal)} で
+ * パーティションを決め、そのパーティションだけを読み書きします。他の組織のユーザーは
+ * 検索の対象にならず、IDを指定しても取得できません。</p>
+ *
+ * <p>{@link #getDefault()} のストアは、{@code AuthHandler} が発行するトークンの組織
+ * （{@value #SAMPLE_ORGANIZATION_ID}）にサンプルのユーザーを登録した状態で生成されます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class UserStore {
+
+    /** サンプルのユーザーを登録する組織ID */
+    public static final String SAMPLE_ORGANIZATION_ID = "org-abc";
+
+    private static final UserStore DEFAULT = withSampleData();
+
+    private final Map<String, UserPartition> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * 空のストアを生成します。
+     */
+    public UserStore() {
+    }
+
+    /**
+     * プロセス全体で共有されるデフォルトのストアを返します。
+     *
+     * @return サンプルのユーザーを登録済みのストア
+     */
+    public static UserStore getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 指定されたパーティションだけを持つストアを返します。
+     *
+     * <p>{@link UserPartition#batch} の作業用のパーティションを、
+     * ストアを受け取る各アクションに渡すために使用します。</p>
+     *
+     * @param partition パーティション
+     * @return そのパーティションの組織に対してパーティションを返すストア
+     */
+    public static UserStore of(UserPartition partition) {
+        UserStore store = new UserStore();
+        store.partitions.put(partition.organizationId(), partition);
+        return store;
+    }
+
+    /**
+     * 組織のパーティションを返します。無ければ作成します。
+     *
+     * @param organizationId 組織ID
+     * @return パーティション
+     */
+    public UserPartition partition(String organizationId) {
+        UserPartition partition = partitions.get(organizationId);
+        return (partition != null) ? partition : partitions.computeIfAbsent(organizationId, UserPartition::new);
+    }
+
+    /**
+     * 呼び出し元の組織のパーティションを返します。
+     *
+     * @param principal Authorizerが検証した呼び出し元
+     * @return パーティション（組織IDが無い場合は {@code null}）
+     */
+    public UserPartition partitionFor(Principal principal) {
+        String organizationId = principal.organizationId();
+        return (organizationId != null) ? partition(organizationId) : null;
+    }
+
+    /**
+     * 組織のパーティションを破棄します。
+     *
+     * @param organizationId 組織ID
+     */
+    public void removePartition(String organizationId) {
+        partitions.remove(organizationId);
+    }
+
+    /**
+     * 全てのパーティションを返します。
+     *
+     * @return パーティションの読み取り専用のビュー
+     */
+    public Collection<UserPartition> partitions() {
+        return Collections.unmodifiableCollection(partitions.values());
+    }
+
+    /**
+     * パーティションの数を返します。
+     *
+     * @return パーティションの数
+     */
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * サンプルの組織にサンプルのユーザーを登録します。既に存在する場合は初期値に戻します。
+     */
+    public void seedSampleUsers() {
+        UserPartition sample = partition(SAMPLE_ORGANIZATION_ID);
+        sample.put(new UserRecord("user-001", "Taro Yamada", "taro@example.com", "editor"));
+        sample.put(new UserRecord("user-002", "Hanako Suzuki", "hanako@example.com", "viewer"));
+    }
+
+    private static UserStore withSampleData() {
+        UserStore store = new UserStore();
+        store.seedSampleUsers();
+        return store;
+    }
+}
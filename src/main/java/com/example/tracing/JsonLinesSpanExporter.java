@@ -0,0 +1,73 @@
+package com.example.tracing;
+
+import com.example.json.JsonCodecs;
+import com.example.logging.StructuredLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * スパンをJSON Lines形式でファイルに追記するエクスポーター
+ *
+ * <p>1トレース分のスパンを1回の書き込みでまとめて追記します。
+ * 1行1スパンのため、{@code jq} や {@code grep} でそのまま集計できます。</p>
+ *
+ * <pre>
+ * {"traceId":"...","spanId":"...","parentSpanId":"...","name":"jwt.verify","start":1700000000000000,"durationMicros":412}
+ * </pre>
+ *
+ * <p>書き込みに失敗した場合、リクエストの処理は継続し、WARNログを記録してスパンを破棄します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class JsonLinesSpanExporter implements SpanExporter {
+
+    private static final StructuredLogger LOG = StructuredLogger.getLogger(JsonLinesSpanExporter.class);
+
+    private final Path file;
+
+    /**
+     * 出力先ファイルを指定してエクスポーターを生成します。
+     *
+     * @param file 追記先のファイル（存在しない場合は作成）
+     */
+    public JsonLinesSpanExporter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void export(List<SpanData> spans) {
+        if (spans.isEmpty()) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder(spans.size() * 160);
+        for (SpanData span : spans) {
+            appendLine(batch, span);
+        }
+        try {
+            Files.writeString(file, batch, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warn("span export failed").with("reason", e.getClass().getSimpleName()).with("spans", spans.size());
+        }
+    }
+
+    static void appendLine(StringBuilder out, SpanData span) {
+        out.append("{\"traceId\":");
+        JsonCodecs.appendString(out, span.traceId());
+        out.append(",\"spanId\":");
+        JsonCodecs.appendString(out, span.spanId());
+        if (span.parentSpanId() != null) {
+            out.append(",\"parentSpanId\":");
+            JsonCodecs.appendString(out, span.parentSpanId());
+        }
+        out.append(",\"name\":");
+        JsonCodecs.appendString(out, span.name());
+        out.append(",\"start\":").append(span.startEpochMicros())
+                .append(",\"durationMicros\":").append(span.durationMicros())
+                .append("}\n");
+    }
+}
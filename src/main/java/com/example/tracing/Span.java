@@ -0,0 +1,67 @@
+package com.example.tracing;
+
+/**
+ * トレース内の1区間
+ *
+ * <p>{@link Tracer#startTrace} または {@link Tracer#span} で開始し、
+ * {@link #end()}（try-with-resources では {@link #close()}）で終了します。
+ * サンプリングされていない場合は共有の {@link #NOOP} が返され、
+ * 開始・終了ともに何も行いません。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class Span implements AutoCloseable {
+
+    /** サンプリングされていないリクエストで使用される、何も記録しないスパン */
+    public static final Span NOOP = new Span(null, null, null, 0, 0);
+
+    final Trace trace;
+    final Span parent;
+    final String name;
+    final long spanId;
+    final long startNanos;
+    long endNanos = -1;
+
+    Span(Trace trace, Span parent, String name, long spanId, long startNanos) {
+        this.trace = trace;
+        this.parent = parent;
+        this.name = name;
+        this.spanId = spanId;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * このスパンが記録対象かどうかを返します。
+     *
+     * @return サンプリングされている場合は {@code true}
+     */
+    public boolean isSampled() {
+        return trace != null;
+    }
+
+    /**
+     * このスパンが属するトレースのIDを返します。
+     *
+     * @return トレースID（サンプリングされていない場合は {@code null}）
+     */
+    public String traceId() {
+        return (trace != null) ? trace.traceId : null;
+    }
+
+    /**
+     * スパンを終了します。2回目以降の呼び出しは無視されます。
+     */
+    public void end() {
+        if (trace == null || endNanos >= 0) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        trace.finish(this);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+}
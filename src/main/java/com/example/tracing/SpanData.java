@@ -0,0 +1,17 @@
+package com.example.tracing;
+
+/**
+ * エクスポート用の終了済みスパン
+ *
+ * @param traceId トレースID（32桁の16進数）
+ * @param spanId スパンID（16桁の16進数）
+ * @param parentSpanId 親スパンのID（ルートスパンの場合は {@code null}）
+ * @param name スパン名
+ * @param startEpochMicros 開始時刻（エポックからのマイクロ秒）
+ * @param durationMicros 所要時間（マイクロ秒）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record SpanData(String traceId, String spanId, String parentSpanId, String name,
+                       long startEpochMicros, long durationMicros) {
+}
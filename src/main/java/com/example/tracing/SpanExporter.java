@@ -0,0 +1,22 @@
+package com.example.tracing;
+
+import java.util.List;
+
+/**
+ * 終了したスパンの出力先
+ *
+ * <p>{@link Tracer} はルートスパンの終了時に、そのトレースの全スパンを1回の呼び出しでまとめて渡します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    /**
+     * 1トレース分のスパンを出力します。
+     *
+     * @param spans 終了順に並んだスパン
+     */
+    void export(List<SpanData> spans);
+}
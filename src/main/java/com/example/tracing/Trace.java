@@ -0,0 +1,59 @@
+package com.example.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * サンプリングされた1リクエスト分のスパンの集まり
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+final class Trace {
+
+    final Tracer tracer;
+    final String traceId;
+    final long startEpochMicros;
+    final long startNanos;
+    private final List<Span> finished = new ArrayList<>(16);
+    private long nextSpanId;
+
+    Trace(Tracer tracer, String traceId, long firstSpanId) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.startEpochMicros = System.currentTimeMillis() * 1_000;
+        this.startNanos = System.nanoTime();
+        this.nextSpanId = firstSpanId;
+    }
+
+    Span newSpan(Span parent, String name) {
+        return new Span(this, parent, name, nextSpanId++, System.nanoTime());
+    }
+
+    void finish(Span span) {
+        finished.add(span);
+        Tracer.restoreCurrent(span);
+        if (span.parent == null) {
+            tracer.export(toSpanData());
+        }
+    }
+
+    private List<SpanData> toSpanData() {
+        List<SpanData> spans = new ArrayList<>(finished.size());
+        for (Span span : finished) {
+            spans.add(new SpanData(
+                    traceId,
+                    hex(span.spanId),
+                    (span.parent != null) ? hex(span.parent.spanId) : null,
+                    span.name,
+                    startEpochMicros + (span.startNanos - startNanos) / 1_000,
+                    (span.endNanos - span.startNanos) / 1_000));
+        }
+        return spans;
+    }
+
+    static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
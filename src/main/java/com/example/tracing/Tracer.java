@@ -0,0 +1,221 @@
+package com.example.tracing;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * サンプリング付きの軽量なプロセス内トレーサー
+ *
+ * <p>トレースの開始時にサンプリングを判定し、記録対象のリクエストだけ
+ * スパンを生成します。記録対象外のリクエストでは {@link Span#NOOP} を返すため、
+ * オブジェクトの割り当ては発生しません。</p>
+ *
+ * <p>現在のスパンはスレッドごとに保持されるため、アクションなどの内側の処理は
+ * {@link #span(String)} を呼ぶだけで子スパンを開始できます。
+ * トレースIDとサンプリングの判定は、AuthorizerとハンドラーがそれぞれAPI Gatewayの
+ * リクエストIDから {@link #traceIdFor(String)} で求めます。同じリクエストIDからは同じ結果になるため、
+ * 両方のスパンが1つのトレースにまとまります。Authorizerのコンテキストはキャッシュされ、
+ * 複数のリクエストで共有されるため、トレースIDの受け渡しには使用しません。</p>
+ *
+ * <p>トレースIDとスパンIDは {@link ThreadLocalRandom} の値にインスタンスごとの乱数を
+ * 排他的論理和で混ぜて生成します。スナップショットから復元された実行環境では
+ * {@link #reseed(long)} でこの乱数を入れ替え、環境間でIDが重複しないようにします。</p>
+ *
+ * <p>{@link #getDefault()} は環境変数で設定されます。</p>
+ * <ul>
+ * <li>{@code TRACE_SAMPLE_RATE} - サンプリング率（0.0〜1.0、既定は0で無効）</li>
+ * <li>{@code TRACE_EXPORT_FILE} - JSON Linesの出力先（既定は {@code /tmp/traces.jsonl}）</li>
+ * </ul>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private static final Tracer DISABLED = new Tracer(0, spans -> { });
+
+    private static final Tracer DEFAULT = fromEnvironment();
+
+    private final double sampleRate;
+    private final SpanExporter exporter;
+    private volatile long entropy;
+
+    /**
+     * サンプリング率と出力先を指定してトレーサーを生成します。
+     *
+     * @param sampleRate サンプリング率（0.0〜1.0）
+     * @param exporter スパンの出力先
+     * @throws IllegalArgumentException サンプリング率が範囲外の場合
+     */
+    public Tracer(double sampleRate, SpanExporter exporter) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.exporter = exporter;
+        this.entropy = ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * プロセス全体で共有されるデフォルトのトレーサーを返します。
+     *
+     * @return 環境変数の設定に従ったトレーサー
+     */
+    public static Tracer getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 何も記録しないトレーサーを返します。
+     *
+     * @return サンプリング率0のトレーサー
+     */
+    public static Tracer disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * サンプリングを判定し、記録対象の場合は新しいトレースIDを返します。
+     *
+     * @return 32桁の16進数のトレースID（記録対象外の場合は {@code null}）
+     */
+    public String sampleTraceId() {
+        return sampled() ? newTraceId() : null;
+    }
+
+    /**
+     * リクエストIDからトレースIDを求め、記録対象の場合に返します。
+     *
+     * <p>API GatewayのリクエストIDはUUIDのため、ハイフンを除いた32桁の16進数をそのまま使います。
+     * UUIDの形式でない場合はリクエストIDの名前ベースのUUIDから求めます。
+     * サンプリングはトレースIDの末尾48ビットとサンプリング率を比べて判定するため、
+     * 同じサンプリング率であれば、AuthorizerとハンドラーのようにリクエストIDを共有する処理の
+     * 判定は必ず一致します。リクエストIDが無い場合だけ、乱数で判定して新しいトレースIDを生成します。</p>
+     *
+     * @param requestId API GatewayのリクエストID（無い場合は {@code null}）
+     * @return 32桁の16進数のトレースID（記録対象外の場合は {@code null}）
+     */
+    public String traceIdFor(String requestId) {
+        if (sampleRate == 0) {
+            return null;
+        }
+        if (requestId == null) {
+            return sampleTraceId();
+        }
+        if (isUuid(requestId)) {
+            // 記録対象外のリクエストでは文字列を生成しない
+            return sampled(requestId, 24) ? requestId.replace("-", "").toLowerCase(Locale.ROOT) : null;
+        }
+        String traceId = UUID.nameUUIDFromBytes(requestId.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+        return sampled(traceId, 20) ? traceId : null;
+    }
+
+    private boolean sampled() {
+        return sampleRate != 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * IDの {@code from} から始まる12桁（48ビット）の16進数で、サンプリングを判定します。
+     */
+    private boolean sampled(String id, int from) {
+        return sampleRate >= 1 || Long.parseLong(id, from, from + 12, 16) < (long) (sampleRate * (1L << 48));
+    }
+
+    private static boolean isUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean valid = (i == 8 || i == 13 || i == 18 || i == 23) ? c == '-' : Character.digit(c, 16) >= 0;
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Trace.hex(random.nextLong() ^ entropy) + Trace.hex(random.nextLong());
+    }
+
+    /**
+     * IDの生成に混ぜるインスタンス乱数を再生成します。
+     *
+     * <p>スナップショットから復元された複数の実行環境が
+     * 同じトレースIDを生成しないようにするために使用します。</p>
+     *
+     * @param newEntropy 新しい64ビットの乱数
+     */
+    public void reseed(long newEntropy) {
+        this.entropy = newEntropy;
+    }
+
+    /**
+     * トレースのルートスパンを開始し、現在のスレッドのスパンとして設定します。
+     *
+     * @param traceId トレースID（{@code null} の場合は記録しない）
+     * @param name スパン名
+     * @return ルートスパン（記録しない場合は {@link Span#NOOP}）
+     */
+    public Span startTrace(String traceId, String name) {
+        if (traceId == null) {
+            return Span.NOOP;
+        }
+        Trace trace = new Trace(this, traceId, ThreadLocalRandom.current().nextLong() ^ entropy);
+        Span root = trace.newSpan(null, name);
+        CURRENT.set(root);
+        return root;
+    }
+
+    /**
+     * 現在のスレッドのスパンの子スパンを開始します。
+     *
+     * @param name スパン名
+     * @return 子スパン（記録中のトレースが無い場合は {@link Span#NOOP}）
+     */
+    public static Span span(String name) {
+        Span current = CURRENT.get();
+        if (current == null) {
+            return Span.NOOP;
+        }
+        Span child = current.trace.newSpan(current, name);
+        CURRENT.set(child);
+        return child;
+    }
+
+    /**
+     * スパンの終了時に、現在のスパンを親に戻します。
+     */
+    static void restoreCurrent(Span ended) {
+        if (CURRENT.get() == ended) {
+            CURRENT.set(ended.parent);
+        }
+    }
+
+    void export(List<SpanData> spans) {
+        exporter.export(spans);
+    }
+
+    private static Tracer fromEnvironment() {
+        String rate = System.getenv("TRACE_SAMPLE_RATE");
+        double sampleRate;
+        try {
+            sampleRate = (rate != null) ? Double.parseDouble(rate) : 0;
+        } catch (NumberFormatException e) {
+            sampleRate = 0;
+        }
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            return DISABLED;
+        }
+        String file = System.getenv("TRACE_EXPORT_FILE");
+        return new Tracer(sampleRate, new JsonLinesSpanExporter(Path.of(file != null ? file : "/tmp/traces.jsonl")));
+    }
+}
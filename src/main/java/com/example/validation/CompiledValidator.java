@@ -0,0 +1,180 @@
+package com.example.validation;
+
+import com.example.model.FieldError;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * コンパイル済みのスキーマバリデーター
+ *
+ * <p>{@link ObjectSchema} の宣言をフィールドごとのフラットな配列に展開したもので、
+ * JSONのパースと検証を {@link JsonReader} による1回のストリーミング走査で行います。
+ * 中間のツリーやDTOを生成せず、エラーが {@code maxViolations} 件に達した時点で
+ * 残りの入力を読まずに打ち切ります。</p>
+ *
+ * <p>インスタンスは不変でスレッドセーフです。</p>
+ *
+ * @param <T> 検証済みの値から生成される結果オブジェクトの型
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class CompiledValidator<T> {
+
+    private final String[] names;
+    private final String[] paths;
+    private final long requiredMask;
+    private final int[] minLengths;
+    private final int[] maxLengths;
+    private final Pattern[] patterns;
+    private final String[] patternMessages;
+    private final Function<String[], T> factory;
+    private final int maxViolations;
+
+    CompiledValidator(List<String> names, List<StringRule> rules, Function<String[], T> factory, int maxViolations) {
+        int size = names.size();
+        this.names = names.toArray(new String[0]);
+        this.paths = new String[size];
+        this.minLengths = new int[size];
+        this.maxLengths = new int[size];
+        this.patterns = new Pattern[size];
+        this.patternMessages = new String[size];
+        long required = 0;
+        for (int i = 0; i < size; i++) {
+            StringRule rule = rules.get(i);
+            paths[i] = "$." + this.names[i];
+            minLengths[i] = rule.minLength;
+            maxLengths[i] = rule.maxLength;
+            patterns[i] = rule.pattern;
+            patternMessages[i] = rule.patternMessage;
+            if (rule.required) {
+                required |= 1L << i;
+            }
+        }
+        this.requiredMask = required;
+        this.factory = factory;
+        this.maxViolations = maxViolations;
+    }
+
+    /**
+     * JSON文字列をパースしながら検証します。
+     *
+     * @param json 検証対象のJSON文字列
+     * @return 検証結果（成功時は結果オブジェクト、失敗時はフィールドパス付きのエラー）
+     */
+    public ValidationResult<T> validate(String json) {
+        if (json == null || json.isBlank()) {
+            return failure(List.of(new FieldError("$", "request body is required")));
+        }
+
+        String[] values = new String[names.length];
+        List<FieldError> violations = new ArrayList<>(0);
+        long reported = 0; // 型・形式エラーを報告済みのフィールド
+        JsonReader in = new JsonReader(new StringReader(json));
+        try {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                return failure(List.of(new FieldError("$", "must be a JSON object")));
+            }
+            in.beginObject();
+            while (in.hasNext()) {
+                int index = indexOf(in.nextName());
+                if (index < 0) {
+                    // スキーマ外のフィールドは読み飛ばす
+                    in.skipValue();
+                    continue;
+                }
+                long bit = 1L << index;
+                JsonToken token = in.peek();
+                String message;
+                if (values[index] != null || (reported & bit) != 0) {
+                    in.skipValue();
+                    message = "duplicate field";
+                } else if (token == JsonToken.NULL) {
+                    // nullは未指定として扱う
+                    in.nextNull();
+                    continue;
+                } else if (token != JsonToken.STRING) {
+                    in.skipValue();
+                    message = "must be a string";
+                } else {
+                    String value = in.nextString();
+                    message = check(index, value);
+                    if (message == null) {
+                        values[index] = value;
+                        continue;
+                    }
+                }
+                reported |= bit;
+                violations.add(new FieldError(paths[index], message));
+                if (violations.size() >= maxViolations) {
+                    return failure(violations);
+                }
+            }
+            in.endObject();
+            if (!isFullyConsumed(in)) {
+                violations.add(new FieldError("$", "unexpected content after JSON object"));
+                return failure(violations);
+            }
+        } catch (IOException | IllegalStateException e) {
+            violations.add(new FieldError(in.getPath(), "malformed JSON"));
+            return failure(violations);
+        }
+
+        long missing = requiredMask & ~reported;
+        for (int i = 0; missing != 0 && i < names.length; i++) {
+            if ((missing & (1L << i)) != 0 && values[i] == null) {
+                violations.add(new FieldError(paths[i], "is required"));
+                if (violations.size() >= maxViolations) {
+                    break;
+                }
+            }
+        }
+        if (!violations.isEmpty()) {
+            return failure(violations);
+        }
+        return new ValidationResult<>(factory.apply(values), List.of());
+    }
+
+    private static boolean isFullyConsumed(JsonReader in) {
+        try {
+            return in.peek() == JsonToken.END_DOCUMENT;
+        } catch (IOException e) {
+            // 厳格モードでは2つ目のトップレベル値で例外になる
+            return false;
+        }
+    }
+
+    private int indexOf(String name) {
+        // フィールド数は少ないため線形探索の方がハッシュ計算より速い
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String check(int index, String value) {
+        int length = value.length();
+        if (length < minLengths[index]) {
+            return minLengths[index] == 1 ? "must not be empty" : "must be at least " + minLengths[index] + " characters";
+        }
+        if (length > maxLengths[index]) {
+            return "must be at most " + maxLengths[index] + " characters";
+        }
+        if (patterns[index] != null && !patterns[index].matcher(value).matches()) {
+            return patternMessages[index];
+        }
+        return null;
+    }
+
+    private ValidationResult<T> failure(List<FieldError> violations) {
+        return new ValidationResult<>(null, List.copyOf(violations));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.validation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * JSONオブジェクトの宣言的なスキーマ定義
+ *
+ * <p>フィールドごとのルールを宣言し、{@link #compile} で
+ * 実行時に使用する {@link CompiledValidator} に変換します。
+ * スキーマ定義は起動時に一度だけコンパイルすることを想定しています。</p>
+ *
+ * <pre>
+ * CompiledValidator&lt;UserRequest&gt; validator = ObjectSchema.object()
+ *         .string("name", rule -&gt; rule.required().length(1, 100))
+ *         .string("email", rule -&gt; rule.pattern("...", "must be a valid email address"))
+ *         .compile(values -&gt; new UserRequest(values[0], values[1], null), 10);
+ * </pre>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class ObjectSchema {
+
+    /** 1スキーマあたりのフィールド数の上限（必須フィールドをビットマスクで管理するため） */
+    static final int MAX_FIELDS = 64;
+
+    private final Map<String, StringRule> fields = new LinkedHashMap<>();
+
+    private ObjectSchema() {
+    }
+
+    /**
+     * 空のオブジェクトスキーマを生成します。
+     *
+     * @return 新しいスキーマ
+     */
+    public static ObjectSchema object() {
+        return new ObjectSchema();
+    }
+
+    /**
+     * 文字列フィールドを定義します。
+     *
+     * <p>フィールドは定義した順に、コンパイル後の値配列のインデックスに対応します。</p>
+     *
+     * @param name フィールド名
+     * @param rule ルールを設定する関数
+     * @return このスキーマ
+     */
+    public ObjectSchema string(String name, UnaryOperator<StringRule> rule) {
+        if (fields.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate field: " + name);
+        }
+        if (fields.size() == MAX_FIELDS) {
+            throw new IllegalArgumentException("Too many fields (max " + MAX_FIELDS + ")");
+        }
+        fields.put(name, rule.apply(new StringRule()));
+        return this;
+    }
+
+    /**
+     * スキーマをフラットなバリデーターにコンパイルします。
+     *
+     * @param factory 検証済みの値配列（定義順）から結果オブジェクトを生成する関数
+     * @param maxViolations 検出を打ち切るエラー件数
+     * @param <T> 結果オブジェクトの型
+     * @return コンパイル済みのバリデーター
+     */
+    public <T> CompiledValidator<T> compile(Function<String[], T> factory, int maxViolations) {
+        if (maxViolations < 1) {
+            throw new IllegalArgumentException("maxViolations must be positive: " + maxViolations);
+        }
+        List<String> names = new ArrayList<>(fields.keySet());
+        List<StringRule> rules = new ArrayList<>(fields.values());
+        return new CompiledValidator<>(names, rules, factory, maxViolations);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.validation;
+
+import java.util.regex.Pattern;
+
+/**
+ * 文字列フィールドの宣言的な検証ルール
+ *
+ * <p>{@link ObjectSchema} の定義時にのみ使用され、
+ * {@link ObjectSchema#compile} の時点で {@link CompiledValidator} の
+ * フラットな配列にコピーされます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class StringRule {
+
+    boolean required;
+    int minLength = 0;
+    int maxLength = Integer.MAX_VALUE;
+    Pattern pattern;
+    String patternMessage;
+
+    StringRule() {
+    }
+
+    /**
+     * フィールドを必須にします。
+     *
+     * @return このルール
+     */
+    public StringRule required() {
+        this.required = true;
+        return this;
+    }
+
+    /**
+     * 文字列長の範囲を指定します。
+     *
+     * @param min 最小文字数（含む）
+     * @param max 最大文字数（含む）
+     * @return このルール
+     */
+    public StringRule length(int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid length range: " + min + ".." + max);
+        }
+        this.minLength = min;
+        this.maxLength = max;
+        return this;
+    }
+
+    /**
+     * 値全体が一致すべき正規表現を指定します。
+     *
+     * @param regex 正規表現（定義時に一度だけコンパイルされます）
+     * @param message 一致しなかった場合のエラーメッセージ
+     * @return このルール
+     */
+    public StringRule pattern(String regex, String message) {
+        this.pattern = Pattern.compile(regex);
+        this.patternMessage = message;
+        return this;
+    }
+}
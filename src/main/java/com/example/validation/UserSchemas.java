@@ -0,0 +1,62 @@
+package com.example.validation;
+
+import com.example.model.UserRequest;
+import com.example.store.UserRecord;
+
+/**
+ * ユーザー関連リクエストのスキーマ定義
+ *
+ * <p>クラス初期化時に一度だけコンパイルされ、
+ * 以降は全リクエストで同じバリデーターを共有します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class UserSchemas {
+
+    /** 1リクエストあたりに報告するエラーの最大件数 */
+    public static final int MAX_VIOLATIONS = 10;
+
+    private static final String EMAIL_PATTERN = "[^@\\s]+@[^@\\s]+\\.[^@\\s]+";
+    private static final String ROLE_PATTERN = "[a-z][a-z_-]*";
+    private static final String USER_ID_PATTERN = "[A-Za-z0-9_-]+";
+
+    /**
+     * POST /admin/users および PUT /admin/users/{userId} のリクエストボディ
+     *
+     * <p>PUTは完全更新のため、作成時と同じくnameが必須です。</p>
+     */
+    public static final CompiledValidator<UserRequest> USER = ObjectSchema.object()
+            .string("name", rule -> rule.required().length(1, 100))
+            .string("email", rule -> rule.length(3, 254).pattern(EMAIL_PATTERN, "must be a valid email address"))
+            .string("role", rule -> rule.length(1, 32).pattern(ROLE_PATTERN, "must be lowercase letters, '_' or '-'"))
+            .compile(values -> new UserRequest(values[0], values[1], values[2]), MAX_VIOLATIONS);
+
+    /**
+     * PATCH /admin/users/{userId} のリクエストボディ
+     *
+     * <p>部分更新のため全て任意ですが、指定されたフィールドには {@link #USER} と同じルールを適用します。
+     * 未指定やnullのフィールドは結果の {@link UserRequest} で {@code null} になり、更新されません。</p>
+     */
+    public static final CompiledValidator<UserRequest> USER_PATCH = ObjectSchema.object()
+            .string("name", rule -> rule.length(1, 100))
+            .string("email", rule -> rule.length(3, 254).pattern(EMAIL_PATTERN, "must be a valid email address"))
+            .string("role", rule -> rule.length(1, 32).pattern(ROLE_PATTERN, "must be lowercase letters, '_' or '-'"))
+            .compile(values -> new UserRequest(values[0], values[1], values[2]), MAX_VIOLATIONS);
+
+    /**
+     * POST /admin/users/import のNDJSONの1行
+     *
+     * <p>エクスポートの行と同じ形式です。userIdは任意で、省略した行には取り込み時に採番します。
+     * 結果の {@link UserRecord} のuserIdは、省略された場合 {@code null} です。</p>
+     */
+    public static final CompiledValidator<UserRecord> IMPORTED_USER = ObjectSchema.object()
+            .string("userId", rule -> rule.length(1, 64).pattern(USER_ID_PATTERN, "must be letters, digits, '_' or '-'"))
+            .string("name", rule -> rule.required().length(1, 100))
+            .string("email", rule -> rule.length(3, 254).pattern(EMAIL_PATTERN, "must be a valid email address"))
+            .string("role", rule -> rule.length(1, 32).pattern(ROLE_PATTERN, "must be lowercase letters, '_' or '-'"))
+            .compile(values -> new UserRecord(values[0], values[1], values[2], values[3]), MAX_VIOLATIONS);
+
+    private UserSchemas() {
+    }
+}
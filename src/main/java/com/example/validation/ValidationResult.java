@@ -0,0 +1,26 @@
+package com.example.validation;
+
+import com.example.model.FieldError;
+
+import java.util.List;
+
+/**
+ * 検証結果を表すレコード
+ *
+ * @param value 検証に成功した場合の値（失敗した場合は {@code null}）
+ * @param violations 検出されたエラー（成功した場合は空リスト）
+ * @param <T> 値の型
+ * @author Sample Project
+ * @version 1.0
+ */
+public record ValidationResult<T>(T value, List<FieldError> violations) {
+
+    /**
+     * 検証に成功したかどうかを返します。
+     *
+     * @return エラーが1件もなければ {@code true}
+     */
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+}
@@ -4,18 +4,40 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.AdminUsersHandler.Dependencies;
+import com.example.http.ResponseCompressor;
+import com.example.id.UserIdGenerator;
+import com.example.metrics.MetricsRegistry;
+import com.example.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.ratelimit.Bulkheads;
+import com.example.ratelimit.RateLimitPolicy;
+import com.example.ratelimit.RouteClass;
+import com.example.ratelimit.TenantRateLimiter;
+import com.example.store.UserStore;
+import com.example.tracing.SpanData;
+import com.example.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * AdminUsersHandlerクラスの単体テスト
@@ -25,6 +47,7 @@ import static org.mockito.Mockito.lenient;
 @DisplayName("AdminUsersHandler Tests")
 class AdminUsersHandlerTest {
 
+    private UserStore store;
     private AdminUsersHandler adminUsersHandler;
     
     @Mock
@@ -35,15 +58,19 @@ class AdminUsersHandlerTest {
 
     @BeforeEach
     void setUp() {
-        adminUsersHandler = new AdminUsersHandler();
+        store = new UserStore();
+        store.seedSampleUsers();
+        adminUsersHandler = new AdminUsersHandler(Dependencies.defaults().withStore(store));
         lenient().when(mockContext.getLogger()).thenReturn(mockLogger);
+        // 関数のTimeout（30秒）が丸ごと残っている呼び出しとして扱う
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(30_000);
     }
 
     @Test
     @DisplayName("GETメソッドでuserIdなしの場合にListUsersActionが呼ばれること")
     void shouldCallListUsersActionForGetMethodWithoutUserId() {
         // テスト用のリクエストを作成（ユーザー一覧取得）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("GET");
         request.setPathParameters(null); // userIdなし
 
@@ -54,7 +81,7 @@ class AdminUsersHandlerTest {
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().contains("user-001")); // ListUsersActionのダミーデータ
+        assertTrue(response.getBody().contains("user-001")); // 組織に登録済みのユーザー
         assertTrue(response.getBody().contains("Taro Yamada"));
     }
 
@@ -62,11 +89,11 @@ class AdminUsersHandlerTest {
     @DisplayName("GETメソッドでuserIdありの場合にGetUserActionが呼ばれること")
     void shouldCallGetUserActionForGetMethodWithUserId() {
         // テスト用のリクエストを作成（特定ユーザー取得）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("GET");
         
         Map<String, String> pathParameters = new HashMap<>();
-        pathParameters.put("userId", "user-123");
+        pathParameters.put("userId", "user-002");
         request.setPathParameters(pathParameters);
 
         // AdminUsersHandlerを実行
@@ -76,14 +103,14 @@ class AdminUsersHandlerTest {
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().contains("user-123")); // GetUserActionのダミーデータ
+        assertTrue(response.getBody().contains("Hanako Suzuki")); // 組織に登録済みのユーザー
     }
 
     @Test
     @DisplayName("POSTメソッドでCreateUserActionが呼ばれること")
     void shouldCallCreateUserActionForPostMethod() {
         // テスト用のリクエストを作成（ユーザー作成）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("POST");
         request.setBody("{\"name\":\"New User\",\"email\":\"newuser@example.com\"}");
 
@@ -94,7 +121,7 @@ class AdminUsersHandlerTest {
         assertNotNull(response);
         assertEquals(201, response.getStatusCode()); // Created
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().contains("user-003")); // CreateUserActionのダミーデータ
+        assertTrue(response.getBody().contains("\"userId\":\"user-")); // CreateUserActionで採番されたID
         assertTrue(response.getBody().contains("created"));
     }
 
@@ -102,7 +129,7 @@ class AdminUsersHandlerTest {
     @DisplayName("PUTメソッドでUpdateUserActionが呼ばれること")
     void shouldCallUpdateUserActionForPutMethod() {
         // テスト用のリクエストを作成（ユーザー更新）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("PUT");
         request.setBody("{\"name\":\"Updated User\",\"email\":\"updated@example.com\"}");
         
@@ -117,7 +144,7 @@ class AdminUsersHandlerTest {
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().contains("user-456")); // UpdateUserActionのダミーデータ
+        assertTrue(response.getBody().contains("user-456")); // 存在しないユーザーは作成される
         assertTrue(response.getBody().contains("updated"));
     }
 
@@ -125,7 +152,7 @@ class AdminUsersHandlerTest {
     @DisplayName("DELETEメソッドでDeleteUserActionが呼ばれること")
     void shouldCallDeleteUserActionForDeleteMethod() {
         // テスト用のリクエストを作成（ユーザー削除）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("DELETE");
         
         Map<String, String> pathParameters = new HashMap<>();
@@ -145,12 +172,12 @@ class AdminUsersHandlerTest {
     @DisplayName("PATCHメソッドでPatchUserActionが呼ばれること")
     void shouldCallPatchUserActionForPatchMethod() {
         // テスト用のリクエストを作成（ユーザー部分更新）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("PATCH");
         request.setBody("{\"email\":\"patched@example.com\"}");
         
         Map<String, String> pathParameters = new HashMap<>();
-        pathParameters.put("userId", "user-999");
+        pathParameters.put("userId", "user-001");
         request.setPathParameters(pathParameters);
 
         // AdminUsersHandlerを実行
@@ -160,7 +187,7 @@ class AdminUsersHandlerTest {
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().contains("user-999")); // PatchUserActionのダミーデータ
+        assertTrue(response.getBody().contains("user-001"));
         assertTrue(response.getBody().contains("patched"));
     }
 
@@ -168,7 +195,7 @@ class AdminUsersHandlerTest {
     @DisplayName("サポートされていないHTTPメソッドで405エラーが返されること")
     void shouldReturn405ErrorForUnsupportedHttpMethod() {
         // テスト用のリクエストを作成（サポートされていないメソッド）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("OPTIONS");
 
         // AdminUsersHandlerを実行
@@ -184,7 +211,7 @@ class AdminUsersHandlerTest {
     @DisplayName("PUTメソッドでuserIdがnullの場合の処理")
     void putMethodWithNullUserIdProcessing() {
         // テスト用のリクエストを作成（userIdなしのPUT）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("PUT");
         request.setBody("{\"name\":\"Test User\"}");
         request.setPathParameters(null); // userIdなし
@@ -192,17 +219,16 @@ class AdminUsersHandlerTest {
         // AdminUsersHandlerを実行
         APIGatewayProxyResponseEvent response = adminUsersHandler.handleRequest(request, mockContext);
 
-        // レスポンスを検証（現在の実装ではnullが渡される）
+        // レスポンスを検証（更新対象が無いため404）
         assertNotNull(response);
-        assertEquals(200, response.getStatusCode());
-        assertTrue(response.getBody().contains("null")); // userIdがnullとして処理される
+        assertEquals(404, response.getStatusCode());
     }
 
     @Test
     @DisplayName("DELETEメソッドでuserIdがnullの場合の処理")
     void deleteMethodWithNullUserIdProcessing() {
         // テスト用のリクエストを作成（userIdなしのDELETE）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("DELETE");
         request.setPathParameters(null); // userIdなし
 
@@ -218,7 +244,7 @@ class AdminUsersHandlerTest {
     @DisplayName("pathParametersが空のMapの場合の処理")
     void emptyPathParametersMapProcessing() {
         // テスト用のリクエストを作成（空のpathParameters）
-        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
         request.setHttpMethod("GET");
         request.setPathParameters(new HashMap<>()); // 空のMap
 
@@ -228,6 +254,462 @@ class AdminUsersHandlerTest {
         // レスポンスを検証（userIdがnullなのでListUsersActionが呼ばれる）
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
-        assertTrue(response.getBody().contains("user-001")); // ListUsersActionのダミーデータ
+        assertTrue(response.getBody().contains("user-001")); // 組織に登録済みのユーザー
+    }
+
+    @Test
+    @DisplayName("組織ごとのレート制限を超えると429とRetry-Afterが返されること")
+    void shouldReturn429WithRetryAfterWhenTenantLimitExceeded() {
+        TenantRateLimiter limiter = new TenantRateLimiter(
+                Map.of(RouteClass.LIST, new RateLimitPolicy(0.5, 2)), () -> 0L, 100);
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies().withRateLimiter(limiter));
+
+        // 2回まではバースト内で許可される
+        assertEquals(200, handler.handleRequest(listRequestFor("org-abc"), mockContext).getStatusCode());
+        assertEquals(200, handler.handleRequest(listRequestFor("org-abc"), mockContext).getStatusCode());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(listRequestFor("org-abc"), mockContext);
+
+        assertEquals(429, response.getStatusCode());
+        assertEquals("2", response.getHeaders().get("Retry-After")); // 0.5リクエスト/秒
+        assertTrue(response.getBody().contains("too many requests"));
+
+        // 別の組織には影響しない
+        assertEquals(200, handler.handleRequest(listRequestFor("org-xyz"), mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("呼び出しごとにルート・ステータス分類・組織のEMFが1行出力されること")
+    void shouldEmitOneEmfLinePerInvocation() {
+        TenantRateLimiter limiter = new TenantRateLimiter(
+                Map.of(RouteClass.LIST, new RateLimitPolicy(0.5, 1)), () -> 0L, 100);
+        AdminUsersHandler handler = new AdminUsersHandler(
+                quietDependencies().withRateLimiter(limiter).withMetrics(new MetricsRegistry("Test", () -> 0L)));
+
+        handler.handleRequest(listRequestFor("org-abc"), mockContext);
+        handler.handleRequest(listRequestFor("org-abc"), mockContext); // 429
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mockLogger, atLeastOnce()).log(captor.capture());
+        List<String> emfLines = captor.getAllValues().stream().filter(line -> line.startsWith("{\"_aws\"")).toList();
+
+        assertEquals(2, emfLines.size());
+        assertTrue(emfLines.get(0).contains("\"Route\":\"GET /admin/users\""));
+        assertTrue(emfLines.get(0).contains("\"StatusClass\":\"2xx\""));
+        assertTrue(emfLines.get(0).contains("\"Tenant\":\"org-abc\""));
+        assertTrue(emfLines.get(1).contains("\"StatusClass\":\"4xx\""));
+    }
+
+    @Test
+    @DisplayName("リクエストIDから求めたトレースIDで、レート制限とアクションのスパンが出力されること")
+    void shouldTraceWithRequestId() {
+        List<SpanData> spans = new ArrayList<>();
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies().withTracer(new Tracer(1.0, spans::addAll)));
+        // 先頭ページのキャッシュが無い組織で、組み立てのスパンも出力させる
+        APIGatewayProxyRequestEvent request = listRequestFor("org-request-id");
+        request.getRequestContext().setRequestId("0af76519-16cd-43dd-8448-eb211c80319c");
+
+        handler.handleRequest(request, mockContext);
+
+        assertEquals(List.of("rateLimit", "serialize", "action", "compress", "AdminUsersHandler"),
+                spans.stream().map(SpanData::name).toList());
+        assertTrue(spans.stream().allMatch(span -> span.traceId().equals("0af7651916cd43dd8448eb211c80319c")));
+        SpanData action = spans.get(2);
+        assertEquals(action.spanId(), spans.get(1).parentSpanId());
+        assertEquals(spans.get(4).spanId(), action.parentSpanId());
+    }
+
+    @Test
+    @DisplayName("同じAuthorizerのコンテキストを共有するリクエストでもトレースIDはリクエストごとに異なること")
+    void shouldNotShareTraceIdAcrossCachedAuthorizerContext() {
+        List<SpanData> spans = new ArrayList<>();
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies().withTracer(new Tracer(1.0, spans::addAll)));
+        APIGatewayProxyRequestEvent first = listRequestFor("org-trace");
+        APIGatewayProxyRequestEvent second = listRequestFor("org-trace");
+        second.getRequestContext().setAuthorizer(first.getRequestContext().getAuthorizer());
+        first.getRequestContext().setRequestId("0af76519-16cd-43dd-8448-eb211c80319c");
+        second.getRequestContext().setRequestId("5f1c2b3a-9d4e-4f60-8a7b-0c1d2e3f4a5b");
+
+        handler.handleRequest(first, mockContext);
+        handler.handleRequest(second, mockContext);
+
+        assertEquals(List.of("0af7651916cd43dd8448eb211c80319c", "5f1c2b3a9d4e4f608a7b0c1d2e3f4a5b"),
+                spans.stream().map(SpanData::traceId).distinct().toList());
+    }
+
+    @Test
+    @DisplayName("サンプリングされなかったリクエストはスパンを出力しないこと")
+    void shouldNotTraceWhenNotSampled() {
+        List<SpanData> spans = new ArrayList<>();
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies().withTracer(new Tracer(0.0, spans::addAll)));
+
+        handler.handleRequest(listRequestFor("org-abc"), mockContext);
+
+        assertTrue(spans.isEmpty());
+    }
+
+    @Test
+    @DisplayName("スナップショット作成前のプライミングがログやレート制限の状態を残さないこと")
+    void shouldPrimeAllRoutesWithoutLeavingState() {
+        TenantRateLimiter limiter = TenantRateLimiter.withDefaults();
+        AdminUsersHandler handler = new AdminUsersHandler(
+                quietDependencies().withRateLimiter(limiter).withMetrics(new MetricsRegistry("Test", () -> 0L)));
+
+        assertDoesNotThrow(() -> handler.beforeCheckpoint(null));
+
+        assertEquals(0, limiter.trackedTenants(RouteClass.LIST));
+        assertEquals(0, limiter.trackedTenants(RouteClass.WRITE));
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    @DisplayName("復元後の最初のリクエストだけ処理時間がログに出力されること")
+    void shouldLogLatencyOfFirstRequestAfterRestore() {
+        adminUsersHandler.afterRestore(null);
+
+        adminUsersHandler.handleRequest(listRequestFor("org-abc"), mockContext);
+        adminUsersHandler.handleRequest(listRequestFor("org-abc"), mockContext);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mockLogger, atLeastOnce()).log(captor.capture());
+        List<String> restoreLines = captor.getAllValues().stream()
+                .filter(line -> line.contains("\"first request after restore\"")).toList();
+        assertEquals(1, restoreLines.size());
+        assertTrue(restoreLines.get(0).contains("\"latencyMicros\":"));
+    }
+
+    @Test
+    @DisplayName("復元後にユーザーIDの乱数部分が再生成されること")
+    void shouldReseedUserIdsAfterRestore() {
+        String before = UserIdGenerator.getDefault().nextId();
+
+        adminUsersHandler.afterRestore(null);
+        String after = UserIdGenerator.getDefault().nextId();
+
+        // 末尾12文字（60ビット）はインスタンス乱数のみから成る
+        assertNotEquals(before.substring(before.length() - 12), after.substring(after.length() - 12));
+    }
+
+    @Test
+    @DisplayName("gzipを受け付けるクライアントには閾値以上のレスポンスが圧縮されること")
+    void shouldCompressResponseWhenClientAcceptsGzip() throws Exception {
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies()
+                .withCompressor(new ResponseCompressor(16, ResponseCompressor.DEFAULT_LEVEL)).withStore(store));
+        APIGatewayProxyRequestEvent request = listRequestFor("org-abc");
+        request.setHeaders(Map.of("Accept", "application/json", "Accept-Encoding", "gzip"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(response.getBody())))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("user-001"));
+        }
+
+        // Accept-Encodingが無い場合は圧縮しない
+        APIGatewayProxyResponseEvent plain = handler.handleRequest(listRequestFor("org-abc"), mockContext);
+        assertNull(plain.getIsBase64Encoded());
+        assertTrue(plain.getBody().contains("user-001"));
+    }
+
+    @Test
+    @DisplayName("Base64で届いたリクエストボディが復号されてアクションに渡されること")
+    void shouldDecodeBase64RequestBody() {
+        APIGatewayProxyRequestEvent request = listRequestFor("org-abc");
+        request.setHttpMethod("POST");
+        request.setBody(Base64.getEncoder().encodeToString(
+                "{\"name\":\"Taro Yamada\",\"email\":\"taro@example.com\",\"role\":\"editor\"}".getBytes(StandardCharsets.UTF_8)));
+        request.setIsBase64Encoded(true);
+
+        APIGatewayProxyResponseEvent response = adminUsersHandler.handleRequest(request, mockContext);
+
+        // 復号されずに渡された場合は入力検証エラー（400）になる
+        assertEquals(201, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Authorizerのコンテキストが無いリクエストはストアに触れずに403が返されること")
+    void shouldRejectRequestWithoutOrganization() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        request.setHttpMethod("DELETE");
+        request.setPathParameters(Map.of("userId", "user-001"));
+
+        APIGatewayProxyResponseEvent response = adminUsersHandler.handleRequest(request, mockContext);
+
+        assertEquals(403, response.getStatusCode());
+        assertNotNull(store.partition("org-abc").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("作成したユーザーは同じ組織からだけ取得できること")
+    void shouldIsolateUsersByOrganization() {
+        APIGatewayProxyRequestEvent create = requestFor("org-xyz");
+        create.setHttpMethod("POST");
+        create.setBody("{\"name\":\"Jiro Sato\"}");
+        APIGatewayProxyResponseEvent created = adminUsersHandler.handleRequest(create, mockContext);
+        String userId = created.getBody().replaceAll(".*\"userId\":\"([^\"]+)\".*", "$1");
+
+        APIGatewayProxyRequestEvent sameOrganization = requestFor("org-xyz");
+        sameOrganization.setHttpMethod("GET");
+        sameOrganization.setPathParameters(Map.of("userId", userId));
+        APIGatewayProxyRequestEvent otherOrganization = requestFor("org-abc");
+        otherOrganization.setHttpMethod("GET");
+        otherOrganization.setPathParameters(Map.of("userId", userId));
+
+        assertEquals(201, created.getStatusCode());
+        assertEquals(200, adminUsersHandler.handleRequest(sameOrganization, mockContext).getStatusCode());
+        assertEquals(404, adminUsersHandler.handleRequest(otherOrganization, mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("取り込みとエクスポートのリソースがそれぞれのアクションに振り分けられること")
+    void shouldRouteBulkResources() {
+        APIGatewayProxyRequestEvent importRequest = requestFor("org-xyz");
+        importRequest.setHttpMethod("POST");
+        importRequest.setResource("/admin/users/import");
+        importRequest.setBody("{\"userId\":\"user-100\",\"name\":\"Jiro Sato\"}\n");
+        APIGatewayProxyRequestEvent exportRequest = requestFor("org-xyz");
+        exportRequest.setHttpMethod("GET");
+        exportRequest.setResource("/admin/users/export");
+
+        APIGatewayProxyResponseEvent imported = adminUsersHandler.handleRequest(importRequest, mockContext);
+        APIGatewayProxyResponseEvent exported = adminUsersHandler.handleRequest(exportRequest, mockContext);
+
+        assertEquals(200, imported.getStatusCode());
+        assertEquals("{\"imported\":1,\"failed\":0}", imported.getBody());
+        assertEquals(200, exported.getStatusCode());
+        assertEquals("{\"userId\":\"user-100\",\"name\":\"Jiro Sato\"}\n", exported.getBody());
+    }
+
+    @Test
+    @DisplayName("idsクエリパラメータ付きの一覧取得がMultiGetUsersActionに振り分けられること")
+    void shouldRouteIdsQueryToMultiGet() {
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
+        request.setHttpMethod("GET");
+        request.setQueryStringParameters(Map.of("ids", "user-404,user-001"));
+
+        APIGatewayProxyResponseEvent response = adminUsersHandler.handleRequest(request, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getBody().startsWith("[{\"userId\":\"user-404\",\"status\":\"not_found\"},{\"userId\":\"user-001\""));
+    }
+
+    @Test
+    @DisplayName("sinceクエリパラメータ付きの一覧取得が差分同期になること")
+    void shouldRouteSinceQueryToDeltaSync() {
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
+        request.setHttpMethod("GET");
+        long watermark = store.partition("org-abc").watermark();
+        store.partition("org-abc").remove("user-002");
+        request.setQueryStringParameters(Map.of("since", Long.toString(watermark)));
+
+        APIGatewayProxyResponseEvent response = adminUsersHandler.handleRequest(request, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"users\":[],\"deleted\":[\"user-002\"],\"watermark\":" + (watermark + 1) + ",\"hasMore\":false}",
+                response.getBody());
+    }
+
+    @Test
+    @DisplayName("変更フィードのリソースがListChangesActionに振り分けられ、GET以外は405が返されること")
+    void shouldRouteChangesResource() {
+        APIGatewayProxyRequestEvent createRequest = requestFor("org-xyz");
+        createRequest.setHttpMethod("POST");
+        createRequest.setBody("{\"name\":\"Jiro Sato\"}");
+        APIGatewayProxyRequestEvent changesRequest = requestFor("org-xyz");
+        changesRequest.setHttpMethod("GET");
+        changesRequest.setResource("/admin/users/changes");
+        changesRequest.setQueryStringParameters(Map.of("since", "0"));
+        APIGatewayProxyRequestEvent postRequest = requestFor("org-xyz");
+        postRequest.setHttpMethod("POST");
+        postRequest.setResource("/admin/users/changes");
+
+        assertEquals(201, adminUsersHandler.handleRequest(createRequest, mockContext).getStatusCode());
+        APIGatewayProxyResponseEvent changes = adminUsersHandler.handleRequest(changesRequest, mockContext);
+
+        assertEquals(200, changes.getStatusCode());
+        assertTrue(changes.getBody().startsWith("{\"changes\":[{\"offset\":0,\"type\":\"created\""),
+                changes.getBody());
+        assertTrue(changes.getBody().endsWith("],\"nextOffset\":1}"), changes.getBody());
+        assertEquals(405, adminUsersHandler.handleRequest(postRequest, mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("残り時間がルートの処理に足りない場合は503とRetry-Afterが返されること")
+    void shouldShedRequestsThatCannotFinishBeforeDeadline() {
+        // レスポンス用の200ミリ秒を残すと800ミリ秒で、一括系の1秒には足りない
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(1_000);
+        APIGatewayProxyRequestEvent importRequest = requestFor("org-abc");
+        importRequest.setHttpMethod("POST");
+        importRequest.setResource("/admin/users/import");
+        importRequest.setBody("{\"userId\":\"user-003\",\"name\":\"Jiro Sato\"}\n");
+        APIGatewayProxyRequestEvent getRequest = requestFor("org-abc");
+        getRequest.setHttpMethod("GET");
+        getRequest.setPathParameters(Map.of("userId", "user-001"));
+
+        APIGatewayProxyResponseEvent shed = adminUsersHandler.handleRequest(importRequest, mockContext);
+        APIGatewayProxyResponseEvent served = adminUsersHandler.handleRequest(getRequest, mockContext);
+
+        assertEquals(503, shed.getStatusCode());
+        assertEquals("1", shed.getHeaders().get("Retry-After"));
+        assertNull(store.partition("org-abc").get("user-003"));
+        assertEquals(200, served.getStatusCode());
+
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(240);
+        assertEquals(503, adminUsersHandler.handleRequest(getRequest, mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("同時実行数の上限に達したルートは待たずに503が返され、他のルートは影響を受けないこと")
+    void shouldRejectWhenBulkheadIsFull() {
+        AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, System::nanoTime);
+        AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, System::nanoTime);
+        AdaptiveConcurrencyLimiter bulk = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, System::nanoTime);
+        AdminUsersHandler handler = new AdminUsersHandler(
+                quietDependencies().withStore(store).withBulkheads(new Bulkheads(reads, writes, bulk)));
+        APIGatewayProxyRequestEvent get = requestFor("org-abc");
+        get.setHttpMethod("GET");
+        get.setPathParameters(Map.of("userId", "user-001"));
+        APIGatewayProxyRequestEvent delete = requestFor("org-abc");
+        delete.setHttpMethod("DELETE");
+        delete.setPathParameters(Map.of("userId", "user-002"));
+
+        // 読み取り系の枠を他のリクエストが使っている状態
+        long permit = reads.tryAcquire();
+        APIGatewayProxyResponseEvent rejected = handler.handleRequest(get, mockContext);
+        APIGatewayProxyResponseEvent deleted = handler.handleRequest(delete, mockContext);
+        reads.release(permit);
+
+        assertEquals(503, rejected.getStatusCode());
+        assertEquals("1", rejected.getHeaders().get("Retry-After"));
+        assertEquals(204, deleted.getStatusCode());
+        assertEquals(200, handler.handleRequest(get, mockContext).getStatusCode());
+        assertEquals(0, writes.inFlight());
+    }
+
+    @Test
+    @DisplayName("一括系のルートは読み取り系・更新系とは別の枠で同時実行数が制限されること")
+    void shouldIsolateBulkRoutesInTheirOwnBulkhead() {
+        AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, System::nanoTime);
+        AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, System::nanoTime);
+        AdaptiveConcurrencyLimiter bulk = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, System::nanoTime);
+        AdminUsersHandler handler = new AdminUsersHandler(
+                quietDependencies().withStore(store).withBulkheads(new Bulkheads(reads, writes, bulk)));
+        APIGatewayProxyRequestEvent export = requestFor("org-abc");
+        export.setHttpMethod("GET");
+        export.setResource("/admin/users/export");
+        APIGatewayProxyRequestEvent delete = requestFor("org-abc");
+        delete.setHttpMethod("DELETE");
+        delete.setPathParameters(Map.of("userId", "user-002"));
+
+        // 一括系の枠を他のリクエストが使っている状態
+        long permit = bulk.tryAcquire();
+        APIGatewayProxyResponseEvent rejected = handler.handleRequest(export, mockContext);
+        APIGatewayProxyResponseEvent deleted = handler.handleRequest(delete, mockContext);
+        bulk.release(permit);
+
+        assertEquals(503, rejected.getStatusCode());
+        assertEquals(204, deleted.getStatusCode());
+        assertEquals(200, handler.handleRequest(export, mockContext).getStatusCode());
+        assertEquals(0, writes.inFlight());
+    }
+
+    @Test
+    @DisplayName("一括更新のリソースがBatchUsersActionに振り分けられること")
+    void shouldRouteBatchResource() {
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
+        request.setHttpMethod("POST");
+        request.setResource("/admin/users/batch");
+        request.setBody("{\"operations\":[{\"method\":\"DELETE\",\"userId\":\"user-001\"},"
+                + "{\"method\":\"PATCH\",\"userId\":\"user-002\",\"body\":{\"role\":\"admin\"}}]}");
+
+        APIGatewayProxyResponseEvent response = adminUsersHandler.handleRequest(request, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"results\":[{\"status\":204},{\"status\":200,\"body\":{\"userId\":\"user-002\",\"status\":\"patched\"}}]}",
+                response.getBody());
+        assertNull(store.partition("org-abc").get("user-001"));
+        assertEquals("admin", store.partition("org-abc").get("user-002").role());
+    }
+
+    @Test
+    @DisplayName("一括更新は更新系ではなく一括系のレート制限を消費すること")
+    void shouldRateLimitBatchAsBulk() {
+        TenantRateLimiter limiter = new TenantRateLimiter(
+                Map.of(RouteClass.BULK, new RateLimitPolicy(0.5, 1)), () -> 0L, 100);
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies().withRateLimiter(limiter).withStore(store));
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
+        request.setHttpMethod("POST");
+        request.setResource("/admin/users/batch");
+        request.setBody("{\"operations\":[{\"method\":\"PATCH\",\"userId\":\"user-002\",\"body\":{\"role\":\"admin\"}}]}");
+
+        assertEquals(200, handler.handleRequest(request, mockContext).getStatusCode());
+        assertEquals(429, handler.handleRequest(request, mockContext).getStatusCode());
+        assertEquals(1, limiter.trackedTenants(RouteClass.BULK));
+    }
+
+    @Test
+    @DisplayName("一括取り込みとエクスポートは一括系のレート制限を共有し、一覧の制限は消費しないこと")
+    void shouldRateLimitImportAndExportAsBulk() {
+        TenantRateLimiter limiter = new TenantRateLimiter(Map.of(
+                RouteClass.BULK, new RateLimitPolicy(0.5, 2),
+                RouteClass.LIST, new RateLimitPolicy(0.5, 1)), () -> 0L, 100);
+        AdminUsersHandler handler = new AdminUsersHandler(quietDependencies().withRateLimiter(limiter).withStore(store));
+        APIGatewayProxyRequestEvent importRequest = requestFor("org-abc");
+        importRequest.setHttpMethod("POST");
+        importRequest.setResource("/admin/users/import");
+        importRequest.setBody("{\"userId\":\"user-100\",\"name\":\"Jiro Sato\"}\n");
+        APIGatewayProxyRequestEvent exportRequest = requestFor("org-abc");
+        exportRequest.setHttpMethod("GET");
+        exportRequest.setResource("/admin/users/export");
+
+        assertEquals(200, handler.handleRequest(importRequest, mockContext).getStatusCode());
+        assertEquals(200, handler.handleRequest(exportRequest, mockContext).getStatusCode());
+        assertEquals(429, handler.handleRequest(exportRequest, mockContext).getStatusCode());
+        assertEquals(200, handler.handleRequest(listRequestFor("org-abc"), mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("取り込みのリソースにPOST以外のメソッドでは405が返されること")
+    void shouldRejectUnsupportedMethodOnBulkResource() {
+        APIGatewayProxyRequestEvent request = requestFor("org-abc");
+        request.setHttpMethod("GET");
+        request.setResource("/admin/users/import");
+
+        assertEquals(405, adminUsersHandler.handleRequest(request, mockContext).getStatusCode());
+    }
+
+    /**
+     * メトリクス、トレース、圧縮を無効にした依存オブジェクトを作成
+     */
+    private static Dependencies quietDependencies() {
+        return Dependencies.defaults().withMetrics(MetricsRegistry.disabled()).withTracer(Tracer.disabled())
+                .withCompressor(ResponseCompressor.disabled());
+    }
+
+    /**
+     * Authorizerコンテキストに組織IDを持つ一覧取得リクエストを作成
+     */
+    private APIGatewayProxyRequestEvent listRequestFor(String organizationId) {
+        APIGatewayProxyRequestEvent request = requestFor(organizationId);
+        request.setHttpMethod("GET");
+        return request;
+    }
+
+    /**
+     * Authorizerコンテキストに組織IDを持つリクエストを作成
+     */
+    private APIGatewayProxyRequestEvent requestFor(String organizationId) {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext =
+                new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        Map<String, Object> authorizerContext = new HashMap<>();
+        authorizerContext.put("principalId", "user-001");
+        authorizerContext.put("role", "editor");
+        authorizerContext.put("organization_id", organizationId);
+        requestContext.setAuthorizer(authorizerContext);
+        request.setRequestContext(requestContext);
+        return request;
     }
-}
\ No newline at end of file
+}
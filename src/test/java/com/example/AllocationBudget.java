@@ -0,0 +1,161 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * ハンドラー呼び出し1回あたりの割り当てバイト数を計測し、保存済みのベースラインと比較するハーネス
+ *
+ * <p>{@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()} で
+ * 呼び出し前後のスレッドの割り当て量を取得します。JITコンパイル（エスケープ解析）の影響を除くため、
+ * 計測前に同じ処理を {@link #WARMUP_ITERATIONS} 回実行し、その後の
+ * {@link #MEASURED_ITERATIONS} 回の平均を計測値とします。</p>
+ *
+ * <p>ベースラインはルート名と1回あたりのバイト数のプロパティファイルで、計測値が
+ * ベースラインの {@link #TOLERANCE} 倍を超えたルートがあると、全ルートの比較表を含む
+ * {@link AssertionError} をスローします。意図した変更の場合は
+ * {@code -Dallocation.baseline.update=true} を指定してテストを実行するとベースラインを書き換えます。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+final class AllocationBudget {
+
+    /** 計測前の実行回数 */
+    static final int WARMUP_ITERATIONS = 5_000;
+
+    /** 計測する実行回数 */
+    static final int MEASURED_ITERATIONS = 1_000;
+
+    /** ベースラインに対して許容する倍率 */
+    static final double TOLERANCE = 1.25;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Path baselineFile;
+    private final Map<String, Long> baseline;
+    private final boolean update;
+    private final Map<String, Long> measured = new LinkedHashMap<>();
+
+    /**
+     * ベースラインを読み込んでハーネスを生成します。
+     *
+     * <p>{@code allocation.baseline.update} システムプロパティが {@code true} の場合は、
+     * 比較せずに計測値でベースラインを書き換えるモードになります。</p>
+     *
+     * @param baselineFile ベースラインのプロパティファイル
+     * @throws IOException 読み込みに失敗した場合
+     */
+    AllocationBudget(Path baselineFile) throws IOException {
+        this(baselineFile, load(baselineFile), Boolean.getBoolean("allocation.baseline.update"));
+    }
+
+    /**
+     * ベースラインを指定してハーネスを生成します。
+     *
+     * @param baselineFile ベースラインの書き込み先
+     * @param baseline ルート名と1回あたりのバイト数
+     * @param update 比較せずにベースラインを書き換える場合は {@code true}
+     */
+    AllocationBudget(Path baselineFile, Map<String, Long> baseline, boolean update) {
+        this.baselineFile = baselineFile;
+        this.baseline = baseline;
+        this.update = update;
+    }
+
+    /**
+     * 処理をウォームアップした後、1回あたりの割り当てバイト数を計測して記録します。
+     *
+     * @param route ルート名
+     * @param invocation 1回分の処理
+     * @return 1回あたりの割り当てバイト数
+     */
+    long measure(String route, Runnable invocation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            invocation.run();
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            invocation.run();
+        }
+        long bytes = (THREADS.getCurrentThreadAllocatedBytes() - before) / MEASURED_ITERATIONS;
+        record(route, bytes);
+        return bytes;
+    }
+
+    /**
+     * 計測値を記録します。
+     *
+     * @param route ルート名
+     * @param bytes 1回あたりの割り当てバイト数
+     */
+    void record(String route, long bytes) {
+        measured.put(route, bytes);
+    }
+
+    /**
+     * 記録した計測値をベースラインと比較します。書き換えモードの場合はベースラインを書き換えます。
+     *
+     * @throws AssertionError ベースラインが無い、または許容範囲を超えたルートがある場合
+     * @throws IOException ベースラインの書き込みに失敗した場合
+     */
+    void assertWithinBaseline() throws IOException {
+        if (update) {
+            store();
+            return;
+        }
+        boolean failed = false;
+        StringBuilder report = new StringBuilder(String.format("%-20s %10s %10s %9s%n", "route", "baseline", "measured", "change"));
+        for (Map.Entry<String, Long> entry : measured.entrySet()) {
+            Long expected = baseline.get(entry.getKey());
+            long actual = entry.getValue();
+            boolean exceeded = expected == null || actual > expected * TOLERANCE;
+            failed |= exceeded;
+            report.append(String.format("%-20s %10s %10d %9s%s%n", entry.getKey(),
+                    (expected != null) ? expected.toString() : "-", actual,
+                    (expected != null && expected > 0) ? String.format("%+.1f%%", (actual - expected) * 100.0 / expected) : "new",
+                    exceeded ? "  <-- over budget" : ""));
+        }
+        if (failed) {
+            throw new AssertionError(String.format(
+                    "Allocation budget exceeded (bytes/invocation, tolerance +%.0f%%, baseline %s)%n%s"
+                            + "If the increase is intended, rerun with -Dallocation.baseline.update=true",
+                    (TOLERANCE - 1) * 100, baselineFile, report));
+        }
+    }
+
+    private void store() throws IOException {
+        Map<String, Long> merged = new TreeMap<>(baseline);
+        merged.putAll(measured);
+        try (Writer writer = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            writer.write("# ハンドラー呼び出し1回あたりの割り当てバイト数のベースライン (AllocationBudgetTest)\n");
+            writer.write("# 更新方法: mvn test -Dtest=AllocationBudgetTest -Dallocation.baseline.update=true\n");
+            for (Map.Entry<String, Long> entry : merged.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+    }
+
+    private static Map<String, Long> load(Path baselineFile) throws IOException {
+        Map<String, Long> baseline = new TreeMap<>();
+        if (!Files.exists(baselineFile)) {
+            return baseline;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        properties.forEach((route, bytes) -> baseline.put((String) route, Long.parseLong(((String) bytes).trim())));
+        return baseline;
+    }
+}
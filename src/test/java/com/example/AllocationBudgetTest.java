@@ -0,0 +1,104 @@
+package com.example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.example.http.ResponseCompressor;
+import com.example.json.JsonCodecs;
+import com.example.metrics.MetricsRegistry;
+import com.example.model.TokenResponse;
+import com.example.priming.Priming;
+import com.example.priming.SyntheticContext;
+import com.example.ratelimit.Bulkheads;
+import com.example.ratelimit.RateLimitPolicy;
+import com.example.ratelimit.RouteClass;
+import com.example.ratelimit.TenantRateLimiter;
+import com.example.store.UserStore;
+import com.example.tracing.Tracer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ハンドラー呼び出し1回あたりの割り当て量の回帰テスト
+ * ルートごとの割り当てバイト数が src/test/resources/allocation-budgets.properties の
+ * ベースラインを超えて増えていないことをテストします。
+ */
+@DisplayName("Allocation Budget Tests")
+class AllocationBudgetTest {
+
+    private static final Path BASELINE = Path.of("src/test/resources/allocation-budgets.properties");
+
+    private final Context context = new SyntheticContext("allocation-budget");
+
+    @Test
+    @DisplayName("全ルートの割り当て量がベースラインの許容範囲内であること")
+    void shouldStayWithinAllocationBaseline() throws Exception {
+        AllocationBudget budget = new AllocationBudget(BASELINE);
+
+        // トークン発行と検証
+        AuthHandler authHandler = new AuthHandler();
+        APIGatewayProxyRequestEvent tokenRequest = Priming.tokenRequest();
+        String token = JsonCodecs.fromJson(authHandler.handleRequest(tokenRequest, context).getBody(), TokenResponse.class).token();
+        AuthorizerHandler authorizerHandler = new AuthorizerHandler(Tracer.disabled());
+        APIGatewayCustomAuthorizerEvent allowed = Priming.authorizerEvent("Bearer " + token);
+        APIGatewayCustomAuthorizerEvent denied = Priming.authorizerEvent("Bearer " + token + "x");
+
+        budget.measure("token.issue", () -> authHandler.handleRequest(tokenRequest, context));
+        budget.measure("authorizer.allow", () -> authorizerHandler.handleRequest(allowed, context));
+        budget.measure("authorizer.deny", () -> authorizerHandler.handleRequest(denied, context));
+
+        // ユーザー管理（レート制限で429にならないよう上限を外し、メトリクスは本番と同じく有効にする。
+        // 作成したユーザーが共有のストアに残らないよう、専用のストアを使う）
+        RateLimitPolicy unlimited = new RateLimitPolicy(1e9, 1_000_000);
+        UserStore store = new UserStore();
+        store.seedSampleUsers();
+        AdminUsersHandler adminHandler = new AdminUsersHandler(new AdminUsersHandler.Dependencies(
+                new TenantRateLimiter(Map.of(RouteClass.LIST, unlimited, RouteClass.WRITE, unlimited), System::nanoTime, 1_000),
+                new MetricsRegistry("AllocationBudget", System::currentTimeMillis), Tracer.disabled(),
+                ResponseCompressor.disabled(), store, Bulkheads.withDefaults()));
+        // Priming.adminRequests の並び: 一覧、取得、作成、作成（入力エラー）、更新、部分更新、削除、一括取り込み、エクスポート、一括更新、複数取得、変更フィード、差分同期
+        List<APIGatewayProxyRequestEvent> requests = Priming.adminRequests("org-abc");
+        budget.measure("users.list", () -> adminHandler.handleRequest(requests.get(0), context));
+        budget.measure("users.get", () -> adminHandler.handleRequest(requests.get(1), context));
+        budget.measure("users.create", () -> adminHandler.handleRequest(requests.get(2), context));
+        budget.measure("users.update", () -> adminHandler.handleRequest(requests.get(4), context));
+        budget.measure("users.patch", () -> adminHandler.handleRequest(requests.get(5), context));
+        budget.measure("users.delete", () -> adminHandler.handleRequest(requests.get(6), context));
+        budget.measure("users.import", () -> adminHandler.handleRequest(requests.get(7), context));
+        budget.measure("users.export", () -> adminHandler.handleRequest(requests.get(8), context));
+        budget.measure("users.batch", () -> adminHandler.handleRequest(requests.get(9), context));
+        budget.measure("users.multiGet", () -> adminHandler.handleRequest(requests.get(10), context));
+        budget.measure("users.changes", () -> adminHandler.handleRequest(requests.get(11), context));
+        budget.measure("users.delta", () -> adminHandler.handleRequest(requests.get(12), context));
+
+        // 保護されたエンドポイント
+        ProtectedHandler protectedHandler = new ProtectedHandler();
+        APIGatewayProxyRequestEvent helloRequest = requests.get(0);
+        budget.measure("hello", () -> protectedHandler.handleRequest(helloRequest, context));
+
+        budget.assertWithinBaseline();
+    }
+
+    @Test
+    @DisplayName("ベースラインを超えたルートが比較表に示されること")
+    void shouldReportReadableDiffWhenOverBudget(@TempDir Path dir) {
+        AllocationBudget budget = new AllocationBudget(dir.resolve("baseline.properties"),
+                Map.of("users.get", 1_000L, "users.list", 2_000L), false);
+        budget.record("users.get", 1_100);
+        budget.record("users.list", 4_000);
+
+        AssertionError error = assertThrows(AssertionError.class, budget::assertWithinBaseline);
+
+        String[] lines = error.getMessage().split("\\R");
+        assertTrue(lines[0].startsWith("Allocation budget exceeded"));
+        assertTrue(lines[2].matches("users\\.get\\s+1000\\s+1100\\s+\\+10\\.0%"), lines[2]);
+        assertTrue(lines[3].matches("users\\.list\\s+2000\\s+4000\\s+\\+100\\.0%\\s+<-- over budget"), lines[3]);
+    }
+}
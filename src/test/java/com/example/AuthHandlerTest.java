@@ -1,6 +1,7 @@
 package com.example;
 
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
@@ -11,9 +12,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 /**
  * AuthHandlerクラスの単体テスト
  * 認証処理とJWTトークン発行機能をテストします。
@@ -99,6 +105,27 @@ class AuthHandlerTest {
         assertNotNull(response);
     }
 
+    @Test
+    @DisplayName("Base64で符号化されたボディ（isBase64Encoded=true）を復号してトークンが発行されること")
+    void shouldDecodeBase64EncodedBody() {
+        String json = gson.toJson(Map.of("username", "testuser", "password", "password123"));
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withPath("/auth/token")
+                .withHeaders(Map.of("Content-Type", "application/json"))
+                .withBody(Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8)))
+                .withIsBase64Encoded(true);
+
+        APIGatewayProxyResponseEvent response = authHandler.handleRequest(request, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertNotNull(gson.fromJson(response.getBody(), Map.class).get("token"));
+
+        // 復号せずに読むとJSONではないため400になる
+        request.setIsBase64Encoded(false);
+        assertEquals(400, authHandler.handleRequest(request, mockContext).getStatusCode());
+    }
+
     @Test
     @DisplayName("発行されたJWTトークンに正しいクレームが含まれていること")
     void shouldContainCorrectClaimsInIssuedJwtToken() {
@@ -150,4 +177,17 @@ class AuthHandlerTest {
             assertNotNull(response);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("プライミングと復元後の最初のリクエストの計測が行われること")
+    void shouldPrimeAndLogFirstRequestAfterRestore(@Mock LambdaLogger mockLogger) {
+        when(mockContext.getLogger()).thenReturn(mockLogger);
+
+        assertDoesNotThrow(() -> authHandler.beforeCheckpoint(null));
+        authHandler.afterRestore(null);
+        APIGatewayProxyResponseEvent response = authHandler.handleRequest(new APIGatewayProxyRequestEvent(), mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        verify(mockLogger).log(contains("\"first request after restore\""));
+    }
+}
@@ -3,8 +3,12 @@ package com.example;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.example.metrics.MetricsRegistry;
+import com.example.tracing.SpanData;
+import com.example.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,12 +16,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * AuthorizerHandlerクラスの単体テスト
@@ -41,6 +49,8 @@ class AuthorizerHandlerTest {
     void setUp() {
         authorizerHandler = new AuthorizerHandler();
         lenient().when(mockContext.getLogger()).thenReturn(mockLogger);
+        // 関数のTimeout（30秒）が丸ごと残っている呼び出しとして扱う
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(30_000);
     }
 
     @Test
@@ -51,7 +61,7 @@ class AuthorizerHandlerTest {
         
         // テスト用のイベントを作成
         APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
-        event.setAuthorizationToken("Bearer " + validToken);
+        event.setHeaders(Map.of("Authorization", "Bearer " + validToken));
         event.setMethodArn(SAMPLE_METHOD_ARN);
 
         // AuthorizerHandlerを実行
@@ -90,7 +100,7 @@ class AuthorizerHandlerTest {
         
         // テスト用のイベントを作成
         APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
-        event.setAuthorizationToken(invalidToken);
+        event.setHeaders(Map.of("Authorization", invalidToken));
         event.setMethodArn(SAMPLE_METHOD_ARN);
 
         // AuthorizerHandlerを実行
@@ -114,7 +124,7 @@ class AuthorizerHandlerTest {
     void nullTokenGeneratesDenyPolicy() {
         // テスト用のイベントを作成
         APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
-        event.setAuthorizationToken(null);
+        event.setHeaders(Map.of());
         event.setMethodArn(SAMPLE_METHOD_ARN);
 
         // AuthorizerHandlerを実行
@@ -141,7 +151,7 @@ class AuthorizerHandlerTest {
         
         // テスト用のイベントを作成
         APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
-        event.setAuthorizationToken("Bearer " + invalidToken);
+        event.setHeaders(Map.of("Authorization", "Bearer " + invalidToken));
         event.setMethodArn(SAMPLE_METHOD_ARN);
 
         // AuthorizerHandlerを実行
@@ -168,7 +178,7 @@ class AuthorizerHandlerTest {
         
         // テスト用のイベントを作成
         APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
-        event.setAuthorizationToken("Bearer " + expiredToken);
+        event.setHeaders(Map.of("Authorization", "Bearer " + expiredToken));
         event.setMethodArn(SAMPLE_METHOD_ARN);
 
         // AuthorizerHandlerを実行
@@ -187,7 +197,7 @@ class AuthorizerHandlerTest {
         
         // テスト用のイベントを作成
         APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
-        event.setAuthorizationToken("Bearer " + validToken);
+        event.setHeaders(Map.of("Authorization", "Bearer " + validToken));
         event.setMethodArn(SAMPLE_METHOD_ARN);
 
         // AuthorizerHandlerを実行
@@ -204,6 +214,101 @@ class AuthorizerHandlerTest {
         assertTrue(resourceArn.contains("arn:aws:execute-api"), "リソースARNはAPI Gateway ARNの形式である必要があります");
     }
 
+    @Test
+    @DisplayName("サンプリングされた場合はスパンが出力され、キャッシュされるコンテキストにトレースIDが含まれないこと")
+    void sampledRequestKeepsTraceIdOutOfContext() {
+        List<SpanData> spans = new ArrayList<>();
+        AuthorizerHandler handler = new AuthorizerHandler(new Tracer(1.0, spans::addAll));
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setHeaders(Map.of("Authorization", "Bearer " + createValidJWT()));
+        event.setMethodArn(SAMPLE_METHOD_ARN);
+
+        Map<String, Object> response = handler.handleRequest(event, mockContext);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> context = (Map<String, Object>) response.get("context");
+        assertFalse(context.containsKey("trace_id"));
+        assertEquals(List.of("jwt.verify", "AuthorizerHandler"), spans.stream().map(SpanData::name).toList());
+        assertEquals(1, spans.stream().map(SpanData::traceId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Authorizerと後続のハンドラーのスパンがリクエストIDから求めた同じトレースに記録されること")
+    void authorizerAndHandlerShareTrace() {
+        List<SpanData> spans = new ArrayList<>();
+        Tracer tracer = new Tracer(1.0, spans::addAll);
+        String requestId = "0af76519-16cd-43dd-8448-eb211c80319c";
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setHeaders(Map.of("Authorization", "Bearer " + createValidJWT()));
+        event.setMethodArn(SAMPLE_METHOD_ARN);
+        APIGatewayCustomAuthorizerEvent.RequestContext authorizerRequestContext =
+                new APIGatewayCustomAuthorizerEvent.RequestContext();
+        authorizerRequestContext.setRequestId(requestId);
+        event.setRequestContext(authorizerRequestContext);
+
+        Map<String, Object> policy = new AuthorizerHandler(tracer).handleRequest(event, mockContext);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> authorizerContext = (Map<String, Object>) policy.get("context");
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        requestContext.setRequestId(requestId);
+        requestContext.setAuthorizer(authorizerContext);
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withResource("/admin/users")
+                .withRequestContext(requestContext);
+        AdminUsersHandler handler = new AdminUsersHandler(AdminUsersHandler.Dependencies.defaults()
+                .withMetrics(MetricsRegistry.disabled()).withTracer(tracer));
+        assertEquals(200, handler.handleRequest(request, mockContext).getStatusCode());
+
+        List<String> roots = spans.stream().filter(span -> span.parentSpanId() == null).map(SpanData::name).toList();
+        assertEquals(List.of("AuthorizerHandler", "AdminUsersHandler"), roots);
+        assertEquals(List.of("0af7651916cd43dd8448eb211c80319c"), spans.stream().map(SpanData::traceId).distinct().toList());
+    }
+
+    @Test
+    @DisplayName("サンプリングされない場合はトレースIDが設定されないこと")
+    void unsampledRequestHasNoTraceId() {
+        // デフォルトのトレーサーはサンプリング率0
+        String validToken = createValidJWT();
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setHeaders(Map.of("Authorization", "Bearer " + validToken));
+        event.setMethodArn(SAMPLE_METHOD_ARN);
+
+        Map<String, Object> response = authorizerHandler.handleRequest(event, mockContext);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> context = (Map<String, Object>) response.get("context");
+        assertFalse(context.containsKey("trace_id"));
+    }
+
+    @Test
+    @DisplayName("プライミング後も通常のリクエストが処理され、プライミングのログは出力されないこと")
+    void primingDoesNotAffectLaterRequests() {
+        authorizerHandler.beforeCheckpoint(null);
+        verifyNoInteractions(mockLogger);
+
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setHeaders(Map.of("Authorization", "Bearer " + createValidJWT()));
+        event.setMethodArn(SAMPLE_METHOD_ARN);
+        Map<String, Object> response = authorizerHandler.handleRequest(event, mockContext);
+
+        assertEquals("user-001", response.get("principalId"));
+    }
+
+    @Test
+    @DisplayName("復元後の最初のリクエストの処理時間がログに出力されること")
+    void firstRequestAfterRestoreIsLogged() {
+        authorizerHandler.afterRestore(null);
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setHeaders(Map.of("Authorization", "Bearer " + createValidJWT()));
+        event.setMethodArn(SAMPLE_METHOD_ARN);
+
+        authorizerHandler.handleRequest(event, mockContext);
+
+        verify(mockLogger).log(contains("\"first request after restore\""));
+    }
+
     /**
      * テスト用の有効なJWTトークンを生成
      */
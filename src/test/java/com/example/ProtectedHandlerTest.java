@@ -242,4 +242,32 @@ class ProtectedHandlerTest {
             assertEquals(200, response.getStatusCode());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("組織IDのクレームが欠けている場合は401が返されること")
+    void missingClaimReturnsUnauthorized() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext =
+            new APIGatewayProxyRequestEvent.ProxyRequestContext();
+
+        // organization_idを含まないコンテキスト
+        Map<String, Object> authorizerContext = new HashMap<>();
+        authorizerContext.put("principalId", "user-001");
+        authorizerContext.put("role", "editor");
+
+        requestContext.setAuthorizer(authorizerContext);
+        request.setRequestContext(requestContext);
+
+        APIGatewayProxyResponseEvent response = protectedHandler.handleRequest(request, mockContext);
+
+        assertEquals(401, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Authorizerのコンテキストが無い場合は401が返されること")
+    void missingAuthorizerContextReturnsUnauthorized() {
+        APIGatewayProxyResponseEvent response = protectedHandler.handleRequest(new APIGatewayProxyRequestEvent(), mockContext);
+
+        assertEquals(401, response.getStatusCode());
+    }
+}
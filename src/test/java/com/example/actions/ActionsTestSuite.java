@@ -21,7 +21,12 @@ import org.junit.platform.suite.api.Suite;
     GetUserActionTest.class,
     UpdateUserActionTest.class,
     DeleteUserActionTest.class,
-    PatchUserActionTest.class
+    PatchUserActionTest.class,
+    ImportUsersActionTest.class,
+    ExportUsersActionTest.class,
+    BatchUsersActionTest.class,
+    MultiGetUsersActionTest.class,
+    ListChangesActionTest.class
 })
 public class ActionsTestSuite {
     // テストスイートクラスは空でOK
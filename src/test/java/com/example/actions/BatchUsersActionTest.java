@@ -0,0 +1,170 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.json.JsonCodecs;
+import com.example.model.BatchResponse;
+import com.example.model.BatchResult;
+import com.example.runtime.Deadline;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * BatchUsersActionクラスの単体テスト
+ * 複数の更新系操作の一括実行と、操作ごとの結果をテストします。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchUsersAction Tests")
+class BatchUsersActionTest {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
+    private BatchUsersAction batchUsersAction;
+
+    @Mock
+    private Context mockContext;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserStore();
+        store.seedSampleUsers();
+        batchUsersAction = new BatchUsersAction(store);
+        // 関数のTimeout（30秒）が丸ごと残っている呼び出しとして扱う
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(30_000);
+    }
+
+    @Test
+    @DisplayName("各操作が単体のエンドポイントと同じステータスでリクエストの順に返されること")
+    void shouldReturnResultPerOperationInRequestOrder() {
+        String body = """
+                {"operations":[
+                  {"method":"POST","body":{"name":"Jiro Sato"}},
+                  {"method":"PATCH","userId":"user-001","body":{"role":"viewer"}},
+                  {"method":"PUT","userId":"user-002","body":{"name":"Hanako Tanaka"}},
+                  {"method":"DELETE","userId":"user-404"},
+                  {"method":"PATCH","userId":"user-404","body":{"role":"viewer"}},
+                  {"method":"POST","body":{"name":""}}
+                ]}""";
+
+        APIGatewayProxyResponseEvent response = batchUsersAction.execute(PRINCIPAL, body, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        List<BatchResult> results = JsonCodecs.fromJson(response.getBody(), BatchResponse.class).results();
+        assertEquals(List.of(201, 200, 200, 204, 404, 400), results.stream().map(BatchResult::status).toList());
+        assertTrue(results.get(0).body().contains("\"status\":\"created\""));
+        assertEquals("{\"userId\":\"user-001\",\"status\":\"patched\"}", results.get(1).body());
+        assertNull(results.get(3).body());
+
+        UserPartition users = store.partition("org-abc");
+        assertEquals("viewer", users.get("user-001").role());
+        assertEquals(new UserRecord("user-002", "Hanako Tanaka", null, null), users.get("user-002"));
+        assertEquals(3, users.size());
+    }
+
+    @Test
+    @DisplayName("同じユーザーへの操作はリクエストの順に適用されること")
+    void shouldApplyOperationsOnSameUserInOrder() {
+        String body = """
+                {"operations":[
+                  {"method":"DELETE","userId":"user-001"},
+                  {"method":"PATCH","userId":"user-001","body":{"role":"viewer"}},
+                  {"method":"PUT","userId":"user-001","body":{"name":"Taro Sato"}},
+                  {"method":"PATCH","userId":"user-001","body":{"role":"admin"}},
+                  {"method":"DELETE","userId":"user-002"}
+                ]}""";
+
+        List<BatchResult> results = JsonCodecs.fromJson(
+                batchUsersAction.execute(PRINCIPAL, body, mockContext).getBody(), BatchResponse.class).results();
+
+        assertEquals(List.of(204, 404, 200, 200, 204), results.stream().map(BatchResult::status).toList());
+        UserPartition users = store.partition("org-abc");
+        assertEquals(new UserRecord("user-001", "Taro Sato", null, "admin"), users.get("user-001"));
+        assertNull(users.get("user-002"));
+        assertEquals(1, users.size());
+    }
+
+    @Test
+    @DisplayName("他の組織のユーザーには影響しないこと")
+    void shouldOnlyAffectCallersOrganization() {
+        store.partition("org-xyz").put(new UserRecord("user-001", "Other", null, null));
+
+        batchUsersAction.execute(PRINCIPAL, "{\"operations\":[{\"method\":\"DELETE\",\"userId\":\"user-001\"}]}", mockContext);
+
+        assertNull(store.partition("org-abc").get("user-001"));
+        assertNotNull(store.partition("org-xyz").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("未対応のメソッドの操作は400となり、他の操作は実行されること")
+    void shouldRejectUnsupportedMethodPerOperation() {
+        String body = "{\"operations\":[{\"method\":\"GET\",\"userId\":\"user-001\"},{\"userId\":\"user-002\"},"
+                + "{\"method\":\"DELETE\",\"userId\":\"user-002\"}]}";
+
+        List<BatchResult> results = JsonCodecs.fromJson(
+                batchUsersAction.execute(PRINCIPAL, body, mockContext).getBody(), BatchResponse.class).results();
+
+        assertEquals(List.of(400, 400, 204), results.stream().map(BatchResult::status).toList());
+        assertNull(store.partition("org-abc").get("user-002"));
+    }
+
+    @Test
+    @DisplayName("操作が上限を超える場合はどの操作も実行されずに400が返されること")
+    void shouldRejectTooManyOperations() {
+        StringBuilder body = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i <= BatchUsersAction.MAX_OPERATIONS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"method\":\"DELETE\",\"userId\":\"user-001\"}");
+        }
+        body.append("]}");
+
+        APIGatewayProxyResponseEvent response = batchUsersAction.execute(PRINCIPAL, body.toString(), mockContext);
+
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("$.operations"));
+        assertNotNull(store.partition("org-abc").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("期限を過ぎるとどの操作も反映されずに503が返されること")
+    void shouldApplyNothingAtDeadline() {
+        String body = "{\"operations\":[{\"method\":\"DELETE\",\"userId\":\"user-001\"},"
+                + "{\"method\":\"DELETE\",\"userId\":\"user-002\"}]}";
+        // 期限の生成と最初の操作の確認の後に期限を過ぎる
+        AtomicLong reads = new AtomicLong();
+        Deadline deadline = Deadline.after(10, () -> (reads.getAndIncrement() < 2) ? 0 : Long.MAX_VALUE / 2);
+
+        APIGatewayProxyResponseEvent response = batchUsersAction.execute(PRINCIPAL, body, deadline, mockContext);
+
+        assertEquals(503, response.getStatusCode());
+        assertNotNull(store.partition("org-abc").get("user-001"));
+        assertNotNull(store.partition("org-abc").get("user-002"));
+    }
+
+    @Test
+    @DisplayName("不正なリクエストボディでは400が返されること")
+    void shouldRejectInvalidBody() {
+        assertEquals(400, batchUsersAction.execute(PRINCIPAL, null, mockContext).getStatusCode());
+        assertEquals(400, batchUsersAction.execute(PRINCIPAL, "{}", mockContext).getStatusCode());
+        assertEquals(400, batchUsersAction.execute(PRINCIPAL, "{\"operations\":[", mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元には403が返されること")
+    void shouldRejectPrincipalWithoutOrganization() {
+        assertEquals(403, batchUsersAction.execute(Principal.ANONYMOUS, "{\"operations\":[]}", mockContext).getStatusCode());
+    }
+}
@@ -2,6 +2,10 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.id.UserIdGenerator;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +27,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("CreateUserAction Tests")
 class CreateUserActionTest {
 
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
     private CreateUserAction createUserAction;
     
     @Mock
@@ -31,7 +39,8 @@ class CreateUserActionTest {
 
     @BeforeEach
     void setUp() {
-        createUserAction = new CreateUserAction();
+        store = new UserStore();
+        createUserAction = new CreateUserAction(UserIdGenerator.getDefault(), store);
         gson = new Gson();
     }
 
@@ -42,7 +51,7 @@ class CreateUserActionTest {
         String requestBody = "{\"name\":\"Test User\",\"email\":\"test@example.com\"}";
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
         // レスポンスを検証
         assertNotNull(response);
@@ -61,46 +70,47 @@ class CreateUserActionTest {
         String requestBody = "{\"name\":\"Test User\",\"email\":\"test@example.com\"}";
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
         // レスポンスボディをJSONとしてパース
         assertDoesNotThrow(() -> {
             Map<String, String> responseMap = gson.fromJson(response.getBody(), Map.class);
             
             assertNotNull(responseMap);
-            assertEquals("user-003", responseMap.get("userId"));
+            assertTrue(responseMap.get("userId").startsWith("user-"));
+            assertEquals(31, responseMap.get("userId").length());
             assertEquals("created", responseMap.get("status"));
         });
     }
 
     @Test
-    @DisplayName("空のリクエストボディでも処理が完了すること")
-    void shouldCompleteProcessingWithEmptyRequestBody() {
+    @DisplayName("空のリクエストボディで400エラーが返されること")
+    void shouldReturn400ForEmptyRequestBody() {
         // 空のリクエストボディ
         String requestBody = "";
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
-        // 正常に処理されることを検証（現在の実装ではリクエストボディを使用していない）
+        // ボディ必須のエラーが返されることを検証
         assertNotNull(response);
-        assertEquals(201, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("request body is required"));
     }
 
     @Test
-    @DisplayName("nullリクエストボディでも処理が完了すること")
-    void shouldCompleteProcessingWithNullRequestBody() {
+    @DisplayName("nullリクエストボディで400エラーが返されること")
+    void shouldReturn400ForNullRequestBody() {
         // nullリクエストボディ
         String requestBody = null;
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
-        // 正常に処理されることを検証
+        // 400エラーが返されることを検証
         assertNotNull(response);
-        assertEquals(201, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertEquals(400, response.getStatusCode());
+        assertEquals("application/json", response.getHeaders().get("Content-Type"));
     }
 
     @Test
@@ -120,7 +130,7 @@ class CreateUserActionTest {
                 }""";
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -135,12 +145,12 @@ class CreateUserActionTest {
         String requestBody = "{\"name\":\"Test User\"}";
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
         String responseBody = response.getBody();
         
         // 期待される値が含まれていることを検証
-        assertTrue(responseBody.contains("user-003"));
+        assertTrue(responseBody.contains("\"userId\":\"user-"));
         assertTrue(responseBody.contains("created"));
         
         // JSON形式であることを検証
@@ -149,18 +159,33 @@ class CreateUserActionTest {
     }
 
     @Test
-    @DisplayName("複数回実行しても一貫した結果が返されること")
-    void shouldReturnConsistentResultsAcrossMultipleExecutions() {
+    @DisplayName("複数回実行すると毎回異なるユーザーIDが採番されること")
+    void shouldIssueDistinctUserIdsAcrossMultipleExecutions() {
         String requestBody = "{\"name\":\"Consistent Test\"}";
 
         // 複数回実行
-        APIGatewayProxyResponseEvent response1 = createUserAction.execute(requestBody, mockContext);
-        APIGatewayProxyResponseEvent response2 = createUserAction.execute(requestBody, mockContext);
+        APIGatewayProxyResponseEvent response1 = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response2 = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
 
-        // 同じ結果が返されることを検証
+        // ステータスとヘッダーは同じで、IDは後から生成したものが大きいことを検証
         assertEquals(response1.getStatusCode(), response2.getStatusCode());
-        assertEquals(response1.getBody(), response2.getBody());
         assertEquals(response1.getHeaders(), response2.getHeaders());
+        String userId1 = (String) gson.fromJson(response1.getBody(), Map.class).get("userId");
+        String userId2 = (String) gson.fromJson(response2.getBody(), Map.class).get("userId");
+        assertNotEquals(userId1, userId2);
+        assertTrue(userId1.compareTo(userId2) < 0);
+    }
+
+    @Test
+    @DisplayName("注入したIDジェネレーターで採番されること")
+    void shouldUseInjectedIdGenerator() {
+        UserIdGenerator generator = new UserIdGenerator(() -> 0L, 0L);
+        CreateUserAction action = new CreateUserAction(generator, store);
+
+        APIGatewayProxyResponseEvent response = action.execute(PRINCIPAL, "{\"name\":\"Injected\"}", mockContext);
+
+        // 時刻0・シーケンス1・乱数0のIDが返されることを検証
+        assertTrue(response.getBody().contains("user-0000000000000G000000000000"));
     }
 
     @Test
@@ -170,40 +195,60 @@ class CreateUserActionTest {
 
         // CreateUserActionを実行（例外が発生しないことを確認）
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, mockContext);
+            APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
             assertNotNull(response);
             assertEquals(201, response.getStatusCode());
         });
     }
 
     @Test
-    @DisplayName("不正なJSONでも例外が発生しないこと")
-    void shouldNotThrowExceptionWithInvalidJson() {
+    @DisplayName("不正なJSONでも例外が発生せず400エラーが返されること")
+    void shouldReturn400WithoutExceptionForInvalidJson() {
         // 不正なJSONリクエストボディ
         String invalidJson = "{invalid json}";
 
-        // CreateUserActionを実行（現在の実装では入力検証していないため例外は発生しない）
+        // CreateUserActionを実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = createUserAction.execute(invalidJson, mockContext);
+            APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, invalidJson, mockContext);
             assertNotNull(response);
-            assertEquals(201, response.getStatusCode());
+            assertEquals(400, response.getStatusCode());
+            assertTrue(response.getBody().contains("malformed JSON"));
         });
     }
 
     @Test
-    @DisplayName("長いリクエストボディでも処理が完了すること")
-    void shouldCompleteProcessingWithLongRequestBody() {
+    @DisplayName("長すぎる名前で400エラーとフィールドパスが返されること")
+    void shouldReturn400WithFieldPathForTooLongName() {
         // 非常に長いリクエストボディを作成
         String longRequestBody = "{\"name\":\"" + "LongName".repeat(1000) +
                 "\"}";
 
         // CreateUserActionを実行
-        APIGatewayProxyResponseEvent response = createUserAction.execute(longRequestBody, mockContext);
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, longRequestBody, mockContext);
 
-        // 正常に処理されることを検証
+        // フィールドパス付きのエラーが返されることを検証
         assertNotNull(response);
-        assertEquals(201, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"path\":\"$.name\""));
+    }
+
+    @Test
+    @DisplayName("必須項目の欠落と形式エラーがまとめて返されること")
+    void shouldReportMissingAndInvalidFieldsTogether() {
+        String requestBody = "{\"email\":\"not-an-email\",\"role\":\"Admin\"}";
+
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, mockContext);
+
+        assertEquals(400, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = gson.fromJson(response.getBody(), Map.class);
+        assertEquals("validation failed", body.get("error"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> details = (List<Map<String, String>>) body.get("details");
+        assertEquals(3, details.size());
+        assertEquals("$.email", details.get(0).get("path"));
+        assertEquals("$.role", details.get(1).get("path"));
+        assertEquals("$.name", details.get(2).get("path"));
     }
 
     @Test
@@ -213,9 +258,20 @@ class CreateUserActionTest {
 
         // nullコンテキストでの実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = createUserAction.execute(requestBody, null);
+            APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL, requestBody, null);
             assertNotNull(response);
             assertEquals(201, response.getStatusCode());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("作成したユーザーが呼び出し元の組織にだけ保存されること")
+    void createdUserIsStoredInCallerOrganization() {
+        APIGatewayProxyResponseEvent response = createUserAction.execute(PRINCIPAL,
+                "{\"name\":\"Taro Yamada\",\"email\":\"taro@example.com\",\"role\":\"editor\"}", mockContext);
+        String userId = (String) gson.fromJson(response.getBody(), Map.class).get("userId");
+
+        assertEquals(new UserRecord(userId, "Taro Yamada", "taro@example.com", "editor"), store.partition("org-abc").get(userId));
+        assertNull(store.partition("org-other").get(userId));
+    }
+}
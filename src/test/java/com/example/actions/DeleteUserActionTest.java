@@ -2,6 +2,9 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +21,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class DeleteUserActionTest {
 
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
     private DeleteUserAction deleteUserAction;
     
     @Mock
@@ -25,7 +31,8 @@ class DeleteUserActionTest {
 
     @BeforeEach
     void setUp() {
-        deleteUserAction = new DeleteUserAction();
+        store = new UserStore();
+        deleteUserAction = new DeleteUserAction(store);
     }
 
     @Test
@@ -34,7 +41,7 @@ class DeleteUserActionTest {
         String userId = "user-123";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // レスポンスを検証
         assertNotNull(response);
@@ -51,7 +58,7 @@ class DeleteUserActionTest {
 
         for (String userId : userIds) {
             // DeleteUserActionを実行
-            APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+            APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
             // レスポンスを検証
             assertNotNull(response);
@@ -66,7 +73,7 @@ class DeleteUserActionTest {
         String userId = "";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -80,7 +87,7 @@ class DeleteUserActionTest {
         String userId = null;
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -94,7 +101,7 @@ class DeleteUserActionTest {
         String userId = "user@example.com";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -108,7 +115,7 @@ class DeleteUserActionTest {
         String userId = "ユーザー001";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -123,7 +130,7 @@ class DeleteUserActionTest {
         String userId = "verylongid".repeat(100);
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -137,8 +144,8 @@ class DeleteUserActionTest {
         String userId = "consistency-test";
 
         // 複数回実行
-        APIGatewayProxyResponseEvent response1 = deleteUserAction.execute(userId, mockContext);
-        APIGatewayProxyResponseEvent response2 = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response1 = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
+        APIGatewayProxyResponseEvent response2 = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 同じ結果が返されることを検証
         assertEquals(response1.getStatusCode(), response2.getStatusCode());
@@ -153,7 +160,7 @@ class DeleteUserActionTest {
 
         // DeleteUserActionを実行（例外が発生しないことを確認）
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+            APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
             assertNotNull(response);
             assertEquals(204, response.getStatusCode());
         });
@@ -166,7 +173,7 @@ class DeleteUserActionTest {
 
         // nullコンテキストでの実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, null);
+            APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, null);
             assertNotNull(response);
             assertEquals(204, response.getStatusCode());
         });
@@ -178,7 +185,7 @@ class DeleteUserActionTest {
         String userId = "header-test";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // ヘッダーの確認（現在の実装では特別なヘッダーは設定されていない）
         // 必要に応じてCORSヘッダーなどが設定される可能性がある
@@ -192,9 +199,9 @@ class DeleteUserActionTest {
         String userId = "idempotency-test";
 
         // 同じユーザーIDで複数回削除を実行
-        APIGatewayProxyResponseEvent response1 = deleteUserAction.execute(userId, mockContext);
-        APIGatewayProxyResponseEvent response2 = deleteUserAction.execute(userId, mockContext);
-        APIGatewayProxyResponseEvent response3 = deleteUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response1 = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
+        APIGatewayProxyResponseEvent response2 = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
+        APIGatewayProxyResponseEvent response3 = deleteUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // すべて同じ結果が返されることを検証（冪等性）
         assertEquals(204, response1.getStatusCode());
@@ -212,7 +219,7 @@ class DeleteUserActionTest {
         String maliciousUserId = "'; DROP TABLE users; --";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(maliciousUserId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, maliciousUserId, mockContext);
 
         // 正常に処理されることを検証（現在の実装ではDBアクセスしていないが、セキュリティテスト）
         assertNotNull(response);
@@ -226,7 +233,7 @@ class DeleteUserActionTest {
         String uuidUserId = "550e8400-e29b-41d4-a716-446655440000";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(uuidUserId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, uuidUserId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -240,11 +247,25 @@ class DeleteUserActionTest {
         String numericUserId = "123456789";
 
         // DeleteUserActionを実行
-        APIGatewayProxyResponseEvent response = deleteUserAction.execute(numericUserId, mockContext);
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, numericUserId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
         assertEquals(204, response.getStatusCode());
         assertNull(response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("呼び出し元の組織のユーザーだけが削除されること")
+    void onlyUserOfCallerOrganizationIsDeleted() {
+        UserRecord user = new UserRecord("user-001", "Taro Yamada", "taro@example.com", "editor");
+        store.partition("org-abc").put(user);
+        store.partition("org-other").put(user);
+
+        APIGatewayProxyResponseEvent response = deleteUserAction.execute(PRINCIPAL, "user-001", mockContext);
+
+        assertEquals(204, response.getStatusCode());
+        assertNull(store.partition("org-abc").get("user-001"));
+        assertEquals(user, store.partition("org-other").get("user-001"));
+    }
+}
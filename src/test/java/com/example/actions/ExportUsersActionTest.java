@@ -0,0 +1,147 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.runtime.Deadline;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * ExportUsersActionクラスの単体テスト
+ * NDJSONによるユーザーの一括エクスポートとページングをテストします。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportUsersAction Tests")
+class ExportUsersActionTest {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
+    private ExportUsersAction exportUsersAction;
+
+    @Mock
+    private Context mockContext;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserStore();
+        exportUsersAction = new ExportUsersAction(store);
+        store.seedSampleUsers();
+        // 関数のTimeout（30秒）が丸ごと残っている呼び出しとして扱う
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(30_000);
+    }
+
+    @Test
+    @DisplayName("組織のユーザーがユーザーID順に1行ずつ出力されること")
+    void shouldExportUsersAsNdjson() {
+        store.partition("org-abc").put(new UserRecord("user-000", "Quote \"Q\"", null, null));
+        store.partition("org-xyz").put(new UserRecord("user-999", "Other", null, null));
+
+        APIGatewayProxyResponseEvent response = exportUsersAction.execute(PRINCIPAL, null, null, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().get("Content-Type"));
+        assertNull(response.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER));
+        assertEquals("""
+                {"userId":"user-000","name":"Quote \\"Q\\""}
+                {"userId":"user-001","name":"Taro Yamada","email":"taro@example.com","role":"editor"}
+                {"userId":"user-002","name":"Hanako Suzuki","email":"hanako@example.com","role":"viewer"}
+                """, response.getBody());
+    }
+
+    @Test
+    @DisplayName("期限を過ぎるとそこまでの行でページを終え、1行も書けない場合は503が返されること")
+    void shouldEndPageAtDeadline() {
+        UserPartition users = store.partition("org-abc");
+        for (int i = 0; i < ExportUsersAction.DEADLINE_CHECK_ROWS * 2; i++) {
+            users.put(new UserRecord(String.format("user-%05d", i), "User " + i, null, null));
+        }
+        AtomicLong nanos = new AtomicLong();
+        Deadline deadline = Deadline.after(10, nanos::get);
+        // 最初の確認の後に期限を過ぎる
+        nanos.set(Long.MAX_VALUE / 2);
+        APIGatewayProxyResponseEvent expired = exportUsersAction.execute(PRINCIPAL, null, null, deadline, mockContext);
+
+        AtomicLong reads = new AtomicLong();
+        Deadline slow = Deadline.after(10, () -> (reads.getAndIncrement() < 2) ? 0 : Long.MAX_VALUE / 2);
+        APIGatewayProxyResponseEvent partial = exportUsersAction.execute(PRINCIPAL, null, null, slow, mockContext);
+
+        assertEquals(503, expired.getStatusCode());
+        assertEquals(200, partial.getStatusCode());
+        assertEquals(ExportUsersAction.DEADLINE_CHECK_ROWS, partial.getBody().lines().count());
+        String lastLine = partial.getBody().lines().reduce((first, second) -> second).orElseThrow();
+        assertTrue(lastLine.startsWith("{\"userId\":\"" + partial.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER) + "\""));
+    }
+
+    @Test
+    @DisplayName("続きがある場合はカーソルが返され、次のページを取得できること")
+    void shouldPageWithCursor() {
+        APIGatewayProxyResponseEvent first = exportUsersAction.execute(PRINCIPAL, null, "1", mockContext);
+        String cursor = first.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER);
+        APIGatewayProxyResponseEvent second = exportUsersAction.execute(PRINCIPAL, cursor, "1", mockContext);
+
+        assertEquals("user-001", cursor);
+        assertTrue(second.getBody().startsWith("{\"userId\":\"user-002\""));
+        assertNull(second.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @DisplayName("マルチバイト文字を含むページがエスケープ後のUTF-8のバイト数でレスポンスの上限に収まること")
+    void shouldBudgetPageOnEmbeddedUtf8Bytes() {
+        UserPartition users = store.partition("org-abc");
+        String name = "山田\"太郎\"".repeat(50);
+        for (int i = 0; i < ExportUsersAction.MAX_PAGE_SIZE; i++) {
+            users.put(new UserRecord(String.format("user-%05d", i), name, null, null));
+        }
+
+        APIGatewayProxyResponseEvent response = exportUsersAction.execute(PRINCIPAL, null, null, mockContext);
+
+        String body = response.getBody();
+        int embedded = new Gson().toJson(body).getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(embedded <= ExportUsersAction.MAX_PAGE_BYTES, "embedded bytes: " + embedded);
+        assertTrue(embedded > ExportUsersAction.MAX_PAGE_BYTES - 2_000, "embedded bytes: " + embedded);
+        assertEquals(embedded - 2, ExportUsersAction.embeddedBytes(body, 0));
+        String lastLine = body.lines().reduce((first, second) -> second).orElseThrow();
+        assertTrue(lastLine.startsWith("{\"userId\":\"" + response.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER) + "\""));
+    }
+
+    @Test
+    @DisplayName("エクスポートした内容をそのまま別の組織に取り込めること")
+    void shouldRoundTripThroughImport() {
+        String exported = exportUsersAction.execute(PRINCIPAL, null, null, mockContext).getBody();
+        Principal other = new Principal("user-001", "admin", "org-xyz");
+
+        new ImportUsersAction(store).execute(other, exported, mockContext);
+
+        UserPartition imported = store.partition("org-xyz");
+        assertEquals(store.partition("org-abc").list(null, 10), imported.list(null, 10));
+    }
+
+    @Test
+    @DisplayName("行数の指定が不正な場合は400が返されること")
+    void shouldRejectInvalidLimit() {
+        assertEquals(400, exportUsersAction.execute(PRINCIPAL, null, "0", mockContext).getStatusCode());
+        assertEquals(400, exportUsersAction.execute(PRINCIPAL, null, "abc", mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元には403が返されること")
+    void shouldRejectPrincipalWithoutOrganization() {
+        assertEquals(403, exportUsersAction.execute(Principal.ANONYMOUS, null, null, mockContext).getStatusCode());
+    }
+}
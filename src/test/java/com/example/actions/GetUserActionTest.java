@@ -2,6 +2,9 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,6 +24,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class GetUserActionTest {
 
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
     private GetUserAction getUserAction;
     
     @Mock
@@ -30,7 +36,8 @@ class GetUserActionTest {
 
     @BeforeEach
     void setUp() {
-        getUserAction = new GetUserAction();
+        store = new UserStore();
+        getUserAction = new GetUserAction(store);
         gson = new Gson();
     }
 
@@ -38,9 +45,10 @@ class GetUserActionTest {
     @DisplayName("指定されたユーザーIDでユーザー取得が正常に完了すること")
     void userRetrievalWithSpecifiedUserIdCompletesSuccessfully() {
         String userId = "user-123";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // レスポンスを検証
         assertNotNull(response);
@@ -56,9 +64,10 @@ class GetUserActionTest {
     @DisplayName("レスポンスボディが正しいJSON形式であること")
     void responseBodyIsInCorrectJsonFormat() {
         String userId = "test-user-456";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // レスポンスボディをJSONとしてパース
         assertDoesNotThrow(() -> {
@@ -76,8 +85,10 @@ class GetUserActionTest {
         String[] userIds = {"user-001", "user-999", "admin-123"};
 
         for (String userId : userIds) {
+
+            seed(userId);
             // GetUserActionを実行
-            APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+            APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
             // レスポンスを検証
             assertNotNull(response);
@@ -92,9 +103,10 @@ class GetUserActionTest {
     @DisplayName("空文字のユーザーIDでも処理が完了すること")
     void emptyUserIdProcessingCompletes() {
         String userId = "";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -106,29 +118,27 @@ class GetUserActionTest {
     }
 
     @Test
-    @DisplayName("nullユーザーIDでも処理が完了すること")
-    void nullUserIdProcessingCompletes() {
+    @DisplayName("nullユーザーIDでは例外をスローせず404が返されること")
+    void nullUserIdReturnsNotFound() {
         String userId = null;
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
-        // 正常に処理されることを検証
+        // 存在しないユーザーとして処理されることを検証
         assertNotNull(response);
-        assertEquals(200, response.getStatusCode());
+        assertEquals(404, response.getStatusCode());
         assertNotNull(response.getBody());
-        
-        // nullがJSON文字列に含まれることを確認
-        assertTrue(response.getBody().contains("null"));
     }
 
     @Test
     @DisplayName("特殊文字を含むユーザーIDでも処理が完了すること")
     void userIdWithSpecialCharactersProcessingCompletes() {
         String userId = "user@example.com";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -143,9 +153,10 @@ class GetUserActionTest {
     @DisplayName("日本語のユーザーIDでも処理が完了すること")
     void japaneseUserIdProcessingCompletes() {
         String userId = "ユーザー001";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -161,9 +172,10 @@ class GetUserActionTest {
     void veryLongUserIdProcessingCompletes() {
         // 非常に長いユーザーIDを作成
         String userId = "verylongid".repeat(100);
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -175,9 +187,10 @@ class GetUserActionTest {
     @DisplayName("レスポンスボディの形式が正しいこと")
     void responseBodyFormatIsCorrect() {
         String userId = "format-test-user";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         String responseBody = response.getBody();
         
@@ -195,10 +208,11 @@ class GetUserActionTest {
     @DisplayName("複数回実行しても一貫した結果が返されること")
     void multipleExecutionsReturnConsistentResults() {
         String userId = "consistency-test";
+        seed(userId);
 
         // 複数回実行
-        APIGatewayProxyResponseEvent response1 = getUserAction.execute(userId, mockContext);
-        APIGatewayProxyResponseEvent response2 = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response1 = getUserAction.execute(PRINCIPAL, userId, mockContext);
+        APIGatewayProxyResponseEvent response2 = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 同じ結果が返されることを検証
         assertEquals(response1.getStatusCode(), response2.getStatusCode());
@@ -210,10 +224,11 @@ class GetUserActionTest {
     @DisplayName("Contextパラメータが正しく渡されること")
     void contextParameterIsPassedCorrectly() {
         String userId = "context-test";
+        seed(userId);
 
         // GetUserActionを実行（例外が発生しないことを確認）
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+            APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
             assertNotNull(response);
             assertEquals(200, response.getStatusCode());
         });
@@ -223,10 +238,11 @@ class GetUserActionTest {
     @DisplayName("nullContextでも例外が発生しないこと")
     void nullContextDoesNotThrowException() {
         String userId = "null-context-test";
+        seed(userId);
 
         // nullコンテキストでの実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = getUserAction.execute(userId, null);
+            APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, null);
             assertNotNull(response);
             assertEquals(200, response.getStatusCode());
         });
@@ -236,9 +252,10 @@ class GetUserActionTest {
     @DisplayName("JSONエスケープが必要な文字でも正しく処理されること")
     void charactersRequiringJsonEscapeAreProcessedCorrectly() {
         String userId = "user_with_underscore";
+        seed(userId);
 
         // GetUserActionを実行
-        APIGatewayProxyResponseEvent response = getUserAction.execute(userId, mockContext);
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, userId, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -251,4 +268,40 @@ class GetUserActionTest {
             assertEquals(userId, userMap.get("userId"));
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("存在しないユーザーIDでは404が返されること")
+    void unknownUserIdReturnsNotFound() {
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, "user-unknown", mockContext);
+
+        assertEquals(404, response.getStatusCode());
+        assertEquals("{\"error\":\"user not found\"}", response.getBody());
+    }
+
+    @Test
+    @DisplayName("他の組織のユーザーは取得できないこと")
+    void userOfAnotherOrganizationIsNotVisible() {
+        store.partition("org-other").put(new UserRecord("user-other", "Jiro Sato", "jiro@example.com", "viewer"));
+
+        APIGatewayProxyResponseEvent response = getUserAction.execute(PRINCIPAL, "user-other", mockContext);
+
+        assertEquals(404, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元には403が返されること")
+    void principalWithoutOrganizationIsForbidden() {
+        seed("user-001");
+
+        APIGatewayProxyResponseEvent response = getUserAction.execute(Principal.ANONYMOUS, "user-001", mockContext);
+
+        assertEquals(403, response.getStatusCode());
+    }
+
+    /**
+     * 呼び出し元の組織にユーザーを登録
+     */
+    private void seed(String userId) {
+        store.partition("org-abc").put(new UserRecord(userId, "Taro Yamada", "taro@example.com", "editor"));
+    }
+}
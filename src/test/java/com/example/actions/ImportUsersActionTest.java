@@ -0,0 +1,165 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.json.JsonCodecs;
+import com.example.model.FieldError;
+import com.example.model.ImportResponse;
+import com.example.runtime.Deadline;
+import com.example.store.UserPartition;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * ImportUsersActionクラスの単体テスト
+ * NDJSONによるユーザーの一括取り込みをテストします。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportUsersAction Tests")
+class ImportUsersActionTest {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
+    private ImportUsersAction importUsersAction;
+
+    @Mock
+    private Context mockContext;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserStore();
+        importUsersAction = new ImportUsersAction(store);
+        // 関数のTimeout（30秒）が丸ごと残っている呼び出しとして扱う
+        lenient().when(mockContext.getRemainingTimeInMillis()).thenReturn(30_000);
+    }
+
+    @Test
+    @DisplayName("各行のユーザーが呼び出し元の組織に登録されること")
+    void shouldImportEachLine() {
+        String body = "{\"userId\":\"user-001\",\"name\":\"Taro Yamada\",\"email\":\"taro@example.com\",\"role\":\"editor\"}\n"
+                + "{\"name\":\"Hanako Suzuki\"}\n";
+
+        APIGatewayProxyResponseEvent response = importUsersAction.execute(PRINCIPAL, body, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(new ImportResponse(2, 0, List.of()), JsonCodecs.fromJson(response.getBody(), ImportResponse.class));
+        UserPartition users = store.partition("org-abc");
+        assertEquals(new UserRecord("user-001", "Taro Yamada", "taro@example.com", "editor"), users.get("user-001"));
+        // userIdを省略した行には採番される
+        UserRecord generated = users.list("user-001", 10).get(0);
+        assertTrue(generated.userId().startsWith("user-"));
+        assertEquals("Hanako Suzuki", generated.name());
+        assertEquals(0, store.partition("org-xyz").size());
+    }
+
+    @Test
+    @DisplayName("検証に失敗した行は取り込まれず、行番号付きのエラーが返されること")
+    void shouldReportInvalidLinesWithLineNumbers() {
+        String body = "{\"userId\":\"user-001\",\"name\":\"Taro Yamada\"}\r\n"
+                + "\n"
+                + "{\"userId\":\"user-002\",\"email\":\"not-an-email\"}\n"
+                + "not json\n"
+                + "{\"userId\":\"user-003\",\"name\":\"Jiro Sato\"}";
+
+        APIGatewayProxyResponseEvent response = importUsersAction.execute(PRINCIPAL, body, mockContext);
+
+        ImportResponse result = JsonCodecs.fromJson(response.getBody(), ImportResponse.class);
+        assertEquals(200, response.getStatusCode());
+        assertEquals(2, result.imported());
+        assertEquals(2, result.failed());
+        assertTrue(result.errors().contains(new FieldError("3:$.email", "must be a valid email address")));
+        assertTrue(result.errors().contains(new FieldError("3:$.name", "is required")));
+        assertTrue(result.errors().stream().anyMatch(error -> error.path().startsWith("4:")));
+        assertNull(store.partition("org-abc").get("user-002"));
+        assertNotNull(store.partition("org-abc").get("user-003"));
+    }
+
+    @Test
+    @DisplayName("期限を過ぎると残りのチャンクを検証せず、何も書き込まずに503が返されること")
+    void shouldAbandonImportAtDeadline() {
+        int chunks = 10;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ImportUsersAction.CHUNK_LINES * chunks; i++) {
+            body.append(String.format("{\"userId\":\"user-%05d\",\"name\":\"User %d\"}%n", i, i));
+        }
+        // 時計を読むたびに10ミリ秒進め、各チャンクの検証に10ミリ秒かかる遅い処理を模擬する
+        AtomicLong clockReads = new AtomicLong();
+        long stepNanos = TimeUnit.MILLISECONDS.toNanos(10);
+        Deadline deadline = Deadline.after(35, () -> clockReads.getAndIncrement() * stepNanos);
+
+        APIGatewayProxyResponseEvent response = importUsersAction.execute(PRINCIPAL, body.toString(), deadline, mockContext);
+
+        assertEquals(503, response.getStatusCode());
+        assertEquals("1", response.getHeaders().get("Retry-After"));
+        assertEquals(0, store.partition("org-abc").size());
+        // 期限内に検証を始めたのは3チャンクだけで、期限後はどのチャンクも検証の前に打ち切られる
+        assertTrue(clockReads.get() <= 1 + chunks);
+    }
+
+    @Test
+    @DisplayName("複数のチャンクに分かれる取り込みでも全行が元の順序で反映されること")
+    void shouldImportAcrossChunksInLineOrder() {
+        int lines = ImportUsersAction.CHUNK_LINES * 3 + 7;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            body.append(String.format("{\"userId\":\"user-%05d\",\"name\":\"User %d\"}%n", i, i));
+        }
+        // 同じuserIdは後の行が残る
+        body.append("{\"userId\":\"user-00000\",\"name\":\"Last\"}\n");
+        body.append("{\"name\":\"\"}\n");
+
+        ImportResponse result = JsonCodecs.fromJson(
+                importUsersAction.execute(PRINCIPAL, body.toString(), mockContext).getBody(), ImportResponse.class);
+
+        assertEquals(lines + 1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(List.of(new FieldError((lines + 2) + ":$.name", "must not be empty")), result.errors());
+        assertEquals(lines, store.partition("org-abc").size());
+        assertEquals("Last", store.partition("org-abc").get("user-00000").name());
+    }
+
+    @Test
+    @DisplayName("エラーの件数が上限で打ち切られること")
+    void shouldCapReportedErrors() {
+        String body = "{}\n".repeat(ImportUsersAction.MAX_REPORTED_ERRORS + 50);
+
+        ImportResponse result = JsonCodecs.fromJson(
+                importUsersAction.execute(PRINCIPAL, body, mockContext).getBody(), ImportResponse.class);
+
+        assertEquals(0, result.imported());
+        assertEquals(ImportUsersAction.MAX_REPORTED_ERRORS + 50, result.failed());
+        assertEquals(ImportUsersAction.MAX_REPORTED_ERRORS, result.errors().size());
+    }
+
+    @Test
+    @DisplayName("空のボディでは400が返されること")
+    void shouldRejectEmptyBody() {
+        assertEquals(400, importUsersAction.execute(PRINCIPAL, null, mockContext).getStatusCode());
+        assertEquals(400, importUsersAction.execute(PRINCIPAL, " \n", mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元には403が返されること")
+    void shouldRejectPrincipalWithoutOrganization() {
+        APIGatewayProxyResponseEvent response = importUsersAction.execute(
+                Principal.ANONYMOUS, "{\"name\":\"Taro Yamada\"}", mockContext);
+
+        assertEquals(403, response.getStatusCode());
+        assertEquals(0, store.partitionCount());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ListChangesActionクラスの単体テスト
+ * オフセットによる変更の読み取りをテストします。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListChangesAction Tests")
+class ListChangesActionTest {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
+    private ListChangesAction listChangesAction;
+
+    @Mock
+    private Context mockContext;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserStore();
+        store.seedSampleUsers();
+        listChangesAction = new ListChangesAction(store);
+    }
+
+    @Test
+    @DisplayName("作成・更新・削除がオフセット順に返され、nextOffsetから続きを読めること")
+    void shouldReturnChangesFromOffset() {
+        store.partition("org-abc").update("user-002", current -> new UserRecord("user-002", "Hanako Sato", null, null));
+        store.partition("org-abc").remove("user-001");
+
+        APIGatewayProxyResponseEvent first = listChangesAction.execute(PRINCIPAL, null, "3", mockContext);
+
+        assertEquals(200, first.getStatusCode());
+        assertEquals("application/json", first.getHeaders().get("Content-Type"));
+        assertTrue(first.getBody().startsWith("{\"changes\":[{\"offset\":0,\"type\":\"created\",\"userId\":\"user-001\""),
+                first.getBody());
+        assertTrue(first.getBody().contains("{\"offset\":2,\"type\":\"updated\",\"userId\":\"user-002\""), first.getBody());
+        assertTrue(first.getBody().contains("\"user\":{\"userId\":\"user-002\",\"name\":\"Hanako Sato\""), first.getBody());
+        assertTrue(first.getBody().endsWith("],\"nextOffset\":3}"), first.getBody());
+
+        APIGatewayProxyResponseEvent rest = listChangesAction.execute(PRINCIPAL, "3", null, mockContext);
+
+        assertTrue(rest.getBody().matches(
+                "\\{\"changes\":\\[\\{\"offset\":3,\"type\":\"deleted\",\"userId\":\"user-001\",\"timestamp\":\\d+}],\"nextOffset\":4}"),
+                rest.getBody());
+
+        APIGatewayProxyResponseEvent caughtUp = listChangesAction.execute(PRINCIPAL, "4", null, mockContext);
+
+        assertEquals("{\"changes\":[],\"nextOffset\":4}", caughtUp.getBody());
+    }
+
+    @Test
+    @DisplayName("組織ごとに別のオフセットで記録されること")
+    void shouldKeepOffsetsPerOrganization() {
+        store.partition("org-xyz").put(new UserRecord("user-900", "Other", null, null));
+
+        APIGatewayProxyResponseEvent response = listChangesAction.execute(
+                new Principal("user-900", "admin", "org-xyz"), null, null, mockContext);
+
+        assertTrue(response.getBody().startsWith("{\"changes\":[{\"offset\":0,\"type\":\"created\",\"userId\":\"user-900\""),
+                response.getBody());
+        assertTrue(response.getBody().endsWith("],\"nextOffset\":1}"), response.getBody());
+    }
+
+    @Test
+    @DisplayName("不正なsince・limitには400が返されること")
+    void shouldRejectInvalidParameters() {
+        assertEquals(400, listChangesAction.execute(PRINCIPAL, "abc", null, mockContext).getStatusCode());
+        assertEquals(400, listChangesAction.execute(PRINCIPAL, "-1", null, mockContext).getStatusCode());
+        assertEquals(400, listChangesAction.execute(PRINCIPAL, "3", null, mockContext).getStatusCode());
+        assertEquals(400, listChangesAction.execute(PRINCIPAL, null, "0", mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元には403が返されること")
+    void shouldRejectPrincipalWithoutOrganization() {
+        assertEquals(403, listChangesAction.execute(Principal.ANONYMOUS, null, null, mockContext)
+                .getStatusCode());
+    }
+}
@@ -3,12 +3,19 @@ package com.example.actions;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import com.example.logging.StructuredLogger;
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -17,6 +24,9 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.lenient;
 
@@ -28,6 +38,9 @@ import static org.mockito.Mockito.lenient;
 @DisplayName("ListUsersAction Tests")
 class ListUsersActionTest {
 
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
     private ListUsersAction listUsersAction;
     
     @Mock
@@ -40,16 +53,22 @@ class ListUsersActionTest {
 
     @BeforeEach
     void setUp() {
-        listUsersAction = new ListUsersAction();
+        store = new UserStore();
+        store.partition("org-abc").put(new UserRecord("user-001", "Taro Yamada", "taro@example.com", "editor"));
+        store.partition("org-abc").put(new UserRecord("user-002", "Hanako Suzuki", "hanako@example.com", "viewer"));
+        listUsersAction = new ListUsersAction(store);
         gson = new Gson();
         lenient().when(mockContext.getLogger()).thenReturn(mockLogger);
+        lenient().when(mockContext.getAwsRequestId()).thenReturn("req-123");
+        // 他のテストで記録されたログを破棄
+        StructuredLogger.flush(null);
     }
 
     @Test
     @DisplayName("ユーザー一覧が正常に取得されること")
     void userListRetrievedSuccessfully() {
         // ListUsersActionを実行
-        APIGatewayProxyResponseEvent response = listUsersAction.execute(mockContext);
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, mockContext);
 
         // レスポンスを検証
         assertNotNull(response);
@@ -65,7 +84,7 @@ class ListUsersActionTest {
     @DisplayName("レスポンスボディが正しいJSON形式であること")
     void responseBodyIsCorrectJsonFormat() {
         // ListUsersActionを実行
-        APIGatewayProxyResponseEvent response = listUsersAction.execute(mockContext);
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, mockContext);
 
         // レスポンスボディをJSONとしてパース
         assertDoesNotThrow(() -> {
@@ -91,49 +110,63 @@ class ListUsersActionTest {
     @DisplayName("処理開始ログが出力されること")
     void processingStartLogIsOutput() {
         // ListUsersActionを実行
-        listUsersAction.execute(mockContext);
+        listUsersAction.execute(PRINCIPAL, mockContext);
 
         // ログ出力を検証
-        verify(mockLogger).log("--- ListUsersAction: Processing started ---");
+        JsonObject log = flushedLogs().get(0);
+        assertEquals("INFO", log.get("level").getAsString());
+        assertEquals("ListUsersAction", log.get("logger").getAsString());
+        assertEquals("req-123", log.get("requestId").getAsString());
+        assertEquals("list users started", log.get("message").getAsString());
+        assertEquals("org-abc", log.get("organizationId").getAsString());
     }
 
     @Test
     @DisplayName("処理完了ログが出力されること")
     void processingCompletionLogIsOutput() {
         // ListUsersActionを実行
-        listUsersAction.execute(mockContext);
+        listUsersAction.execute(PRINCIPAL, mockContext);
 
-        // ログ出力を検証
-        verify(mockLogger).log("Successfully retrieved 2 users.");
+        // ログ出力を検証（件数はフィールドとして出力される）
+        JsonObject log = flushedLogs().get(1);
+        assertEquals("users retrieved", log.get("message").getAsString());
+        assertEquals(2, log.get("count").getAsInt());
     }
 
     @Test
     @DisplayName("処理終了ログが出力されること")
     void processingEndLogIsOutput() {
         // ListUsersActionを実行
-        APIGatewayProxyResponseEvent response = listUsersAction.execute(mockContext);
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, mockContext);
 
         // ログ出力を検証
-        verify(mockLogger).log("--- ListUsersAction: Processing finished. Status code: " + 
-                              response.getStatusCode() + " ---");
+        JsonObject log = flushedLogs().get(2);
+        assertEquals("list users finished", log.get("message").getAsString());
+        assertEquals(response.getStatusCode(), log.get("statusCode").getAsInt());
     }
 
     @Test
-    @DisplayName("ContextのLoggerが正しく取得されること")
-    void loggerRetrievedCorrectlyFromContext() {
+    @DisplayName("ログはフラッシュされるまでLoggerに出力されないこと")
+    void logsAreDeferredUntilFlush() {
         // ListUsersActionを実行
-        listUsersAction.execute(mockContext);
+        listUsersAction.execute(PRINCIPAL, mockContext);
+
+        // 実行中はLoggerを取得せず、文字列も出力しない
+        verify(mockContext, never()).getLogger();
+        verify(mockLogger, never()).log(anyString());
 
-        // Contextからloggerが取得されることを検証
+        // フラッシュ時にまとめて出力される
+        StructuredLogger.flush(mockContext);
         verify(mockContext).getLogger();
+        verify(mockLogger, times(3)).log(anyString());
     }
 
     @Test
     @DisplayName("レスポンスが一貫して同じ内容であること")
     void responseIsConsistentlySameContent() {
         // 複数回実行して同じ結果が返されることを確認
-        APIGatewayProxyResponseEvent response1 = listUsersAction.execute(mockContext);
-        APIGatewayProxyResponseEvent response2 = listUsersAction.execute(mockContext);
+        APIGatewayProxyResponseEvent response1 = listUsersAction.execute(PRINCIPAL, mockContext);
+        APIGatewayProxyResponseEvent response2 = listUsersAction.execute(PRINCIPAL, mockContext);
 
         assertEquals(response1.getStatusCode(), response2.getStatusCode());
         assertEquals(response1.getBody(), response2.getBody());
@@ -144,7 +177,7 @@ class ListUsersActionTest {
     @DisplayName("レスポンスボディに期待されるユーザー情報が含まれていること")
     void responseBodyContainsExpectedUserInfo() {
         // ListUsersActionを実行
-        APIGatewayProxyResponseEvent response = listUsersAction.execute(mockContext);
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, mockContext);
 
         String responseBody = response.getBody();
         
@@ -164,7 +197,7 @@ class ListUsersActionTest {
     void noExceptionOccurs() {
         // ListUsersActionの実行で例外が発生しないことを確認
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = listUsersAction.execute(mockContext);
+            APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, mockContext);
             assertNotNull(response);
         });
     }
@@ -172,8 +205,155 @@ class ListUsersActionTest {
     @Test
     @DisplayName("nullコンテキストでも例外が発生しないこと")
     void shouldNotThrowExceptionWithNullContext() {
-        // nullコンテキストでは実際にはNullPointerExceptionが発生するが、
-        // 実装を修正する必要がある。現在の実装では例外が発生する
-        assertThrows(NullPointerException.class, () -> listUsersAction.execute(null));
+        // ログはバッファに記録されるだけなので、コンテキストを参照しない
+        assertDoesNotThrow(() -> listUsersAction.execute(PRINCIPAL, null));
+        assertDoesNotThrow(() -> StructuredLogger.flush(null));
+    }
+
+    /**
+     * 記録されたログをフラッシュし、出力されたJSON行をパース
+     */
+    private List<JsonObject> flushedLogs() {
+        StructuredLogger.flush(mockContext);
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mockLogger, times(3)).log(captor.capture());
+        return captor.getAllValues().stream()
+                .map(line -> JsonParser.parseString(line).getAsJsonObject())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("書き込みが無い間は組み立て済みのボディが共有され、書き込み後は新しい内容が返されること")
+    void bodyIsSharedUntilPartitionChanges() {
+        String first = listUsersAction.execute(PRINCIPAL, mockContext).getBody();
+        String second = new ListUsersAction(store).execute(PRINCIPAL, mockContext).getBody();
+
+        assertSame(first, second);
+        assertEquals(1, store.partition("org-abc").firstPage().loads());
+        assertEquals(1, store.partition("org-abc").firstPage().shared());
+
+        store.partition("org-abc").remove("user-002");
+        String afterWrite = listUsersAction.execute(PRINCIPAL, mockContext).getBody();
+
+        assertTrue(afterWrite.contains("user-001"));
+        assertFalse(afterWrite.contains("user-002"));
+        assertEquals(2, store.partition("org-abc").firstPage().loads());
+    }
+
+    @Test
+    @DisplayName("呼び出し元の組織のユーザーだけが返されること")
+    void onlyUsersOfCallerOrganizationAreReturned() {
+        store.partition("org-other").put(new UserRecord("user-003", "Jiro Sato", "jiro@example.com", "viewer"));
+
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, mockContext);
+
+        assertTrue(response.getBody().contains("user-002"));
+        assertFalse(response.getBody().contains("user-003"));
+    }
+
+    @Test
+    @DisplayName("1回のレスポンスはユーザーID順に最大件数までであること")
+    void responseIsLimitedToPageSizeInUserIdOrder() {
+        for (int i = 0; i < ListUsersAction.PAGE_SIZE + 10; i++) {
+            store.partition("org-large").put(new UserRecord(String.format("user-%04d", i), "User " + i, null, null));
+        }
+
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(
+                new Principal("user-0000", "admin", "org-large"), mockContext);
+
+        Type listType = new TypeToken<List<Map<String, String>>>(){}.getType();
+        List<Map<String, String>> users = gson.fromJson(response.getBody(), listType);
+        assertEquals(ListUsersAction.PAGE_SIZE, users.size());
+        assertEquals("user-0000", users.getFirst().get("userId"));
+        assertEquals(String.format("user-%04d", ListUsersAction.PAGE_SIZE - 1), users.getLast().get("userId"));
+    }
+
+    @Test
+    @DisplayName("続きがある場合はカーソルが返され、afterで次のページを取得できること")
+    void shouldPageWithCursor() {
+        for (int i = 0; i < ListUsersAction.PAGE_SIZE + 10; i++) {
+            store.partition("org-large").put(new UserRecord(String.format("user-%04d", i), "User " + i, null, null));
+        }
+        Principal principal = new Principal("user-0000", "admin", "org-large");
+
+        APIGatewayProxyResponseEvent first = listUsersAction.execute(principal, mockContext);
+        String cursor = first.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER);
+        APIGatewayProxyResponseEvent second = listUsersAction.execute(principal, null, cursor, mockContext);
+
+        Type listType = new TypeToken<List<Map<String, String>>>(){}.getType();
+        List<Map<String, String>> rest = gson.fromJson(second.getBody(), listType);
+        assertEquals(String.format("user-%04d", ListUsersAction.PAGE_SIZE - 1), cursor);
+        assertEquals(10, rest.size());
+        assertEquals(String.format("user-%04d", ListUsersAction.PAGE_SIZE), rest.getFirst().get("userId"));
+        assertNull(second.getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER));
+        assertNull(listUsersAction.execute(PRINCIPAL, mockContext).getHeaders().get(ExportUsersAction.NEXT_CURSOR_HEADER));
+        assertEquals(400, listUsersAction.execute(principal, "0", cursor, mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("sinceを指定すると、それ以降に変更・削除されたユーザーだけと新しいwatermarkが返されること")
+    void deltaSyncReturnsOnlyChangesSinceWatermark() {
+        store.partition("org-abc").update("user-002", current -> new UserRecord("user-002", "Hanako Sato", null, null));
+        store.partition("org-abc").put(new UserRecord("user-003", "Jiro Sato", "jiro@example.com", "viewer"));
+        store.partition("org-abc").update("user-003", current -> new UserRecord("user-003", "Jiro Sato", null, "admin"));
+        store.partition("org-abc").remove("user-001");
+
+        APIGatewayProxyResponseEvent response = listUsersAction.execute(PRINCIPAL, "2", null, mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        // 2回変更されたuser-003は最後の値だけが返される
+        assertEquals("{\"users\":["
+                + "{\"userId\":\"user-002\",\"name\":\"Hanako Sato\"},"
+                + "{\"userId\":\"user-003\",\"name\":\"Jiro Sato\",\"role\":\"admin\"}],"
+                + "\"deleted\":[\"user-001\"],\"watermark\":6,\"hasMore\":false}", response.getBody());
+
+        APIGatewayProxyResponseEvent caughtUp = listUsersAction.execute(PRINCIPAL, "6", null, mockContext);
+
+        assertEquals("{\"users\":[],\"deleted\":[],\"watermark\":6,\"hasMore\":false}", caughtUp.getBody());
+    }
+
+    @Test
+    @DisplayName("差分が最大件数を超える場合はhasMoreが返され、watermarkから続きを取得できること")
+    void deltaSyncIsPagedByWatermark() {
+        for (int i = 0; i < ListUsersAction.PAGE_SIZE + 10; i++) {
+            store.partition("org-large").put(new UserRecord(String.format("user-%04d", i), "User " + i, null, null));
+        }
+        Principal principal = new Principal("user-0000", "admin", "org-large");
+
+        JsonObject first = JsonParser.parseString(listUsersAction.execute(principal, "0", null, mockContext).getBody())
+                .getAsJsonObject();
+        JsonObject rest = JsonParser.parseString(listUsersAction.execute(
+                principal, first.get("watermark").getAsString(), null, mockContext).getBody()).getAsJsonObject();
+
+        assertEquals(ListUsersAction.PAGE_SIZE, first.getAsJsonArray("users").size());
+        assertTrue(first.get("hasMore").getAsBoolean());
+        assertEquals(ListUsersAction.PAGE_SIZE, first.get("watermark").getAsLong());
+        assertEquals(10, rest.getAsJsonArray("users").size());
+        assertEquals(String.format("user-%04d", ListUsersAction.PAGE_SIZE),
+                rest.getAsJsonArray("users").get(0).getAsJsonObject().get("userId").getAsString());
+        assertFalse(rest.get("hasMore").getAsBoolean());
+        assertEquals(ListUsersAction.PAGE_SIZE + 10, rest.get("watermark").getAsLong());
+    }
+
+    @Test
+    @DisplayName("不正なsinceやこれまでのwatermarkより大きいsinceには400が返されること")
+    void deltaSyncRejectsInvalidSince() {
+        assertEquals(400, listUsersAction.execute(PRINCIPAL, "abc", null, mockContext).getStatusCode());
+        assertEquals(400, listUsersAction.execute(PRINCIPAL, "-1", null, mockContext).getStatusCode());
+        assertEquals(400, listUsersAction.execute(PRINCIPAL, "3", null, mockContext).getStatusCode());
+        assertEquals(200, listUsersAction.execute(PRINCIPAL, "2", null, mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("トゥームストーンが取り除かれた範囲のsinceには410が返され、since=0からは同期し直せること")
+    void deltaSyncRejectsWatermarkBeforeCompaction() {
+        store.partition("org-abc").remove("user-001");
+        store.partition("org-abc").compactTombstones(Long.MAX_VALUE, 10);
+
+        assertEquals(410, listUsersAction.execute(PRINCIPAL, "1", null, mockContext).getStatusCode());
+        assertEquals(200, listUsersAction.execute(PRINCIPAL, "3", null, mockContext).getStatusCode());
+        APIGatewayProxyResponseEvent resync = listUsersAction.execute(PRINCIPAL, "0", null, mockContext);
+        assertEquals(200, resync.getStatusCode());
+        assertTrue(resync.getBody().endsWith("\"deleted\":[],\"watermark\":3,\"hasMore\":false}"), resync.getBody());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.example.actions;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MultiGetUsersActionクラスの単体テスト
+ * 複数のユーザーIDによる一括取得と、結果の並び順をテストします。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MultiGetUsersAction Tests")
+class MultiGetUsersActionTest {
+
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
+    private MultiGetUsersAction multiGetUsersAction;
+
+    @Mock
+    private Context mockContext;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserStore();
+        store.seedSampleUsers();
+        multiGetUsersAction = new MultiGetUsersAction(store);
+    }
+
+    @Test
+    @DisplayName("指定した順に重複を除いて返され、存在しないIDにはnot_foundが返されること")
+    void shouldReturnUsersInRequestOrder() {
+        store.partition("org-xyz").put(new UserRecord("user-003", "Other", null, null));
+
+        APIGatewayProxyResponseEvent response =
+                multiGetUsersAction.execute(PRINCIPAL, "user-002, user-404,user-001,,user-002,user-003", mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/json", response.getHeaders().get("Content-Type"));
+        assertEquals("["
+                + "{\"userId\":\"user-002\",\"name\":\"Hanako Suzuki\",\"email\":\"hanako@example.com\",\"role\":\"viewer\"},"
+                + "{\"userId\":\"user-404\",\"status\":\"not_found\"},"
+                + "{\"userId\":\"user-001\",\"name\":\"Taro Yamada\",\"email\":\"taro@example.com\",\"role\":\"editor\"},"
+                + "{\"userId\":\"user-003\",\"status\":\"not_found\"}]", response.getBody());
+    }
+
+    @Test
+    @DisplayName("重複を除いて上限までのIDは受け付け、超える場合は400が返されること")
+    void shouldLimitNumberOfIds() {
+        String atLimit = IntStream.range(0, MultiGetUsersAction.MAX_IDS)
+                .mapToObj(i -> "user-" + i).collect(Collectors.joining(","));
+
+        assertEquals(200, multiGetUsersAction.execute(PRINCIPAL, atLimit + ",user-0", mockContext).getStatusCode());
+        assertEquals(400, multiGetUsersAction.execute(PRINCIPAL, atLimit + ",user-x", mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("IDが空の場合は400が返されること")
+    void shouldRejectEmptyIds() {
+        assertEquals(400, multiGetUsersAction.execute(PRINCIPAL, "", mockContext).getStatusCode());
+        assertEquals(400, multiGetUsersAction.execute(PRINCIPAL, " , ", mockContext).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元には403が返されること")
+    void shouldRejectPrincipalWithoutOrganization() {
+        assertEquals(403, multiGetUsersAction.execute(Principal.ANONYMOUS, "user-001", mockContext).getStatusCode());
+    }
+}
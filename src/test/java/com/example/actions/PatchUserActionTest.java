@@ -2,6 +2,9 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,6 +24,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class PatchUserActionTest {
 
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
     private PatchUserAction patchUserAction;
     
     @Mock
@@ -30,7 +36,8 @@ class PatchUserActionTest {
 
     @BeforeEach
     void setUp() {
-        patchUserAction = new PatchUserAction();
+        store = new UserStore();
+        patchUserAction = new PatchUserAction(store);
         gson = new Gson();
     }
 
@@ -38,10 +45,11 @@ class PatchUserActionTest {
     @DisplayName("ユーザー部分更新が正常に完了すること")
     void userPartialUpdateCompletesSuccessfully() {
         String userId = "user-123";
+        seed(userId);
         String requestBody = "{\"email\":\"patched@example.com\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // レスポンスを検証
         assertNotNull(response);
@@ -57,10 +65,11 @@ class PatchUserActionTest {
     @DisplayName("レスポンスボディが正しいJSON形式であること")
     void responseBodyIsInCorrectJsonFormat() {
         String userId = "test-user-456";
+        seed(userId);
         String requestBody = "{\"name\":\"Patched Name\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // レスポンスボディをJSONとしてパース
         assertDoesNotThrow(() -> {
@@ -79,8 +88,10 @@ class PatchUserActionTest {
         String requestBody = "{\"role\":\"updated_role\"}";
 
         for (String userId : userIds) {
+
+            seed(userId);
             // PatchUserActionを実行
-            APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+            APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
             // レスポンスを検証
             assertNotNull(response);
@@ -96,10 +107,11 @@ class PatchUserActionTest {
     @DisplayName("単一フィールドのパッチが正しく処理されること")
     void singleFieldPatchIsProcessedCorrectly() {
         String userId = "single-field-user";
+        seed(userId);
         String requestBody = "{\"email\":\"new@example.com\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -112,6 +124,7 @@ class PatchUserActionTest {
     @DisplayName("複数フィールドのパッチが正しく処理されること")
     void multipleFieldPatchIsProcessedCorrectly() {
         String userId = "multi-field-user";
+        seed(userId);
         String requestBody = """
                 {
                   "email": "multi@example.com",
@@ -120,7 +133,7 @@ class PatchUserActionTest {
                 }""";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -132,10 +145,11 @@ class PatchUserActionTest {
     @DisplayName("空のリクエストボディでも処理が完了すること")
     void emptyRequestBodyProcessingCompletes() {
         String userId = "empty-body-user";
+        seed(userId);
         String requestBody = "";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証（現在の実装ではリクエストボディを使用していない）
         assertNotNull(response);
@@ -147,10 +161,11 @@ class PatchUserActionTest {
     @DisplayName("nullリクエストボディでも処理が完了すること")
     void nullRequestBodyProcessingCompletes() {
         String userId = "null-body-user";
+        seed(userId);
         String requestBody = null;
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -159,27 +174,25 @@ class PatchUserActionTest {
     }
 
     @Test
-    @DisplayName("nullユーザーIDでも処理が完了すること")
-    void nullUserIdProcessingCompletes() {
+    @DisplayName("nullユーザーIDでは例外をスローせず404が返されること")
+    void nullUserIdReturnsNotFound() {
         String userId = null;
         String requestBody = "{\"name\":\"Null User ID Test\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
-        // 正常に処理されることを検証
+        // 存在しないユーザーとして処理されることを検証
         assertNotNull(response);
-        assertEquals(200, response.getStatusCode());
+        assertEquals(404, response.getStatusCode());
         assertNotNull(response.getBody());
-        
-        // nullがJSON文字列に含まれることを確認
-        assertTrue(response.getBody().contains("null"));
     }
 
     @Test
     @DisplayName("ネストされたJSONオブジェクトでも処理が完了すること")
     void nestedJsonObjectProcessingCompletes() {
         String userId = "nested-json-user";
+        seed(userId);
         String requestBody = """
                 {
                   "profile": {
@@ -195,7 +208,7 @@ class PatchUserActionTest {
                 }""";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -207,6 +220,7 @@ class PatchUserActionTest {
     @DisplayName("配列を含むJSONでも処理が完了すること")
     void jsonWithArraysProcessingCompletes() {
         String userId = "array-json-user";
+        seed(userId);
         String requestBody = """
                 {
                   "skills": ["Java", "Python", "JavaScript"],
@@ -217,7 +231,7 @@ class PatchUserActionTest {
                 }""";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -229,10 +243,11 @@ class PatchUserActionTest {
     @DisplayName("日本語を含むデータでも処理が完了すること")
     void dataWithJapaneseCharactersProcessingCompletes() {
         String userId = "ユーザー002";
+        seed(userId);
         String requestBody = "{\"氏名\":\"佐藤次郎\",\"部署\":\"営業部\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -247,10 +262,11 @@ class PatchUserActionTest {
     @DisplayName("レスポンスボディの形式が正しいこと")
     void responseBodyFormatIsCorrect() {
         String userId = "format-test";
+        seed(userId);
         String requestBody = "{\"test\":\"format\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         String responseBody = response.getBody();
         
@@ -268,11 +284,12 @@ class PatchUserActionTest {
     @DisplayName("複数回実行しても一貫した結果が返されること")
     void multipleExecutionsReturnConsistentResults() {
         String userId = "consistency-test";
+        seed(userId);
         String requestBody = "{\"email\":\"consistent@example.com\"}";
 
         // 複数回実行
-        APIGatewayProxyResponseEvent response1 = patchUserAction.execute(userId, requestBody, mockContext);
-        APIGatewayProxyResponseEvent response2 = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response1 = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response2 = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 同じ結果が返されることを検証
         assertEquals(response1.getStatusCode(), response2.getStatusCode());
@@ -284,11 +301,12 @@ class PatchUserActionTest {
     @DisplayName("Contextパラメータが正しく渡されること")
     void contextParameterIsPassedCorrectly() {
         String userId = "context-test";
+        seed(userId);
         String requestBody = "{\"context\":\"test\"}";
 
         // PatchUserActionを実行（例外が発生しないことを確認）
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+            APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
             assertNotNull(response);
             assertEquals(200, response.getStatusCode());
         });
@@ -298,38 +316,42 @@ class PatchUserActionTest {
     @DisplayName("nullContextでも例外が発生しないこと")
     void nullContextDoesNotThrowException() {
         String userId = "null-context-test";
+        seed(userId);
         String requestBody = "{\"null\":\"context\"}";
 
         // nullコンテキストでの実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, null);
+            APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, null);
             assertNotNull(response);
             assertEquals(200, response.getStatusCode());
         });
     }
 
     @Test
-    @DisplayName("不正なJSONでも例外が発生しないこと")
+    @DisplayName("不正なJSONでも例外が発生せず400が返されること")
     void invalidJsonDoesNotThrowException() {
         String userId = "invalid-json-test";
+        seed(userId);
         String invalidJson = "{invalid: json without quotes}";
 
-        // PatchUserActionを実行（現在の実装では入力検証していないため例外は発生しない）
+        // PatchUserActionを実行（解析できないボディは変更せずに400を返す）
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, invalidJson, mockContext);
+            APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, invalidJson, mockContext);
             assertNotNull(response);
-            assertEquals(200, response.getStatusCode());
+            assertEquals(400, response.getStatusCode());
         });
+        assertEquals("Taro Yamada", store.partition("org-abc").get(userId).name());
     }
 
     @Test
     @DisplayName("特殊文字を含むユーザーIDでも処理が完了すること")
     void userIdWithSpecialCharactersProcessingCompletes() {
         String userId = "user+special@example.com";
+        seed(userId);
         String requestBody = "{\"email\":\"special@example.com\"}";
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -341,6 +363,7 @@ class PatchUserActionTest {
     @DisplayName("大きなJSONペイロードでも処理が完了すること")
     void largeJsonPayloadProcessingCompletes() {
         String userId = "large-payload-user";
+        seed(userId);
         
         // 大きなJSONペイロードを作成
         StringBuilder largeJson = new StringBuilder("{");
@@ -351,11 +374,57 @@ class PatchUserActionTest {
         largeJson.append("}");
 
         // PatchUserActionを実行
-        APIGatewayProxyResponseEvent response = patchUserAction.execute(userId, largeJson.toString(), mockContext);
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, userId, largeJson.toString(), mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
         assertEquals(200, response.getStatusCode());
         assertNotNull(response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("送信したフィールドだけが更新され、その他のフィールドは維持されること")
+    void onlyPatchedFieldsAreUpdated() {
+        seed("user-001");
+
+        patchUserAction.execute(PRINCIPAL, "user-001", "{\"role\":\"viewer\"}", mockContext);
+
+        assertEquals(new UserRecord("user-001", "Taro Yamada", "taro@example.com", "viewer"),
+                store.partition("org-abc").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("指定されたフィールドがPOST・PUTと同じルールで検証され、違反がある場合は変更されずに400が返されること")
+    void invalidPatchedFieldsAreRejected() {
+        seed("user-001");
+
+        APIGatewayProxyResponseEvent response = patchUserAction.execute(PRINCIPAL, "user-001",
+                "{\"name\":\"\",\"email\":\"not-an-email\",\"role\":\"Admin\"}", mockContext);
+
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"path\":\"$.name\""));
+        assertTrue(response.getBody().contains("\"path\":\"$.email\""));
+        assertTrue(response.getBody().contains("\"path\":\"$.role\""));
+        assertEquals(400, patchUserAction.execute(PRINCIPAL, "user-001",
+                "{\"name\":\"" + "x".repeat(101) + "\"}", mockContext).getStatusCode());
+        assertEquals(new UserRecord("user-001", "Taro Yamada", "taro@example.com", "editor"),
+                store.partition("org-abc").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーや他の組織のユーザーには404が返されること")
+    void unknownOrOtherOrganizationUserReturnsNotFound() {
+        store.partition("org-other").put(new UserRecord("user-other", "Jiro Sato", "jiro@example.com", "viewer"));
+
+        assertEquals(404, patchUserAction.execute(PRINCIPAL, "user-unknown", "{\"role\":\"viewer\"}", mockContext).getStatusCode());
+        assertEquals(404, patchUserAction.execute(PRINCIPAL, "user-other", "{\"role\":\"admin\"}", mockContext).getStatusCode());
+        assertEquals("viewer", store.partition("org-other").get("user-other").role());
+    }
+
+    /**
+     * 呼び出し元の組織にユーザーを登録
+     */
+    private void seed(String userId) {
+        store.partition("org-abc").put(new UserRecord(userId, "Taro Yamada", "taro@example.com", "editor"));
+    }
+}
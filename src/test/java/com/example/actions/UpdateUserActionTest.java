@@ -2,6 +2,9 @@ package com.example.actions;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.auth.Principal;
+import com.example.store.UserRecord;
+import com.example.store.UserStore;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,6 +24,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class UpdateUserActionTest {
 
+    private static final Principal PRINCIPAL = new Principal("user-001", "admin", "org-abc");
+
+    private UserStore store;
     private UpdateUserAction updateUserAction;
     
     @Mock
@@ -30,7 +36,8 @@ class UpdateUserActionTest {
 
     @BeforeEach
     void setUp() {
-        updateUserAction = new UpdateUserAction();
+        store = new UserStore();
+        updateUserAction = new UpdateUserAction(store);
         gson = new Gson();
     }
 
@@ -41,7 +48,7 @@ class UpdateUserActionTest {
         String requestBody = "{\"name\":\"Updated User\",\"email\":\"updated@example.com\"}";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // レスポンスを検証
         assertNotNull(response);
@@ -60,7 +67,7 @@ class UpdateUserActionTest {
         String requestBody = "{\"name\":\"Test User\"}";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // レスポンスボディをJSONとしてパース
         assertDoesNotThrow(() -> {
@@ -80,7 +87,7 @@ class UpdateUserActionTest {
 
         for (String userId : userIds) {
             // UpdateUserActionを実行
-            APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+            APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
             // レスポンスを検証
             assertNotNull(response);
@@ -93,51 +100,60 @@ class UpdateUserActionTest {
     }
 
     @Test
-    @DisplayName("空のリクエストボディでも処理が完了すること")
-    void emptyRequestBodyProcessingCompletes() {
+    @DisplayName("空のリクエストボディで400エラーが返されること")
+    void emptyRequestBodyReturns400() {
         String userId = "user-empty-body";
         String requestBody = "";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
-        // 正常に処理されることを検証（現在の実装ではリクエストボディを使用していない）
+        // ボディ必須のエラーが返されることを検証
         assertNotNull(response);
-        assertEquals(200, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("request body is required"));
     }
 
     @Test
-    @DisplayName("nullリクエストボディでも処理が完了すること")
-    void nullRequestBodyProcessingCompletes() {
+    @DisplayName("nullリクエストボディで400エラーが返されること")
+    void nullRequestBodyReturns400() {
         String userId = "user-null-body";
         String requestBody = null;
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
-        // 正常に処理されることを検証
+        // 400エラーが返されることを検証
         assertNotNull(response);
-        assertEquals(200, response.getStatusCode());
+        assertEquals(400, response.getStatusCode());
         assertNotNull(response.getBody());
     }
 
     @Test
-    @DisplayName("nullユーザーIDでも処理が完了すること")
-    void nullUserIdProcessingCompletes() {
+    @DisplayName("完全更新でnameが欠けている場合は400エラーが返されること")
+    void missingNameInFullUpdateReturns400() {
+        String requestBody = "{\"email\":\"new@example.com\"}";
+
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, "user-123", requestBody, mockContext);
+
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"path\":\"$.name\""));
+        assertTrue(response.getBody().contains("is required"));
+    }
+
+    @Test
+    @DisplayName("nullユーザーIDでは例外をスローせず404が返されること")
+    void nullUserIdReturnsNotFound() {
         String userId = null;
         String requestBody = "{\"name\":\"Test User\"}";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
-        // 正常に処理されることを検証
+        // 保存せずに処理が完了することを検証
         assertNotNull(response);
-        assertEquals(200, response.getStatusCode());
+        assertEquals(404, response.getStatusCode());
         assertNotNull(response.getBody());
-        
-        // nullがJSON文字列に含まれることを確認
-        assertTrue(response.getBody().contains("null"));
     }
 
     @Test
@@ -157,7 +173,7 @@ class UpdateUserActionTest {
                 }""";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -172,7 +188,7 @@ class UpdateUserActionTest {
         String requestBody = "{\"name\":\"山田太郎\",\"department\":\"技術部\"}";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -190,7 +206,7 @@ class UpdateUserActionTest {
         String requestBody = "{\"name\":\"Format Test User\"}";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         String responseBody = response.getBody();
         
@@ -211,8 +227,8 @@ class UpdateUserActionTest {
         String requestBody = "{\"name\":\"Consistent User\"}";
 
         // 複数回実行
-        APIGatewayProxyResponseEvent response1 = updateUserAction.execute(userId, requestBody, mockContext);
-        APIGatewayProxyResponseEvent response2 = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response1 = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response2 = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 同じ結果が返されることを検証
         assertEquals(response1.getStatusCode(), response2.getStatusCode());
@@ -228,7 +244,7 @@ class UpdateUserActionTest {
 
         // UpdateUserActionを実行（例外が発生しないことを確認）
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+            APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
             assertNotNull(response);
             assertEquals(200, response.getStatusCode());
         });
@@ -242,23 +258,23 @@ class UpdateUserActionTest {
 
         // nullコンテキストでの実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, null);
+            APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, null);
             assertNotNull(response);
             assertEquals(200, response.getStatusCode());
         });
     }
 
     @Test
-    @DisplayName("不正なJSONでも例外が発生しないこと")
-    void invalidJsonDoesNotThrowException() {
+    @DisplayName("不正なJSONでも例外が発生せず400エラーが返されること")
+    void invalidJsonReturns400WithoutException() {
         String userId = "invalid-json-test";
         String invalidJson = "{invalid json}";
 
-        // UpdateUserActionを実行（現在の実装では入力検証していないため例外は発生しない）
+        // UpdateUserActionを実行
         assertDoesNotThrow(() -> {
-            APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, invalidJson, mockContext);
+            APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, invalidJson, mockContext);
             assertNotNull(response);
-            assertEquals(200, response.getStatusCode());
+            assertEquals(400, response.getStatusCode());
         });
     }
 
@@ -266,10 +282,10 @@ class UpdateUserActionTest {
     @DisplayName("特殊文字を含むユーザーIDでも処理が完了すること")
     void userIdWithSpecialCharactersProcessingCompletes() {
         String userId = "user@example.com";
-        String requestBody = "{\"email\":\"new@example.com\"}";
+        String requestBody = "{\"name\":\"Special\",\"email\":\"new@example.com\"}";
 
         // UpdateUserActionを実行
-        APIGatewayProxyResponseEvent response = updateUserAction.execute(userId, requestBody, mockContext);
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, userId, requestBody, mockContext);
 
         // 正常に処理されることを検証
         assertNotNull(response);
@@ -279,4 +295,24 @@ class UpdateUserActionTest {
         // 特殊文字を含むuserIdが含まれることを確認
         assertTrue(response.getBody().contains(userId));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("全フィールドが置き換えられ、送信されなかったフィールドはクリアされること")
+    void allFieldsAreReplaced() {
+        store.partition("org-abc").put(new UserRecord("user-001", "Taro Yamada", "taro@example.com", "editor"));
+
+        APIGatewayProxyResponseEvent response = updateUserAction.execute(PRINCIPAL, "user-001", "{\"name\":\"Taro Y.\"}", mockContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(new UserRecord("user-001", "Taro Y.", null, null), store.partition("org-abc").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーは呼び出し元の組織に作成されること")
+    void missingUserIsCreatedInCallerOrganization() {
+        updateUserAction.execute(PRINCIPAL, "user-new", "{\"name\":\"New User\"}", mockContext);
+
+        assertEquals("New User", store.partition("org-abc").get("user-new").name());
+        assertNull(store.partition("org-other").get("user-new"));
+    }
+}
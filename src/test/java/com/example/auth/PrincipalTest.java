@@ -0,0 +1,75 @@
+package com.example.auth;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Principalクラスの単体テスト
+ * Authorizerのコンテキストからの読み取りと、役割・組織IDの正規化をテストします。
+ */
+@DisplayName("Principal Tests")
+class PrincipalTest {
+
+    @Test
+    @DisplayName("Authorizerのコンテキストの各値がフィールドに設定されること")
+    void shouldReadAuthorizerContext() {
+        Principal principal = Principal.from(requestWith(Map.of(
+                "principalId", "user-001", "role", "editor", "organization_id", "org-abc")));
+
+        assertEquals(new Principal("user-001", "editor", "org-abc"), principal);
+        assertTrue(principal.isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("Authorizerのコンテキストが無い場合はANONYMOUSが返されること")
+    void shouldReturnAnonymousWithoutAuthorizerContext() {
+        assertSame(Principal.ANONYMOUS, Principal.from(new APIGatewayProxyRequestEvent()));
+        assertSame(Principal.ANONYMOUS, Principal.from(
+                new APIGatewayProxyRequestEvent().withRequestContext(new APIGatewayProxyRequestEvent.ProxyRequestContext())));
+        assertFalse(Principal.ANONYMOUS.isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("クレームが欠けている場合は例外をスローせず未認証として扱われること")
+    void shouldTreatMissingClaimAsUnauthenticated() {
+        Principal principal = Principal.from(requestWith(Map.of("principalId", "user-001", "role", "editor")));
+
+        assertEquals("user-001", principal.userId());
+        assertNull(principal.organizationId());
+        assertFalse(principal.isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("役割と組織IDはリクエストをまたいで同じインスタンスに正規化されること")
+    void shouldCanonicalizeRoleAndOrganization() {
+        Principal first = Principal.from(requestWith(Map.of(
+                "principalId", "user-001", "role", new String("editor"), "organization_id", new String("org-canonical"))));
+        Principal second = Principal.from(requestWith(Map.of(
+                "principalId", "user-002", "role", new String("editor"), "organization_id", new String("org-canonical"))));
+
+        assertSame(first.role(), second.role());
+        assertSame(first.organizationId(), second.organizationId());
+    }
+
+    @Test
+    @DisplayName("文字列以外の値は文字列に変換されること")
+    void shouldConvertNonStringValues() {
+        Principal principal = Principal.from(requestWith(Map.of(
+                "principalId", 12345, "role", "viewer", "organization_id", 678)));
+
+        assertEquals("12345", principal.userId());
+        assertEquals("678", principal.organizationId());
+    }
+
+    private static APIGatewayProxyRequestEvent requestWith(Map<String, Object> authorizer) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        requestContext.setAuthorizer(new HashMap<>(authorizer));
+        return new APIGatewayProxyRequestEvent().withRequestContext(requestContext);
+    }
+}
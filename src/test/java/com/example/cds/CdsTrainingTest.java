@@ -0,0 +1,63 @@
+package com.example.cds;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CdsTrainingクラスの単体テスト
+ * 記録済みイベントで全ハンドラーが期待どおりに応答することをテストします。
+ */
+@DisplayName("CdsTraining Tests")
+class CdsTrainingTest {
+
+    private static final Path EVENTS = Path.of("src/test/resources/events");
+
+    @Test
+    @DisplayName("記録済みイベントが全ハンドラーで期待どおりのステータスを返すこと")
+    void shouldReplayRecordedEvents() throws Exception {
+        Map<String, Integer> results = CdsTraining.run(EVENTS);
+
+        assertEquals(200, results.get("AuthHandler/issue-token.json"));
+        // 発行したトークンが{{token}}に置換され、Authorizerで許可される
+        assertEquals(200, results.get("AuthorizerHandler/valid-token.json"));
+        assertEquals(403, results.get("AuthorizerHandler/invalid-token.json"));
+        assertEquals(200, results.get("ProtectedHandler/hello.json"));
+        assertEquals(200, results.get("AdminUsersHandler/list-users.json"));
+        assertEquals(200, results.get("AdminUsersHandler/get-user.json"));
+        assertEquals(201, results.get("AdminUsersHandler/create-user.json"));
+        assertEquals(400, results.get("AdminUsersHandler/create-user-invalid.json"));
+        assertEquals(200, results.get("AdminUsersHandler/update-user.json"));
+        assertEquals(200, results.get("AdminUsersHandler/patch-user.json"));
+        assertEquals(204, results.get("AdminUsersHandler/delete-user.json"));
+        assertEquals(200, results.get("AdminUsersHandler/import-users.json"));
+        assertEquals(200, results.get("AdminUsersHandler/export-users.json"));
+        assertEquals(200, results.get("AdminUsersHandler/batch-users.json"));
+        assertEquals(200, results.get("AdminUsersHandler/multi-get-users.json"));
+        assertEquals(200, results.get("AdminUsersHandler/user-changes.json"));
+        assertEquals(200, results.get("AdminUsersHandler/delta-sync-users.json"));
+    }
+
+    @Test
+    @DisplayName("全てのイベントファイルが実行されること")
+    void shouldRunEveryEventFile() throws Exception {
+        long files;
+        try (var stream = Files.walk(EVENTS)) {
+            files = stream.filter(file -> file.toString().endsWith(".json")).count();
+        }
+
+        assertEquals(files, CdsTraining.run(EVENTS).size());
+    }
+
+    @Test
+    @DisplayName("存在しないディレクトリでは何も実行されないこと")
+    void shouldSkipMissingDirectories(@TempDir Path dir) throws Exception {
+        assertTrue(CdsTraining.run(dir).isEmpty());
+    }
+}
@@ -0,0 +1,449 @@
+package com.example.gateway;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.priming.SyntheticContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * API GatewayとLambda Authorizerを1つのJVM内で再現するエミュレーター
+ *
+ * <p>template.yamlに定義されたルート・Authorizer・使用量プランに従って、
+ * HTTPリクエストを次の順に処理し、プロキシレスポンスを返します。</p>
+ *
+ * <ol>
+ * <li>ルートの照合 - 一致しない場合は403（{@code Missing Authentication Token}）</li>
+ * <li>{@code x-api-key} の検証 - 未登録のキーは403（{@code Forbidden}）</li>
+ * <li>使用量プランのスロットリング - 超過した場合は429（{@code Too Many Requests}）</li>
+ * <li>Authorizerの実行 - Authorizationヘッダーが無い場合は401、ポリシーで許可されない場合は403</li>
+ * <li>対象ハンドラーの実行 - Authorizerのコンテキストを {@code requestContext.authorizer} に設定。
+ *     例外の場合は502</li>
+ * <li>バイナリの変換 - {@code isBase64Encoded} のレスポンスは、リクエストの {@code Accept} の
+ *     最初のメディアタイプが {@code BinaryMediaTypes} に一致する場合だけバイナリとして返し
+ *     （{@code isBase64Encoded} のまま）、一致しない場合はBase64の文字列をテキストとして返す</li>
+ * </ol>
+ *
+ * <p>テンプレートのAPIは {@code ApiKeyRequired: true} のため、全ルートでAPIキーを必須とします。
+ * Authorizerの結果はAPI Gatewayの既定と同じくトークンごとに300秒キャッシュされ、
+ * キャッシュされたポリシーはリクエストごとのメソッドARNに対して評価されます。
+ * スロットリングは使用量プランのレートとバースト上限によるトークンバケット（GCRA）で、
+ * APIキーごとに適用します。</p>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class ApiGatewayEmulator {
+
+    /** Authorizerの結果をキャッシュする既定の時間（API Gatewayの既定値） */
+    public static final long DEFAULT_AUTHORIZER_CACHE_TTL_NANOS = TimeUnit.SECONDS.toNanos(300);
+
+    /** メソッドARNの組み立てに使用するAPIのARN */
+    static final String API_ARN = "arn:aws:execute-api:ap-northeast-1:123456789012:local";
+
+    /** ステージ名 */
+    static final String STAGE = "Prod";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final List<BoundRoute> routes = new ArrayList<>();
+    private final RequestHandler<APIGatewayCustomAuthorizerEvent, Map<String, Object>> authorizer;
+    private final Context authorizerContext;
+    private final Map<String, UsagePlan> usagePlans;
+    private final List<String> binaryMediaTypes;
+    private final LongSupplier nanoClock;
+    private final long authorizerCacheTtlNanos;
+    private final ConcurrentHashMap<String, AtomicLong> throttles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedPolicy> policyCache = new ConcurrentHashMap<>();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    /**
+     * テンプレートを読み込み、各ハンドラーのインスタンスを生成してエミュレーターを構築します。
+     *
+     * <p>同じクラスのハンドラーは1つのインスタンスを共有します（Lambdaの実行環境の再利用に相当）。</p>
+     *
+     * @param template template.yamlのパス
+     * @return エミュレーター
+     * @throws IOException テンプレートの読み込みに失敗した場合
+     */
+    public static ApiGatewayEmulator fromTemplate(Path template) throws IOException {
+        Map<String, Object> instances = new HashMap<>();
+        return new ApiGatewayEmulator(SamTemplate.read(template),
+                handler -> instances.computeIfAbsent(classNameOf(handler), ApiGatewayEmulator::instantiate),
+                System::nanoTime, DEFAULT_AUTHORIZER_CACHE_TTL_NANOS);
+    }
+
+    /**
+     * テンプレートの内容とハンドラーのインスタンスを指定してエミュレーターを構築します。
+     *
+     * @param template 読み込み済みのテンプレート
+     * @param handlers テンプレートのハンドラー名からインスタンスを返す関数
+     * @param nanoClock スロットリングとキャッシュの有効期限に使用するナノ秒単位のクロック
+     * @param authorizerCacheTtlNanos Authorizerの結果をキャッシュする時間（0の場合はキャッシュしない）
+     */
+    @SuppressWarnings("unchecked")
+    public ApiGatewayEmulator(SamTemplate template, Function<String, Object> handlers,
+                              LongSupplier nanoClock, long authorizerCacheTtlNanos) {
+        for (SamTemplate.Route route : template.routes()) {
+            routes.add(new BoundRoute(route,
+                    (RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>) handlers.apply(route.handler()),
+                    new SyntheticContext(simpleNameOf(route.handler()))));
+        }
+        // API Gatewayと同様に、固定のセグメントをパスパラメータより優先して照合する（安定ソートのためそれ以外は定義順）
+        routes.sort(Comparator.comparingInt(BoundRoute::parameterCount));
+        this.authorizer = (template.authorizerHandler() != null)
+                ? (RequestHandler<APIGatewayCustomAuthorizerEvent, Map<String, Object>>) handlers.apply(template.authorizerHandler())
+                : null;
+        this.authorizerContext = new SyntheticContext("AuthorizerHandler");
+        this.usagePlans = Map.copyOf(template.usagePlans());
+        this.binaryMediaTypes = template.binaryMediaTypes();
+        this.nanoClock = nanoClock;
+        this.authorizerCacheTtlNanos = authorizerCacheTtlNanos;
+    }
+
+    /**
+     * リクエストを処理します。
+     *
+     * @param request HTTPリクエスト
+     * @return プロキシレスポンス（API Gateway自身が返すエラーを含む）
+     */
+    public APIGatewayProxyResponseEvent handle(GatewayRequest request) {
+        String path = request.path();
+        int queryStart = path.indexOf('?');
+        String query = (queryStart >= 0) ? path.substring(queryStart + 1) : null;
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+
+        BoundRoute route = null;
+        Map<String, String> pathParameters = null;
+        for (BoundRoute candidate : routes) {
+            pathParameters = candidate.match(request.method(), path);
+            if (pathParameters != null) {
+                route = candidate;
+                break;
+            }
+        }
+        if (route == null) {
+            return gatewayError(403, "Missing Authentication Token");
+        }
+
+        String apiKey = request.header("x-api-key");
+        UsagePlan plan = (apiKey != null) ? usagePlans.get(apiKey) : null;
+        if (plan == null) {
+            return gatewayError(403, "Forbidden");
+        }
+        if (!tryAcquire(apiKey, plan)) {
+            return gatewayError(429, "Too Many Requests");
+        }
+
+        String methodArn = API_ARN + "/" + STAGE + "/" + request.method() + path;
+        String requestId = "local-" + requestIds.incrementAndGet();
+        Map<String, Object> authorizerResult = null;
+        if (route.authorized && authorizer != null) {
+            String token = request.header("Authorization");
+            if (token == null || token.isEmpty()) {
+                return gatewayError(401, "Unauthorized");
+            }
+            try {
+                authorizerResult = authorize(token, methodArn, request, requestId);
+            } catch (RuntimeException e) {
+                return gatewayError(500, null);
+            }
+            if (!isAllowed(authorizerResult, methodArn)) {
+                return gatewayError(403, "User is not authorized to access this resource");
+            }
+        }
+
+        APIGatewayProxyRequestEvent event =
+                proxyEvent(request, route, path, query, pathParameters, requestId, apiKey, authorizerResult);
+        try {
+            APIGatewayProxyResponseEvent response = route.handler.handleRequest(event, route.context);
+            if (response == null || response.getStatusCode() == null) {
+                return gatewayError(502, "Internal server error");
+            }
+            return toClient(response, request.header("Accept"));
+        } catch (RuntimeException e) {
+            return gatewayError(502, "Internal server error");
+        }
+    }
+
+    /**
+     * API Gatewayと同じく、{@code Accept} の最初のメディアタイプが {@code BinaryMediaTypes}
+     * に一致しない場合は、Base64のボディを復号せずテキストとして返します。
+     */
+    private APIGatewayProxyResponseEvent toClient(APIGatewayProxyResponseEvent response, String accept) {
+        if (!Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            return response;
+        }
+        String mediaType = (accept != null) ? accept.split(",")[0].split(";")[0].trim() : "";
+        if (binaryMediaTypes.stream().anyMatch(mediaType::equalsIgnoreCase)) {
+            return response;
+        }
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(response.getStatusCode())
+                .withHeaders(response.getHeaders())
+                .withBody(response.getBody())
+                .withIsBase64Encoded(false);
+    }
+
+    /**
+     * APIキーのバケットからトークンを1つ取得します（GCRA）。
+     */
+    private boolean tryAcquire(String apiKey, UsagePlan plan) {
+        long interval = Math.max(1L, Math.round(NANOS_PER_SECOND / plan.rateLimit()));
+        long burstWindow = interval * plan.burstLimit();
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = throttles.computeIfAbsent(apiKey, key -> new AtomicLong(Long.MIN_VALUE / 2));
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            if (next - now > burstWindow) {
+                return false;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * キャッシュされた結果、またはREQUEST型のAuthorizerの実行結果を返します。
+     * 結果はIDソースの {@code Authorization} ヘッダーの値ごとにキャッシュします。
+     */
+    private Map<String, Object> authorize(String token, String methodArn, GatewayRequest request, String requestId) {
+        long now = nanoClock.getAsLong();
+        CachedPolicy cached = policyCache.get(token);
+        if (cached != null && now - cached.expiresAtNanos < 0) {
+            return cached.result;
+        }
+        APIGatewayCustomAuthorizerEvent event = new APIGatewayCustomAuthorizerEvent();
+        event.setType("REQUEST");
+        event.setHeaders(request.headers());
+        event.setHttpMethod(request.method());
+        event.setMethodArn(methodArn);
+        APIGatewayCustomAuthorizerEvent.RequestContext requestContext = new APIGatewayCustomAuthorizerEvent.RequestContext();
+        requestContext.setRequestId(requestId);
+        requestContext.setStage(STAGE);
+        event.setRequestContext(requestContext);
+        Map<String, Object> result = authorizer.handleRequest(event, authorizerContext);
+        if (authorizerCacheTtlNanos > 0) {
+            policyCache.put(token, new CachedPolicy(result, now + authorizerCacheTtlNanos));
+        }
+        return result;
+    }
+
+    /**
+     * ポリシーを評価します。Denyに一致する場合は拒否、Allowに一致する場合のみ許可します。
+     */
+    @SuppressWarnings("unchecked")
+    static boolean isAllowed(Map<String, Object> authorizerResult, String methodArn) {
+        if (authorizerResult == null || !(authorizerResult.get("policyDocument") instanceof Map<?, ?> document)) {
+            return false;
+        }
+        boolean allowed = false;
+        for (Map<String, Object> statement : (List<Map<String, Object>>) document.get("Statement")) {
+            Object resources = statement.get("Resource");
+            List<Object> patterns = (resources instanceof List<?> list) ? (List<Object>) list : List.of(resources);
+            boolean matches = patterns.stream().anyMatch(pattern -> matchesArn(String.valueOf(pattern), methodArn));
+            if (!matches) {
+                continue;
+            }
+            if ("Deny".equals(statement.get("Effect"))) {
+                return false;
+            }
+            allowed |= "Allow".equals(statement.get("Effect"));
+        }
+        return allowed;
+    }
+
+    private static boolean matchesArn(String pattern, String arn) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : pattern.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return arn.matches(regex.toString());
+    }
+
+    private APIGatewayProxyRequestEvent proxyEvent(GatewayRequest request, BoundRoute route, String path, String query,
+                                                   Map<String, String> pathParameters, String requestId, String apiKey,
+                                                   Map<String, Object> authorizerResult) {
+        APIGatewayProxyRequestEvent.RequestIdentity identity = new APIGatewayProxyRequestEvent.RequestIdentity();
+        identity.setApiKey(apiKey);
+        identity.setSourceIp("127.0.0.1");
+
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        requestContext.setRequestId(requestId);
+        requestContext.setStage(STAGE);
+        requestContext.setHttpMethod(request.method());
+        requestContext.setResourcePath(route.resourcePath);
+        requestContext.setPath("/" + STAGE + path);
+        requestContext.setIdentity(identity);
+        if (authorizerResult != null) {
+            requestContext.setAuthorizer(authorizerContextOf(authorizerResult));
+        }
+
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(request.method())
+                .withPath(path)
+                .withResource(route.resourcePath)
+                .withHeaders(request.headers())
+                .withQueryStringParameters(queryParametersOf(query))
+                .withPathParameters(pathParameters.isEmpty() ? null : pathParameters)
+                .withBody(request.body())
+                .withRequestContext(requestContext);
+    }
+
+    /**
+     * Authorizerのコンテキストを、API Gatewayと同じく値を文字列に変換し {@code principalId} を加えて返します。
+     */
+    private static Map<String, Object> authorizerContextOf(Map<String, Object> authorizerResult) {
+        Map<String, Object> context = new HashMap<>();
+        if (authorizerResult.get("context") instanceof Map<?, ?> values) {
+            values.forEach((key, value) -> context.put(String.valueOf(key), String.valueOf(value)));
+        }
+        context.put("principalId", String.valueOf(authorizerResult.get("principalId")));
+        return context;
+    }
+
+    private static Map<String, String> queryParametersOf(String query) {
+        if (query == null || query.isEmpty()) {
+            return null;
+        }
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                parameters.put(pair, "");
+            } else {
+                parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return parameters;
+    }
+
+    private static APIGatewayProxyResponseEvent gatewayError(int statusCode, String message) {
+        String body = (message != null) ? "{\"message\":\"" + message + "\"}" : "{\"message\":null}";
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(Map.of("Content-Type", "application/json", "x-amzn-ErrorType", errorTypeOf(statusCode)))
+                .withBody(body);
+    }
+
+    private static String errorTypeOf(int statusCode) {
+        return switch (statusCode) {
+            case 401 -> "UnauthorizedException";
+            case 403 -> "ForbiddenException";
+            case 429 -> "TooManyRequestsException";
+            case 500 -> "AuthorizerConfigurationException";
+            default -> "InternalServerErrorException";
+        };
+    }
+
+    private static String classNameOf(String handler) {
+        int separator = handler.indexOf("::");
+        return (separator >= 0) ? handler.substring(0, separator) : handler;
+    }
+
+    private static String simpleNameOf(String handler) {
+        String className = classNameOf(handler);
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static Object instantiate(String className) {
+        try {
+            return Class.forName(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate handler: " + className, e);
+        }
+    }
+
+    /**
+     * ハンドラーに結び付けたルート
+     */
+    private static final class BoundRoute {
+
+        private final String method;
+        private final String resourcePath;
+        private final String[] segments;
+        private final boolean authorized;
+        private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+        private final Context context;
+
+        BoundRoute(SamTemplate.Route route,
+                   RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler, Context context) {
+            this.method = route.method();
+            this.resourcePath = route.resourcePath();
+            this.segments = route.resourcePath().split("/");
+            this.authorized = route.authorized();
+            this.handler = handler;
+            this.context = context;
+        }
+
+        /**
+         * リソースパスに含まれるパスパラメータの数を返します。
+         */
+        int parameterCount() {
+            int count = 0;
+            for (String segment : segments) {
+                if (segment.startsWith("{")) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * メソッドとパスが一致する場合にパスパラメータを返します。
+         *
+         * @return パスパラメータ（一致しない場合は {@code null}）
+         */
+        Map<String, String> match(String requestMethod, String path) {
+            if (!method.equals(requestMethod)) {
+                return null;
+            }
+            String[] parts = path.split("/");
+            if (parts.length != segments.length) {
+                return null;
+            }
+            Map<String, String> parameters = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    if (parts[i].isEmpty()) {
+                        return null;
+                    }
+                    parameters.put(segment.substring(1, segment.length() - 1), parts[i]);
+                } else if (!segment.equals(parts[i])) {
+                    return null;
+                }
+            }
+            return parameters;
+        }
+    }
+
+    /**
+     * キャッシュされたAuthorizerの結果
+     */
+    private record CachedPolicy(Map<String, Object> result, long expiresAtNanos) {
+    }
+}
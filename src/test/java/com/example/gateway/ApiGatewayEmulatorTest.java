@@ -0,0 +1,281 @@
+package com.example.gateway;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayCustomAuthorizerEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.AdminUsersHandler;
+import com.example.AuthHandler;
+import com.example.AuthorizerHandler;
+import com.example.ProtectedHandler;
+import com.example.http.ApiResponses;
+import com.example.http.ResponseCompressor;
+import com.example.store.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ApiGatewayEmulatorクラスの単体テスト
+ * template.yamlの設定と実際のハンドラーで、APIキー・スロットリング・Authorizer・対象ハンドラーの
+ * 一連の処理をテストします。
+ */
+@DisplayName("ApiGatewayEmulator Tests")
+class ApiGatewayEmulatorTest {
+
+    private static final Path TEMPLATE = Path.of("template.yaml");
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final AtomicInteger authorizerCalls = new AtomicInteger();
+    private final Map<String, Object> handlers = new HashMap<>();
+
+    private ApiGatewayEmulator emulator;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AuthorizerHandler authorizer = new AuthorizerHandler();
+        handlers.put("com.example.AuthHandler::handleRequest", new AuthHandler());
+        handlers.put("com.example.ProtectedHandler::handleRequest", new ProtectedHandler());
+        handlers.put("com.example.AdminUsersHandler::handleRequest", new AdminUsersHandler());
+        // 他のテストが共有のストアから削除していても、サンプルのユーザーが一覧に含まれるようにする
+        UserStore.getDefault().seedSampleUsers();
+        handlers.put("com.example.AuthorizerHandler::handleRequest",
+                (RequestHandler<APIGatewayCustomAuthorizerEvent, Map<String, Object>>) (event, context) -> {
+                    authorizerCalls.incrementAndGet();
+                    return authorizer.handleRequest(event, context);
+                });
+        emulator = new ApiGatewayEmulator(SamTemplate.read(TEMPLATE), handlers::get, clock::get,
+                ApiGatewayEmulator.DEFAULT_AUTHORIZER_CACHE_TTL_NANOS);
+        token = LoadDriver.issueToken(emulator, "CompanyAKey");
+    }
+
+    private static GatewayRequest get(String path, String apiKey, String authorization) {
+        Map<String, String> headers = new HashMap<>();
+        if (apiKey != null) {
+            headers.put("x-api-key", apiKey);
+        }
+        if (authorization != null) {
+            headers.put("Authorization", authorization);
+        }
+        return new GatewayRequest("GET", path, headers, null);
+    }
+
+    @Test
+    @DisplayName("Authorizerを経由してユーザー一覧が取得できること")
+    void shouldRunAuthorizerAndTargetHandler() {
+        APIGatewayProxyResponseEvent response = emulator.handle(get("/admin/users", "CompanyAKey", "Bearer " + token));
+
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getBody().contains("user-001"));
+    }
+
+    @Test
+    @DisplayName("固定のリソースがパスパラメータのリソースより優先されること")
+    void shouldPreferLiteralResourceOverPathParameter() {
+        APIGatewayProxyResponseEvent response = emulator.handle(
+                get("/admin/users/export?limit=1", "CompanyAKey", "Bearer " + token));
+
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getBody().startsWith("{\"userId\":\"user-001\""));
+        assertEquals("user-001", response.getHeaders().get("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("Authorizerのコンテキストが対象ハンドラーに渡されること")
+    void shouldPassAuthorizerContext() {
+        APIGatewayProxyResponseEvent response = emulator.handle(get("/hello", "CompanyAKey", "Bearer " + token));
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("Hello user user-001 from organization org-abc! Your role is editor.", response.getBody());
+    }
+
+    /**
+     * /helloを、圧縮の閾値を超えるJSONを既定の圧縮設定で返すハンドラーに置き換えたエミュレーターを作成
+     */
+    private ApiGatewayEmulator compressingEmulator(String body) {
+        handlers.put("com.example.ProtectedHandler::handleRequest",
+                (RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>) (event, context) ->
+                        ResponseCompressor.getDefault().compress(event, ApiResponses.json(200, body)));
+        return new ApiGatewayEmulator(readTemplate(), handlers::get, clock::get, 0);
+    }
+
+    @Test
+    @DisplayName("Accept: */* のクライアントにはgzipのレスポンスが返らないこと")
+    void shouldNotCompressForWildcardAccept() {
+        String body = "[" + "{\"userId\":\"user-001\"},".repeat(200) + "{}]";
+        GatewayRequest request = get("/hello", "CompanyAKey", "Bearer " + token);
+        request.headers().put("Accept", "*/*");
+        request.headers().put("Accept-Encoding", "gzip, deflate, br");
+
+        APIGatewayProxyResponseEvent response = compressingEmulator(body).handle(request);
+
+        assertEquals(200, response.getStatusCode());
+        assertNull(response.getHeaders().get("Content-Encoding"));
+        assertNotEquals(Boolean.TRUE, response.getIsBase64Encoded());
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    @DisplayName("AcceptがBinaryMediaTypesに一致するクライアントにはgzipのバイナリが返ること")
+    void shouldCompressForBinaryAccept() throws IOException {
+        String body = "[" + "{\"userId\":\"user-001\"},".repeat(200) + "{}]";
+        GatewayRequest request = get("/hello", "CompanyAKey", "Bearer " + token);
+        request.headers().put("Accept", "application/json");
+        request.headers().put("Accept-Encoding", "gzip");
+
+        APIGatewayProxyResponseEvent response = compressingEmulator(body).handle(request);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertTrue(response.getIsBase64Encoded());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(response.getBody())))) {
+            assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("パスパラメータとクエリ文字列がイベントに設定されること")
+    void shouldSetPathAndQueryParameters() {
+        List<APIGatewayProxyRequestEvent> received = new ArrayList<>();
+        handlers.put("com.example.ProtectedHandler::handleRequest",
+                (RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>) (event, context) -> {
+                    received.add(event);
+                    return new APIGatewayProxyResponseEvent().withStatusCode(204);
+                });
+        handlers.put("com.example.AdminUsersHandler::handleRequest", handlers.get("com.example.ProtectedHandler::handleRequest"));
+        ApiGatewayEmulator recording = new ApiGatewayEmulator(readTemplate(), handlers::get, clock::get, 0);
+
+        recording.handle(get("/admin/users/user-001?fields=name&verbose", "CompanyAKey", "Bearer " + token));
+
+        APIGatewayProxyRequestEvent event = received.get(0);
+        assertEquals(Map.of("userId", "user-001"), event.getPathParameters());
+        assertEquals(Map.of("fields", "name", "verbose", ""), event.getQueryStringParameters());
+        assertEquals("/admin/users/{userId}", event.getResource());
+        assertEquals("CompanyAKey", event.getRequestContext().getIdentity().getApiKey());
+        assertEquals("org-abc", event.getRequestContext().getAuthorizer().get("organization_id"));
+        assertEquals("user-001", event.getRequestContext().getAuthorizer().get("principalId"));
+    }
+
+    @Test
+    @DisplayName("APIキーが無い、または未登録の場合は403が返されること")
+    void shouldRejectMissingOrUnknownApiKey() {
+        APIGatewayProxyResponseEvent missing = emulator.handle(get("/hello", null, "Bearer " + token));
+        APIGatewayProxyResponseEvent unknown = emulator.handle(get("/hello", "CompanyCKey", "Bearer " + token));
+
+        assertEquals(403, missing.getStatusCode());
+        assertEquals("{\"message\":\"Forbidden\"}", missing.getBody());
+        assertEquals(403, unknown.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("定義されていないルートは403が返されること")
+    void shouldRejectUnknownRoute() {
+        APIGatewayProxyResponseEvent response = emulator.handle(get("/unknown", "CompanyAKey", "Bearer " + token));
+
+        assertEquals(403, response.getStatusCode());
+        assertEquals("{\"message\":\"Missing Authentication Token\"}", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Authorizationヘッダーが無い場合はAuthorizerを実行せずに401が返されること")
+    void shouldRejectMissingAuthorizationHeader() {
+        int callsBefore = authorizerCalls.get();
+
+        APIGatewayProxyResponseEvent response = emulator.handle(get("/hello", "CompanyAKey", null));
+
+        assertEquals(401, response.getStatusCode());
+        assertEquals(callsBefore, authorizerCalls.get());
+    }
+
+    @Test
+    @DisplayName("Authorizerが拒否した場合は403が返されること")
+    void shouldRejectDeniedToken() {
+        APIGatewayProxyResponseEvent response = emulator.handle(get("/hello", "CompanyAKey", "Bearer invalid"));
+
+        assertEquals(403, response.getStatusCode());
+        assertEquals("{\"message\":\"User is not authorized to access this resource\"}", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Authorizerの結果がトークンごとにキャッシュされること")
+    void shouldCacheAuthorizerResult() {
+        emulator.handle(get("/hello", "CompanyAKey", "Bearer " + token));
+        emulator.handle(get("/admin/users", "CompanyAKey", "Bearer " + token));
+        assertEquals(1, authorizerCalls.get());
+
+        // キャッシュの有効期限が切れた後は再度実行される
+        clock.addAndGet(ApiGatewayEmulator.DEFAULT_AUTHORIZER_CACHE_TTL_NANOS);
+        emulator.handle(get("/hello", "CompanyAKey", "Bearer " + token));
+        assertEquals(2, authorizerCalls.get());
+    }
+
+    @Test
+    @DisplayName("使用量プランのバースト上限を超えると429が返され、時間経過で回復すること")
+    void shouldThrottleByUsagePlan() {
+        // B社のプランは5回/秒、バースト5
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, emulator.handle(get("/hello", "CompanyBKey", "Bearer " + token)).getStatusCode());
+        }
+        APIGatewayProxyResponseEvent throttled = emulator.handle(get("/hello", "CompanyBKey", "Bearer " + token));
+        assertEquals(429, throttled.getStatusCode());
+        assertEquals("{\"message\":\"Too Many Requests\"}", throttled.getBody());
+
+        // 他のAPIキーには影響しない
+        assertEquals(200, emulator.handle(get("/hello", "CompanyAKey", "Bearer " + token)).getStatusCode());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(200, emulator.handle(get("/hello", "CompanyBKey", "Bearer " + token)).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("対象ハンドラーが例外をスローした場合は502が返されること")
+    void shouldReturnBadGatewayWhenHandlerFails() {
+        handlers.put("com.example.ProtectedHandler::handleRequest",
+                (RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>) (event, context) -> {
+                    throw new IllegalStateException("boom");
+                });
+        ApiGatewayEmulator failing = new ApiGatewayEmulator(readTemplate(), handlers::get, clock::get, 0);
+
+        APIGatewayProxyResponseEvent response = failing.handle(get("/hello", "CompanyAKey", "Bearer " + token));
+
+        assertEquals(502, response.getStatusCode());
+        assertEquals("{\"message\":\"Internal server error\"}", response.getBody());
+    }
+
+    @Test
+    @DisplayName("Denyのステートメントに一致する場合はAllowがあっても拒否されること")
+    void shouldPreferDenyOverAllow() {
+        String methodArn = ApiGatewayEmulator.API_ARN + "/Prod/DELETE/admin/users/user-001";
+        Map<String, Object> result = Map.of("policyDocument", Map.of("Statement", List.of(
+                Map.of("Effect", "Allow", "Resource", ApiGatewayEmulator.API_ARN + "/Prod/*/*"),
+                Map.of("Effect", "Deny", "Resource", List.of(ApiGatewayEmulator.API_ARN + "/Prod/DELETE/*")))));
+
+        assertFalse(ApiGatewayEmulator.isAllowed(result, methodArn));
+        assertTrue(ApiGatewayEmulator.isAllowed(result, ApiGatewayEmulator.API_ARN + "/Prod/GET/admin/users"));
+    }
+
+    private static SamTemplate readTemplate() {
+        try {
+            return SamTemplate.read(TEMPLATE);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
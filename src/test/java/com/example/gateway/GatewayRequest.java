@@ -0,0 +1,34 @@
+package com.example.gateway;
+
+import java.util.Map;
+
+/**
+ * エミュレーターに渡すHTTPリクエスト
+ *
+ * @param method HTTPメソッド
+ * @param path パス（クエリ文字列を含んでもよい。例: {@code /admin/users?limit=10}）
+ * @param headers リクエストヘッダー（名前の大文字・小文字は区別しない）
+ * @param body リクエストボディ（無い場合は {@code null}）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record GatewayRequest(String method, String path, Map<String, String> headers, String body) {
+
+    /**
+     * ヘッダーの値を名前の大文字・小文字を区別せずに返します。
+     *
+     * @param name ヘッダー名
+     * @return ヘッダーの値（無い場合は {@code null}）
+     */
+    public String header(String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.gateway;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.example.json.JsonCodecs;
+import com.example.metrics.LatencyHistogram;
+import com.example.model.TokenResponse;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * エミュレーターに記録済みのトラフィックを流し、スループットとレイテンシーを計測する負荷ドライバー
+ *
+ * <p>トラフィックは1行に1リクエストのJSON（{@link GatewayRequest} の形式）で、
+ * ファイルの先頭から繰り返し送信します。{@code {{token}}} は、先頭のリクエストの
+ * {@code x-api-key} で {@code POST /auth/token} を呼び出して発行したJWTに置換します。</p>
+ *
+ * <p>{@code rate} を指定した場合は、その間隔で送信予定時刻を決めて送信し、
+ * 送信の遅れを含めた予定時刻からの時間をレイテンシーとします（Coordinated Omissionの回避）。
+ * 指定しない場合は、各スレッドが応答を受け取り次第、次のリクエストを送信します。</p>
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="requests=2000 threads=2 rate=15"
+ * </pre>
+ *
+ * <p>引数はすべて {@code 名前=値} の形式で、省略時の値は次の通りです。</p>
+ *
+ * <ul>
+ * <li>template - {@code template.yaml}</li>
+ * <li>traffic - {@code src/test/resources/traffic/admin-mix.jsonl}</li>
+ * <li>requests - 1000</li>
+ * <li>threads - 1</li>
+ * <li>rate - 0（1秒あたりの送信数。0の場合は待ち合わせなし）</li>
+ * </ul>
+ *
+ * @author Sample Project
+ * @version 1.0
+ */
+public final class LoadDriver {
+
+    private static final String TOKEN_PLACEHOLDER = "{{token}}";
+
+    private LoadDriver() {
+    }
+
+    /**
+     * 負荷をかけて結果を標準出力に表示します。
+     *
+     * @param args {@code 名前=値} 形式の引数
+     * @throws Exception テンプレート・トラフィックの読み込み、またはスレッドの待機に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals > 0) {
+                options.put(arg.substring(0, equals), arg.substring(equals + 1));
+            }
+        }
+        ApiGatewayEmulator emulator = ApiGatewayEmulator.fromTemplate(Path.of(options.getOrDefault("template", "template.yaml")));
+        List<GatewayRequest> traffic = readTraffic(
+                Path.of(options.getOrDefault("traffic", "src/test/resources/traffic/admin-mix.jsonl")));
+        traffic = withToken(traffic, issueToken(emulator, traffic.get(0).header("x-api-key")));
+
+        Report report = run(emulator, traffic, Integer.parseInt(options.getOrDefault("requests", "1000")),
+                Integer.parseInt(options.getOrDefault("threads", "1")),
+                Double.parseDouble(options.getOrDefault("rate", "0")));
+        System.out.println(report);
+    }
+
+    /**
+     * トラフィックのファイルを読み込みます。
+     *
+     * @param file 1行に1リクエストのJSONファイル
+     * @return リクエストの一覧
+     * @throws IOException 読み込みに失敗した場合
+     */
+    public static List<GatewayRequest> readTraffic(Path file) throws IOException {
+        Gson gson = new Gson();
+        List<GatewayRequest> traffic = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank()) {
+                traffic.add(gson.fromJson(line, GatewayRequest.class));
+            }
+        }
+        if (traffic.isEmpty()) {
+            throw new IllegalArgumentException("No requests in " + file);
+        }
+        return traffic;
+    }
+
+    /**
+     * エミュレーター経由でトークンを発行します。
+     *
+     * @param emulator エミュレーター
+     * @param apiKey 使用するAPIキー
+     * @return 発行されたJWT
+     */
+    public static String issueToken(ApiGatewayEmulator emulator, String apiKey) {
+        APIGatewayProxyResponseEvent response = emulator.handle(new GatewayRequest("POST", "/auth/token",
+                Map.of("x-api-key", String.valueOf(apiKey), "Content-Type", "application/json"),
+                "{\"username\":\"testuser\",\"password\":\"password123\"}"));
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Token request failed: " + response.getStatusCode() + " " + response.getBody());
+        }
+        return JsonCodecs.fromJson(response.getBody(), TokenResponse.class).token();
+    }
+
+    /**
+     * ヘッダーとボディの {@code {{token}}} を置換したトラフィックを返します。
+     *
+     * @param traffic トラフィック
+     * @param token 置換するJWT
+     * @return 置換後のトラフィック
+     */
+    public static List<GatewayRequest> withToken(List<GatewayRequest> traffic, String token) {
+        List<GatewayRequest> replaced = new ArrayList<>(traffic.size());
+        for (GatewayRequest request : traffic) {
+            Map<String, String> headers = new HashMap<>();
+            if (request.headers() != null) {
+                request.headers().forEach((name, value) -> headers.put(name, value.replace(TOKEN_PLACEHOLDER, token)));
+            }
+            String body = (request.body() != null) ? request.body().replace(TOKEN_PLACEHOLDER, token) : null;
+            replaced.add(new GatewayRequest(request.method(), request.path(), headers, body));
+        }
+        return replaced;
+    }
+
+    /**
+     * トラフィックを指定回数だけ送信します。
+     *
+     * @param emulator エミュレーター
+     * @param traffic 繰り返し送信するトラフィック
+     * @param requests 送信するリクエスト数
+     * @param threads 送信するスレッド数
+     * @param rate 1秒あたりの送信数（0以下の場合は待ち合わせなし）
+     * @return 計測結果
+     * @throws InterruptedException 待機中に割り込まれた場合
+     */
+    public static Report run(ApiGatewayEmulator emulator, List<GatewayRequest> traffic, int requests, int threads,
+                             double rate) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        ConcurrentHashMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        AtomicLong sequence = new AtomicLong();
+        long intervalNanos = (rate > 0) ? Math.round(TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long startNanos = System.nanoTime();
+
+        Runnable worker = () -> {
+            long i;
+            while ((i = sequence.getAndIncrement()) < requests) {
+                long sendAt = System.nanoTime();
+                if (intervalNanos > 0) {
+                    long scheduledAt = startNanos + i * intervalNanos;
+                    long wait = scheduledAt - sendAt;
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    sendAt = scheduledAt;
+                }
+                APIGatewayProxyResponseEvent response = emulator.handle(traffic.get((int) (i % traffic.size())));
+                latencies.recordNanos(System.nanoTime() - sendAt);
+                statusCounts.computeIfAbsent(response.getStatusCode(), status -> new LongAdder()).increment();
+            }
+        };
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(worker, "load-driver-" + t);
+            thread.start();
+            workers.add(thread);
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return new Report(requests, elapsedNanos, counts, latencies.percentileMillis(50),
+                latencies.percentileMillis(99), latencies.percentileMillis(99.9));
+    }
+
+    /**
+     * 負荷ドライバーの計測結果
+     *
+     * @param requests 送信したリクエスト数
+     * @param elapsedNanos 全体の所要時間（ナノ秒）
+     * @param statusCounts ステータスコードごとの件数
+     * @param p50Millis 50パーセンタイルのレイテンシー（ミリ秒）
+     * @param p99Millis 99パーセンタイルのレイテンシー（ミリ秒）
+     * @param p999Millis 99.9パーセンタイルのレイテンシー（ミリ秒）
+     */
+    public record Report(long requests, long elapsedNanos, Map<Integer, Long> statusCounts,
+                         double p50Millis, double p99Millis, double p999Millis) {
+
+        /**
+         * 1秒あたりの処理件数を返します。
+         *
+         * @return スループット（リクエスト/秒）
+         */
+        public double throughput() {
+            return (elapsedNanos > 0) ? requests * 1e9 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d elapsedMillis=%d throughput=%.1f/s status=%s p50=%.3fms p99=%.3fms p999=%.3fms",
+                    requests, elapsedNanos / 1_000_000, throughput(), statusCounts, p50Millis, p99Millis, p999Millis);
+        }
+    }
+}
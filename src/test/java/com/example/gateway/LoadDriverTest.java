@@ -0,0 +1,47 @@
+package com.example.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoadDriverクラスの単体テスト
+ * 記録済みトラフィックの読み込みと、エミュレーターへの送信結果の集計をテストします。
+ */
+@DisplayName("LoadDriver Tests")
+class LoadDriverTest {
+
+    private static final Path TRAFFIC = Path.of("src/test/resources/traffic/admin-mix.jsonl");
+
+    @Test
+    @DisplayName("トラフィックのトークンが発行したJWTに置換されること")
+    void shouldReplaceTokenPlaceholder() throws Exception {
+        List<GatewayRequest> traffic = LoadDriver.withToken(LoadDriver.readTraffic(TRAFFIC), "jwt");
+
+        assertEquals(8, traffic.size());
+        assertEquals("Bearer jwt", traffic.get(0).header("authorization"));
+        assertEquals("CompanyAKey", traffic.get(0).header("x-api-key"));
+        assertTrue(traffic.get(3).body().contains("hanako@example.com"));
+    }
+
+    @Test
+    @DisplayName("送信した全リクエストのステータスとパーセンタイルが集計されること")
+    void shouldReportStatusCountsAndPercentiles() throws Exception {
+        ApiGatewayEmulator emulator = ApiGatewayEmulator.fromTemplate(Path.of("template.yaml"));
+        List<GatewayRequest> traffic = LoadDriver.withToken(LoadDriver.readTraffic(TRAFFIC),
+                LoadDriver.issueToken(emulator, "CompanyAKey"));
+
+        LoadDriver.Report report = LoadDriver.run(emulator, traffic, 16, 2, 0);
+
+        assertEquals(16, report.requests());
+        assertEquals(16L, report.statusCounts().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(report.statusCounts().keySet().stream().noneMatch(status -> status >= 500), report.toString());
+        assertTrue(report.p50Millis() <= report.p99Millis());
+        assertTrue(report.p99Millis() <= report.p999Millis());
+        assertTrue(report.throughput() > 0);
+    }
+}
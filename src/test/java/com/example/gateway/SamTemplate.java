@@ -0,0 +1,181 @@
+package com.example.gateway;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * エミュレーターが使用する範囲に限定したSAMテンプレート（template.yaml）の読み取り
+ *
+ * <p>YAMLライブラリには依存せず、このプロジェクトのテンプレートの書式（2スペースのインデント、
+ * {@code !Ref} / {@code !GetAtt} の短縮形）を前提に、次の要素だけを行単位で読み取ります。</p>
+ *
+ * <ul>
+ * <li>{@code AWS::Serverless::Function} - ハンドラーと {@code Api} イベントのパス・メソッド・Authorizerの有無</li>
+ * <li>{@code AWS::Serverless::Api} - {@code DefaultAuthorizer} の関数と {@code BinaryMediaTypes}</li>
+ * <li>{@code AWS::ApiGateway::ApiKey} / {@code UsagePlan} / {@code UsagePlanKey} - APIキーごとのスロットリング</li>
+ * </ul>
+ *
+ * <p>APIキーの値はデプロイ時に生成されるため、エミュレーターではキーの {@code Name}
+ * （例: {@code CompanyAKey}）をそのままキーの値として扱います。</p>
+ *
+ * @param routes テンプレートに定義されたルート
+ * @param authorizerHandler Authorizer関数のハンドラー（例: {@code com.example.AuthorizerHandler::handleRequest}）
+ * @param usagePlans APIキーの値と使用量プランの対応
+ * @param binaryMediaTypes バイナリとして扱うメディアタイプ（{@code ~1} は {@code /} に戻したもの）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record SamTemplate(List<Route> routes, String authorizerHandler, Map<String, UsagePlan> usagePlans,
+                          List<String> binaryMediaTypes) {
+
+    /**
+     * テンプレートに定義されたAPIのルート
+     *
+     * @param method HTTPメソッド（大文字）
+     * @param resourcePath リソースパス（例: {@code /admin/users/{userId}}）
+     * @param handler 関数のハンドラー
+     * @param authorized Authorizerを経由する場合は {@code true}（{@code Authorizer: NONE} の場合は {@code false}）
+     */
+    public record Route(String method, String resourcePath, String handler, boolean authorized) {
+    }
+
+    /**
+     * テンプレートを読み込みます。
+     *
+     * @param template template.yamlのパス
+     * @return 読み取った内容
+     * @throws IOException 読み込みに失敗した場合
+     */
+    public static SamTemplate read(Path template) throws IOException {
+        Map<String, Map<String, String>> resources = new LinkedHashMap<>();
+        Map<String, List<Map<String, String>>> events = new HashMap<>();
+        List<String> binaryMediaTypes = new ArrayList<>();
+        boolean inResources = false;
+        Map<String, String> resource = null;
+        List<Map<String, String>> resourceEvents = null;
+        Map<String, String> event = null;
+        String section = null;
+
+        for (String rawLine : Files.readAllLines(template)) {
+            String line = stripComment(rawLine);
+            if (line.isBlank()) {
+                continue;
+            }
+            int indent = line.length() - line.stripLeading().length();
+            String text = line.strip();
+            if (indent == 0) {
+                inResources = text.equals("Resources:");
+                continue;
+            }
+            if (!inResources) {
+                continue;
+            }
+            if (indent == 2) {
+                // リソースの論理ID
+                String logicalId = text.substring(0, text.length() - 1);
+                resource = new HashMap<>();
+                resourceEvents = new ArrayList<>();
+                resources.put(logicalId, resource);
+                events.put(logicalId, resourceEvents);
+                section = null;
+                event = null;
+                continue;
+            }
+            if (indent == 8 && text.endsWith(":") && "Events".equals(section)) {
+                // Eventsの各イベント
+                event = new HashMap<>();
+                resourceEvents.add(event);
+                continue;
+            }
+            if (indent == 8 && "BinaryMediaTypes".equals(section) && text.startsWith("- ")) {
+                // - "application~1json"
+                binaryMediaTypes.add(text.substring(2).replace("\"", "").replace("~1", "/"));
+                continue;
+            }
+            int colon = text.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String key = text.startsWith("- ") ? text.substring(2, colon) : text.substring(0, colon);
+            String value = text.substring(colon + 1).strip();
+            if (indent == 4 && value.isEmpty()) {
+                continue;
+            }
+            if (indent == 6 && value.isEmpty()) {
+                section = key;
+                event = null;
+                continue;
+            }
+            if (event != null && indent > 8) {
+                event.put(key, value);
+            } else {
+                resource.putIfAbsent(key, value);
+            }
+        }
+        return build(resources, events, List.copyOf(binaryMediaTypes));
+    }
+
+    private static SamTemplate build(Map<String, Map<String, String>> resources,
+                                     Map<String, List<Map<String, String>>> events, List<String> binaryMediaTypes) {
+        List<Route> routes = new ArrayList<>();
+        String authorizerFunction = null;
+        Map<String, String> planOfKey = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Map<String, String>> entry : resources.entrySet()) {
+            Map<String, String> properties = entry.getValue();
+            switch (properties.getOrDefault("Type", "")) {
+                case "AWS::Serverless::Function" -> {
+                    for (Map<String, String> event : events.get(entry.getKey())) {
+                        if ("Api".equals(event.get("Type"))) {
+                            routes.add(new Route(event.get("Method").toUpperCase(), event.get("Path"),
+                                    properties.get("Handler"), !"NONE".equals(event.get("Authorizer"))));
+                        }
+                    }
+                }
+                case "AWS::Serverless::Api" -> {
+                    String functionArn = properties.get("FunctionArn");
+                    if (functionArn != null) {
+                        // !Ref AuthorizerFunction.Alias または !GetAtt AuthorizerFunction.Arn
+                        authorizerFunction = functionArn.substring(functionArn.indexOf(' ') + 1, functionArn.lastIndexOf('.'));
+                    }
+                }
+                case "AWS::ApiGateway::UsagePlanKey" ->
+                        planOfKey.put(refOf(properties.get("KeyId")), refOf(properties.get("UsagePlanId")));
+                default -> {
+                }
+            }
+        }
+
+        Map<String, UsagePlan> usagePlans = new LinkedHashMap<>();
+        planOfKey.forEach((keyId, planId) -> {
+            Map<String, String> key = resources.get(keyId);
+            Map<String, String> plan = resources.get(planId);
+            if (key == null || plan == null || "false".equals(key.get("Enabled"))) {
+                return;
+            }
+            usagePlans.put(key.get("Name"), new UsagePlan(plan.get("UsagePlanName"),
+                    Double.parseDouble(plan.get("RateLimit")), Integer.parseInt(plan.get("BurstLimit"))));
+        });
+
+        String authorizerHandler = (authorizerFunction != null) ? resources.get(authorizerFunction).get("Handler") : null;
+        return new SamTemplate(List.copyOf(routes), authorizerHandler, usagePlans, binaryMediaTypes);
+    }
+
+    private static String stripComment(String line) {
+        int hash = line.indexOf(" #");
+        if (line.stripLeading().startsWith("#")) {
+            return "";
+        }
+        return (hash >= 0) ? line.substring(0, hash) : line;
+    }
+
+    private static String refOf(String value) {
+        return value.startsWith("!Ref ") ? value.substring("!Ref ".length()) : value;
+    }
+}
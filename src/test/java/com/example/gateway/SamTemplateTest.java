@@ -0,0 +1,76 @@
+package com.example.gateway;
+
+import com.example.http.ResponseCompressor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SamTemplateクラスの単体テスト
+ * プロジェクトのtemplate.yamlからルートと使用量プランを読み取れることをテストします。
+ */
+@DisplayName("SamTemplate Tests")
+class SamTemplateTest {
+
+    private static SamTemplate template;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        template = SamTemplate.read(Path.of("template.yaml"));
+    }
+
+    @Test
+    @DisplayName("全てのAPIイベントがルートとして読み取られること")
+    void shouldReadAllRoutes() {
+        assertEquals(12, template.routes().size());
+        assertTrue(template.routes().contains(new SamTemplate.Route(
+                "GET", "/admin/users/{userId}", "com.example.AdminUsersHandler::handleRequest", true)));
+        assertTrue(template.routes().contains(new SamTemplate.Route(
+                "GET", "/hello", "com.example.ProtectedHandler::handleRequest", true)));
+        assertTrue(template.routes().contains(new SamTemplate.Route(
+                "POST", "/admin/users/import", "com.example.AdminUsersHandler::handleRequest", true)));
+    }
+
+    @Test
+    @DisplayName("Authorizer: NONE のルートはAuthorizerを経由しないこと")
+    void shouldReadRouteWithoutAuthorizer() {
+        assertTrue(template.routes().contains(new SamTemplate.Route(
+                "POST", "/auth/token", "com.example.AuthHandler::handleRequest", false)));
+    }
+
+    @Test
+    @DisplayName("DefaultAuthorizerの関数のハンドラーが読み取られること")
+    void shouldReadAuthorizerHandler() {
+        assertEquals("com.example.AuthorizerHandler::handleRequest", template.authorizerHandler());
+    }
+
+    @Test
+    @DisplayName("APIキーごとの使用量プランが読み取られること")
+    void shouldReadUsagePlansByApiKey() {
+        assertEquals(new UsagePlan("PlanForCompanyA", 16.67, 50), template.usagePlans().get("CompanyAKey"));
+        assertEquals(new UsagePlan("PlanForCompanyB", 5, 5), template.usagePlans().get("CompanyBKey"));
+        assertEquals(2, template.usagePlans().size());
+    }
+
+    @Test
+    @DisplayName("BinaryMediaTypesが圧縮の対象と一致すること")
+    void shouldReadBinaryMediaTypes() {
+        assertEquals(ResponseCompressor.BINARY_MEDIA_TYPES, template.binaryMediaTypes());
+    }
+
+    @Test
+    @DisplayName("SnapStartが公開バージョンに適用され、Authorizerもエイリアスで呼び出されること")
+    void shouldEnableSnapStartOnPublishedVersions() throws IOException {
+        String globals = Files.readString(Path.of("template.yaml")).split("\nResources:")[0];
+
+        assertTrue(globals.contains("    AutoPublishAlias: live\n"));
+        assertTrue(globals.contains("    SnapStart:\n      ApplyOn: PublishedVersions\n"));
+        assertEquals("com.example.AuthorizerHandler::handleRequest", template.authorizerHandler());
+    }
+}
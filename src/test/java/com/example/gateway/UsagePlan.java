@@ -0,0 +1,13 @@
+package com.example.gateway;
+
+/**
+ * API Gatewayの使用量プランのスロットリング設定を表すレコード
+ *
+ * @param name 使用量プランの名前
+ * @param rateLimit 1秒あたりのリクエスト数（{@code Throttle.RateLimit}）
+ * @param burstLimit バースト上限（{@code Throttle.BurstLimit}）
+ * @author Sample Project
+ * @version 1.0
+ */
+public record UsagePlan(String name, double rateLimit, int burstLimit) {
+}
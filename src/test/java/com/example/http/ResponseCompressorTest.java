@@ -0,0 +1,145 @@
+package com.example.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResponseCompressorクラスの単体テスト
+ * Accept-Encodingの判定、閾値、gzip形式の出力をテストします。
+ */
+@DisplayName("ResponseCompressor Tests")
+class ResponseCompressorTest {
+
+    private final ResponseCompressor compressor = new ResponseCompressor(1024, ResponseCompressor.DEFAULT_LEVEL);
+
+    private static APIGatewayProxyRequestEvent request(String acceptEncoding) {
+        return new APIGatewayProxyRequestEvent().withHeaders(acceptEncoding != null
+                ? Map.of("accept", "application/json", "accept-encoding", acceptEncoding) : null);
+    }
+
+    private static APIGatewayProxyResponseEvent response(String body) {
+        return ApiResponses.json(200, body);
+    }
+
+    private static String usersJson(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"user-").append(i).append("\",\"name\":\"ユーザー ").append(i).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static String gunzip(String base64) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("閾値以上のボディがgzip・Base64に変換されること")
+    void shouldCompressLargeBody() throws IOException {
+        String body = usersJson(100);
+
+        APIGatewayProxyResponseEvent compressed = compressor.compress(request("gzip, deflate, br"), response(body));
+
+        assertTrue(compressed.getIsBase64Encoded());
+        assertEquals("gzip", compressed.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", compressed.getHeaders().get("Vary"));
+        assertEquals("application/json", compressed.getHeaders().get("Content-Type"));
+        assertEquals(body, gunzip(compressed.getBody()));
+        assertTrue(Base64.getDecoder().decode(compressed.getBody()).length < body.length() / 4);
+    }
+
+    @Test
+    @DisplayName("スレッドのDeflaterを再利用しても毎回正しく圧縮されること")
+    void shouldReuseDeflaterAcrossCalls() throws IOException {
+        for (int count : new int[]{200, 50, 300}) {
+            String body = usersJson(count);
+            assertEquals(body, gunzip(compressor.compress(request("gzip"), response(body)).getBody()));
+        }
+    }
+
+    @Test
+    @DisplayName("閾値未満のボディは圧縮されないこと")
+    void shouldNotCompressSmallBody() {
+        String body = usersJson(2);
+
+        APIGatewayProxyResponseEvent response = compressor.compress(request("gzip"), response(body));
+
+        assertNull(response.getIsBase64Encoded());
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    @DisplayName("圧縮しても小さくならないボディはそのまま返されること")
+    void shouldNotCompressWhenNotSmaller() {
+        // gzipのヘッダーとトレーラー（18バイト）の分だけ大きくなる
+        String body = "{\"id\":\"user-001\"}";
+
+        APIGatewayProxyResponseEvent response = new ResponseCompressor(1, 9).compress(request("gzip"), response(body));
+
+        assertNull(response.getIsBase64Encoded());
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    @DisplayName("gzipを受け付けないクライアントには圧縮しないこと")
+    void shouldRespectAcceptEncoding() {
+        String body = usersJson(100);
+
+        assertEquals(body, compressor.compress(request(null), response(body)).getBody());
+        assertEquals(body, compressor.compress(request("br"), response(body)).getBody());
+        assertEquals(body, compressor.compress(request("gzip;q=0, *"), response(body)).getBody());
+        assertTrue(compressor.compress(request("br;q=1.0, *;q=0.5"), response(body)).getIsBase64Encoded());
+    }
+
+    @Test
+    @DisplayName("AcceptがBinaryMediaTypesに一致しないクライアントには圧縮しないこと")
+    void shouldNotCompressWhenResponseWouldStayBase64() {
+        String body = usersJson(200);
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHeaders(Map.of("Accept", "*/*", "Accept-Encoding", "gzip"));
+
+        assertEquals(body, compressor.compress(request, response(body)).getBody());
+        assertTrue(ResponseCompressor.isBinaryMediaType("application/json; charset=utf-8, */*"));
+        assertFalse(ResponseCompressor.isBinaryMediaType("text/html, application/json"));
+        assertFalse(ResponseCompressor.isBinaryMediaType(null));
+    }
+
+    @Test
+    @DisplayName("Accept-Encodingの品質値が解釈されること")
+    void shouldParseQualityValues() {
+        assertTrue(ResponseCompressor.acceptsGzip("GZIP"));
+        assertTrue(ResponseCompressor.acceptsGzip("deflate, gzip;q=0.8"));
+        assertFalse(ResponseCompressor.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseCompressor.acceptsGzip("*;q=0"));
+        assertFalse(ResponseCompressor.acceptsGzip("identity"));
+        assertFalse(ResponseCompressor.acceptsGzip(""));
+    }
+
+    @Test
+    @DisplayName("エンコード済みのレスポンスと無効化された設定では圧縮しないこと")
+    void shouldSkipEncodedResponsesAndDisabledCompressor() {
+        String body = usersJson(100);
+        APIGatewayProxyResponseEvent encoded = new APIGatewayProxyResponseEvent()
+                .withStatusCode(200).withHeaders(Map.of("Content-Encoding", "br")).withBody(body);
+
+        assertEquals(body, compressor.compress(request("gzip"), encoded).getBody());
+        assertEquals(body, ResponseCompressor.disabled().compress(request("gzip"), response(body)).getBody());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserIdGeneratorクラスの単体テスト
+ * IDの形式、単調性、並行実行時の一意性をテストします。
+ */
+@DisplayName("UserIdGenerator Tests")
+class UserIdGeneratorTest {
+
+    @Test
+    @DisplayName("IDがプレフィックスとCrockford Base32の26文字で構成されること")
+    void shouldGenerateIdWithPrefixAndCrockfordBase32() {
+        UserIdGenerator generator = new UserIdGenerator(System::currentTimeMillis, 12345L);
+
+        String userId = generator.nextId();
+
+        assertTrue(userId.startsWith("user-"));
+        assertEquals(31, userId.length());
+        assertTrue(userId.substring(5).matches("[0-9A-HJKMNP-TV-Z]{26}"));
+    }
+
+    @Test
+    @DisplayName("IDに生成時刻が埋め込まれていること")
+    void shouldEmbedTimestampInId() {
+        long now = 1_760_000_000_000L;
+        UserIdGenerator generator = new UserIdGenerator(() -> now, 0L);
+
+        assertEquals(now, UserIdGenerator.timestampOf(generator.nextId()));
+    }
+
+    @Test
+    @DisplayName("同一ミリ秒内でも文字列順に単調増加すること")
+    void shouldIncreaseMonotonicallyWithinSameMillisecond() {
+        UserIdGenerator generator = new UserIdGenerator(() -> 1_000L, -1L);
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            String current = generator.nextId();
+            assertTrue(previous.compareTo(current) < 0, previous + " >= " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("時計が巻き戻っても単調増加が維持されること")
+    void shouldStayMonotonicWhenClockRollsBack() {
+        AtomicLong clock = new AtomicLong(5_000L);
+        UserIdGenerator generator = new UserIdGenerator(clock::get, 42L);
+
+        String beforeRollback = generator.nextId();
+        clock.set(4_000L); // 1秒巻き戻し
+        String afterRollback = generator.nextId();
+
+        assertTrue(beforeRollback.compareTo(afterRollback) < 0);
+        // 論理時刻は巻き戻らない
+        assertEquals(5_000L, UserIdGenerator.timestampOf(afterRollback));
+    }
+
+    @Test
+    @DisplayName("シーケンスが溢れた場合は論理時刻が進むこと")
+    void shouldAdvanceLogicalTimeWhenSequenceOverflows() {
+        UserIdGenerator generator = new UserIdGenerator(() -> 7_000L, 0L);
+
+        String last = null;
+        for (int i = 0; i < 65_537; i++) {
+            last = generator.nextId();
+        }
+
+        // シーケンス0〜65535を使い切ると65537個目で次のミリ秒に繰り上がる
+        assertEquals(7_001L, UserIdGenerator.timestampOf(last));
+    }
+
+    @Test
+    @DisplayName("インスタンス乱数が異なれば同一時刻でもIDが衝突しないこと")
+    void shouldNotCollideAcrossInstancesWithDifferentEntropy() {
+        UserIdGenerator first = new UserIdGenerator(() -> 9_000L, 1L);
+        UserIdGenerator second = new UserIdGenerator(() -> 9_000L, 2L);
+
+        assertNotEquals(first.nextId(), second.nextId());
+    }
+
+    @Test
+    @DisplayName("再シード後は新しい乱数がIDに反映されること")
+    void shouldApplyNewEntropyAfterReseed() {
+        UserIdGenerator generator = new UserIdGenerator(() -> 9_000L, 1L);
+        String before = generator.nextId();
+
+        generator.reseed(2L);
+        String after = generator.nextId();
+
+        assertNotEquals(before.substring(18), after.substring(18));
+    }
+
+    @Test
+    @DisplayName("不正な形式のIDから時刻を取り出そうとすると例外が発生すること")
+    void shouldRejectMalformedIdWhenExtractingTimestamp() {
+        assertThrows(IllegalArgumentException.class, () -> UserIdGenerator.timestampOf(null));
+        assertThrows(IllegalArgumentException.class, () -> UserIdGenerator.timestampOf("user-003"));
+        assertThrows(IllegalArgumentException.class, () -> UserIdGenerator.timestampOf("user-U0000000000000000000000000"));
+    }
+
+    @Test
+    @DisplayName("64スレッドから同時に生成してもIDが一意であること")
+    void shouldGenerateUniqueIdsAcross64Threads() throws Exception {
+        int threads = 64;
+        int idsPerThread = 20_000;
+        UserIdGenerator generator = UserIdGenerator.getDefault();
+        Set<String> ids = ConcurrentHashMap.newKeySet(threads * idsPerThread);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String previous = "";
+                    for (int i = 0; i < idsPerThread; i++) {
+                        String id = generator.nextId();
+                        // スレッド内でも生成順に並ぶこと
+                        assertTrue(previous.compareTo(id) < 0);
+                        ids.add(id);
+                        previous = id;
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+}
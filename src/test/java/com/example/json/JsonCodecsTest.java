@@ -0,0 +1,139 @@
+package com.example.json;
+
+import com.example.model.TokenResponse;
+import com.example.model.UserRequest;
+import com.example.model.UserResponse;
+import com.example.model.UserStatusResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonCodecsクラスの単体テスト
+ * DTOのシリアライズ・デシリアライズとエスケープ処理をテストします。
+ */
+@DisplayName("JsonCodecs Tests")
+class JsonCodecsTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("UserStatusResponseがJSONに変換されること")
+    void shouldSerializeUserStatusResponse() {
+        String json = JsonCodecs.toJson(new UserStatusResponse("user-001", "created"));
+
+        assertEquals("{\"userId\":\"user-001\",\"status\":\"created\"}", json);
+    }
+
+    @Test
+    @DisplayName("引用符や改行を含む値が正しくエスケープされること")
+    void shouldEscapeSpecialCharacters() {
+        String userId = "a\"b\\c\nd\u0001";
+
+        String json = JsonCodecs.toJson(new UserStatusResponse(userId, "updated"));
+
+        // 標準のGsonで読み戻して元の値と一致することを検証
+        @SuppressWarnings("unchecked")
+        Map<String, String> parsed = gson.fromJson(json, Map.class);
+        assertEquals(userId, parsed.get("userId"));
+        assertFalse(json.contains("\n"));
+    }
+
+    @Test
+    @DisplayName("JSONインジェクションを試みる値がフィールドを追加しないこと")
+    void shouldNotAllowJsonInjection() {
+        String json = JsonCodecs.toJson(new UserResponse("x\",\"role\":\"admin", "Taro"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> parsed = gson.fromJson(json, Map.class);
+        assertEquals(2, parsed.size());
+        assertNull(parsed.get("role"));
+    }
+
+    @Test
+    @DisplayName("UserResponseのnullフィールドは出力されないこと")
+    void shouldOmitNullOptionalFields() {
+        String json = JsonCodecs.toJson(new UserResponse("user-001", "Taro Yamada"));
+
+        assertEquals("{\"userId\":\"user-001\",\"name\":\"Taro Yamada\"}", json);
+    }
+
+    @Test
+    @DisplayName("userIdがnullの場合はnullとして出力されること")
+    void shouldWriteNullUserIdExplicitly() {
+        String json = JsonCodecs.toJson(new UserStatusResponse(null, "patched"));
+
+        assertEquals("{\"userId\":null,\"status\":\"patched\"}", json);
+    }
+
+    @Test
+    @DisplayName("リストがJSON配列に変換されること")
+    void shouldSerializeListAsJsonArray() {
+        String json = JsonCodecs.toJsonArray(List.of(
+                new UserResponse("user-001", "Taro Yamada"),
+                new UserResponse("user-002", "Hanako Suzuki")), UserResponse.class);
+
+        assertEquals("[{\"userId\":\"user-001\",\"name\":\"Taro Yamada\"},"
+                + "{\"userId\":\"user-002\",\"name\":\"Hanako Suzuki\"}]", json);
+    }
+
+    @Test
+    @DisplayName("複数のDTOが既存のバッファの後ろにtoJsonと同じ形式で続けて追記されること")
+    void shouldAppendJsonToBuffer() {
+        UserResponse first = new UserResponse("user-001", "Quote \"Q\"\n", "taro@example.com", null);
+        UserResponse second = new UserResponse("user-002", "Hanako Suzuki");
+        StringBuilder out = new StringBuilder("[");
+        JsonAppender appender = JsonCodecs.appender(out);
+
+        appender.append(first).append(',');
+        appender.append(second).append(']');
+
+        assertEquals("[" + JsonCodecs.toJson(first) + "," + JsonCodecs.toJson(second) + "]", out.toString());
+    }
+
+    @Test
+    @DisplayName("UserRequestが読み取られ未知のフィールドは無視されること")
+    void shouldReadUserRequestSkippingUnknownFields() {
+        String json = """
+                {"name":"田中太郎","email":"tanaka@example.com","metadata":{"department":"IT"},"role":null}""";
+
+        UserRequest request = JsonCodecs.fromJson(json, UserRequest.class);
+
+        assertEquals(new UserRequest("田中太郎", "tanaka@example.com", null), request);
+    }
+
+    @Test
+    @DisplayName("全DTOが往復変換で同じ値に戻ること")
+    void shouldRoundTripAllRegisteredTypes() {
+        UserRequest request = new UserRequest("n", "e@example.com", "admin");
+        UserResponse response = new UserResponse("user-1", "n", "e@example.com", "editor");
+        UserStatusResponse status = new UserStatusResponse("user-1", "updated");
+        TokenResponse token = new TokenResponse("a.b.c");
+
+        assertEquals(request, JsonCodecs.fromJson(JsonCodecs.toJson(request), UserRequest.class));
+        assertEquals(response, JsonCodecs.fromJson(JsonCodecs.toJson(response), UserResponse.class));
+        assertEquals(status, JsonCodecs.fromJson(JsonCodecs.toJson(status), UserStatusResponse.class));
+        assertEquals(token, JsonCodecs.fromJson(JsonCodecs.toJson(token), TokenResponse.class));
+    }
+
+    @Test
+    @DisplayName("不正なJSONでJsonSyntaxExceptionが発生すること")
+    void shouldThrowJsonSyntaxExceptionForMalformedJson() {
+        assertThrows(JsonSyntaxException.class, () -> JsonCodecs.fromJson("{invalid json}", UserRequest.class));
+        assertThrows(JsonSyntaxException.class, () -> JsonCodecs.fromJson("[1,2]", UserRequest.class));
+        assertThrows(JsonSyntaxException.class, () -> JsonCodecs.fromJson("{} {}", UserRequest.class));
+    }
+
+    @Test
+    @DisplayName("未登録のクラスを指定すると例外が発生すること")
+    void shouldRejectUnregisteredType() {
+        assertThrows(IllegalArgumentException.class, () -> JsonCodecs.adapterFor(String.class));
+        assertThrows(IllegalArgumentException.class, () -> JsonCodecs.toJson(Map.of("k", "v")));
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.logging;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * StructuredLoggerクラスの単体テスト
+ * レベルによる破棄、フィールドのJSON出力、リングバッファの挙動をテストします。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StructuredLogger Tests")
+class StructuredLoggerTest {
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Mock
+    private Context mockContext;
+
+    @BeforeEach
+    void setUp() {
+        LambdaLogger logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                lines.add(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                lines.add(new String(message));
+            }
+        };
+        lenient().when(mockContext.getLogger()).thenReturn(logger);
+        lenient().when(mockContext.getAwsRequestId()).thenReturn("req-1");
+        StructuredLogger.flush(null);
+    }
+
+    @Test
+    @DisplayName("フィールドが型を保ったままJSON Lines形式で出力されること")
+    void shouldSerializeFieldsAsJsonLines() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.INFO);
+        logger.info("user created").with("userId", "user-001").with("count", 3).with("admin", true);
+        logger.error("failed").with("reason", (String) null);
+
+        StructuredLogger.flush(mockContext);
+
+        assertEquals(2, lines.size());
+        JsonObject first = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("INFO", first.get("level").getAsString());
+        assertEquals("Test", first.get("logger").getAsString());
+        assertEquals("req-1", first.get("requestId").getAsString());
+        assertEquals("user created", first.get("message").getAsString());
+        assertEquals("user-001", first.get("userId").getAsString());
+        assertEquals(3, first.get("count").getAsInt());
+        assertTrue(first.get("admin").getAsBoolean());
+
+        JsonObject second = JsonParser.parseString(lines.get(1)).getAsJsonObject();
+        assertEquals("ERROR", second.get("level").getAsString());
+        assertTrue(second.get("reason").isJsonNull());
+    }
+
+    @Test
+    @DisplayName("出力レベル未満のログは記録されないこと")
+    void shouldDiscardBelowLevel() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.WARN);
+
+        LogEvent event = logger.info("ignored").with("count", 1);
+        StructuredLogger.flush(mockContext);
+
+        assertSame(LogEvent.DISCARDED, event);
+        assertEquals(0, event.fieldCount);
+        assertFalse(logger.isEnabled(LogLevel.INFO));
+        assertTrue(logger.isEnabled(LogLevel.ERROR));
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("値に含まれる特殊文字がエスケープされること")
+    void shouldEscapeValues() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.DEBUG);
+        logger.debug("quote \" and\nnewline").with("path", "C:\\tmp");
+
+        StructuredLogger.flush(mockContext);
+
+        JsonObject log = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("quote \" and\nnewline", log.get("message").getAsString());
+        assertEquals("C:\\tmp", log.get("path").getAsString());
+    }
+
+    @Test
+    @DisplayName("上限を超えたフィールドは無視されること")
+    void shouldIgnoreFieldsBeyondLimit() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.INFO);
+        LogEvent event = logger.info("many fields");
+        for (int i = 0; i < LogEvent.MAX_FIELDS + 2; i++) {
+            event.with("f" + i, i);
+        }
+
+        StructuredLogger.flush(mockContext);
+
+        JsonObject log = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertTrue(log.has("f" + (LogEvent.MAX_FIELDS - 1)));
+        assertFalse(log.has("f" + LogEvent.MAX_FIELDS));
+    }
+
+    @Test
+    @DisplayName("バッファが一杯になると古いレコードが破棄され、件数が報告されること")
+    void shouldReportDroppedRecordsWhenBufferOverflows() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.INFO);
+        for (int i = 0; i < LogBuffer.CAPACITY + 5; i++) {
+            logger.info("record").with("seq", i);
+        }
+
+        StructuredLogger.flush(mockContext);
+
+        assertEquals(LogBuffer.CAPACITY + 1, lines.size());
+        JsonObject overflow = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("WARN", overflow.get("level").getAsString());
+        assertEquals(5, overflow.get("count").getAsInt());
+        // 最も古い5件が上書きされている
+        assertEquals(5, JsonParser.parseString(lines.get(1)).getAsJsonObject().get("seq").getAsInt());
+    }
+
+    @Test
+    @DisplayName("並列ストリームのワーカースレッドで記録されたログも、リクエストのスレッドのフラッシュで出力されること")
+    void shouldFlushRecordsFromWorkerThreads() throws Exception {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.INFO);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> IntStream.range(0, 100).parallel()
+                    .forEach(i -> logger.info("worker").with("seq", i))).get();
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("handler");
+
+        StructuredLogger.flush(mockContext);
+
+        assertEquals(101, lines.size());
+        assertEquals(100, lines.stream()
+                .map(line -> JsonParser.parseString(line).getAsJsonObject())
+                .filter(log -> log.get("message").getAsString().equals("worker"))
+                .filter(log -> log.get("requestId").getAsString().equals("req-1"))
+                .map(log -> log.get("seq").getAsInt())
+                .distinct().count());
+
+        lines.clear();
+        StructuredLogger.flush(mockContext);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("フラッシュ後はバッファが空になること")
+    void shouldEmptyBufferAfterFlush() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.INFO);
+        logger.info("once");
+
+        StructuredLogger.flush(mockContext);
+        StructuredLogger.flush(mockContext);
+
+        assertEquals(1, lines.size());
+    }
+
+    @Test
+    @DisplayName("ロガーがnullのコンテキストではログが破棄されること")
+    void shouldDiscardWhenLoggerIsNull() {
+        StructuredLogger logger = new StructuredLogger("Test", LogLevel.INFO);
+        logger.info("lost");
+        lenient().when(mockContext.getLogger()).thenReturn(null);
+
+        assertDoesNotThrow(() -> StructuredLogger.flush(mockContext));
+        logger.info("next");
+        StructuredLogger.flush(null);
+
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("ログレベルの設定値が解決されること")
+    void shouldParseLogLevel() {
+        assertEquals(LogLevel.DEBUG, LogLevel.parse("debug", LogLevel.INFO));
+        assertEquals(LogLevel.WARN, LogLevel.parse(" WARN ", LogLevel.INFO));
+        assertEquals(LogLevel.INFO, LogLevel.parse("verbose", LogLevel.INFO));
+        assertEquals(LogLevel.INFO, LogLevel.parse(null, LogLevel.INFO));
+    }
+}
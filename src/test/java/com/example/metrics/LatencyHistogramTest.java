@@ -0,0 +1,133 @@
+package com.example.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogramクラスの単体テスト
+ * バケットの精度、取り出しとリセット、同時記録をテストします。
+ */
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("32マイクロ秒未満は1マイクロ秒刻みで記録されること")
+    void shouldRecordSmallValuesExactly() {
+        for (long micros = 0; micros < 32; micros++) {
+            assertEquals(micros, LatencyHistogram.representativeMicros(LatencyHistogram.indexOf(micros)));
+        }
+    }
+
+    @Test
+    @DisplayName("代表値の相対誤差が約3%以内であること")
+    void shouldKeepRelativeErrorSmall() {
+        for (long micros = 32; micros < 100_000_000L; micros = micros * 3 / 2 + 7) {
+            long representative = LatencyHistogram.representativeMicros(LatencyHistogram.indexOf(micros));
+            double error = Math.abs(representative - micros) / (double) micros;
+            assertTrue(error <= 1.0 / 32, "micros=" + micros + " representative=" + representative);
+        }
+    }
+
+    @Test
+    @DisplayName("バケット番号が値に対して単調増加すること")
+    void shouldMapValuesMonotonically() {
+        int previous = -1;
+        for (long micros = 0; micros < 1_000_000; micros++) {
+            int index = LatencyHistogram.indexOf(micros);
+            assertTrue(index >= previous);
+            assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            previous = index;
+        }
+    }
+
+    @Test
+    @DisplayName("取り出すと昇順の代表値が返され、ヒストグラムがリセットされること")
+    void shouldDrainSortedValuesAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(5_000_000); // 5ms
+        histogram.recordNanos(1_000);     // 1µs
+        histogram.recordNanos(5_000_000);
+
+        double[] values = new double[10];
+        int count = histogram.drainTo(values);
+
+        assertEquals(3, count);
+        assertEquals(0.001, values[0], 1e-9);
+        assertEquals(5.0, values[1], 5.0 / 32);
+        assertEquals(values[1], values[2]);
+        assertEquals(0, histogram.drainTo(values));
+    }
+
+    @Test
+    @DisplayName("書き出し先が満杯になると残りが破棄されること")
+    void shouldTruncateWhenOutputIsFull() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 150; i++) {
+            histogram.recordNanos(1_000_000);
+        }
+
+        assertEquals(100, histogram.drainTo(new double[100]));
+        assertEquals(0, histogram.drainTo(new double[100]));
+    }
+
+    @Test
+    @DisplayName("パーセンタイル値が計算されること")
+    void shouldComputePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordNanos(i * 1_000_000L); // 1ms〜100ms
+        }
+
+        assertEquals(50.0, histogram.percentileMillis(50), 50.0 / 32);
+        assertEquals(99.0, histogram.percentileMillis(99), 99.0 / 32);
+        assertEquals(0, new LatencyHistogram().percentileMillis(99));
+    }
+
+    @Test
+    @DisplayName("負の値や上限を超える値が範囲内に丸められること")
+    void shouldClampOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(-1);
+        histogram.recordNanos(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.drainTo(new double[10]));
+    }
+
+    @Test
+    @DisplayName("複数スレッドから同時に記録しても件数が失われないこと")
+    void shouldNotLoseCountsUnderContention() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        histogram.recordNanos(2_000_000);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(16_000, histogram.drainTo(new double[20_000]));
+    }
+}
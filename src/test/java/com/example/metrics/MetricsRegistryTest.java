@@ -0,0 +1,224 @@
+package com.example.metrics;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MetricsRegistryクラスの単体テスト
+ * CloudWatch Embedded Metric Formatの出力内容をテストします。
+ */
+@DisplayName("MetricsRegistry Tests")
+class MetricsRegistryTest {
+
+    private final List<String> lines = new ArrayList<>();
+
+    private final LambdaLogger logger = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+            lines.add(message);
+        }
+
+        @Override
+        public void log(byte[] message) {
+            lines.add(new String(message));
+        }
+    };
+
+    @Test
+    @DisplayName("EMFの構造とディメンション・メトリクス値が出力されること")
+    void shouldEmitEmbeddedMetricFormat() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 1_700_000_000_000L);
+        registry.record("GET /admin/users", 200, "org-abc", 2_000_000);
+        registry.record("GET /admin/users", 204, "org-abc", 4_000_000);
+
+        registry.flush(logger);
+
+        assertEquals(1, lines.size());
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        JsonObject aws = emf.getAsJsonObject("_aws");
+        assertEquals(1_700_000_000_000L, aws.get("Timestamp").getAsLong());
+
+        JsonObject directive = aws.getAsJsonArray("CloudWatchMetrics").get(0).getAsJsonObject();
+        assertEquals("ApiSample", directive.get("Namespace").getAsString());
+        JsonArray dimensions = directive.getAsJsonArray("Dimensions");
+        assertEquals(2, dimensions.size());
+        assertEquals(3, dimensions.get(1).getAsJsonArray().size());
+        JsonArray metrics = directive.getAsJsonArray("Metrics");
+        assertEquals("Latency", metrics.get(0).getAsJsonObject().get("Name").getAsString());
+        assertEquals("Milliseconds", metrics.get(0).getAsJsonObject().get("Unit").getAsString());
+        assertEquals("Requests", metrics.get(1).getAsJsonObject().get("Name").getAsString());
+
+        assertEquals("GET /admin/users", emf.get("Route").getAsString());
+        assertEquals("2xx", emf.get("StatusClass").getAsString());
+        assertEquals("org-abc", emf.get("Tenant").getAsString());
+        assertEquals(2, emf.get("Requests").getAsLong());
+        JsonArray latency = emf.getAsJsonArray("Latency");
+        assertEquals(2, latency.size());
+        assertEquals(2.0, latency.get(0).getAsDouble(), 2.0 / 32);
+        assertEquals(4.0, latency.get(1).getAsDouble(), 4.0 / 32);
+    }
+
+    @Test
+    @DisplayName("前回のフラッシュ以降に記録されたディメンションの組だけが出力されること")
+    void shouldEmitOnlyTouchedDimensionSets() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 0L);
+        registry.record("GET /admin/users", 200, "org-abc", 1_000_000);
+        registry.record("POST /admin/users", 400, null, 1_000_000);
+        registry.flush(logger);
+        assertEquals(2, lines.size());
+
+        lines.clear();
+        registry.record("POST /admin/users", 500, null, 1_000_000);
+        registry.flush(logger);
+
+        assertEquals(1, lines.size());
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("5xx", emf.get("StatusClass").getAsString());
+        assertEquals("none", emf.get("Tenant").getAsString());
+
+        lines.clear();
+        registry.flush(logger);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("フラッシュの間に記録が無かったディメンションの組は取り除かれること")
+    void shouldEvictIdleDimensionSets() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 0L);
+        for (int i = 0; i < 50; i++) {
+            registry.record("GET /admin/users", 200, "org-" + i, 1_000_000);
+        }
+        registry.flush(logger);
+        assertEquals(50, registry.seriesCount());
+
+        registry.record("GET /admin/users", 200, "org-0", 1_000_000);
+        registry.flush(logger);
+
+        assertEquals(1, registry.seriesCount());
+    }
+
+    @Test
+    @DisplayName("ディメンションの組が上限に達すると、新しい組織はまとめて記録されること")
+    void shouldFoldTenantsBeyondLimit() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 0L);
+        for (int i = 0; i < MetricsRegistry.MAX_SERIES + 10; i++) {
+            registry.record("GET /admin/users", 200, "org-" + i, 1_000_000);
+        }
+
+        assertEquals(MetricsRegistry.MAX_SERIES + 1, registry.seriesCount());
+        registry.flush(logger);
+        JsonObject overflow = lines.stream()
+                .map(line -> JsonParser.parseString(line).getAsJsonObject())
+                .filter(emf -> MetricsRegistry.OVERFLOW_TENANT.equals(emf.get("Tenant").getAsString()))
+                .findFirst().orElseThrow();
+        assertEquals(10, overflow.get("Requests").getAsLong());
+    }
+
+    @Test
+    @DisplayName("1行あたりのレイテンシー値は100件までに制限されること")
+    void shouldCapLatencyValuesPerLine() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 0L);
+        for (int i = 0; i < 250; i++) {
+            registry.record("GET /admin/users", 200, "org-abc", 1_000_000);
+        }
+
+        registry.flush(logger);
+
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals(MetricsRegistry.MAX_VALUES_PER_METRIC, emf.getAsJsonArray("Latency").size());
+        assertEquals(250, emf.get("Requests").getAsLong());
+    }
+
+    @Test
+    @DisplayName("ディメンション値に含まれる特殊文字がエスケープされること")
+    void shouldEscapeDimensionValues() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 0L);
+        registry.record("GET /admin/users", 200, "org\"a\\b\n", 1_000_000);
+
+        registry.flush(logger);
+
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("org\"a\\b\n", emf.get("Tenant").getAsString());
+    }
+
+    @Test
+    @DisplayName("ロガーがnullでも例外にならず、記録は破棄されること")
+    void shouldDiscardWhenLoggerIsNull() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 0L);
+        registry.record("GET /admin/users", 200, "org-abc", 1_000_000);
+
+        assertDoesNotThrow(() -> registry.flush(null));
+        registry.flush(logger);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("無効化されたレジストリは何も出力しないこと")
+    void shouldEmitNothingWhenDisabled() {
+        MetricsRegistry registry = MetricsRegistry.disabled();
+        registry.record("GET /admin/users", 200, "org-abc", 1_000_000);
+
+        registry.flush(logger);
+
+        assertFalse(registry.isEnabled());
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("コンパクションの結果がディメンションの無い別の行として、記録があった場合だけ出力されること")
+    void shouldEmitCompactionMetrics() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 1_700_000_000_000L);
+        registry.recordCompaction(1.5, 100, 2_000_000);
+        registry.recordCompaction(1.25, 100, 2_000_000);
+
+        registry.flush(logger);
+
+        assertEquals(1, lines.size());
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        JsonObject directive = emf.getAsJsonObject("_aws").getAsJsonArray("CloudWatchMetrics").get(0).getAsJsonObject();
+        assertEquals("ApiSample", directive.get("Namespace").getAsString());
+        assertEquals(0, directive.getAsJsonArray("Dimensions").get(0).getAsJsonArray().size());
+        JsonArray metrics = directive.getAsJsonArray("Metrics");
+        assertEquals("SpaceAmplification", metrics.get(0).getAsJsonObject().get("Name").getAsString());
+        assertEquals("Count/Second", metrics.get(2).getAsJsonObject().get("Unit").getAsString());
+        assertEquals(1.25, emf.get("SpaceAmplification").getAsDouble());
+        assertEquals(200, emf.get("CompactedEntries").getAsLong());
+        assertEquals(50_000, emf.get("CompactionThroughput").getAsDouble(), 1e-6);
+
+        lines.clear();
+        registry.flush(logger);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("シングルフライトの計算回数と共有回数が、記録があった場合だけ出力されること")
+    void shouldEmitSingleFlightCounts() {
+        MetricsRegistry registry = new MetricsRegistry("ApiSample", () -> 1_700_000_000_000L);
+        registry.recordSingleFlight(false);
+        registry.recordSingleFlight(true);
+        registry.recordSingleFlight(true);
+
+        registry.flush(logger);
+
+        assertEquals(1, lines.size());
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        JsonObject directive = emf.getAsJsonObject("_aws").getAsJsonArray("CloudWatchMetrics").get(0).getAsJsonObject();
+        assertEquals(0, directive.getAsJsonArray("Dimensions").get(0).getAsJsonArray().size());
+        assertEquals("SingleFlightShared", directive.getAsJsonArray("Metrics").get(1).getAsJsonObject().get("Name").getAsString());
+        assertEquals(1, emf.get("SingleFlightLoads").getAsLong());
+        assertEquals(2, emf.get("SingleFlightShared").getAsLong());
+
+        lines.clear();
+        registry.flush(logger);
+        assertTrue(lines.isEmpty());
+    }
+}
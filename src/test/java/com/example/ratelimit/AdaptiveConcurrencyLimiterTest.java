@@ -0,0 +1,163 @@
+package com.example.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveConcurrencyLimiterクラスの単体テスト
+ * 同時実行数の上限による拒否と、処理時間による上限の調整をテストします。
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    @DisplayName("上限に達すると待たずに拒否され、解放すると再び確保できること")
+    void shouldRejectAtLimitWithoutQueueing() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100, nanos::get);
+
+        long first = limiter.tryAcquire();
+        long second = limiter.tryAcquire();
+
+        assertNotEquals(AdaptiveConcurrencyLimiter.REJECTED, first);
+        assertNotEquals(AdaptiveConcurrencyLimiter.REJECTED, second);
+        assertEquals(AdaptiveConcurrencyLimiter.REJECTED, limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+
+        limiter.release(first);
+        assertNotEquals(AdaptiveConcurrencyLimiter.REJECTED, limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("目標以下の処理時間が続くと上限が加算で増え、最大値で止まること")
+    void shouldIncreaseAdditivelyWhileFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 6, 100, nanos::get);
+
+        // 上限の数（+1）だけ完了すると約1増える
+        completeWithLatency(limiter, 5, 10);
+        assertEquals(5, limiter.limit());
+
+        completeWithLatency(limiter, 100, 10);
+        assertEquals(6, limiter.limit());
+    }
+
+    @Test
+    @DisplayName("目標を超える処理時間では上限が乗算で減り、最小値で止まること")
+    void shouldDecreaseMultiplicativelyWhenSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 2, 100, 100, nanos::get);
+
+        completeWithLatency(limiter, 1, 101);
+        assertEquals(90, limiter.limit());
+
+        completeWithLatency(limiter, 100, 500);
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    @DisplayName("同時に処理中だったリクエストがまとめて遅く完了しても、上限は1往復に1回だけ減ること")
+    void shouldDecreaseOncePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 100, nanos::get);
+        long[] permits = new long[50];
+        for (int i = 0; i < permits.length; i++) {
+            permits[i] = limiter.tryAcquire();
+        }
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        for (long permit : permits) {
+            limiter.release(permit);
+        }
+        assertEquals(45, limiter.limit());
+
+        // 減らした後に受け付けたリクエストが遅ければ、もう一度減る
+        completeWithLatency(limiter, 1, 500);
+        assertEquals(40, limiter.limit());
+    }
+
+    @Test
+    @DisplayName("不正な上限の範囲は拒否されること")
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 10, 100, nanos::get));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 5, 4, 100, nanos::get));
+    }
+
+    @Test
+    @DisplayName("同時実行数に比例して遅くなるストアでも、受け付けたリクエストのp99が目標付近に収まること")
+    void shouldBoundTailLatencyAgainstSaturatingStore() throws InterruptedException {
+        long targetMillis = 20;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 64, targetMillis, System::nanoTime);
+
+        Simulation limited = simulate(limiter);
+        Simulation unlimited = simulate(null);
+
+        // 制限が無いと32並列で約64ミリ秒かかる。制限があると上限は目標に見合う約10までしか増えない
+        assertTrue(unlimited.p99Millis() > 3 * targetMillis, unlimited.toString());
+        assertTrue(limited.p99Millis() <= 2 * targetMillis, limited.toString());
+        assertTrue(limited.rejected() > 0, limited.toString());
+        assertTrue(limiter.limit() < 32, "limit=" + limiter.limit());
+    }
+
+    private void completeWithLatency(AdaptiveConcurrencyLimiter limiter, int count, long latencyMillis) {
+        for (int i = 0; i < count; i++) {
+            long start = limiter.tryAcquire();
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            limiter.release(start);
+        }
+    }
+
+    /**
+     * 処理中のリクエスト1件につき2ミリ秒遅くなるストアに、32スレッドから40回ずつリクエストを送ります。
+     */
+    private static Simulation simulate(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        int threads = 32;
+        int requestsPerThread = 40;
+        long perRequestNanos = TimeUnit.MILLISECONDS.toNanos(2);
+        AtomicInteger storeInFlight = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long start = System.nanoTime();
+                    long permit = (limiter != null) ? limiter.tryAcquire() : start;
+                    if (permit == AdaptiveConcurrencyLimiter.REJECTED) {
+                        rejected.incrementAndGet();
+                        // 拒否されたクライアントは少し待ってから再試行する
+                        LockSupport.parkNanos(perRequestNanos);
+                        continue;
+                    }
+                    int concurrency = storeInFlight.incrementAndGet();
+                    LockSupport.parkNanos(concurrency * perRequestNanos);
+                    storeInFlight.decrementAndGet();
+                    if (limiter != null) {
+                        limiter.release(permit);
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return new Simulation(TimeUnit.NANOSECONDS.toMillis(p99), sorted.size(), rejected.get());
+    }
+
+    private record Simulation(long p99Millis, int served, int rejected) {
+    }
+}
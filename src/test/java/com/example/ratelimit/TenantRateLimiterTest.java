@@ -0,0 +1,181 @@
+package com.example.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TenantRateLimiterクラスの単体テスト
+ * テナント・ルート分類ごとのトークンバケットの挙動をテストします。
+ */
+@DisplayName("TenantRateLimiter Tests")
+class TenantRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    private TenantRateLimiter limiter(double permitsPerSecond, int burst, int maxTrackedTenants) {
+        return new TenantRateLimiter(
+                Map.of(RouteClass.LIST, new RateLimitPolicy(permitsPerSecond, burst)), clock::get, maxTrackedTenants);
+    }
+
+    @Test
+    @DisplayName("バースト数までは許可され、それを超えると拒否されること")
+    void shouldAllowUpToBurstThenReject() {
+        TenantRateLimiter limiter = limiter(2, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("org-a", RouteClass.LIST));
+        }
+        long wait = limiter.tryAcquire("org-a", RouteClass.LIST);
+
+        // 2リクエスト/秒なので次のトークンは0.5秒後
+        assertEquals(SECOND / 2, wait);
+        assertEquals(1, TenantRateLimiter.toRetryAfterSeconds(wait));
+    }
+
+    @Test
+    @DisplayName("時間の経過でトークンが補充されること")
+    void shouldRefillTokensOverTime() {
+        TenantRateLimiter limiter = limiter(1, 1, 100);
+
+        assertEquals(0, limiter.tryAcquire("org-a", RouteClass.LIST));
+        assertTrue(limiter.tryAcquire("org-a", RouteClass.LIST) > 0);
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire("org-a", RouteClass.LIST));
+    }
+
+    @Test
+    @DisplayName("拒否されたリクエストはトークンを消費しないこと")
+    void shouldNotConsumeTokensWhenRejected() {
+        TenantRateLimiter limiter = limiter(1, 1, 100);
+        limiter.tryAcquire("org-a", RouteClass.LIST);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("org-a", RouteClass.LIST);
+        }
+        clock.addAndGet(SECOND);
+
+        assertEquals(0, limiter.tryAcquire("org-a", RouteClass.LIST));
+    }
+
+    @Test
+    @DisplayName("テナントごとに独立したバケットが使われること")
+    void shouldIsolateTenants() {
+        TenantRateLimiter limiter = limiter(1, 1, 100);
+
+        assertEquals(0, limiter.tryAcquire("org-a", RouteClass.LIST));
+        assertTrue(limiter.tryAcquire("org-a", RouteClass.LIST) > 0);
+        assertEquals(0, limiter.tryAcquire("org-b", RouteClass.LIST));
+    }
+
+    @Test
+    @DisplayName("設定のないルート分類は制限されないこと")
+    void shouldNotLimitRouteClassesWithoutPolicy() {
+        TenantRateLimiter limiter = limiter(1, 1, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("org-a", RouteClass.READ));
+        }
+        assertEquals(0, limiter.trackedTenants(RouteClass.READ));
+    }
+
+    @Test
+    @DisplayName("Retry-Afterの秒数が切り上げで計算されること")
+    void shouldRoundRetryAfterUp() {
+        assertEquals(1, TenantRateLimiter.toRetryAfterSeconds(1));
+        assertEquals(1, TenantRateLimiter.toRetryAfterSeconds(SECOND));
+        assertEquals(2, TenantRateLimiter.toRetryAfterSeconds(SECOND + 1));
+    }
+
+    @Test
+    @DisplayName("上限を超えると登録ごとに一定数のバケットだけが調べられ、満タンのバケットが削除されること")
+    void shouldEvictFullBucketsWhenOverCapacity() {
+        int capacity = 2 * TenantRateLimiter.SWEEP_BATCH;
+        TenantRateLimiter limiter = limiter(1, 1, capacity);
+        for (int i = 0; i < capacity; i++) {
+            limiter.tryAcquire("org-" + i, RouteClass.LIST);
+        }
+        assertEquals(capacity, limiter.trackedTenants(RouteClass.LIST));
+
+        // 全バケットが満タンに戻った後に新しいテナントが来る
+        clock.addAndGet(2 * SECOND);
+        limiter.tryAcquire("org-new", RouteClass.LIST);
+        assertEquals(capacity - TenantRateLimiter.SWEEP_BATCH + 1, limiter.trackedTenants(RouteClass.LIST));
+
+        // 満タンでないバケットは調べても削除されない
+        for (int i = 0; i < capacity; i++) {
+            limiter.tryAcquire("org-busy-" + i, RouteClass.LIST);
+        }
+        int tracked = limiter.trackedTenants(RouteClass.LIST);
+        assertTrue(tracked <= capacity + TenantRateLimiter.SWEEP_BATCH, "tracked=" + tracked);
+        assertTrue(limiter.tryAcquire("org-busy-0", RouteClass.LIST) > 0);
+    }
+
+    @Test
+    @DisplayName("クリアすると全てのバケットが削除され満タンに戻ること")
+    void shouldClearAllBuckets() {
+        TenantRateLimiter limiter = limiter(1, 1, 100);
+        limiter.tryAcquire("org-a", RouteClass.LIST);
+        assertTrue(limiter.tryAcquire("org-a", RouteClass.LIST) > 0);
+
+        limiter.clear();
+
+        assertEquals(0, limiter.trackedTenants(RouteClass.LIST));
+        assertEquals(0, limiter.tryAcquire("org-a", RouteClass.LIST));
+    }
+
+    @Test
+    @DisplayName("不正な設定は拒否されること")
+    void shouldRejectInvalidPolicy() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicy(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicy(1, 0));
+    }
+
+    @Test
+    @DisplayName("32スレッドから同時に取得してもバースト数を超えて許可しないこと")
+    void shouldNeverOverAdmitUnderContention() throws Exception {
+        int burst = 1_000;
+        TenantRateLimiter limiter = limiter(1, burst, 100);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        if (limiter.tryAcquire("org-shared", RouteClass.LIST) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 時計を止めているため、ちょうどバースト数だけ許可される
+        assertEquals(burst, admitted.get());
+    }
+}
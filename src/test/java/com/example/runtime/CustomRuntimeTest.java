@@ -0,0 +1,148 @@
+package com.example.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CustomRuntimeクラスの単体テスト
+ * Runtime APIの代替サーバーに対して呼び出しループの挙動をテストします。
+ */
+@DisplayName("CustomRuntime Tests")
+class CustomRuntimeTest {
+
+    private static final Path EVENTS = Path.of("src/test/resources/events");
+
+    private static final Map<String, String> ENVIRONMENT = Map.of(
+            "AWS_LAMBDA_FUNCTION_NAME", "test",
+            "AWS_LAMBDA_FUNCTION_VERSION", "$LATEST",
+            "AWS_LAMBDA_FUNCTION_MEMORY_SIZE", "256");
+
+    private FakeRuntimeApi api;
+    private RuntimeApiClient client;
+    private final ByteArrayOutputStream logs = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new FakeRuntimeApi();
+        client = new RuntimeApiClient(api.endpoint());
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    private CustomRuntime runtime(CustomRuntime.EventHandler handler) {
+        return new CustomRuntime(client, handler, ENVIRONMENT,
+                () -> FakeRuntimeApi.DEADLINE_MS - 1_500, new PrintStream(logs, true, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("ハンドラーの結果がレスポンスとして送信されること")
+    void shouldPostHandlerResponse() throws Exception {
+        String requestId = api.enqueue(Files.readString(EVENTS.resolve("ProtectedHandler/hello.json")));
+
+        runtime(CustomRuntime.handlerFor("com.example.ProtectedHandler::handleRequest")).processNext();
+
+        JsonObject response = JsonParser.parseString(api.responses.get(requestId)).getAsJsonObject();
+        assertEquals(200, response.get("statusCode").getAsInt());
+        assertTrue(response.get("body").getAsString().contains("user-001"));
+    }
+
+    @Test
+    @DisplayName("Authorizerのポリシーがそのまま送信されること")
+    void shouldPostAuthorizerPolicy() throws Exception {
+        String requestId = api.enqueue(Files.readString(EVENTS.resolve("AuthorizerHandler/invalid-token.json")));
+
+        runtime(CustomRuntime.handlerFor("com.example.AuthorizerHandler")).processNext();
+
+        JsonObject policy = JsonParser.parseString(api.responses.get(requestId)).getAsJsonObject();
+        assertEquals("unauthorized", policy.get("principalId").getAsString());
+        assertTrue(policy.toString().contains("Deny"));
+    }
+
+    @Test
+    @DisplayName("ハンドラーの例外がエラーとして報告され、次の呼び出しに進むこと")
+    void shouldReportHandlerErrorAndContinue() throws Exception {
+        String failing = api.enqueue("{\"fail\":true}");
+        String succeeding = api.enqueue("{\"fail\":false}");
+        CustomRuntime runtime = runtime((event, context) -> {
+            if (event.contains("true")) {
+                throw new IllegalStateException("boom");
+            }
+            return "{\"ok\":true}";
+        });
+
+        runtime.processNext();
+        runtime.processNext();
+
+        JsonObject error = JsonParser.parseString(api.errors.get(failing)).getAsJsonObject();
+        assertEquals("boom", error.get("errorMessage").getAsString());
+        assertEquals("java.lang.IllegalStateException", error.get("errorType").getAsString());
+        assertEquals("Unhandled", api.errorTypes.get(failing));
+        assertEquals("{\"ok\":true}", api.responses.get(succeeding));
+    }
+
+    @Test
+    @DisplayName("呼び出しの情報と環境変数がコンテキストに渡されること")
+    void shouldPassInvocationDetailsToContext() throws Exception {
+        String requestId = api.enqueue("{}");
+        AtomicReference<Context> captured = new AtomicReference<>();
+
+        runtime((event, context) -> {
+            captured.set(context);
+            context.getLogger().log("hello from handler");
+            return "{}";
+        }).processNext();
+
+        Context context = captured.get();
+        assertEquals(requestId, context.getAwsRequestId());
+        assertEquals(FakeRuntimeApi.FUNCTION_ARN, context.getInvokedFunctionArn());
+        assertEquals("test", context.getFunctionName());
+        assertEquals(256, context.getMemoryLimitInMB());
+        // 時計は締め切りの1.5秒前に固定している
+        assertEquals(1_500, context.getRemainingTimeInMillis());
+        assertEquals("hello from handler" + System.lineSeparator(), logs.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("未知のハンドラー名は拒否されること")
+    void shouldRejectUnknownHandler() {
+        assertThrows(IllegalArgumentException.class, () -> CustomRuntime.handlerFor("com.example.Missing::handleRequest"));
+        assertThrows(IllegalArgumentException.class, () -> CustomRuntime.handlerFor(null));
+    }
+
+    @Test
+    @DisplayName("初期化エラーが送信されること")
+    void shouldPostInitError() throws Exception {
+        client.initError(new IllegalArgumentException("Unknown handler: x"));
+
+        assertEquals(1, api.initErrors.size());
+        assertTrue(api.initErrors.get(0).contains("Unknown handler: x"));
+    }
+
+    @Test
+    @DisplayName("エラーメッセージがJSONとしてエスケープされること")
+    void shouldEscapeErrorMessage() {
+        String json = RuntimeApiClient.errorJson(new IllegalStateException("say \"hi\"\n"));
+
+        assertEquals("say \"hi\"\n",
+                JsonParser.parseString(json).getAsJsonObject().get("errorMessage").getAsString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.example.priming.SyntheticContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deadlineクラスの単体テスト
+ * 残り時間の計算と、期限切れの判定をテストします。
+ */
+@DisplayName("Deadline Tests")
+class DeadlineTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    @DisplayName("指定した時間が経つと期限切れになること")
+    void shouldExpireAfterDuration() {
+        Deadline deadline = Deadline.after(100, nanos::get);
+
+        assertEquals(100, deadline.remainingMillis());
+        assertTrue(deadline.allows(100));
+        assertFalse(deadline.allows(101));
+        assertDoesNotThrow(deadline::check);
+
+        advanceMillis(100);
+
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+        assertThrows(DeadlineExceededException.class, deadline::check);
+    }
+
+    @Test
+    @DisplayName("残しておく時間の分だけ早く期限切れになること")
+    void shouldReserveTimeBeforeDeadline() {
+        Deadline deadline = Deadline.after(1_000, nanos::get).reserve(200);
+
+        assertEquals(800, deadline.remainingMillis());
+        advanceMillis(800);
+        assertTrue(deadline.isExpired());
+    }
+
+    @Test
+    @DisplayName("実行コンテキストの残り時間から期限が作られること")
+    void shouldUseRemainingTimeOfContext() {
+        Deadline deadline = Deadline.of(new SyntheticContext("test"));
+
+        assertTrue(deadline.remainingMillis() > 29_000);
+        assertFalse(deadline.isExpired());
+    }
+
+    @Test
+    @DisplayName("残り時間が0以下のコンテキストでは最初から期限切れであること")
+    void shouldBeExpiredWhenNoTimeRemains() {
+        Context context = mock(Context.class);
+        when(context.getRemainingTimeInMillis()).thenReturn(0);
+
+        Deadline deadline = Deadline.of(context);
+
+        assertNotSame(Deadline.NONE, deadline);
+        assertTrue(deadline.isExpired());
+        assertThrows(DeadlineExceededException.class, deadline::check);
+    }
+
+    @Test
+    @DisplayName("コンテキストが無い場合は期限が無いこと")
+    void shouldHaveNoDeadlineWithoutContext() {
+        assertSame(Deadline.NONE, Deadline.of(null));
+        assertSame(Deadline.NONE, Deadline.NONE.reserve(200));
+        assertFalse(Deadline.NONE.isExpired());
+        assertTrue(Deadline.NONE.allows(Long.MAX_VALUE));
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
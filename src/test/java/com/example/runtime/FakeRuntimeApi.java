@@ -0,0 +1,106 @@
+package com.example.runtime;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * テスト用のLambda Runtime APIの代替サーバー
+ *
+ * <p>キューに積んだイベントを {@code /invocation/next} で順に返し、
+ * ランタイムから送信されたレスポンスとエラーをリクエストIDごとに記録します。</p>
+ */
+final class FakeRuntimeApi implements AutoCloseable {
+
+    static final long DEADLINE_MS = 1_700_000_030_000L;
+    static final String FUNCTION_ARN = "arn:aws:lambda:ap-northeast-1:123456789012:function:test";
+
+    private final HttpServer server;
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    final Map<String, String> responses = new ConcurrentHashMap<>();
+    final Map<String, String> errors = new ConcurrentHashMap<>();
+    final Map<String, String> errorTypes = new ConcurrentHashMap<>();
+    final List<String> initErrors = new CopyOnWriteArrayList<>();
+
+    FakeRuntimeApi() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/2018-06-01/runtime/", this::handle);
+        server.start();
+    }
+
+    String endpoint() {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 次の呼び出しとして返すイベントを追加し、そのリクエストIDを返します。
+     */
+    String enqueue(String event) {
+        events.add(event);
+        return "req-" + (sequence.get() + events.size());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring("/2018-06-01/runtime".length());
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (path.equals("/invocation/next")) {
+            String event;
+            try {
+                event = events.poll(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                event = null;
+            }
+            if (event == null) {
+                send(exchange, 500, "{}");
+                return;
+            }
+            exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", "req-" + sequence.incrementAndGet());
+            exchange.getResponseHeaders().add("Lambda-Runtime-Deadline-Ms", Long.toString(DEADLINE_MS));
+            exchange.getResponseHeaders().add("Lambda-Runtime-Invoked-Function-Arn", FUNCTION_ARN);
+            send(exchange, 200, event);
+        } else if (path.equals("/init/error")) {
+            initErrors.add(body);
+            send(exchange, 202, "{}");
+        } else if (path.endsWith("/response")) {
+            responses.put(requestIdOf(path), body);
+            send(exchange, 202, "{}");
+        } else if (path.endsWith("/error")) {
+            errors.put(requestIdOf(path), body);
+            errorTypes.put(requestIdOf(path), exchange.getRequestHeaders().getFirst("Lambda-Runtime-Function-Error-Type"));
+            send(exchange, 202, "{}");
+        } else {
+            send(exchange, 404, "{}");
+        }
+    }
+
+    private static String requestIdOf(String path) {
+        return path.split("/")[2];
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChangeLogクラスの単体テスト
+ * オフセット順の追記・読み取りと、保持期間・セグメント数による削除をテストします。
+ */
+@DisplayName("ChangeLog Tests")
+class ChangeLogTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    @DisplayName("複数のセグメントにまたがってもオフセット順に読み取れること")
+    void shouldReadAcrossSegmentsInOffsetOrder() {
+        ChangeLog log = new ChangeLog(64, 100, Long.MAX_VALUE, clock::get);
+        for (int i = 0; i < 200; i++) {
+            log.append(ChangeType.CREATED, "user-" + i, null);
+        }
+
+        List<ChangeEvent> events = log.read(10, 100);
+
+        assertEquals(200, log.nextOffset());
+        assertEquals(0, log.earliestOffset());
+        assertEquals(100, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(10 + i, events.get(i).offset());
+            assertEquals("user-" + (10 + i), events.get(i).userId());
+        }
+        assertEquals(List.of(199L), log.read(199, 100).stream().map(ChangeEvent::offset).toList());
+        assertTrue(log.read(200, 100).isEmpty());
+    }
+
+    @Test
+    @DisplayName("保持期間を過ぎたいっぱいのセグメントが先頭から削除されること")
+    void shouldCompactSegmentsByRetention() {
+        ChangeLog log = new ChangeLog(16, 100, 60_000, clock::get);
+        for (int i = 0; i < 40; i++) {
+            log.append(ChangeType.UPDATED, "user-001", null);
+        }
+        assertEquals(0, log.earliestOffset());
+
+        clock.addAndGet(60_001);
+        log.append(ChangeType.DELETED, "user-001", null);
+
+        // いっぱいになった16件のセグメント2つが削除され、末尾のセグメントは古くても残る
+        assertEquals(32, log.earliestOffset());
+        assertEquals(32, log.read(0, 100).get(0).offset());
+        assertEquals(41, log.nextOffset());
+    }
+
+    @Test
+    @DisplayName("セグメント数が上限を超えると古いセグメントから削除されること")
+    void shouldCompactSegmentsBySegmentCount() {
+        ChangeLog log = new ChangeLog(16, 2, Long.MAX_VALUE, clock::get);
+        for (int i = 0; i < 16 * 3 + 1; i++) {
+            log.append(ChangeType.CREATED, "user-" + i, null);
+        }
+
+        assertEquals(32, log.earliestOffset());
+        assertEquals(17, log.read(0, 100).size());
+    }
+}
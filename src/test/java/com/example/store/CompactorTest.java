@@ -0,0 +1,158 @@
+package com.example.store;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.example.metrics.MetricsRegistry;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compactorクラスの単体テスト
+ * 保持期間を過ぎたトゥームストーンの回収と、メトリクスの記録をテストします。
+ */
+@DisplayName("Compactor Tests")
+class CompactorTest {
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private final List<String> lines = new ArrayList<>();
+
+    private final LambdaLogger logger = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+            lines.add(message);
+        }
+
+        @Override
+        public void log(byte[] message) {
+            lines.add(new String(message));
+        }
+    };
+
+    @Test
+    @DisplayName("保持期間を過ぎたトゥームストーンだけが、バッチサイズを超えても全て回収されること")
+    void shouldReclaimExpiredTombstonesInBatches() {
+        UserStore store = storeWithDeletedUsers("org-abc", 10, 25);
+        store.partition("org-xyz").put(new UserRecord("user-001", "Other", null, null));
+        store.partition("org-xyz").remove("user-001");
+        Compactor compactor = new Compactor(store, MetricsRegistry.disabled(), 60_000, 4, clock::get);
+
+        assertEquals(0, compactor.compactOnce());
+
+        clock.set(System.currentTimeMillis() + 60_001);
+        assertEquals(26, compactor.compactOnce());
+
+        assertEquals(0, store.partition("org-abc").tombstones());
+        assertEquals(0, store.partition("org-xyz").tombstones());
+        assertEquals(10, store.partition("org-abc").size());
+        assertEquals(0, compactor.compactOnce());
+    }
+
+    @Test
+    @DisplayName("空間増幅率と回収件数がEMFとして出力されること")
+    void shouldRecordSpaceAmplificationAndThroughput() {
+        UserStore store = storeWithDeletedUsers("org-abc", 10, 10);
+        MetricsRegistry metrics = new MetricsRegistry("ApiSample", () -> 0L);
+        Compactor compactor = new Compactor(store, metrics, 0, 4, () -> Long.MAX_VALUE);
+
+        compactor.compactOnce();
+        metrics.flush(logger);
+
+        assertEquals(1, lines.size());
+        JsonObject emf = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        // 10人の生存ユーザーに対し、トゥームストーンは回収済みで、変更ログに作成20件と削除10件が残る
+        assertEquals((10 + 30) / 10.0, emf.get("SpaceAmplification").getAsDouble(), 1e-9);
+        assertEquals(10, emf.get("CompactedEntries").getAsLong());
+        assertTrue(emf.get("CompactionThroughput").getAsDouble() > 0);
+
+        lines.clear();
+        metrics.flush(logger);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("何も回収しなかった回はメトリクスが記録されないこと")
+    void shouldNotRecordWhenNothingReclaimed() {
+        UserStore store = storeWithDeletedUsers("org-abc", 10, 10);
+        MetricsRegistry metrics = new MetricsRegistry("ApiSample", () -> 0L);
+        Compactor compactor = new Compactor(store, metrics, Long.MAX_VALUE / 2, 4, () -> 0L);
+
+        assertEquals(0, compactor.compactOnce());
+        metrics.flush(logger);
+
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("開始するとバックグラウンドで回収され、停止できること")
+    void shouldCompactInBackground() throws InterruptedException {
+        UserStore store = storeWithDeletedUsers("org-abc", 1, 50);
+
+        try (Compactor compactor = new Compactor(store, MetricsRegistry.disabled(), 0, 8, () -> Long.MAX_VALUE)) {
+            assertSame(compactor, compactor.start(10).start(10));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (store.partition("org-abc").tombstones() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(0, store.partition("org-abc").tombstones());
+    }
+
+    @Test
+    @DisplayName("1回のコンパクションが失敗しても、記録されてバックグラウンドの実行が続くこと")
+    void shouldKeepCompactingAfterFailure() throws InterruptedException {
+        UserStore store = storeWithDeletedUsers("org-abc", 1, 50);
+        MetricsRegistry metrics = new MetricsRegistry("ApiSample", () -> 0L);
+        AtomicLong calls = new AtomicLong();
+        LongSupplier failingOnce = () -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IllegalStateException("clock unavailable");
+            }
+            return Long.MAX_VALUE;
+        };
+
+        try (Compactor compactor = new Compactor(store, metrics, 0, 8, failingOnce)) {
+            compactor.start(10);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (store.partition("org-abc").tombstones() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(0, store.partition("org-abc").tombstones());
+        metrics.flush(logger);
+        JsonObject failures = lines.stream()
+                .map(line -> JsonParser.parseString(line).getAsJsonObject())
+                .filter(emf -> emf.has("CompactionFailures"))
+                .findFirst().orElseThrow();
+        assertEquals(1, failures.get("CompactionFailures").getAsLong());
+    }
+
+    @Test
+    @DisplayName("不正なバッチサイズは拒否されること")
+    void shouldRejectInvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Compactor(new UserStore(), MetricsRegistry.disabled(), 0, 0, clock::get));
+    }
+
+    private static UserStore storeWithDeletedUsers(String organizationId, int live, int deleted) {
+        UserStore store = new UserStore();
+        UserPartition partition = store.partition(organizationId);
+        for (int i = 0; i < live + deleted; i++) {
+            partition.put(new UserRecord(String.format("user-%03d", i), "User " + i, null, null));
+        }
+        for (int i = live; i < live + deleted; i++) {
+            partition.remove(String.format("user-%03d", i));
+        }
+        return store;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.store;
+
+import com.example.metrics.MetricsRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * SingleFlightクラスの単体テスト
+ * 同じバージョンの計算の共有と、期限切れ・失敗時の動作をテストします。
+ */
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+
+    @Test
+    @DisplayName("同時に届いた同じバージョンの呼び出しが1回の計算を共有すること")
+    void shouldCoalesceThunderingHerd() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>(MetricsRegistry.disabled());
+        int callers = 32;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            CountDownLatch started = new CountDownLatch(callers);
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    return flight.get(1, () -> {
+                        backendCalls.incrementAndGet();
+                        await(release);
+                        return "page";
+                    }, WAIT_MILLIS);
+                }));
+            }
+            started.await();
+            // 後から届いた呼び出しが実行中の計算を待ち始めるまで完了させない
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("page", result.get(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+            }
+        }
+
+        assertEquals(1, backendCalls.get());
+        assertEquals(1, flight.loads());
+        assertEquals(callers - 1, flight.shared());
+    }
+
+    @Test
+    @DisplayName("完了した結果は同じバージョンの間は再利用され、新しいバージョンでは計算し直されること")
+    void shouldReuseResultUntilVersionChanges() {
+        SingleFlight<String> flight = new SingleFlight<>(MetricsRegistry.disabled());
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        assertEquals("v1", flight.get(1, () -> "v" + (backendCalls.incrementAndGet()), 0));
+        assertEquals("v1", flight.get(1, () -> "v" + (backendCalls.incrementAndGet()), 0));
+        assertEquals("v2", flight.get(2, () -> "v" + (backendCalls.incrementAndGet()), 0));
+        // 古いバージョンの呼び出しは新しい結果を置き換えない
+        assertEquals("old", flight.get(1, () -> "old", 0));
+        assertEquals("v2", flight.get(2, () -> "unused", 0));
+
+        assertEquals(3, flight.loads());
+        assertEquals(2, flight.shared());
+    }
+
+    @Test
+    @DisplayName("計算した回数と共有した回数がメトリクスに記録されること")
+    void shouldRecordCountsToMetrics() {
+        MetricsRegistry metrics = mock(MetricsRegistry.class);
+        SingleFlight<String> flight = new SingleFlight<>(metrics);
+
+        flight.get(1, () -> "v1", 0);
+        flight.get(1, () -> "unused", 0);
+        flight.get(1, () -> "unused", 0);
+
+        verify(metrics).recordSingleFlight(false);
+        verify(metrics, times(2)).recordSingleFlight(true);
+    }
+
+    @Test
+    @DisplayName("期限までに計算が終わらない場合は待つのをやめて自分で計算すること")
+    void shouldLoadItselfAfterDeadline() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>(MetricsRegistry.disabled());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> leader = executor.submit(() -> flight.get(1, () -> {
+                loading.countDown();
+                await(release);
+                return "slow";
+            }, WAIT_MILLIS));
+            loading.await();
+
+            assertEquals("fast", flight.get(1, () -> "fast", 10));
+            assertEquals("fast", flight.get(1, () -> "fast", 0));
+
+            release.countDown();
+            assertEquals("slow", leader.get(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+        assertEquals("slow", flight.get(1, () -> "unused", 0));
+        assertEquals(3, flight.loads());
+        assertEquals(1, flight.shared());
+    }
+
+    @Test
+    @DisplayName("失敗した計算の結果は保持されず、次の呼び出しで計算し直されること")
+    void shouldNotRetainFailures() {
+        SingleFlight<String> flight = new SingleFlight<>(MetricsRegistry.disabled());
+
+        assertThrows(IllegalStateException.class, () -> flight.get(1, () -> {
+            throw new IllegalStateException("backend unavailable");
+        }, 0));
+
+        assertEquals("recovered", flight.get(1, () -> "recovered", 0));
+        assertEquals(2, flight.loads());
+        assertEquals(0, flight.shared());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
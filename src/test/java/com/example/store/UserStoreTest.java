@@ -0,0 +1,237 @@
+package com.example.store;
+
+import com.example.auth.Principal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserStoreクラスとUserPartitionクラスの単体テスト
+ * 組織ごとのパーティションの分離と、各インデックスの整合性をテストします。
+ */
+@DisplayName("UserStore Tests")
+class UserStoreTest {
+
+    private UserStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserStore();
+    }
+
+    @Test
+    @DisplayName("同じ組織IDには同じパーティションが返されること")
+    void shouldReturnSamePartitionForOrganization() {
+        assertSame(store.partition("org-abc"), store.partition("org-abc"));
+        assertNotSame(store.partition("org-abc"), store.partition("org-xyz"));
+        assertEquals(2, store.partitionCount());
+    }
+
+    @Test
+    @DisplayName("組織IDが無い呼び出し元にはパーティションが返されないこと")
+    void shouldReturnNullPartitionWithoutOrganization() {
+        assertNull(store.partitionFor(Principal.ANONYMOUS));
+        assertEquals("org-abc", store.partitionFor(new Principal("user-001", "admin", "org-abc")).organizationId());
+        assertEquals(1, store.partitionCount());
+    }
+
+    @Test
+    @DisplayName("他の組織に保存したユーザーは取得できないこと")
+    void shouldIsolatePartitions() {
+        store.partition("org-abc").put(user("user-001"));
+
+        assertNotNull(store.partition("org-abc").get("user-001"));
+        assertNull(store.partition("org-xyz").get("user-001"));
+    }
+
+    @Test
+    @DisplayName("一覧がユーザーID順に指定したIDの後から返されること")
+    void shouldListInUserIdOrderAfterCursor() {
+        UserPartition partition = store.partition("org-abc");
+        partition.put(user("user-003"));
+        partition.put(user("user-001"));
+        partition.put(user("user-002"));
+
+        assertEquals(List.of("user-001", "user-002"), userIds(partition.list(null, 2)));
+        assertEquals(List.of("user-002", "user-003"), userIds(partition.list("user-001", 10)));
+        assertTrue(partition.list("user-003", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("更新と削除が一覧にも反映されること")
+    void shouldKeepIndexesConsistent() {
+        UserPartition partition = store.partition("org-abc");
+        partition.put(user("user-001"));
+        partition.put(user("user-002"));
+
+        UserRecord updated = partition.update("user-001", current -> new UserRecord(current.userId(), "Jiro Sato", null, null));
+        partition.remove("user-002");
+
+        assertEquals("Jiro Sato", updated.name());
+        assertEquals(List.of(updated), partition.list(null, 10));
+        assertEquals(1, partition.size());
+    }
+
+    @Test
+    @DisplayName("まとめて保存したユーザーが両方のインデックスに反映され、新規の件数が返されること")
+    void shouldPutAllInOneCommit() {
+        UserPartition partition = store.partition("org-abc");
+        partition.put(user("user-002"));
+
+        int added = partition.putAll(List.of(user("user-001"), user("user-002"), user("user-003")));
+
+        assertEquals(2, added);
+        assertEquals(List.of("user-001", "user-002", "user-003"), userIds(partition.list(null, 10)));
+        assertEquals(List.of("user-003"), userIds(List.copyOf(partition.after("user-002"))));
+    }
+
+    @Test
+    @DisplayName("作業用のパーティションでの変更が1回のコミットで反映されること")
+    void shouldCommitBatchChanges() {
+        UserPartition partition = store.partition("org-abc");
+        partition.put(user("user-001"));
+        partition.put(user("user-002"));
+        UserRecord untouched = user("user-003");
+        partition.put(untouched);
+
+        partition.batch(List.of("user-001", "user-002", "user-003", "user-404"), staged -> {
+            // 実行中は元のパーティションに反映されない
+            staged.remove("user-001");
+            staged.update("user-002", current -> new UserRecord(current.userId(), "Jiro Sato", null, null));
+            staged.put(user("user-004"));
+            assertNotNull(partition.get("user-001"));
+            assertNull(partition.get("user-004"));
+        });
+
+        assertNull(partition.get("user-001"));
+        assertEquals("Jiro Sato", partition.get("user-002").name());
+        assertSame(untouched, partition.get("user-003"));
+        assertNotNull(partition.get("user-004"));
+        assertEquals(List.of("user-002", "user-003", "user-004"), userIds(partition.list(null, 10)));
+    }
+
+    @Test
+    @DisplayName("書き込みのたびにバージョンが増え、存在しないユーザーの更新・削除では変わらないこと")
+    void shouldIncrementVersionOnWrites() {
+        UserPartition partition = store.partition("org-abc");
+        long initial = partition.version();
+
+        partition.put(user("user-001"));
+        partition.putAll(List.of(user("user-002")));
+        partition.update("user-001", current -> current);
+        partition.batch(List.of("user-002"), staged -> staged.remove("user-002"));
+        partition.remove("user-001");
+        assertEquals(initial + 5, partition.version());
+
+        partition.update("user-404", current -> current);
+        partition.remove(null);
+        assertEquals(initial + 5, partition.version());
+    }
+
+    @Test
+    @DisplayName("全ての書き込みが反映と同じ順に変更ログへ記録されること")
+    void shouldRecordEveryWriteInChangeLog() {
+        UserPartition partition = store.partition("org-abc");
+
+        partition.put(user("user-001"));
+        partition.put(user("user-001"));
+        partition.putAll(List.of(user("user-002"), user("user-001")));
+        partition.update("user-002", current -> new UserRecord(current.userId(), "Jiro Sato", null, null));
+        partition.batch(List.of("user-001"), staged -> {
+            staged.remove("user-001");
+            staged.put(user("user-003"));
+        });
+        partition.remove("user-002");
+        partition.remove("user-404");
+
+        List<ChangeEvent> events = partition.changes().read(0, 100);
+        assertEquals(List.of("CREATED user-001", "UPDATED user-001", "CREATED user-002", "UPDATED user-001",
+                        "UPDATED user-002", "CREATED user-003", "DELETED user-001", "DELETED user-002"),
+                events.stream().map(event -> event.type() + " " + event.userId()).toList());
+        assertEquals("Jiro Sato", events.get(4).user().name());
+        assertNull(events.get(7).user());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), events.stream().map(ChangeEvent::offset).toList());
+    }
+
+    @Test
+    @DisplayName("差分同期のインデックスにはユーザーごとの最後の変更だけがオフセット順に残ること")
+    void shouldIndexLatestChangePerUser() {
+        UserPartition partition = store.partition("org-abc");
+
+        partition.put(user("user-001"));
+        partition.put(user("user-002"));
+        partition.put(user("user-003"));
+        partition.update("user-001", current -> new UserRecord(current.userId(), "Jiro Sato", null, null));
+        partition.remove("user-002");
+
+        assertEquals(5, partition.watermark());
+        assertEquals(List.of("CREATED user-003 2", "UPDATED user-001 3", "DELETED user-002 4"),
+                partition.modifiedSince(0, partition.watermark()).stream()
+                        .map(event -> event.type() + " " + event.userId() + " " + event.offset()).toList());
+        assertEquals(List.of("user-001"),
+                partition.modifiedSince(3, 4).stream().map(ChangeEvent::userId).toList());
+        assertTrue(partition.modifiedSince(5, partition.watermark()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("古いトゥームストーンだけが取り除かれ、作り直されたユーザーは残ること")
+    void shouldCompactTombstones() {
+        UserPartition partition = store.partition("org-abc");
+        partition.put(user("user-001"));
+        partition.put(user("user-002"));
+        partition.put(user("user-003"));
+        partition.remove("user-001");
+        partition.remove("user-002");
+        partition.put(user("user-002"));
+
+        assertEquals(1, partition.tombstones());
+        assertEquals(2 + 1 + 6, partition.storedEntries());
+        assertEquals(0, partition.compactTombstones(0, 10));
+
+        assertEquals(1, partition.compactTombstones(Long.MAX_VALUE, 10));
+
+        assertEquals(0, partition.tombstones());
+        assertEquals(4, partition.compactedBefore());
+        assertEquals(List.of("user-003", "user-002"),
+                partition.modifiedSince(0, partition.watermark()).stream().map(ChangeEvent::userId).toList());
+        assertEquals(0, partition.compactTombstones(Long.MAX_VALUE, 10));
+        assertNull(partition.get("user-001"));
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーやnullのIDの更新・削除では何も変わらないこと")
+    void shouldIgnoreMissingUsers() {
+        UserPartition partition = store.partition("org-abc");
+
+        assertNull(partition.update("user-404", current -> current));
+        assertNull(partition.update(null, current -> current));
+        assertNull(partition.remove(null));
+        assertNull(partition.get(null));
+        assertEquals(0, partition.size());
+    }
+
+    @Test
+    @DisplayName("サンプルのユーザーを登録すると削除済みのユーザーも初期値に戻ること")
+    void shouldReseedSampleUsers() {
+        store.seedSampleUsers();
+        UserPartition sample = store.partition(UserStore.SAMPLE_ORGANIZATION_ID);
+        sample.remove("user-001");
+
+        store.seedSampleUsers();
+
+        assertEquals("Taro Yamada", sample.get("user-001").name());
+        assertEquals(2, sample.size());
+    }
+
+    private static UserRecord user(String userId) {
+        return new UserRecord(userId, "Taro Yamada", "taro@example.com", "editor");
+    }
+
+    private static List<String> userIds(List<UserRecord> users) {
+        return users.stream().map(UserRecord::userId).toList();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.tracing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tracerクラスの単体テスト
+ * サンプリング、スパンの親子関係、エクスポートをテストします。
+ */
+@DisplayName("Tracer Tests")
+class TracerTest {
+
+    private final List<List<SpanData>> batches = new ArrayList<>();
+
+    @Test
+    @DisplayName("ルートスパンの終了時に1トレース分のスパンがまとめて出力されること")
+    void shouldExportWholeTraceWhenRootEnds() {
+        Tracer tracer = new Tracer(1.0, batches::add);
+        String traceId = tracer.sampleTraceId();
+
+        try (Span root = tracer.startTrace(traceId, "root")) {
+            try (Span child = Tracer.span("child")) {
+                Tracer.span("grandchild").end();
+            }
+            assertTrue(batches.isEmpty());
+            assertEquals(traceId, root.traceId());
+        }
+
+        assertEquals(1, batches.size());
+        List<SpanData> spans = batches.get(0);
+        assertEquals(List.of("grandchild", "child", "root"), spans.stream().map(SpanData::name).toList());
+        assertTrue(spans.stream().allMatch(span -> span.traceId().equals(traceId)));
+
+        SpanData grandchild = spans.get(0);
+        SpanData child = spans.get(1);
+        SpanData root = spans.get(2);
+        assertNull(root.parentSpanId());
+        assertEquals(root.spanId(), child.parentSpanId());
+        assertEquals(child.spanId(), grandchild.parentSpanId());
+        assertTrue(child.startEpochMicros() >= root.startEpochMicros());
+        assertTrue(root.durationMicros() >= child.durationMicros());
+    }
+
+    @Test
+    @DisplayName("トレースIDとスパンIDが16進数の固定長であること")
+    void shouldGenerateFixedLengthHexIds() {
+        Tracer tracer = new Tracer(1.0, batches::add);
+        String traceId = tracer.sampleTraceId();
+
+        tracer.startTrace(traceId, "root").end();
+
+        assertTrue(traceId.matches("[0-9a-f]{32}"));
+        assertTrue(batches.get(0).get(0).spanId().matches("[0-9a-f]{16}"));
+    }
+
+    @Test
+    @DisplayName("UUID形式のリクエストIDからはハイフンを除いたトレースIDが求められ、それ以外もリクエストIDごとに同じIDになること")
+    void shouldDeriveTraceIdFromRequestId() {
+        Tracer tracer = new Tracer(1.0, batches::add);
+
+        assertEquals("0af7651916cd43dd8448eb211c80319c", tracer.traceIdFor("0AF76519-16CD-43DD-8448-EB211C80319C"));
+        assertTrue(tracer.traceIdFor("local-1").matches("[0-9a-f]{32}"));
+        assertEquals(tracer.traceIdFor("local-1"), new Tracer(1.0, batches::add).traceIdFor("local-1"));
+        assertNotEquals(tracer.traceIdFor("local-1"), tracer.traceIdFor("local-2"));
+        assertTrue(tracer.traceIdFor(null).matches("[0-9a-f]{32}"));
+        assertNull(new Tracer(0, batches::add).traceIdFor("0af76519-16cd-43dd-8448-eb211c80319c"));
+    }
+
+    @Test
+    @DisplayName("同じリクエストIDのサンプリングの判定がトレーサー間で一致すること")
+    void shouldSampleSameRequestIdConsistently() {
+        Tracer authorizer = new Tracer(0.25, batches::add);
+        Tracer handler = new Tracer(0.25, batches::add);
+        int sampled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String requestId = UUID.randomUUID().toString();
+            String traceId = authorizer.traceIdFor(requestId);
+            assertEquals(traceId, handler.traceIdFor(requestId));
+            if (traceId != null) {
+                sampled++;
+            }
+        }
+
+        assertTrue(sampled > 2_000 && sampled < 3_000, "sampled=" + sampled);
+    }
+
+    @Test
+    @DisplayName("サンプリングされない場合は共有のNOOPスパンが返され、何も出力されないこと")
+    void shouldReturnNoopWhenNotSampled() {
+        Tracer tracer = new Tracer(0, batches::add);
+
+        String traceId = tracer.sampleTraceId();
+        Span root = tracer.startTrace(traceId, "root");
+        Span child = Tracer.span("child");
+        child.end();
+        root.end();
+
+        assertNull(traceId);
+        assertSame(Span.NOOP, root);
+        assertSame(Span.NOOP, child);
+        assertFalse(root.isSampled());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("トレース外でのspan呼び出しはNOOPになること")
+    void shouldReturnNoopOutsideTrace() {
+        assertSame(Span.NOOP, Tracer.span("orphan"));
+    }
+
+    @Test
+    @DisplayName("サンプリング率に応じてトレースが選ばれること")
+    void shouldSampleAtConfiguredRate() {
+        Tracer tracer = new Tracer(0.25, batches::add);
+        int sampled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (tracer.sampleTraceId() != null) {
+                sampled++;
+            }
+        }
+
+        assertTrue(sampled > 2_000 && sampled < 3_000, "sampled=" + sampled);
+    }
+
+    @Test
+    @DisplayName("2回終了してもスパンが重複して記録されないこと")
+    void shouldIgnoreSecondEnd() {
+        Tracer tracer = new Tracer(1.0, batches::add);
+        try (Span root = tracer.startTrace(tracer.sampleTraceId(), "root")) {
+            Span child = Tracer.span("child");
+            child.end();
+            child.end();
+        }
+
+        assertEquals(2, batches.get(0).size());
+    }
+
+    @Test
+    @DisplayName("範囲外のサンプリング率は拒否されること")
+    void shouldRejectInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class, () -> new Tracer(-0.1, batches::add));
+        assertThrows(IllegalArgumentException.class, () -> new Tracer(1.5, batches::add));
+        assertThrows(IllegalArgumentException.class, () -> new Tracer(Double.NaN, batches::add));
+    }
+
+    @Test
+    @DisplayName("JSON Lines形式でファイルに追記されること")
+    void shouldAppendJsonLinesToFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traces.jsonl");
+        Tracer tracer = new Tracer(1.0, new JsonLinesSpanExporter(file));
+
+        for (int i = 0; i < 2; i++) {
+            try (Span root = tracer.startTrace(tracer.sampleTraceId(), "root")) {
+                Tracer.span("child").end();
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"traceId\":\""));
+        assertTrue(lines.get(0).contains("\"parentSpanId\":"));
+        assertTrue(lines.get(0).contains("\"name\":\"child\""));
+        assertFalse(lines.get(1).contains("parentSpanId"));
+    }
+}
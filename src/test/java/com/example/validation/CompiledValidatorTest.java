@@ -0,0 +1,133 @@
+package com.example.validation;
+
+import com.example.model.FieldError;
+import com.example.model.UserRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CompiledValidatorクラスの単体テスト
+ * スキーマのコンパイルとストリーミング検証をテストします。
+ */
+@DisplayName("CompiledValidator Tests")
+class CompiledValidatorTest {
+
+    @Test
+    @DisplayName("有効なリクエストが検証済みのDTOに変換されること")
+    void shouldProduceValueForValidRequest() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate(
+                "{\"name\":\"Taro\",\"email\":\"taro@example.com\",\"role\":\"editor\",\"extra\":[1,{\"a\":2}]}");
+
+        assertTrue(result.isValid());
+        assertEquals(new UserRequest("Taro", "taro@example.com", "editor"), result.value());
+    }
+
+    @Test
+    @DisplayName("任意項目がnullや未指定でも有効であること")
+    void shouldAcceptNullAndMissingOptionalFields() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate("{\"name\":\"Taro\",\"email\":null}");
+
+        assertTrue(result.isValid());
+        assertEquals(new UserRequest("Taro", null, null), result.value());
+    }
+
+    @Test
+    @DisplayName("部分更新のスキーマでは全て任意だが、指定された値は同じルールで検証されること")
+    void shouldValidateOnlyPresentFieldsForPatch() {
+        assertEquals(new UserRequest(null, null, "viewer"), UserSchemas.USER_PATCH.validate("{\"role\":\"viewer\"}").value());
+
+        ValidationResult<UserRequest> result = UserSchemas.USER_PATCH.validate("{\"name\":\"\"}");
+        assertFalse(result.isValid());
+        assertEquals("$.name", result.violations().get(0).path());
+    }
+
+    @Test
+    @DisplayName("必須項目がnullの場合はエラーになること")
+    void shouldRejectNullRequiredField() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate("{\"name\":null}");
+
+        assertFalse(result.isValid());
+        assertNull(result.value());
+        assertEquals(List.of(new FieldError("$.name", "is required")), result.violations());
+    }
+
+    @Test
+    @DisplayName("文字列以外の型はエラーになること")
+    void shouldRejectNonStringValues() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate("{\"name\":123,\"email\":{\"x\":1}}");
+
+        assertEquals(List.of(
+                new FieldError("$.name", "must be a string"),
+                new FieldError("$.email", "must be a string")), result.violations());
+    }
+
+    @Test
+    @DisplayName("長さと形式のエラーがフィールドパス付きで報告されること")
+    void shouldReportLengthAndPatternViolationsWithPaths() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate(
+                "{\"name\":\"\",\"email\":\"no-at-sign\",\"role\":\"Admin!\"}");
+
+        assertEquals(List.of(
+                new FieldError("$.name", "must not be empty"),
+                new FieldError("$.email", "must be a valid email address"),
+                new FieldError("$.role", "must be lowercase letters, '_' or '-'")), result.violations());
+    }
+
+    @Test
+    @DisplayName("重複したフィールドはエラーになること")
+    void shouldRejectDuplicateFields() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate("{\"name\":\"a\",\"name\":\"b\"}");
+
+        assertEquals(List.of(new FieldError("$.name", "duplicate field")), result.violations());
+    }
+
+    @Test
+    @DisplayName("オブジェクト以外のJSONや後続データはエラーになること")
+    void shouldRejectNonObjectAndTrailingContent() {
+        assertEquals("must be a JSON object", UserSchemas.USER.validate("[]").violations().getFirst().message());
+        assertEquals("unexpected content after JSON object",
+                UserSchemas.USER.validate("{\"name\":\"a\"} {}").violations().getFirst().message());
+    }
+
+    @Test
+    @DisplayName("構文エラーは発生位置のパスとともに報告されること")
+    void shouldReportMalformedJsonWithPath() {
+        ValidationResult<UserRequest> result = UserSchemas.USER.validate("{\"name\":\"a\",\"email\":}");
+
+        assertEquals(1, result.violations().size());
+        assertEquals("malformed JSON", result.violations().getFirst().message());
+        assertEquals("$.email", result.violations().getFirst().path());
+    }
+
+    @Test
+    @DisplayName("エラー件数が上限に達した時点で検証を打ち切ること")
+    void shouldStopAtMaxViolations() {
+        CompiledValidator<String[]> validator = ObjectSchema.object()
+                .string("a", rule -> rule.length(2, 5))
+                .string("b", rule -> rule.length(2, 5))
+                .string("c", rule -> rule.length(2, 5))
+                .compile(values -> values, 2);
+
+        // 3件目の後ろは構文エラーだが、2件で打ち切るため報告されない
+        ValidationResult<String[]> result = validator.validate("{\"a\":\"x\",\"b\":\"y\",\"c\":\"z\", broken");
+
+        assertEquals(List.of(
+                new FieldError("$.a", "must be at least 2 characters"),
+                new FieldError("$.b", "must be at least 2 characters")), result.violations());
+    }
+
+    @Test
+    @DisplayName("不正なスキーマ定義は拒否されること")
+    void shouldRejectInvalidSchemaDefinitions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ObjectSchema.object().string("a", r -> r).string("a", r -> r));
+        assertThrows(IllegalArgumentException.class,
+                () -> ObjectSchema.object().string("a", r -> r.length(5, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ObjectSchema.object().compile(values -> values, 0));
+    }
+}